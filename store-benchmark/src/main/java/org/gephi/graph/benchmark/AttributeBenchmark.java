@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Table;
+
+public class AttributeBenchmark {
+
+    private Object object;
+
+    public Runnable setAttribute(final int nodes, final Class typeClass, final Object value) {
+        final RandomGraph graph = new RandomGraph(nodes, 0).generate().commit();
+        final Table table = graph.getStore().getModel().getNodeTable();
+        final Column column = table.addColumn("value", typeClass);
+        final List<Node> nodeList = graph.getNodes();
+        Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                for (Node n : nodeList) {
+                    n.setAttribute(column, value);
+                }
+            }
+        };
+        return runnable;
+    }
+
+    public Runnable getAttribute(final int nodes, final Class typeClass, final Object value) {
+        final RandomGraph graph = new RandomGraph(nodes, 0).generate().commit();
+        final Table table = graph.getStore().getModel().getNodeTable();
+        final Column column = table.addColumn("value", typeClass);
+        final List<Node> nodeList = graph.getNodes();
+        for (Node n : nodeList) {
+            n.setAttribute(column, value);
+        }
+        Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                for (Node n : nodeList) {
+                    object = n.getAttribute(column);
+                }
+            }
+        };
+        return runnable;
+    }
+
+    public Runnable serializeAttribute(final int nodes, final Class typeClass, final Object value) {
+        final RandomGraph graph = new RandomGraph(nodes, 0).generate().commit();
+        final GraphModel model = graph.getStore().getModel();
+        final Table table = model.getNodeTable();
+        final Column column = table.addColumn("value", typeClass);
+        for (Node n : graph.getNodes()) {
+            n.setAttribute(column, value);
+        }
+        Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    GraphModel.Serialization.write(new DataOutputStream(bytes), model);
+                    object = GraphModel.Serialization
+                            .read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        };
+        return runnable;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.benchmark;
+
+import org.gephi.nanobench.NanoBench;
+import org.testng.annotations.Test;
+
+public class AttributeBenchmarkTest {
+
+    @Test
+    public void testSetDoubleAttribute() {
+        int[] n = {1000, 10000, 100000};
+        for (int nodes : n) {
+            NanoBench.create().measurements(10).measure("set double attribute " + nodes, new AttributeBenchmark().setAttribute(nodes, Double.class, 1.0));
+        }
+    }
+
+    @Test
+    public void testSetStringAttribute() {
+        int[] n = {1000, 10000, 100000};
+        for (int nodes : n) {
+            NanoBench.create().measurements(10).measure("set string attribute " + nodes, new AttributeBenchmark().setAttribute(nodes, String.class, "foo"));
+        }
+    }
+
+    @Test
+    public void testGetDoubleAttribute() {
+        int[] n = {1000, 10000, 100000};
+        for (int nodes : n) {
+            NanoBench.create().cpuOnly().measurements(10).measure("get double attribute " + nodes, new AttributeBenchmark().getAttribute(nodes, Double.class, 1.0));
+        }
+    }
+
+    @Test
+    public void testSerializeDoubleAttribute() {
+        int[] n = {1000, 10000, 100000};
+        for (int nodes : n) {
+            NanoBench.create().measurements(10).measure("serialize double attribute " + nodes, new AttributeBenchmark().serializeAttribute(nodes, Double.class, 1.5));
+        }
+    }
+
+    @Test
+    public void testSerializeStringAttribute() {
+        int[] n = {1000, 10000, 100000};
+        for (int nodes : n) {
+            NanoBench.create().measurements(10).measure("serialize string attribute " + nodes, new AttributeBenchmark().serializeAttribute(nodes, String.class, "foo"));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.algorithms;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.impl.GraphAdjacency;
+import org.gephi.graph.impl.ParallelExecutor;
+
+/**
+ * Level-synchronous parallel breadth-first search.
+ * <p>
+ * Each level's frontier is split in chunks explored concurrently. Nodes are
+ * claimed with an atomic visited bitset so each node is discovered exactly
+ * once.
+ * <p>
+ * Results are arrays indexed by node store id (see {@link Node#getStoreId()}).
+ * Directed edges are followed from source to target, undirected edges both
+ * ways. On an undirected graph all edges are followed both ways.
+ */
+public final class BreadthFirstSearch {
+
+    protected static final int CHUNK_SIZE = 1024;
+
+    private BreadthFirstSearch() {
+    }
+
+    /**
+     * Returns the hop distance from <code>source</code> to every node.
+     *
+     * @param graph graph
+     * @param source source node
+     * @return distances indexed by store id, -1 for unreachable nodes or store
+     *         ids not in the graph
+     * @throws IllegalArgumentException if the source isn't in the graph
+     */
+    public static int[] distances(Graph graph, Node source) {
+        GraphAdjacency adjacency = GraphAdjacency.create(graph, false);
+        adjacency.readLock();
+        try {
+            return distances(adjacency, source);
+        } finally {
+            adjacency.readUnlock();
+        }
+    }
+
+    private static int[] distances(final GraphAdjacency adjacency, Node source) {
+        if (!adjacency.containsNode(source)) {
+            throw new IllegalArgumentException("The source node must belong to the graph");
+        }
+        final int capacity = adjacency.getNodeCapacity();
+        final int[] distances = new int[capacity];
+        Arrays.fill(distances, -1);
+        final AtomicLongArray visited = new AtomicLongArray((capacity + 63) >> 6);
+
+        int sourceId = source.getStoreId();
+        claim(visited, sourceId);
+        distances[sourceId] = 0;
+
+        int[] frontier = new int[] { sourceId };
+        int frontierSize = 1;
+        int level = 0;
+        while (frontierSize > 0) {
+            final int[] currentFrontier = frontier;
+            final int currentSize = frontierSize;
+            final int currentLevel = ++level;
+            final int chunkCount = (currentSize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            final IntArrayList[] discovered = new IntArrayList[chunkCount];
+            ParallelExecutor.execute(null, chunkCount, new ParallelExecutor.ChunkTask() {
+                @Override
+                public void run(int chunk) {
+                    IntArrayList local = new IntArrayList();
+                    GraphAdjacency.Cursor cursor = adjacency.newCursor();
+                    int to = Math.min(currentSize, (chunk + 1) * CHUNK_SIZE);
+                    for (int i = chunk * CHUNK_SIZE; i < to; i++) {
+                        cursor.reset(currentFrontier[i]);
+                        while (cursor.next()) {
+                            int neighbor = cursor.neighbor();
+                            if (claim(visited, neighbor)) {
+                                distances[neighbor] = currentLevel;
+                                local.add(neighbor);
+                            }
+                        }
+                    }
+                    discovered[chunk] = local;
+                }
+            });
+
+            frontierSize = 0;
+            for (IntArrayList list : discovered) {
+                frontierSize += list.size();
+            }
+            frontier = new int[frontierSize];
+            int index = 0;
+            for (IntArrayList list : discovered) {
+                list.getElements(0, frontier, index, list.size());
+                index += list.size();
+            }
+        }
+        return distances;
+    }
+
+    private static boolean claim(AtomicLongArray visited, int storeId) {
+        int index = storeId >> 6;
+        long mask = 1L << storeId;
+        while (true) {
+            long word = visited.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (visited.compareAndSet(index, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+}
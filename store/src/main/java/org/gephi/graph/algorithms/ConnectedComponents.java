@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.algorithms;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.impl.GraphAdjacency;
+import org.gephi.graph.impl.ParallelExecutor;
+
+/**
+ * Parallel label propagation connected components.
+ * <p>
+ * Components are weakly connected: edge directions are ignored. Each node
+ * starts with its own store id as label and repeatedly takes the minimum label
+ * of its neighbors until no label changes. Passes are run concurrently over
+ * ranges of store ids.
+ * <p>
+ * Results are arrays indexed by node store id (see {@link Node#getStoreId()}).
+ * The label of a component is the smallest store id of its nodes.
+ */
+public final class ConnectedComponents {
+
+    protected static final int CHUNK_SIZE = 4096;
+
+    private ConnectedComponents() {
+    }
+
+    /**
+     * Returns the component label of every node.
+     *
+     * @param graph graph
+     * @return labels indexed by store id, -1 for store ids not in the graph
+     */
+    public static int[] labels(Graph graph) {
+        GraphAdjacency adjacency = GraphAdjacency.create(graph, true);
+        adjacency.readLock();
+        try {
+            return labels(adjacency);
+        } finally {
+            adjacency.readUnlock();
+        }
+    }
+
+    private static int[] labels(final GraphAdjacency adjacency) {
+        final int capacity = adjacency.getNodeCapacity();
+        final int[] labels = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            labels[i] = adjacency.containsNode(i) ? i : -1;
+        }
+
+        final int chunkCount = (capacity + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final AtomicBoolean changed = new AtomicBoolean(true);
+        while (changed.get()) {
+            changed.set(false);
+            ParallelExecutor.execute(null, chunkCount, new ParallelExecutor.ChunkTask() {
+                @Override
+                public void run(int chunk) {
+                    boolean chunkChanged = false;
+                    GraphAdjacency.Cursor cursor = adjacency.newCursor();
+                    int to = Math.min(capacity, (chunk + 1) * CHUNK_SIZE);
+                    for (int i = chunk * CHUNK_SIZE; i < to; i++) {
+                        int label = labels[i];
+                        if (label == -1) {
+                            continue;
+                        }
+                        int min = labels[label];
+                        cursor.reset(i);
+                        while (cursor.next()) {
+                            int neighborLabel = labels[cursor.neighbor()];
+                            if (neighborLabel < min) {
+                                min = neighborLabel;
+                            }
+                        }
+                        if (min < label) {
+                            labels[i] = min;
+                            chunkChanged = true;
+                        }
+                    }
+                    if (chunkChanged) {
+                        changed.set(true);
+                    }
+                }
+            });
+        }
+        return labels;
+    }
+
+    /**
+     * Returns the number of components in the given labels.
+     *
+     * @param labels labels, as returned by <code>labels()</code>
+     * @return component count
+     */
+    public static int count(int[] labels) {
+        int count = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == i) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
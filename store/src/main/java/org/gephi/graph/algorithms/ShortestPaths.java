@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.algorithms;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.impl.GraphAdjacency;
+import org.gephi.graph.impl.ParallelExecutor;
+
+/**
+ * Parallel delta-stepping single-source shortest paths.
+ * <p>
+ * Tentative distances are kept in buckets of width <code>delta</code>. The
+ * nodes of the current bucket are relaxed concurrently, and nodes whose
+ * distance improves to a later bucket are kept aside until the current bucket
+ * is settled. Distances are updated with compare-and-set so concurrent
+ * relaxations keep the minimum.
+ * <p>
+ * Edge weights must be non-negative. Results are arrays indexed by node store
+ * id (see {@link Node#getStoreId()}). Directed edges are followed from source
+ * to target, undirected edges both ways. On an undirected graph all edges are
+ * followed both ways.
+ */
+public final class ShortestPaths {
+
+    protected static final int CHUNK_SIZE = 1024;
+    private static final long INFINITY_BITS = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+
+    private ShortestPaths() {
+    }
+
+    /**
+     * Returns the weighted distance from <code>source</code> to every node.
+     * <p>
+     * The bucket width is the average edge weight.
+     *
+     * @param graph graph
+     * @param source source node
+     * @return distances indexed by store id, positive infinity for unreachable
+     *         nodes or store ids not in the graph
+     * @throws IllegalArgumentException if the source isn't in the graph or if a
+     *         weight is negative
+     */
+    public static double[] distances(Graph graph, Node source) {
+        GraphAdjacency adjacency = GraphAdjacency.create(graph, false);
+        adjacency.readLock();
+        try {
+            return distances(adjacency, source, getDefaultDelta(adjacency));
+        } finally {
+            adjacency.readUnlock();
+        }
+    }
+
+    /**
+     * Returns the weighted distance from <code>source</code> to every node,
+     * using the given bucket width.
+     *
+     * @param graph graph
+     * @param source source node
+     * @param delta bucket width, strictly positive
+     * @return distances indexed by store id, positive infinity for unreachable
+     *         nodes or store ids not in the graph
+     * @throws IllegalArgumentException if the source isn't in the graph, if the
+     *         weight of a reachable edge is negative or if delta isn't strictly
+     *         positive
+     */
+    public static double[] distances(Graph graph, Node source, double delta) {
+        GraphAdjacency adjacency = GraphAdjacency.create(graph, false);
+        adjacency.readLock();
+        try {
+            return distances(adjacency, source, delta);
+        } finally {
+            adjacency.readUnlock();
+        }
+    }
+
+    private static double[] distances(final GraphAdjacency adjacency, Node source, double delta) {
+        if (!adjacency.containsNode(source)) {
+            throw new IllegalArgumentException("The source node must belong to the graph");
+        }
+        if (!(delta > 0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("Delta must be strictly positive");
+        }
+
+        final int capacity = adjacency.getNodeCapacity();
+        final AtomicLongArray distances = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            distances.set(i, INFINITY_BITS);
+        }
+        int[] marks = new int[capacity];
+        int round = 0;
+
+        int sourceId = source.getStoreId();
+        distances.set(sourceId, Double.doubleToLongBits(0.0));
+
+        IntArrayList frontier = new IntArrayList();
+        frontier.add(sourceId);
+        IntArrayList pending = new IntArrayList();
+        long bucket = 0;
+        while (true) {
+            final double bucketEnd = (bucket + 1) * delta;
+
+            // Relax the current bucket until it's empty
+            while (!frontier.isEmpty()) {
+                final int[] currentFrontier = frontier.elements();
+                final int currentSize = frontier.size();
+                final int chunkCount = (currentSize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+                final IntArrayList[] near = new IntArrayList[chunkCount];
+                final IntArrayList[] far = new IntArrayList[chunkCount];
+                ParallelExecutor.execute(null, chunkCount, new ParallelExecutor.ChunkTask() {
+                    @Override
+                    public void run(int chunk) {
+                        IntArrayList localNear = new IntArrayList();
+                        IntArrayList localFar = new IntArrayList();
+                        GraphAdjacency.Cursor cursor = adjacency.newCursor();
+                        int to = Math.min(currentSize, (chunk + 1) * CHUNK_SIZE);
+                        for (int i = chunk * CHUNK_SIZE; i < to; i++) {
+                            int node = currentFrontier[i];
+                            double distance = Double.longBitsToDouble(distances.get(node));
+                            cursor.reset(node);
+                            while (cursor.next()) {
+                                int neighbor = cursor.neighbor();
+                                double candidate = distance + cursor.weight();
+                                if (relax(distances, neighbor, candidate)) {
+                                    if (candidate < bucketEnd) {
+                                        localNear.add(neighbor);
+                                    } else {
+                                        localFar.add(neighbor);
+                                    }
+                                }
+                            }
+                        }
+                        near[chunk] = localNear;
+                        far[chunk] = localFar;
+                    }
+                });
+
+                round++;
+                frontier = new IntArrayList();
+                for (int i = 0; i < chunkCount; i++) {
+                    IntArrayList list = near[i];
+                    for (int j = 0; j < list.size(); j++) {
+                        int node = list.getInt(j);
+                        if (marks[node] != round) {
+                            marks[node] = round;
+                            frontier.add(node);
+                        }
+                    }
+                    pending.addAll(far[i]);
+                }
+            }
+
+            // Find the next non-empty bucket, entries below the current bucket
+            // end are stale
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < pending.size(); i++) {
+                double distance = Double.longBitsToDouble(distances.get(pending.getInt(i)));
+                if (distance >= bucketEnd && distance < min) {
+                    min = distance;
+                }
+            }
+            if (min == Double.POSITIVE_INFINITY) {
+                break;
+            }
+            bucket = Math.max(bucket + 1, (long) Math.floor(min / delta));
+            double nextBucketEnd = (bucket + 1) * delta;
+
+            round++;
+            IntArrayList remaining = new IntArrayList();
+            for (int i = 0; i < pending.size(); i++) {
+                int node = pending.getInt(i);
+                double distance = Double.longBitsToDouble(distances.get(node));
+                if (distance < bucketEnd || marks[node] == round) {
+                    continue;
+                }
+                marks[node] = round;
+                if (distance < nextBucketEnd) {
+                    frontier.add(node);
+                } else {
+                    remaining.add(node);
+                }
+            }
+            pending = remaining;
+        }
+
+        double[] result = new double[capacity];
+        for (int i = 0; i < capacity; i++) {
+            result[i] = Double.longBitsToDouble(distances.get(i));
+        }
+        return result;
+    }
+
+    private static double getDefaultDelta(GraphAdjacency adjacency) {
+        double delta = adjacency.getAverageWeight();
+        return delta > 0 && !Double.isInfinite(delta) ? delta : 1.0;
+    }
+
+    private static boolean relax(AtomicLongArray distances, int node, double candidate) {
+        while (true) {
+            long current = distances.get(node);
+            if (!(candidate < Double.longBitsToDouble(current))) {
+                return false;
+            }
+            if (distances.compareAndSet(node, current, Double.doubleToLongBits(candidate))) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Direct access to the values of a contiguous array column.
+ * <p>
+ * The values of a column using the {@link ColumnStorage#CONTIGUOUS} storage all
+ * have the same length and are stored back to back in a single primitive array.
+ * This buffer gives access to that array without copying, which suits scans
+ * over many values, such as similarity searches on vectors.
+ * <p>
+ * The buffer reflects the column's storage at the time it was obtained. Later
+ * changes to existing values may be visible, but the storage may also be
+ * reallocated, so a new buffer should be obtained after values are modified.
+ *
+ * @see Table#getArrayBuffer(org.gephi.graph.api.Column)
+ */
+public interface ArrayColumnBuffer {
+
+    /**
+     * Returns the length of the column's values.
+     *
+     * @return value length, or zero if the column has no values
+     */
+    public int getWidth();
+
+    /**
+     * Returns the backing primitive array (e.g. a <code>float[]</code> for a
+     * <code>float[]</code> column).
+     * <p>
+     * The array should not be modified.
+     *
+     * @return backing array
+     */
+    public Object getArray();
+
+    /**
+     * Returns the offset in the backing array of the value of the element with
+     * the given store id. The value spans {@link #getWidth()} entries from this
+     * offset.
+     *
+     * @param storeId element store id
+     * @return the offset, or -1 if the element has no value
+     * @see Element#getStoreId()
+     */
+    public int getOffset(int storeId);
+}
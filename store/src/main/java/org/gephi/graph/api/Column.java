@@ -127,6 +127,13 @@ public interface Column {
      */
     public Object getDefaultValue();
 
+    /**
+     * Returns the way this column's values are stored.
+     *
+     * @return the column storage
+     */
+    public ColumnStorage getStorage();
+
     /**
      * Sets the estimator for this column.
      *
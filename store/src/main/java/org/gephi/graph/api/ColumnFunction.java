@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Function computing the values of a computed column.
+ * <p>
+ * Values are computed lazily when read and cached per element. The cache is
+ * invalidated when the graph topology changes or when one of the column's
+ * source columns is modified, so the function should only depend on the
+ * element, the graph structure and the source columns.
+ *
+ * @see Table#addComputedColumn(java.lang.String, java.lang.String,
+ *      java.lang.Class, org.gephi.graph.api.ColumnFunction, boolean,
+ *      org.gephi.graph.api.Column[])
+ */
+public interface ColumnFunction {
+
+    /**
+     * Computes the value for the given element.
+     *
+     * @param element element
+     * @param graph graph the element belongs to
+     * @return the value, or null
+     */
+    public Object compute(Element element, Graph graph);
+}
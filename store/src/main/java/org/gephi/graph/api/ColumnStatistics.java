@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Statistics on the values of an indexed column.
+ * <p>
+ * Statistics are maintained by the index as values are written, and reading
+ * them doesn't iterate over the elements. Histograms are computed from the
+ * sorted index values the first time they are requested after a change.
+ * <p>
+ * The statistics are backed by the index and always reflect its current state.
+ *
+ * @see Index#getStatistics(org.gephi.graph.api.Column)
+ */
+public interface ColumnStatistics {
+
+    /**
+     * Returns the column.
+     *
+     * @return the column
+     */
+    public Column getColumn();
+
+    /**
+     * Returns the number of elements in the index, including those with a null
+     * value.
+     *
+     * @return the number of elements
+     */
+    public int getElementCount();
+
+    /**
+     * Returns the number of elements with a null value.
+     *
+     * @return the number of null values
+     */
+    public int getNullCount();
+
+    /**
+     * Returns the number of distinct non-null values.
+     *
+     * @return the number of distinct values
+     */
+    public int getDistinctCount();
+
+    /**
+     * Returns true if the column is numerical and sortable, and therefore the
+     * other methods are available.
+     *
+     * @return true if the column is numerical, false otherwise
+     */
+    public boolean isNumeric();
+
+    /**
+     * Returns the minimum finite value, or null if there are none.
+     *
+     * @return the minimum value
+     * @throws UnsupportedOperationException if the column isn't numerical
+     */
+    public Number getMin();
+
+    /**
+     * Returns the maximum finite value, or null if there are none.
+     *
+     * @return the maximum value
+     * @throws UnsupportedOperationException if the column isn't numerical
+     */
+    public Number getMax();
+
+    /**
+     * Returns the number of elements with a NaN or infinite value.
+     * <p>
+     * These values are left out of the other statistics and the histograms.
+     *
+     * @return the number of non-finite values
+     * @throws UnsupportedOperationException if the column isn't numerical
+     */
+    public int getNonFiniteCount();
+
+    /**
+     * Returns the sum of the finite values.
+     *
+     * @return the sum, or zero if there are no values
+     * @throws UnsupportedOperationException if the column isn't numerical
+     */
+    public double getSum();
+
+    /**
+     * Returns the mean of the finite values.
+     *
+     * @return the mean, or NaN if there are no values
+     * @throws UnsupportedOperationException if the column isn't numerical
+     */
+    public double getMean();
+
+    /**
+     * Returns the population variance of the finite values.
+     *
+     * @return the variance, or NaN if there are no values
+     * @throws UnsupportedOperationException if the column isn't numerical
+     */
+    public double getVariance();
+
+    /**
+     * Returns a histogram of the finite values with <em>bins</em> bins of equal
+     * width between the minimum and maximum values.
+     * <p>
+     * The histogram has no bins if there are no values.
+     *
+     * @param bins the number of bins
+     * @return the histogram
+     * @throws UnsupportedOperationException if the column isn't numerical
+     * @throws IllegalArgumentException if <em>bins</em> isn't positive
+     */
+    public Histogram getEquiWidthHistogram(int bins);
+
+    /**
+     * Returns a histogram of the finite values with at most <em>bins</em> bins
+     * holding roughly the same number of elements.
+     * <p>
+     * Elements with the same value are always in the same bin, so bins can be
+     * uneven and fewer than requested when values repeat. The bounds of each
+     * bin are its smallest and largest values.
+     *
+     * @param bins the maximum number of bins
+     * @return the histogram
+     * @throws UnsupportedOperationException if the column isn't numerical
+     * @throws IllegalArgumentException if <em>bins</em> isn't positive
+     */
+    public Histogram getEquiDepthHistogram(int bins);
+}
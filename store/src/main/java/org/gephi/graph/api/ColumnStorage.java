@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * The way a column's values are stored.
+ * <p>
+ * By default, each element holds its values in its own attribute array. For
+ * large tables, some columns benefit from being stored column-wise instead,
+ * indexed by the element's store id.
+ *
+ * @see Table#addColumn(java.lang.String, java.lang.String, java.lang.Class,
+ *      org.gephi.graph.api.Origin, java.lang.Object, boolean,
+ *      org.gephi.graph.api.ColumnStorage)
+ */
+public enum ColumnStorage {
+
+    /**
+     * Values are stored in each element's attribute array.
+     */
+    DEFAULT,
+    /**
+     * Values are stored unboxed in primitive arrays, with a null bitmap.
+     * <p>
+     * Only supported for static primitive types (e.g. <code>Double</code>,
+     * <code>Integer</code> or <code>Boolean</code>).
+     */
+    PRIMITIVE,
+    /**
+     * Values are encoded as integer codes into a per-column dictionary of
+     * distinct values.
+     * <p>
+     * Only supported for <code>String</code> columns. Best suited to columns
+     * with few distinct values, such as categories.
+     */
+    DICTIONARY,
+    /**
+     * Values are stored in a hash map keyed by the element's store id.
+     * <p>
+     * Supported for all static types. Best suited to columns set on a small
+     * fraction of the elements, as elements without a value use no memory.
+     */
+    SPARSE,
+    /**
+     * Array values are stored back to back in a single primitive array.
+     * <p>
+     * Only supported for primitive array types (e.g. <code>float[]</code> or
+     * <code>int[]</code>). All values should have the same length, which is
+     * fixed by the first value set. Best suited to fixed-length vectors, such
+     * as embeddings, which can then be scanned without copying.
+     *
+     * @see Table#getArrayBuffer(org.gephi.graph.api.Column)
+     */
+    CONTIGUOUS,
+    /**
+     * Values are computed by a function and cached per element.
+     * <p>
+     * Only used by computed columns, which are read-only.
+     *
+     * @see Table#addComputedColumn(java.lang.String, java.lang.String,
+     *      java.lang.Class, org.gephi.graph.api.ColumnFunction, boolean,
+     *      org.gephi.graph.api.Column[])
+     */
+    COMPUTED
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * An index that keeps nodes sorted by degree.
+ * <p>
+ * The index is updated each time an edge or a node is added or removed so
+ * finding hubs doesn't require iterating and sorting all nodes. Degrees count
+ * each edge once per endpoint, so a self-loop adds one to both the in-degree
+ * and the out-degree of its node, and two to its degree.
+ * <p>
+ * Query methods return values for the state of the graph (or view) at the time
+ * of the call.
+ *
+ * @see GraphModel#getDegreeIndex()
+ * @see GraphModel#getDegreeIndex(org.gephi.graph.api.GraphView)
+ */
+public interface DegreeIndex {
+
+    /**
+     * Returns the <em>k</em> nodes with the highest degree, sorted by
+     * decreasing degree.
+     * <p>
+     * The order of nodes with the same degree is undefined. If the graph has
+     * less than <em>k</em> nodes, all nodes are returned.
+     *
+     * @param k number of nodes to return
+     * @param type degree type
+     * @return array of at most <em>k</em> nodes
+     * @throws IllegalArgumentException if <em>k</em> is negative
+     */
+    public Node[] getTopKByDegree(int k, DegreeType type);
+
+    /**
+     * Returns the minimum degree of the given type.
+     *
+     * @param type degree type
+     * @return minimum degree, or zero if there are no nodes
+     */
+    public int getMinDegree(DegreeType type);
+
+    /**
+     * Returns the maximum degree of the given type.
+     *
+     * @param type degree type
+     * @return maximum degree, or zero if there are no nodes
+     */
+    public int getMaxDegree(DegreeType type);
+
+    /**
+     * Returns the number of nodes with the given degree.
+     *
+     * @param degree degree
+     * @param type degree type
+     * @return number of nodes with this degree, or zero if none
+     */
+    public int countNodes(int degree, DegreeType type);
+
+    /**
+     * Returns the degree histogram, where the value at index <em>i</em> is the
+     * number of nodes of degree <em>i</em>.
+     * <p>
+     * The array length is the maximum degree plus one, or zero if there are no
+     * nodes.
+     *
+     * @param type degree type
+     * @return degree histogram
+     */
+    public int[] getDegreeHistogram(DegreeType type);
+}
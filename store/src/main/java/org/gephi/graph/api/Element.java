@@ -120,6 +120,10 @@ public interface Element extends ElementProperties {
      * Returns all the attribute values in an array.
      * <p>
      * Some attribute values may be null.
+     * <p>
+     * When some columns don't use the default {@link ColumnStorage}, their
+     * values are gathered in a new array on each call. Use
+     * {@link #getAttribute(org.gephi.graph.api.Column)} to read single values.
      *
      * @return attribute values array
      */
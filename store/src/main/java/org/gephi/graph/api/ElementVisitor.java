@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Visitor called for each element of an iterable.
+ * <p>
+ * Visitors are used by the <code>parallelForEach()</code> methods of the
+ * iterables, which may call <code>visit()</code> from several threads at the
+ * same time. Implementations should therefore be thread-safe, for instance by
+ * using concurrent collections or atomic counters to gather their results.
+ * <p>
+ * The graph is read-locked for the whole duration of the visit so visitors can
+ * read the graph but should never modify it.
+ *
+ * @param <T> the element class
+ * @see ParallelElementIterable#parallelForEach(org.gephi.graph.api.ElementVisitor)
+ */
+public interface ElementVisitor<T extends Element> {
+
+    /**
+     * Visits the given element.
+     *
+     * @param element element to visit
+     */
+    public void visit(T element);
+}
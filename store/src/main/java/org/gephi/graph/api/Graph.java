@@ -314,6 +314,28 @@ public interface Graph {
      */
     public boolean isAdjacent(Node node1, Node node2, int type);
 
+    /**
+     * Returns the number of nodes that are neighbors of both node1 and node2,
+     * i.e. the size of the intersection of their neighbors as returned by
+     * {@link #getNeighbors(org.gephi.graph.api.Node)}.
+     *
+     * @param node1 the first node
+     * @param node2 the second node
+     * @return the number of common neighbors
+     */
+    public int countCommonNeighbors(Node node1, Node node2);
+
+    /**
+     * Returns the number of nodes that are neighbors of both node1 and node2
+     * through edges of the given type.
+     *
+     * @param node1 the first node
+     * @param node2 the second node
+     * @param type the edge type
+     * @return the number of common neighbors
+     */
+    public int countCommonNeighbors(Node node1, Node node2, int type);
+
     /**
      * Returns true if edge1 and edge2 are incident.
      *
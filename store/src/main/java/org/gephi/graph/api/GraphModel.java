@@ -401,6 +401,30 @@ public interface GraphModel {
      */
     public GraphView copyView(GraphView view, boolean node, boolean edge);
 
+    /**
+     * Creates a new node view with the nodes matching the given predicate.
+     * <p>
+     * The predicate is evaluated on the main node index. As only nodes are
+     * filtered, the view contains all the edges between matching nodes.
+     *
+     * @param predicate the node predicate
+     * @return newly created graph view
+     * @see Index#get(org.gephi.graph.api.IndexPredicate)
+     */
+    public GraphView createNodeView(IndexPredicate predicate);
+
+    /**
+     * Creates a new edge view with the edges matching the given predicate.
+     * <p>
+     * The predicate is evaluated on the main edge index. As only edges are
+     * filtered, the view contains all the nodes.
+     *
+     * @param predicate the edge predicate
+     * @return newly created graph view
+     * @see Index#get(org.gephi.graph.api.IndexPredicate)
+     */
+    public GraphView createEdgeView(IndexPredicate predicate);
+
     /**
      * Destroys the given view.
      *
@@ -501,6 +525,46 @@ public interface GraphModel {
      */
     public TimeIndex<Edge> getEdgeTimeIndex(GraphView view);
 
+    /**
+     * Gets the degree index.
+     *
+     * @return degree index, or null if disabled
+     */
+    public DegreeIndex getDegreeIndex();
+
+    /**
+     * Gets the degree index for the given view.
+     * <p>
+     * The view index only counts nodes and edges in the view. It's built the
+     * first time it's queried.
+     *
+     * @param view the view to get the index from
+     * @return degree index, or null if disabled
+     */
+    public DegreeIndex getDegreeIndex(GraphView view);
+
+    /**
+     * Enables or disables the adjacency matrix.
+     * <p>
+     * When enabled and the graph is small and dense enough, a bit matrix per
+     * edge type speeds up adjacency tests and
+     * {@link Graph#countCommonNeighbors(org.gephi.graph.api.Node, org.gephi.graph.api.Node, int)}
+     * on undirected graphs. It uses up to 32MB per edge type and is disabled by
+     * default. It's built when enabled and maintained as edges are added or
+     * removed. The matrix isn't part of the serialized model.
+     *
+     * @param enabled true to enable the adjacency matrix
+     */
+    public void setAdjacencyMatrixEnabled(boolean enabled);
+
+    /**
+     * Returns true if the adjacency matrix is enabled.
+     *
+     * @return true if enabled, false otherwise
+     * @see #setAdjacencyMatrixEnabled(boolean)
+     */
+    public boolean isAdjacencyMatrixEnabled();
+
     /**
      * Gets the time bounds.
      * <p>
@@ -610,4 +674,32 @@ public interface GraphModel {
      * @return maximum edge store id
      */
     public int getMaxEdgeStoreId();
+
+    /**
+     * Copies the weight of every edge in <code>weights</code>, indexed by edge
+     * store id.
+     * <p>
+     * This is a faster alternative to calling {@link Edge#getWeight() } on each
+     * edge for weighted algorithms. Store ids that aren't assigned to an edge
+     * are set to <code>NaN</code>. The array must be at least as long as
+     * {@link #getMaxEdgeStoreId() }.
+     *
+     * @param weights destination array
+     * @throws IllegalArgumentException if the array is too small
+     */
+    public void getEdgeWeights(double[] weights);
+
+    /**
+     * Copies the weight of every edge in <code>view</code> in
+     * <code>weights</code>, indexed by edge store id.
+     * <p>
+     * Store ids of edges that aren't in the view are set to <code>NaN</code>.
+     * Dynamic weights are estimated for the view's time interval. The array
+     * must be at least as long as {@link #getMaxEdgeStoreId() }.
+     *
+     * @param view view
+     * @param weights destination array
+     * @throws IllegalArgumentException if the array is too small
+     */
+    public void getEdgeWeights(GraphView view, double[] weights);
 }
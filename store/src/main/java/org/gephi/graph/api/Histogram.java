@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+import java.util.Arrays;
+
+/**
+ * Immutable histogram of the values of a numerical column.
+ * <p>
+ * Each bin has a low and high bound, both inclusive, and the number of elements
+ * with a value within the bounds. Bins are in ascending order and don't
+ * overlap.
+ *
+ * @see ColumnStatistics#getEquiWidthHistogram(int)
+ * @see ColumnStatistics#getEquiDepthHistogram(int)
+ */
+public final class Histogram {
+
+    private final double[] lows;
+    private final double[] highs;
+    private final int[] counts;
+
+    /**
+     * Constructor with the bounds and counts of each bin.
+     *
+     * @param lows bins' low bounds
+     * @param highs bins' high bounds
+     * @param counts bins' element counts
+     * @throws IllegalArgumentException if the arrays don't have the same length
+     */
+    public Histogram(double[] lows, double[] highs, int[] counts) {
+        if (lows.length != highs.length || lows.length != counts.length) {
+            throw new IllegalArgumentException("The bounds and counts arrays should have the same length");
+        }
+        this.lows = Arrays.copyOf(lows, lows.length);
+        this.highs = Arrays.copyOf(highs, highs.length);
+        this.counts = Arrays.copyOf(counts, counts.length);
+    }
+
+    /**
+     * Returns the number of bins.
+     *
+     * @return the number of bins
+     */
+    public int getBinCount() {
+        return counts.length;
+    }
+
+    /**
+     * Returns the low bound of the given bin.
+     *
+     * @param bin the bin index
+     * @return the bin's low bound
+     */
+    public double getLow(int bin) {
+        return lows[bin];
+    }
+
+    /**
+     * Returns the high bound of the given bin.
+     *
+     * @param bin the bin index
+     * @return the bin's high bound
+     */
+    public double getHigh(int bin) {
+        return highs[bin];
+    }
+
+    /**
+     * Returns the number of elements in the given bin.
+     *
+     * @param bin the bin index
+     * @return the bin's element count
+     */
+    public int getCount(int bin) {
+        return counts[bin];
+    }
+
+    /**
+     * Returns the number of elements in all bins.
+     *
+     * @return the total element count
+     */
+    public int getTotalCount() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('[');
+            sb.append(lows[i]);
+            sb.append(", ");
+            sb.append(highs[i]);
+            sb.append("]=");
+            sb.append(counts[i]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -102,6 +102,228 @@ public interface Index<T extends Element> {
      */
     public Number getMaxValue(Column column);
 
+    /**
+     * Gets an Iterable of all elements in the index with a value in the given
+     * range, in ascending value order.
+     * <p>
+     * Only applies for sortable columns. Elements are read from the index as
+     * the iterable is iterated. A null bound leaves the range open on that
+     * side. Null values are never included.
+     *
+     * @param column the column
+     * @param low the lower bound, of the column type, or null
+     * @param lowInclusive true if values equal to <em>low</em> are included
+     * @param high the upper bound, of the column type, or null
+     * @param highInclusive true if values equal to <em>high</em> are included
+     * @return an iterable over the elements in the range
+     * @throws UnsupportedOperationException if the column isn't sortable
+     * @throws IllegalArgumentException if a bound doesn't have the column type
+     * @see #isSortable(org.gephi.graph.api.Column)
+     */
+    public Iterable<T> getRange(Column column, Number low, boolean lowInclusive, Number high, boolean highInclusive);
+
+    /**
+     * Counts the elements in the index with a value in the given range.
+     * <p>
+     * Bounds are interpreted as in
+     * {@link #getRange(org.gephi.graph.api.Column, java.lang.Number, boolean, java.lang.Number, boolean)
+     * getRange}.
+     *
+     * @param column the column
+     * @param low the lower bound, of the column type, or null
+     * @param lowInclusive true if values equal to <em>low</em> are included
+     * @param high the upper bound, of the column type, or null
+     * @param highInclusive true if values equal to <em>high</em> are included
+     * @return the number of elements in the range
+     * @throws UnsupportedOperationException if the column isn't sortable
+     * @throws IllegalArgumentException if a bound doesn't have the column type
+     */
+    public int countRange(Column column, Number low, boolean lowInclusive, Number high, boolean highInclusive);
+
+    /**
+     * Gets an Iterable of the <em>k</em> elements with the highest (or lowest)
+     * values in the given column, in value order.
+     * <p>
+     * Only applies for sortable columns. Elements with null values are never
+     * included, and elements with equal values are returned in no particular
+     * order.
+     *
+     * @param column the column
+     * @param k the maximum number of elements
+     * @param descending true to get the highest values first, false to get the
+     *        lowest values first
+     * @return an iterable over at most <em>k</em> elements
+     * @throws UnsupportedOperationException if the column isn't sortable
+     * @throws IllegalArgumentException if <em>k</em> is negative
+     */
+    public Iterable<T> topK(Column column, int k, boolean descending);
+
+    /**
+     * Gets a collection of the elements whose value in the given column starts
+     * with <em>prefix</em>.
+     * <p>
+     * Only applies to columns with a text index. The result is computed eagerly
+     * and isn't backed by the index.
+     *
+     * @param column the String column
+     * @param prefix the prefix
+     * @param ignoreCase true to compare characters regardless of their case
+     * @return the matching elements
+     * @throws IllegalArgumentException if the column doesn't have a text index
+     * @see Table#setTextIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public Iterable<T> getByPrefix(Column column, String prefix, boolean ignoreCase);
+
+    /**
+     * Gets a collection of the elements whose value in the given column
+     * contains <em>substring</em>.
+     * <p>
+     * Only applies to columns with a text index. The result is computed eagerly
+     * and isn't backed by the index.
+     *
+     * @param column the String column
+     * @param substring the substring
+     * @param ignoreCase true to compare characters regardless of their case
+     * @return the matching elements
+     * @throws IllegalArgumentException if the column doesn't have a text index
+     * @see Table#setTextIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public Iterable<T> getBySubstring(Column column, String substring, boolean ignoreCase);
+
+    /**
+     * Gets a collection of the elements whose array, List or Set value in the
+     * given column contains at least one of <em>values</em>.
+     * <p>
+     * Only applies to columns with a member index. Primitive array members are
+     * compared with their wrapper type, for instance <code>Integer</code> for
+     * an <code>int[]</code> column. The result is computed eagerly and isn't
+     * backed by the index.
+     *
+     * @param column the array or collection column
+     * @param values the values to look for
+     * @return the matching elements
+     * @throws IllegalArgumentException if the column doesn't have a member
+     *         index or <em>values</em> is empty
+     * @see Table#setMemberIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public Iterable<T> getContainingAny(Column column, Object... values);
+
+    /**
+     * Gets a collection of the elements whose array, List or Set value in the
+     * given column contains all of <em>values</em>.
+     * <p>
+     * Only applies to columns with a member index. Members are compared as in
+     * {@link #getContainingAny(org.gephi.graph.api.Column, java.lang.Object...)
+     * getContainingAny}. The result is computed eagerly and isn't backed by the
+     * index.
+     *
+     * @param column the array or collection column
+     * @param values the values to look for
+     * @return the matching elements
+     * @throws IllegalArgumentException if the column doesn't have a member
+     *         index or <em>values</em> is empty
+     * @see Table#setMemberIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public Iterable<T> getContainingAll(Column column, Object... values);
+
+    /**
+     * Gets a collection of the elements whose value in the given dynamic column
+     * equals <em>value</em> at <em>timestamp</em>.
+     * <p>
+     * Only applies to columns with a temporal index. For interval columns, the
+     * value applies to the intervals containing <em>timestamp</em>. The result
+     * is computed eagerly and isn't backed by the index.
+     *
+     * @param column the dynamic column
+     * @param value the value, of the column's static type
+     * @param timestamp the timestamp
+     * @return the matching elements
+     * @throws IllegalArgumentException if the column doesn't have a temporal
+     *         index or the value doesn't have the column's static type
+     * @see Table#setTemporalIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public Iterable<T> getAt(Column column, Object value, double timestamp);
+
+    /**
+     * Gets a collection of the elements whose value in the given dynamic column
+     * equals <em>value</em> at some point during <em>interval</em>.
+     * <p>
+     * Only applies to columns with a temporal index. Times are matched when
+     * they overlap with <em>interval</em>, bounds included. The result is
+     * computed eagerly and isn't backed by the index.
+     *
+     * @param column the dynamic column
+     * @param value the value, of the column's static type
+     * @param interval the interval
+     * @return the matching elements
+     * @throws IllegalArgumentException if the column doesn't have a temporal
+     *         index or the value doesn't have the column's static type
+     * @see Table#setTemporalIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public Iterable<T> getDuring(Column column, Object value, Interval interval);
+
+    /**
+     * Gets a collection of the elements whose value in the given numerical
+     * dynamic column is in the given range at some point during
+     * <em>interval</em>.
+     * <p>
+     * Only applies to columns with a temporal index. A null bound leaves the
+     * range open on that side. Times are matched as in
+     * {@link #getDuring(org.gephi.graph.api.Column, java.lang.Object, org.gephi.graph.api.Interval)
+     * getDuring}. The result is computed eagerly and isn't backed by the index.
+     *
+     * @param column the dynamic column
+     * @param low the lower bound, of the column's static type, or null
+     * @param lowInclusive true if values equal to <em>low</em> are included
+     * @param high the upper bound, of the column's static type, or null
+     * @param highInclusive true if values equal to <em>high</em> are included
+     * @param interval the interval
+     * @return the matching elements
+     * @throws IllegalArgumentException if the column doesn't have a temporal
+     *         index or a bound doesn't have the column's static type
+     * @throws UnsupportedOperationException if the column values aren't numbers
+     */
+    public Iterable<T> getRangeDuring(Column column, Number low, boolean lowInclusive, Number high, boolean highInclusive, Interval interval);
+
+    /**
+     * Gets a collection of the elements matching the given predicate.
+     * <p>
+     * The predicate is evaluated over the index postings. The operands of an
+     * <code>AND</code> are ordered by their number of elements, so the most
+     * selective one is iterated and the others are only tested. Negations
+     * iterate over all the elements of the graph.
+     * <p>
+     * The result is computed eagerly and isn't backed by the index.
+     *
+     * @param predicate the predicate
+     * @return the matching elements
+     * @throws IllegalArgumentException if a column of the predicate isn't in
+     *         this index or a range bound doesn't have the column type
+     * @throws UnsupportedOperationException if a range applies to a column that
+     *         isn't sortable
+     */
+    public Iterable<T> get(IndexPredicate predicate);
+
+    /**
+     * Counts the elements matching the given predicate.
+     *
+     * @param predicate the predicate
+     * @return the number of matching elements
+     * @see #get(org.gephi.graph.api.IndexPredicate)
+     */
+    public int count(IndexPredicate predicate);
+
+    /**
+     * Returns the statistics of the given column.
+     * <p>
+     * The returned object is backed by this index and reflects later changes.
+     *
+     * @param column the column
+     * @return the column statistics
+     * @see ColumnStatistics
+     */
+    public ColumnStatistics getStatistics(Column column);
+
     /**
      * Returns the element type of this index.
      *
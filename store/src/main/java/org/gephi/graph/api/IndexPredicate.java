@@ -0,0 +1,266 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+import java.util.Arrays;
+
+/**
+ * Immutable predicate on indexed column values, evaluated by
+ * {@link Index#get(org.gephi.graph.api.IndexPredicate)}.
+ * <p>
+ * Predicates are built with the static factory methods and combined with
+ * {@link #and(org.gephi.graph.api.IndexPredicate...) and},
+ * {@link #or(org.gephi.graph.api.IndexPredicate...) or} and
+ * {@link #not(org.gephi.graph.api.IndexPredicate) not}. For instance:
+ *
+ * <pre>
+ * IndexPredicate p = IndexPredicate.and(IndexPredicate.equal(category, &quot;A&quot;), IndexPredicate
+ *         .range(score, 0.5, false, null, false), IndexPredicate.in(country, &quot;FR&quot;, &quot;US&quot;));
+ * </pre>
+ */
+public final class IndexPredicate {
+
+    /**
+     * Predicate types.
+     */
+    public enum Type {
+        EQUAL, IN, RANGE, AND, OR, NOT
+    }
+
+    private final Type type;
+    private final Column column;
+    private final Object[] values;
+    private final Number low;
+    private final boolean lowInclusive;
+    private final Number high;
+    private final boolean highInclusive;
+    private final IndexPredicate[] predicates;
+
+    private IndexPredicate(Type type, Column column, Object[] values, Number low, boolean lowInclusive, Number high, boolean highInclusive, IndexPredicate[] predicates) {
+        this.type = type;
+        this.column = column;
+        this.values = values;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+        this.predicates = predicates;
+    }
+
+    /**
+     * Creates a predicate matching elements whose value in <em>column</em>
+     * equals <em>value</em>.
+     *
+     * @param column the column
+     * @param value the value, can be null
+     * @return new predicate
+     */
+    public static IndexPredicate equal(Column column, Object value) {
+        checkColumn(column);
+        return new IndexPredicate(Type.EQUAL, column, new Object[] { value }, null, false, null, false, null);
+    }
+
+    /**
+     * Creates a predicate matching elements whose value in <em>column</em>
+     * equals one of <em>values</em>.
+     *
+     * @param column the column
+     * @param values the values, can contain null
+     * @return new predicate
+     */
+    public static IndexPredicate in(Column column, Object... values) {
+        checkColumn(column);
+        if (values == null) {
+            throw new NullPointerException("The values can't be null");
+        }
+        return new IndexPredicate(Type.IN, column, values.clone(), null, false, null, false, null);
+    }
+
+    /**
+     * Creates a predicate matching elements whose value in <em>column</em> is
+     * in the given range, as in
+     * {@link Index#getRange(org.gephi.graph.api.Column, java.lang.Number, boolean, java.lang.Number, boolean)
+     * getRange}.
+     *
+     * @param column the sortable column
+     * @param low the lower bound, of the column type, or null
+     * @param lowInclusive true if values equal to <em>low</em> are included
+     * @param high the upper bound, of the column type, or null
+     * @param highInclusive true if values equal to <em>high</em> are included
+     * @return new predicate
+     */
+    public static IndexPredicate range(Column column, Number low, boolean lowInclusive, Number high, boolean highInclusive) {
+        checkColumn(column);
+        return new IndexPredicate(Type.RANGE, column, null, low, lowInclusive, high, highInclusive, null);
+    }
+
+    /**
+     * Creates a predicate matching elements matched by all the given
+     * predicates.
+     *
+     * @param predicates the predicates
+     * @return new predicate
+     */
+    public static IndexPredicate and(IndexPredicate... predicates) {
+        return new IndexPredicate(Type.AND, null, null, null, false, null, false, checkPredicates(predicates));
+    }
+
+    /**
+     * Creates a predicate matching elements matched by at least one of the
+     * given predicates.
+     *
+     * @param predicates the predicates
+     * @return new predicate
+     */
+    public static IndexPredicate or(IndexPredicate... predicates) {
+        return new IndexPredicate(Type.OR, null, null, null, false, null, false, checkPredicates(predicates));
+    }
+
+    /**
+     * Creates a predicate matching elements not matched by the given predicate.
+     *
+     * @param predicate the predicate
+     * @return new predicate
+     */
+    public static IndexPredicate not(IndexPredicate predicate) {
+        return new IndexPredicate(Type.NOT, null, null, null, false, null, false,
+                checkPredicates(new IndexPredicate[] { predicate }));
+    }
+
+    /**
+     * Returns the type of this predicate.
+     *
+     * @return predicate type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the column of an <code>EQUAL</code>, <code>IN</code> or
+     * <code>RANGE</code> predicate.
+     *
+     * @return the column, or null for other types
+     */
+    public Column getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the values of an <code>EQUAL</code> or <code>IN</code> predicate.
+     *
+     * @return a copy of the values, or null for other types
+     */
+    public Object[] getValues() {
+        return values != null ? values.clone() : null;
+    }
+
+    /**
+     * Returns the lower bound of a <code>RANGE</code> predicate.
+     *
+     * @return the lower bound, or null
+     */
+    public Number getLow() {
+        return low;
+    }
+
+    /**
+     * Returns true if the lower bound of a <code>RANGE</code> predicate is
+     * included.
+     *
+     * @return true if the lower bound is included
+     */
+    public boolean isLowInclusive() {
+        return lowInclusive;
+    }
+
+    /**
+     * Returns the upper bound of a <code>RANGE</code> predicate.
+     *
+     * @return the upper bound, or null
+     */
+    public Number getHigh() {
+        return high;
+    }
+
+    /**
+     * Returns true if the upper bound of a <code>RANGE</code> predicate is
+     * included.
+     *
+     * @return true if the upper bound is included
+     */
+    public boolean isHighInclusive() {
+        return highInclusive;
+    }
+
+    /**
+     * Returns the operands of an <code>AND</code>, <code>OR</code> or
+     * <code>NOT</code> predicate.
+     *
+     * @return a copy of the operands, or null for other types
+     */
+    public IndexPredicate[] getPredicates() {
+        return predicates != null ? predicates.clone() : null;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case EQUAL:
+                return column.getId() + " == " + values[0];
+            case IN:
+                return column.getId() + " IN " + Arrays.toString(values);
+            case RANGE:
+                return column.getId() + " IN " + (lowInclusive ? "[" : "]") + low + ", " + high + (highInclusive ? "]"
+                        : "[");
+            case NOT:
+                return "NOT (" + predicates[0] + ")";
+            default:
+                StringBuilder sb = new StringBuilder("(");
+                for (int i = 0; i < predicates.length; i++) {
+                    if (i > 0) {
+                        sb.append(' ').append(type).append(' ');
+                    }
+                    sb.append(predicates[i]);
+                }
+                return sb.append(')').toString();
+        }
+    }
+
+    private static void checkColumn(Column column) {
+        if (column == null) {
+            throw new NullPointerException("The column can't be null");
+        }
+        if (!column.isIndexed()) {
+            throw new IllegalArgumentException("The column '" + column.getId() + "' isn't indexed");
+        }
+    }
+
+    private static IndexPredicate[] checkPredicates(IndexPredicate[] predicates) {
+        if (predicates == null) {
+            throw new NullPointerException("The predicates can't be null");
+        }
+        if (predicates.length == 0) {
+            throw new IllegalArgumentException("At least one predicate is required");
+        }
+        for (IndexPredicate predicate : predicates) {
+            if (predicate == null) {
+                throw new NullPointerException("The predicates can't be null");
+            }
+        }
+        return predicates.clone();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Element iterable which can also be visited in parallel.
+ * <p>
+ * The node and edge iterables returned by the graph and its views implement
+ * this interface, so callers can check for it before visiting the elements on
+ * several threads:
+ *
+ * <pre>
+ * NodeIterable nodes = graph.getNodes();
+ * if (nodes instanceof ParallelElementIterable) {
+ *     ((ParallelElementIterable&lt;Node&gt;) nodes).parallelForEach(visitor);
+ * }
+ * </pre>
+ *
+ * @param <T> the element class
+ * @see ElementVisitor
+ */
+public interface ParallelElementIterable<T extends Element> extends ElementIterable<T> {
+
+    /**
+     * Applies the given visitor to every element.
+     * <p>
+     * The elements are split in independent chunks which are visited
+     * concurrently by several threads. There is no guarantee on the order of
+     * the visit and the visitor may be called from threads other than the
+     * caller's. This method returns once all elements have been visited.
+     * <p>
+     * The read lock is held for the whole duration of the visit and released
+     * afterwards, there is no need to call <code>doBreak()</code>.
+     *
+     * @param visitor visitor to apply to each element
+     */
+    public void parallelForEach(ElementVisitor<T> visitor);
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Element whose number and boolean attributes can be read and written without
+ * boxing.
+ * <p>
+ * The nodes and edges created by the graph store implement this interface, so
+ * callers can check for it before using the typed accessors:
+ *
+ * <pre>
+ * if (node instanceof PrimitiveAttributes) {
+ *     double value = ((PrimitiveAttributes) node).getDouble(column);
+ * }
+ * </pre>
+ *
+ * @see ColumnStorage#PRIMITIVE
+ */
+public interface PrimitiveAttributes extends Element {
+
+    /**
+     * Gets the value of a number column for the given column, without boxing.
+     * <p>
+     * If the value isn't set, the column's default value is returned, or
+     * <code>NaN</code> if there is none.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column isn't a static number
+     *         column
+     */
+    public double getDouble(Column column);
+
+    /**
+     * Gets the value of a float column for the given column, without boxing.
+     * <p>
+     * If the value isn't set, the column's default value is returned, or
+     * <code>NaN</code> if there is none.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Float</code>
+     */
+    public float getFloat(Column column);
+
+    /**
+     * Gets the value of a long, integer, short or byte column for the given
+     * column, without boxing.
+     * <p>
+     * If the value isn't set, the column's default value is returned, or
+     * <code>0</code> if there is none.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Long</code>, <code>Integer</code>, <code>Short</code> or
+     *         <code>Byte</code>
+     */
+    public long getLong(Column column);
+
+    /**
+     * Gets the value of an integer, short or byte column for the given column,
+     * without boxing.
+     * <p>
+     * If the value isn't set, the column's default value is returned, or
+     * <code>0</code> if there is none.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Integer</code>, <code>Short</code> or <code>Byte</code>
+     */
+    public int getInt(Column column);
+
+    /**
+     * Gets the value of a boolean column for the given column, without boxing.
+     * <p>
+     * If the value isn't set, the column's default value is returned, or
+     * <code>false</code> if there is none.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Boolean</code>
+     */
+    public boolean getBoolean(Column column);
+
+    /**
+     * Sets the value of a <code>Double</code> column. Values of columns with
+     * the primitive storage are stored without boxing.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Double</code>
+     */
+    public void setDouble(Column column, double value);
+
+    /**
+     * Sets the value of a <code>Float</code> column. Values of columns with the
+     * primitive storage are stored without boxing.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Float</code>
+     */
+    public void setFloat(Column column, float value);
+
+    /**
+     * Sets the value of a <code>Long</code> column. Values of columns with the
+     * primitive storage are stored without boxing.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Long</code>
+     */
+    public void setLong(Column column, long value);
+
+    /**
+     * Sets the value of a <code>Integer</code> column. Values of columns with
+     * the primitive storage are stored without boxing.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Integer</code>
+     */
+    public void setInt(Column column, int value);
+
+    /**
+     * Sets the value of a <code>Boolean</code> column. Values of columns with
+     * the primitive storage are stored without boxing.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't
+     *         <code>Boolean</code>
+     */
+    public void setBoolean(Column column, boolean value);
+}
@@ -18,6 +18,9 @@ package org.gephi.graph.api;
 /**
  * The table is the container for columns. Column ids in all methods are
  * converted to lower case.
+ * <p>
+ * Index settings, such as suspended maintenance, lazy indexing and the text,
+ * member and temporal indexes, aren't saved by serialization.
  */
 public interface Table extends ColumnIterable {
 
@@ -64,6 +67,350 @@ public interface Table extends ColumnIterable {
      */
     public Column addColumn(String id, String title, Class type, Origin origin, Object defaultValue, boolean indexed);
 
+    /**
+     * Adds a new column to this table, with a specific storage.
+     * <p>
+     * The storage should be supported by the column type, or an exception is
+     * thrown.
+     *
+     * @param id the unique column identifier
+     * @param title the column title
+     * @param type the column type
+     * @param origin the column's origin
+     * @param defaultValue the default value
+     * @param indexed whether the column should be indexed
+     * @param storage the way values are stored
+     * @return the newly created column
+     * @throws IllegalArgumentException if the storage isn't supported by the
+     *         type
+     */
+    public Column addColumn(String id, String title, Class type, Origin origin, Object defaultValue, boolean indexed, ColumnStorage storage);
+
+    /**
+     * Adds a new computed column to this table.
+     * <p>
+     * Computed columns are read-only and their values are given by the
+     * function, evaluated on the main graph. Values are computed lazily when
+     * read and cached per element until the graph topology or one of the source
+     * columns changes. If indexed, the column's index is rebuilt on demand when
+     * queried after such a change.
+     *
+     * @param id the unique column identifier
+     * @param title the column title
+     * @param type the column type
+     * @param function the function computing the values
+     * @param indexed whether the column should be indexed
+     * @param sourceColumns the columns the function depends on
+     * @return the newly created column
+     * @throws IllegalStateException if this table doesn't belong to a graph
+     */
+    public Column addComputedColumn(String id, String title, Class type, ColumnFunction function, boolean indexed, Column... sourceColumns);
+
+    /**
+     * Reads the values of a number column for all elements in the given view,
+     * in a single pass.
+     * <p>
+     * Values are written in <code>out</code> in the view's iteration order.
+     * Null values are read as the column's default value, or
+     * <code>Double.NaN</code> if there is none. If <code>storeIds</code> isn't
+     * null, it receives the store id of each element, in the same order.
+     *
+     * @param column number column
+     * @param view view to read from
+     * @param out array receiving the values
+     * @param storeIds array receiving the elements' store ids, or null
+     * @return the number of values read
+     * @throws IllegalArgumentException if the column isn't a number column or
+     *         if an array is too small
+     */
+    public int readDoubles(Column column, GraphView view, double[] out, int[] storeIds);
+
+    /**
+     * Reads the values of an integer column (<code>Integer</code>,
+     * <code>Short</code> or <code>Byte</code>) for all elements in the given
+     * view, in a single pass.
+     * <p>
+     * Null values are read as the column's default value, or <code>0</code> if
+     * there is none.
+     *
+     * @param column integer column
+     * @param view view to read from
+     * @param out array receiving the values
+     * @param storeIds array receiving the elements' store ids, or null
+     * @return the number of values read
+     * @throws IllegalArgumentException if the column type isn't supported or if
+     *         an array is too small
+     */
+    public int readInts(Column column, GraphView view, int[] out, int[] storeIds);
+
+    /**
+     * Reads the values of an integer column (<code>Long</code>,
+     * <code>Integer</code>, <code>Short</code> or <code>Byte</code>) for all
+     * elements in the given view, in a single pass.
+     * <p>
+     * Null values are read as the column's default value, or <code>0</code> if
+     * there is none.
+     *
+     * @param column integer column
+     * @param view view to read from
+     * @param out array receiving the values
+     * @param storeIds array receiving the elements' store ids, or null
+     * @return the number of values read
+     * @throws IllegalArgumentException if the column type isn't supported or if
+     *         an array is too small
+     */
+    public int readLongs(Column column, GraphView view, long[] out, int[] storeIds);
+
+    /**
+     * Reads the values of a string column for all elements in the given view,
+     * in a single pass.
+     * <p>
+     * Null values are read as the column's default value.
+     *
+     * @param column string column
+     * @param view view to read from
+     * @param out array receiving the values
+     * @param storeIds array receiving the elements' store ids, or null
+     * @return the number of values read
+     * @throws IllegalArgumentException if the column isn't a string column or
+     *         if an array is too small
+     */
+    public int readStrings(Column column, GraphView view, String[] out, int[] storeIds);
+
+    /**
+     * Writes the values of a <code>Double</code> column in a single batch.
+     * <p>
+     * If <code>storeIds</code> is null, values are assigned to all elements in
+     * the view's iteration order, the same order as the read methods.
+     * Otherwise, <code>values[i]</code> is assigned to the element with store
+     * id <code>storeIds[i]</code>, which should belong to the view. Store ids
+     * should be distinct.
+     * <p>
+     * <code>Double.NaN</code> values are written as null. The index and the
+     * column version are updated once for the whole batch.
+     *
+     * @param column double column
+     * @param view view to write to
+     * @param values values to write
+     * @param storeIds elements' store ids, or null
+     * @return the number of values written
+     * @throws IllegalArgumentException if the column isn't a double column, if
+     *         an array is too small or if a store id isn't in the view
+     */
+    public int writeDoubles(Column column, GraphView view, double[] values, int[] storeIds);
+
+    /**
+     * Writes the values of an <code>Integer</code> column in a single batch.
+     * <p>
+     * Elements are selected the same way as in
+     * {@link #writeDoubles(Column, GraphView, double[], int[]) writeDoubles}.
+     *
+     * @param column integer column
+     * @param view view to write to
+     * @param values values to write
+     * @param storeIds elements' store ids, or null
+     * @return the number of values written
+     * @throws IllegalArgumentException if the column isn't an integer column,
+     *         if an array is too small or if a store id isn't in the view
+     */
+    public int writeInts(Column column, GraphView view, int[] values, int[] storeIds);
+
+    /**
+     * Writes the values of a <code>Long</code> column in a single batch.
+     * <p>
+     * Elements are selected the same way as in
+     * {@link #writeDoubles(Column, GraphView, double[], int[]) writeDoubles}.
+     *
+     * @param column long column
+     * @param view view to write to
+     * @param values values to write
+     * @param storeIds elements' store ids, or null
+     * @return the number of values written
+     * @throws IllegalArgumentException if the column isn't a long column, if an
+     *         array is too small or if a store id isn't in the view
+     */
+    public int writeLongs(Column column, GraphView view, long[] values, int[] storeIds);
+
+    /**
+     * Writes the values of a <code>String</code> column in a single batch.
+     * <p>
+     * Elements are selected the same way as in
+     * {@link #writeDoubles(Column, GraphView, double[], int[]) writeDoubles}.
+     * Null values are allowed.
+     *
+     * @param column string column
+     * @param view view to write to
+     * @param values values to write
+     * @param storeIds elements' store ids, or null
+     * @return the number of values written
+     * @throws IllegalArgumentException if the column isn't a string column, if
+     *         an array is too small or if a store id isn't in the view
+     */
+    public int writeStrings(Column column, GraphView view, String[] values, int[] storeIds);
+
+    /**
+     * Returns a view on the values of a contiguous array column, without
+     * copying.
+     *
+     * @param column column using the {@link ColumnStorage#CONTIGUOUS} storage
+     * @return buffer view
+     * @throws IllegalArgumentException if the column doesn't belong to this
+     *         table or doesn't use the contiguous storage
+     */
+    public ArrayColumnBuffer getArrayBuffer(Column column);
+
+    /**
+     * Suspends the maintenance of this table's indexes, for instance during a
+     * bulk import.
+     * <p>
+     * While suspended, writes to indexed columns don't update the indexes,
+     * which are instead marked as out of date. An out of date index is rebuilt
+     * when it is next queried. The remaining out of date indexes are rebuilt by
+     * {@link #resumeIndexing()}.
+     *
+     * @throws IllegalStateException if this table doesn't belong to a graph or
+     *         isn't indexed
+     */
+    public void suspendIndexing();
+
+    /**
+     * Resumes the maintenance of this table's indexes and rebuilds those that
+     * are out of date, in a single pass over the elements.
+     * <p>
+     * Indexes of columns with lazy indexing stay out of date until queried.
+     *
+     * @throws IllegalStateException if this table doesn't belong to a graph or
+     *         isn't indexed
+     * @see #suspendIndexing()
+     */
+    public void resumeIndexing();
+
+    /**
+     * Returns true if the maintenance of this table's indexes is suspended.
+     *
+     * @return true if indexing is suspended, false otherwise
+     * @see #suspendIndexing()
+     */
+    public boolean isIndexingSuspended();
+
+    /**
+     * Sets whether the index of the given column is built lazily.
+     * <p>
+     * The index of a column with lazy indexing isn't maintained on writes, but
+     * rebuilt when it is queried after a change. This suits indexed columns
+     * which are rarely queried.
+     *
+     * @param column indexed column
+     * @param lazy true to build the index lazily, false to maintain it on
+     *        writes
+     * @throws IllegalArgumentException if the column isn't indexed or doesn't
+     *         belong to this table
+     * @throws IllegalStateException if this table doesn't belong to a graph or
+     *         isn't indexed
+     */
+    public void setLazyIndexing(Column column, boolean lazy);
+
+    /**
+     * Returns true if the index of the given column is built lazily.
+     *
+     * @param column column
+     * @return true if the column has lazy indexing, false otherwise
+     * @see #setLazyIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public boolean isLazyIndexing(Column column);
+
+    /**
+     * Sets whether the given String column has a text index.
+     * <p>
+     * A text index supports prefix and substring queries on the column values,
+     * see
+     * {@link Index#getByPrefix(org.gephi.graph.api.Column, java.lang.String, boolean)
+     * getByPrefix} and
+     * {@link Index#getBySubstring(org.gephi.graph.api.Column, java.lang.String, boolean)
+     * getBySubstring}. The column doesn't need to be indexed, so it can be the
+     * label column.
+     *
+     * @param column String column
+     * @param enabled true to build and maintain a text index, false to drop it
+     * @throws IllegalArgumentException if the column isn't a String column or
+     *         doesn't belong to this table
+     * @throws IllegalStateException if this table doesn't belong to a graph or
+     *         isn't indexed
+     */
+    public void setTextIndexing(Column column, boolean enabled);
+
+    /**
+     * Returns true if the given column has a text index.
+     *
+     * @param column column
+     * @return true if the column has a text index, false otherwise
+     * @see #setTextIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public boolean isTextIndexing(Column column);
+
+    /**
+     * Sets whether the given array, List or Set column has a member index.
+     * <p>
+     * A member index maps each member of the column values to the elements
+     * containing it, and supports the
+     * {@link Index#getContainingAny(org.gephi.graph.api.Column, java.lang.Object...)
+     * getContainingAny} and
+     * {@link Index#getContainingAll(org.gephi.graph.api.Column, java.lang.Object...)
+     * getContainingAll} queries. The column doesn't need to be indexed.
+     *
+     * @param column array or collection column
+     * @param enabled true to build and maintain a member index, false to drop
+     *        it
+     * @throws IllegalArgumentException if the column isn't an array, List or
+     *         Set column or doesn't belong to this table
+     * @throws IllegalStateException if this table doesn't belong to a graph or
+     *         isn't indexed
+     */
+    public void setMemberIndexing(Column column, boolean enabled);
+
+    /**
+     * Returns true if the given column has a member index.
+     *
+     * @param column column
+     * @return true if the column has a member index, false otherwise
+     * @see #setMemberIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public boolean isMemberIndexing(Column column);
+
+    /**
+     * Sets whether the given dynamic column has a temporal index.
+     * <p>
+     * A temporal index maps the values of the column's timestamp or interval
+     * maps to the elements holding them at each time, and supports the
+     * {@link Index#getAt(org.gephi.graph.api.Column, java.lang.Object, double)
+     * getAt},
+     * {@link Index#getDuring(org.gephi.graph.api.Column, java.lang.Object, org.gephi.graph.api.Interval)
+     * getDuring} and
+     * {@link Index#getRangeDuring(org.gephi.graph.api.Column, java.lang.Number, boolean, java.lang.Number, boolean, org.gephi.graph.api.Interval)
+     * getRangeDuring} queries without evaluating every element.
+     * <p>
+     * The index is maintained when values are set through the element setters,
+     * and doesn't track maps mutated directly.
+     *
+     * @param column dynamic column with a timestamp or interval map type
+     * @param enabled true to build and maintain a temporal index, false to drop
+     *        it
+     * @throws IllegalArgumentException if the column isn't a dynamic map column
+     *         or doesn't belong to this table
+     * @throws IllegalStateException if this table doesn't belong to a graph or
+     *         isn't indexed
+     */
+    public void setTemporalIndexing(Column column, boolean enabled);
+
+    /**
+     * Returns true if the given column has a temporal index.
+     *
+     * @param column column
+     * @return true if the column has a temporal index, false otherwise
+     * @see #setTemporalIndexing(org.gephi.graph.api.Column, boolean)
+     */
+    public boolean isTemporalIndexing(Column column);
+
     /**
      * Returns the column at the given index.
      *
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+/**
+ * Dense adjacency bit-matrix, one per edge type.
+ * <p>
+ * The bit at row <em>source</em> and column <em>target</em> is set when a
+ * directed edge goes from source to target, or when an undirected edge links
+ * them, in which case both bits are set. Rows and columns are node store ids.
+ * Matrices for types without edges aren't allocated.
+ */
+public class AdjacencyMatrix {
+
+    // Data
+    protected final int dimension;
+    protected final int wordsPerRow;
+    protected long[][] matrices;
+
+    public AdjacencyMatrix(int dimension) {
+        this.dimension = ((dimension + 63) >>> 6) << 6;
+        this.wordsPerRow = this.dimension >>> 6;
+        this.matrices = new long[0][];
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public boolean fits(NodeImpl node) {
+        return node.storeId < dimension;
+    }
+
+    public boolean isAdjacent(int source, int target, int type) {
+        if (type >= matrices.length || source < 0 || target < 0 || source >= dimension || target >= dimension) {
+            return false;
+        }
+        long[] matrix = matrices[type];
+        if (matrix == null) {
+            return false;
+        }
+        return (matrix[source * wordsPerRow + (target >>> 6)] & (1L << target)) != 0;
+    }
+
+    public void add(EdgeImpl edge) {
+        set(edge.source.storeId, edge.target.storeId, edge.type, true);
+        if (!edge.isDirected()) {
+            set(edge.target.storeId, edge.source.storeId, edge.type, true);
+        }
+    }
+
+    public void set(int source, int target, int type, boolean adjacent) {
+        long[] matrix = getOrCreateMatrix(type);
+        int index = source * wordsPerRow + (target >>> 6);
+        if (adjacent) {
+            matrix[index] |= 1L << target;
+        } else {
+            matrix[index] &= ~(1L << target);
+        }
+    }
+
+    /**
+     * Counts the nodes adjacent to both <em>node1</em> and <em>node2</em>, by
+     * intersecting their rows.
+     *
+     * @param node1 first node store id
+     * @param node2 second node store id
+     * @param type edge type
+     * @return number of common neighbors
+     */
+    public int countCommonNeighbors(int node1, int node2, int type) {
+        if (type >= matrices.length || node1 < 0 || node2 < 0 || node1 >= dimension || node2 >= dimension) {
+            return 0;
+        }
+        long[] matrix = matrices[type];
+        if (matrix == null) {
+            return 0;
+        }
+        int count = 0;
+        int offset1 = node1 * wordsPerRow;
+        int offset2 = node2 * wordsPerRow;
+        for (int i = 0; i < wordsPerRow; i++) {
+            count += Long.bitCount(matrix[offset1 + i] & matrix[offset2 + i]);
+        }
+        return count;
+    }
+
+    private long[] getOrCreateMatrix(int type) {
+        if (type >= matrices.length) {
+            long[][] newMatrices = new long[type + 1][];
+            System.arraycopy(matrices, 0, newMatrices, 0, matrices.length);
+            matrices = newMatrices;
+        }
+        long[] matrix = matrices[type];
+        if (matrix == null) {
+            matrix = new long[dimension * wordsPerRow];
+            matrices[type] = matrix;
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import org.gephi.graph.api.ArrayColumnBuffer;
+
+/**
+ * Value store keeping fixed-length primitive arrays in a single contiguous
+ * buffer.
+ * <p>
+ * The values of all elements are stored back to back in one primitive array,
+ * the value of the element with store id <code>i</code> starting at offset
+ * <code>i * width</code>. A bitmap tells which entries are set, so null values
+ * can be represented. The width is fixed by the first value set, and reset once
+ * the store is empty.
+ * <p>
+ * Values are copied in and out of the buffer, so arrays returned by
+ * {@link #get(int)} can be modified freely. Direct access to the buffer is
+ * given by {@link #getBuffer()}.
+ * <p>
+ * The buffer length <code>capacity * width</code> never exceeds
+ * {@link #MAX_ARRAY_SIZE}, so offsets of stored entries fit in an int. Setting
+ * a value which would need a larger buffer fails with an
+ * <code>IllegalArgumentException</code> and leaves the store unchanged.
+ */
+public class ArrayValueStore extends ColumnValueStore {
+
+    // Largest array length the JVMs reliably allocate
+    protected static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    // Data
+    protected final Class typeClass;
+    protected final Class componentType;
+    protected Object buffer;
+    protected long[] present;
+    protected int width;
+    protected int capacity;
+    protected int size;
+
+    public ArrayValueStore(Class typeClass) {
+        if (!isSupported(typeClass)) {
+            throw new IllegalArgumentException("Unsupported type " + typeClass.getName());
+        }
+        this.typeClass = typeClass;
+        this.componentType = typeClass.getComponentType();
+        this.present = new long[0];
+        this.width = -1;
+    }
+
+    protected static boolean isSupported(Class typeClass) {
+        return typeClass.isArray() && typeClass.getComponentType().isPrimitive();
+    }
+
+    @Override
+    public synchronized Object get(int storeId) {
+        checkStoreId(storeId);
+
+        if (!isSet(storeId)) {
+            return null;
+        }
+        Object value = Array.newInstance(componentType, width);
+        System.arraycopy(buffer, storeId * width, value, 0, width);
+        return value;
+    }
+
+    @Override
+    public synchronized void set(int storeId, Object value) {
+        checkStoreId(storeId);
+
+        if (value == null) {
+            if (isSet(storeId)) {
+                present[storeId >>> 6] &= ~(1L << storeId);
+                if (--size == 0) {
+                    clear();
+                }
+            }
+            return;
+        }
+        checkValue(value);
+
+        int w = width == -1 ? Array.getLength(value) : width;
+        if ((long) (storeId + 1) * w > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("The buffer can't hold " + (storeId + 1L) + " arrays of length " + w);
+        }
+        width = w;
+        ensureCapacity(storeId + 1);
+        System.arraycopy(value, 0, buffer, storeId * width, width);
+        if (!isSet(storeId)) {
+            present[storeId >>> 6] |= 1L << storeId;
+            size++;
+        }
+    }
+
+    @Override
+    protected void checkValue(Object value) {
+        if (value != null) {
+            if (value.getClass() != typeClass) {
+                throw new IllegalArgumentException("The value type should be " + typeClass.getName());
+            }
+            int length = Array.getLength(value);
+            int w = width;
+            if (w != -1 && length != w) {
+                throw new IllegalArgumentException("The array length should be " + w);
+            }
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        buffer = null;
+        present = new long[0];
+        width = -1;
+        capacity = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the length of the stored arrays.
+     *
+     * @return the array length, or -1 if the store is empty
+     */
+    public synchronized int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns a view on the current buffer of this store.
+     *
+     * @return buffer view
+     */
+    public synchronized ArrayColumnBuffer getBuffer() {
+        return new BufferImpl(buffer != null ? buffer : Array.newInstance(componentType, 0), present, width != -1
+                ? width : 0);
+    }
+
+    private boolean isSet(int storeId) {
+        int index = storeId >>> 6;
+        return index < present.length && (present[index] & (1L << storeId)) != 0;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows > capacity) {
+            long newCapacity = Math.max(rows, capacity + (capacity >> 1));
+            if (newCapacity * width > MAX_ARRAY_SIZE) {
+                // Rows fit, as checked by set()
+                newCapacity = MAX_ARRAY_SIZE / width;
+            }
+            Object newBuffer = Array.newInstance(componentType, (int) (newCapacity * width));
+            if (buffer != null) {
+                System.arraycopy(buffer, 0, newBuffer, 0, capacity * width);
+            }
+            buffer = newBuffer;
+            capacity = (int) newCapacity;
+        }
+        int bitmapLength = ((rows - 1) >>> 6) + 1;
+        if (bitmapLength > present.length) {
+            present = Arrays.copyOf(present, Math.max(bitmapLength, present.length + (present.length >> 1)));
+        }
+    }
+
+    protected static class BufferImpl implements ArrayColumnBuffer {
+
+        protected final Object array;
+        protected final long[] present;
+        protected final int width;
+
+        public BufferImpl(Object array, long[] present, int width) {
+            this.array = array;
+            this.present = present;
+            this.width = width;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public Object getArray() {
+            return array;
+        }
+
+        @Override
+        public int getOffset(int storeId) {
+            int index = storeId >>> 6;
+            if (storeId >= 0 && index < present.length && (present[index] & (1L << storeId)) != 0 && (long) (storeId + 1) * width <= Array
+                    .getLength(array)) {
+                return storeId * width;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+/**
+ * Typed access to the values of a column, resolved once per column.
+ * <p>
+ * Elements use it to read and write static primitive values without going
+ * through the generic value standardization and type checks. Values of columns
+ * with the primitive storage are read without boxing, and written without
+ * boxing unless the column is indexed.
+ */
+public class ColumnAccessor {
+
+    protected final ColumnImpl column;
+    // Primitive type, or -1
+    protected final int type;
+    // Unboxed storage, or null
+    protected final PrimitiveValueStore primitiveStore;
+    protected final boolean unboxedWrites;
+    // Values returned when not set
+    protected final double missingDouble;
+    protected final long missingLong;
+    protected final boolean missingBoolean;
+
+    public ColumnAccessor(ColumnImpl column) {
+        this.column = column;
+        this.type = column.isDynamic() ? -1 : PrimitiveValueStore.getType(column.getTypeClass());
+        this.primitiveStore = column.valueStore instanceof PrimitiveValueStore
+                ? (PrimitiveValueStore) column.valueStore : null;
+        this.unboxedWrites = primitiveStore != null && !column.isIndexed();
+
+        Object defaultValue = column.getDefaultValue();
+        this.missingDouble = defaultValue instanceof Number ? ((Number) defaultValue).doubleValue() : Double.NaN;
+        this.missingLong = defaultValue instanceof Number ? ((Number) defaultValue).longValue() : 0l;
+        this.missingBoolean = defaultValue instanceof Boolean ? (Boolean) defaultValue : false;
+    }
+
+    public double getDouble(ElementImpl element) {
+        if (type < PrimitiveValueStore.DOUBLE || type > PrimitiveValueStore.BYTE) {
+            throw new IllegalArgumentException("The column '" + column.getId() + "' isn't a static number column");
+        }
+        if (primitiveStore != null && element.isValid()) {
+            return primitiveStore.getDouble(element.getStoreId(), missingDouble);
+        }
+        Object value = element.readAttribute(column);
+        return value != null ? ((Number) value).doubleValue() : missingDouble;
+    }
+
+    public float getFloat(ElementImpl element) {
+        checkType(PrimitiveValueStore.FLOAT, PrimitiveValueStore.FLOAT);
+        if (primitiveStore != null && element.isValid()) {
+            return (float) primitiveStore.getDouble(element.getStoreId(), missingDouble);
+        }
+        Object value = element.readAttribute(column);
+        return value != null ? (Float) value : (float) missingDouble;
+    }
+
+    public long getLong(ElementImpl element) {
+        checkType(PrimitiveValueStore.LONG, PrimitiveValueStore.BYTE);
+        if (primitiveStore != null && element.isValid()) {
+            return primitiveStore.getLong(element.getStoreId(), missingLong);
+        }
+        Object value = element.readAttribute(column);
+        return value != null ? ((Number) value).longValue() : missingLong;
+    }
+
+    public int getInt(ElementImpl element) {
+        checkType(PrimitiveValueStore.INT, PrimitiveValueStore.BYTE);
+        if (primitiveStore != null && element.isValid()) {
+            return (int) primitiveStore.getLong(element.getStoreId(), missingLong);
+        }
+        Object value = element.readAttribute(column);
+        return value != null ? ((Number) value).intValue() : (int) missingLong;
+    }
+
+    public boolean getBoolean(ElementImpl element) {
+        checkType(PrimitiveValueStore.BOOLEAN, PrimitiveValueStore.BOOLEAN);
+        if (primitiveStore != null && element.isValid()) {
+            return primitiveStore.getBoolean(element.getStoreId(), missingBoolean);
+        }
+        Object value = element.readAttribute(column);
+        return value != null ? (Boolean) value : missingBoolean;
+    }
+
+    public void setDouble(ElementImpl element, double value) {
+        checkType(PrimitiveValueStore.DOUBLE, PrimitiveValueStore.DOUBLE);
+        if (unboxedWrites && element.isValid()) {
+            primitiveStore.setDouble(element.getStoreId(), value);
+            column.incrementVersion(element);
+        } else {
+            element.setAttributeValue(column, value);
+        }
+    }
+
+    public void setFloat(ElementImpl element, float value) {
+        checkType(PrimitiveValueStore.FLOAT, PrimitiveValueStore.FLOAT);
+        if (unboxedWrites && element.isValid()) {
+            primitiveStore.setFloat(element.getStoreId(), value);
+            column.incrementVersion(element);
+        } else {
+            element.setAttributeValue(column, value);
+        }
+    }
+
+    public void setLong(ElementImpl element, long value) {
+        checkType(PrimitiveValueStore.LONG, PrimitiveValueStore.LONG);
+        if (unboxedWrites && element.isValid()) {
+            primitiveStore.setLong(element.getStoreId(), value);
+            column.incrementVersion(element);
+        } else {
+            element.setAttributeValue(column, value);
+        }
+    }
+
+    public void setInt(ElementImpl element, int value) {
+        checkType(PrimitiveValueStore.INT, PrimitiveValueStore.INT);
+        if (unboxedWrites && element.isValid()) {
+            primitiveStore.setInt(element.getStoreId(), value);
+            column.incrementVersion(element);
+        } else {
+            element.setAttributeValue(column, value);
+        }
+    }
+
+    public void setBoolean(ElementImpl element, boolean value) {
+        checkType(PrimitiveValueStore.BOOLEAN, PrimitiveValueStore.BOOLEAN);
+        if (unboxedWrites && element.isValid()) {
+            primitiveStore.setBoolean(element.getStoreId(), value);
+            column.incrementVersion(element);
+        } else {
+            element.setAttributeValue(column, value);
+        }
+    }
+
+    private void checkType(int fromType, int toType) {
+        if (type < fromType || type > toType) {
+            throw new IllegalArgumentException("The column '" + column.getId() + "' type doesn't match (" + column
+                    .getTypeClass().getName() + ")");
+        }
+    }
+}
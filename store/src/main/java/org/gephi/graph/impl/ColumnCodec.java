@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import org.gephi.graph.api.AttributeUtils;
+
+/**
+ * Value conversions of a column, resolved once from the column type.
+ * <p>
+ * The generic methods in {@link AttributeUtils} walk a chain of type tests for
+ * every value. Columns of simple types (numbers, booleans, characters and
+ * strings) instead use a codec recognizing standard values with a single class
+ * comparison. Other types fall back on the generic methods.
+ * <p>
+ * The same goes for serialization, where the codec writes values of the column
+ * type directly instead of going through the type dispatch of
+ * {@link Serialization}. The bytes written are the same.
+ */
+public abstract class ColumnCodec {
+
+    protected final Class typeClass;
+
+    protected ColumnCodec(Class typeClass) {
+        this.typeClass = typeClass;
+    }
+
+    /**
+     * Returns the codec for the given standardized type.
+     *
+     * @param typeClass column type
+     * @return new codec
+     */
+    public static ColumnCodec newCodec(Class typeClass) {
+        if (SimpleCodec.isSupported(typeClass)) {
+            return new SimpleCodec(typeClass);
+        }
+        return new DefaultCodec(typeClass);
+    }
+
+    /**
+     * Standardizes the given value and checks it matches the column type.
+     *
+     * @param value value, or null
+     * @return the standardized value, or null
+     * @throws IllegalArgumentException if the value doesn't match the column
+     *         type
+     */
+    public abstract Object standardize(Object value);
+
+    /**
+     * Writes the given attribute value.
+     *
+     * @param serialization serialization in progress
+     * @param out output
+     * @param value value, or null
+     * @throws IOException if an I/O error occurs
+     */
+    public void serialize(Serialization serialization, DataOutput out, Object value) throws IOException {
+        serialization.serialize(out, value);
+    }
+
+    protected Object standardizeGeneric(Object value) {
+        value = AttributeUtils.standardizeValue(value);
+        ElementImpl.checkType(typeClass, value);
+        return value;
+    }
+
+    protected static class DefaultCodec extends ColumnCodec {
+
+        public DefaultCodec(Class typeClass) {
+            super(typeClass);
+        }
+
+        @Override
+        public Object standardize(Object value) {
+            return standardizeGeneric(value);
+        }
+    }
+
+    protected static class SimpleCodec extends ColumnCodec {
+
+        // Types
+        private static final int STRING = 0;
+        private static final int DOUBLE = 1;
+        private static final int FLOAT = 2;
+        private static final int LONG = 3;
+        private static final int INT = 4;
+        private static final int SHORT = 5;
+        private static final int BYTE = 6;
+        private static final int BOOLEAN = 7;
+        private static final int CHAR = 8;
+        // Data
+        private final int type;
+
+        public SimpleCodec(Class typeClass) {
+            super(typeClass);
+            this.type = getType(typeClass);
+        }
+
+        private static int getType(Class typeClass) {
+            if (typeClass.equals(String.class)) {
+                return STRING;
+            } else if (typeClass.equals(Double.class)) {
+                return DOUBLE;
+            } else if (typeClass.equals(Float.class)) {
+                return FLOAT;
+            } else if (typeClass.equals(Long.class)) {
+                return LONG;
+            } else if (typeClass.equals(Integer.class)) {
+                return INT;
+            } else if (typeClass.equals(Short.class)) {
+                return SHORT;
+            } else if (typeClass.equals(Byte.class)) {
+                return BYTE;
+            } else if (typeClass.equals(Boolean.class)) {
+                return BOOLEAN;
+            } else if (typeClass.equals(Character.class)) {
+                return CHAR;
+            }
+            return -1;
+        }
+
+        private static boolean isSupported(Class typeClass) {
+            return getType(typeClass) != -1;
+        }
+
+        @Override
+        public Object standardize(Object value) {
+            if (value == null || value.getClass() == typeClass) {
+                return value;
+            }
+            return standardizeGeneric(value);
+        }
+
+        @Override
+        public void serialize(Serialization serialization, DataOutput out, Object value) throws IOException {
+            // Other values, like dictionary codes, go through the dispatch
+            if (value == null || value.getClass() != typeClass) {
+                serialization.serialize(out, value);
+                return;
+            }
+            switch (type) {
+                case STRING:
+                    serialization.serializeStringValue(out, (String) value);
+                    break;
+                case DOUBLE:
+                    serialization.serializeDouble(out, (Double) value);
+                    break;
+                case FLOAT:
+                    serialization.serializeFloat(out, (Float) value);
+                    break;
+                case LONG:
+                    serialization.writeLong(out, (Long) value);
+                    break;
+                case INT:
+                    serialization.writeInteger(out, (Integer) value);
+                    break;
+                case SHORT:
+                    serialization.serializeShort(out, (Short) value);
+                    break;
+                case BYTE:
+                    serialization.serializeByte(out, (Byte) value);
+                    break;
+                case BOOLEAN:
+                    serialization.serializeBoolean(out, (Boolean) value);
+                    break;
+                default:
+                    serialization.serializeCharacter(out, (Character) value);
+            }
+        }
+    }
+}
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.List;
 import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnFunction;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Origin;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.Estimator;
@@ -38,13 +40,40 @@ public class ColumnImpl implements Column {
     protected final boolean indexed;
     protected final boolean dynamic;
     protected final boolean readOnly;
+    protected final ColumnStorage storage;
     protected Estimator estimator;
+    // Index built on demand, see IndexStore
+    protected volatile boolean lazyIndex;
+    // Prefix and substring index, see TextIndex
+    protected volatile boolean textIndexed;
+    // Array and collection members index, see MemberIndex
+    protected volatile boolean memberIndexed;
+    // Value-at-time index of dynamic columns, see TemporalIndex
+    protected volatile boolean temporalIndexed;
+    // Column-wise values (optional)
+    protected final ColumnValueStore valueStore;
+    // Typed access
+    protected final ColumnAccessor accessor;
+    protected final ColumnCodec codec;
     // Observers
     protected final List<ColumnObserverImpl> observers;
     // Store Id
     protected int storeId = ColumnStore.NULL_ID;
 
     public ColumnImpl(TableImpl table, String id, Class typeClass, String title, Object defaultValue, Origin origin, boolean indexed, boolean readOnly) {
+        this(table, id, typeClass, title, defaultValue, origin, indexed, readOnly, ColumnStorage.DEFAULT);
+    }
+
+    public ColumnImpl(TableImpl table, String id, Class typeClass, String title, Object defaultValue, Origin origin, boolean indexed, boolean readOnly, ColumnStorage storage) {
+        this(table, id, typeClass, title, defaultValue, origin, indexed, readOnly, storage, null, null);
+    }
+
+    public ColumnImpl(TableImpl table, String id, Class typeClass, String title, boolean indexed, ColumnFunction function, ColumnImpl[] sourceColumns) {
+        this(table, id, typeClass, title, null, Origin.DATA, indexed, true, ColumnStorage.COMPUTED, function,
+                sourceColumns);
+    }
+
+    protected ColumnImpl(TableImpl table, String id, Class typeClass, String title, Object defaultValue, Origin origin, boolean indexed, boolean readOnly, ColumnStorage storage, ColumnFunction function, ColumnImpl[] sourceColumns) {
         if (id == null || id.isEmpty()) {
             throw new IllegalArgumentException("The column ID can't be null or empty");
         }
@@ -54,8 +83,18 @@ public class ColumnImpl implements Column {
         if (origin == null) {
             throw new NullPointerException("The origin can't be null");
         }
+        if (storage == null) {
+            throw new NullPointerException("The storage can't be null");
+        }
+        if (storage.equals(ColumnStorage.COMPUTED) && function == null) {
+            throw new IllegalArgumentException("The computed storage is only supported by computed columns");
+        }
 
         typeClass = AttributeUtils.getStandardizedType(typeClass);
+        if (!ColumnValueStore.isSupported(typeClass, storage)) {
+            throw new IllegalArgumentException(
+                    "The " + storage + " storage is not supported for the type " + typeClass.getName());
+        }
         this.table = table;
         this.id = id.toLowerCase();// Make sure column has lowercase id from
                                    // wherever it's created
@@ -66,9 +105,15 @@ public class ColumnImpl implements Column {
         this.origin = origin;
         this.indexed = indexed;
         this.readOnly = readOnly;
+        this.storage = storage;
+        this.valueStore = storage.equals(ColumnStorage.COMPUTED) ? new ComputedValueStore(this, function,
+                sourceColumns != null ? sourceColumns : new ColumnImpl[0]) : ColumnValueStore
+                .newValueStore(typeClass, storage);
         this.dynamic = TimeMap.class.isAssignableFrom(typeClass) || TimeSet.class.isAssignableFrom(typeClass);
         this.observers = GraphStoreConfiguration.ENABLE_OBSERVERS ? new ArrayList<ColumnObserverImpl>() : null;
         this.estimator = this.dynamic ? Estimator.FIRST : null;
+        this.accessor = new ColumnAccessor(this);
+        this.codec = ColumnCodec.newCodec(typeClass);
     }
 
     public ColumnImpl(String id, Class typeClass, String title, Object defaultValue, Origin origin, boolean indexed, boolean readOnly) {
@@ -100,6 +145,11 @@ public class ColumnImpl implements Column {
         return defaultValue;
     }
 
+    @Override
+    public ColumnStorage getStorage() {
+        return storage;
+    }
+
     @Override
     public Origin getOrigin() {
         return origin;
@@ -115,6 +165,10 @@ public class ColumnImpl implements Column {
         return indexed;
     }
 
+    protected boolean hasSecondaryIndex() {
+        return textIndexed || memberIndexed;
+    }
+
     @Override
     public boolean isArray() {
         return typeClass.isArray();
@@ -201,6 +255,21 @@ public class ColumnImpl implements Column {
         }
     }
 
+    protected void incrementVersion(ElementImpl[] elements, int count) {
+        if (count > 0) {
+            version.incrementAndGetVersion();
+            if (observers != null && !observers.isEmpty()) {
+                synchronized (observers) {
+                    for (ColumnObserverImpl observer : observers) {
+                        for (int i = 0; i < count; i++) {
+                            observer.setElement(elements[i]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     protected void incrementVersion(ElementImpl element) {
         version.incrementAndGetVersion();
         if (observers != null && !observers.isEmpty()) {
@@ -237,6 +306,7 @@ public class ColumnImpl implements Column {
         hash = 31 * hash + (this.defaultValue != null ? this.defaultValue.hashCode() : 0);
         hash = 31 * hash + (this.origin != null ? this.origin.hashCode() : 0);
         hash = 31 * hash + (this.estimator != null ? this.estimator.hashCode() : 0);
+        hash = 31 * hash + this.storage.name().hashCode();
         return hash;
     }
 
@@ -266,6 +336,9 @@ public class ColumnImpl implements Column {
         if (this.estimator != col.estimator) {
             return false;
         }
+        if (this.storage != col.storage) {
+            return false;
+        }
         return true;
     }
 
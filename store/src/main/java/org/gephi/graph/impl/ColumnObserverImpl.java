@@ -17,6 +17,8 @@ package org.gephi.graph.impl;
 
 import cern.colt.bitvector.BitVector;
 import cern.colt.bitvector.QuickBitVector;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import org.gephi.graph.api.AttributeUtils;
@@ -39,6 +41,8 @@ public class ColumnObserverImpl implements ColumnObserver {
     protected boolean destroyed;
     // Config
     protected final boolean withDiff;
+    // Touched elements, in a bit vector once the log overflows
+    protected final IntArrayList changeLog;
     protected BitVector bitVector;
     // Cache
     protected ColumnDiffImpl columnDiff;
@@ -48,6 +52,7 @@ public class ColumnObserverImpl implements ColumnObserver {
         this.graphStore = store;
         this.version = column.version.version.get();
         this.withDiff = withDiff;
+        this.changeLog = withDiff ? new IntArrayList() : null;
     }
 
     @Override
@@ -101,40 +106,82 @@ public class ColumnObserverImpl implements ColumnObserver {
     protected void destroyObserver() {
         destroyed = true;
         columnDiff = null;
-        bitVector = null;
+        if (changeLog != null) {
+            synchronized (changeLog) {
+                changeLog.clear();
+                bitVector = null;
+            }
+        }
     }
 
     private void refreshDiff() {
         boolean node = AttributeUtils.isNodeColumn(column);
         columnDiff = node ? new NodeColumnDiffImpl() : new EdgeColumnDiffImpl();
 
-        int size = bitVector.size();
+        int[] storeIds;
+        BitVector bits;
+        synchronized (changeLog) {
+            storeIds = changeLog.toIntArray();
+            bits = bitVector;
+            changeLog.clear();
+            bitVector = null;
+        }
 
-        for (int i = 0; i < size; i++) {
-            boolean t = bitVector.get(i);
-            if (t && node) {
-                if (graphStore.nodeStore.isValidIndex(i)) {
-                    Node n = graphStore.nodeStore.get(i);
-                    if (n.getStoreId() == i) {
-                        columnDiff.addElement(n);
-                    }
+        if (bits != null) {
+            int size = bits.size();
+            for (int i = 0; i < size; i++) {
+                if (bits.getQuick(i)) {
+                    addElement(i, node);
                 }
-            } else if (t && !node) {
-                if (graphStore.edgeStore.isValidIndex(i)) {
-                    Edge e = graphStore.edgeStore.get(i);
-                    if (e.getStoreId() == i) {
-                        columnDiff.addElement(e);
-                    }
+            }
+        } else {
+            IntArrays.quickSort(storeIds);
+            for (int i = 0; i < storeIds.length; i++) {
+                if (i == 0 || storeIds[i] != storeIds[i - 1]) {
+                    addElement(storeIds[i], node);
+                }
+            }
+        }
+    }
+
+    private void addElement(int storeId, boolean node) {
+        if (node) {
+            if (graphStore.nodeStore.isValidIndex(storeId)) {
+                Node n = graphStore.nodeStore.get(storeId);
+                if (n.getStoreId() == storeId) {
+                    columnDiff.addElement(n);
+                }
+            }
+        } else {
+            if (graphStore.edgeStore.isValidIndex(storeId)) {
+                Edge e = graphStore.edgeStore.get(storeId);
+                if (e.getStoreId() == storeId) {
+                    columnDiff.addElement(e);
                 }
             }
         }
-        bitVector.clear();
     }
 
     protected void setElement(ElementImpl element) {
+        if (!withDiff) {
+            return;
+        }
         int storeId = element.getStoreId();
-        ensureVectorSize(element);
-        bitVector.set(storeId);
+        synchronized (changeLog) {
+            if (bitVector == null && changeLog.size() < GraphStoreConfiguration.COLUMNDIFF_MAX_LOG_SIZE) {
+                changeLog.add(storeId);
+                return;
+            }
+            if (bitVector == null) {
+                // Log overflow, fall back to a bit vector
+                int size = changeLog.size();
+                for (int i = 0; i < size; i++) {
+                    setBit(changeLog.getInt(i));
+                }
+                changeLog.clear();
+            }
+            setBit(storeId);
+        }
     }
 
     protected abstract class ColumnDiffImpl<K extends Element> implements ColumnDiff {
@@ -174,8 +221,7 @@ public class ColumnObserverImpl implements ColumnObserver {
         }
     }
 
-    private void ensureVectorSize(ElementImpl element) {
-        int sid = element.getStoreId();
+    private void setBit(int sid) {
         if (bitVector == null) {
             bitVector = new BitVector(sid + 1);
         } else if (sid >= bitVector.size()) {
@@ -183,6 +229,7 @@ public class ColumnObserverImpl implements ColumnObserver {
                     .min(Math.max(sid + 1, (int) (sid * GraphStoreConfiguration.COLUMNDIFF_GROWING_FACTOR)), Integer.MAX_VALUE);
             bitVector = growBitVector(bitVector, newSize);
         }
+        bitVector.putQuick(sid, true);
     }
 
     private BitVector growBitVector(BitVector bitVector, int size) {
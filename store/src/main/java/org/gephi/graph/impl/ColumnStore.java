@@ -28,6 +28,7 @@ import java.util.Set;
 import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.ColumnIterable;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Element;
@@ -49,6 +50,13 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
     protected final Object2ShortMap<String> idMap;
     protected final ColumnImpl[] columns;
     protected final ShortSortedSet garbageQueue;
+    // Incremented when a column is removed without clearing its values from
+    // the elements, see removeColumn and ElementImpl.clearRemovedAttributes
+    protected volatile int generation;
+    // Generation at which each column index was last removed
+    protected final int[] removedGenerations;
+    // Columns with column-wise values
+    protected volatile ColumnImpl[] valueStoreColumns;
     // Index
     protected final IndexStore<T> indexStore;
     // Version
@@ -72,6 +80,8 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
         this.garbageQueue = new ShortRBTreeSet();
         this.idMap = new Object2ShortOpenHashMap<String>(MAX_SIZE);
         this.columns = new ColumnImpl[MAX_SIZE];
+        this.valueStoreColumns = new ColumnImpl[0];
+        this.removedGenerations = new int[MAX_SIZE];
         this.elementType = elementType;
         this.indexStore = indexed ? new IndexStore<T>(this) : null;
         idMap.defaultReturnValue(NULL_SHORT);
@@ -102,6 +112,7 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
     public void addColumn(final Column column) {
         checkNonNullColumnObject(column);
         checkIndexStatus(column);
+        checkStorage(column);
 
         lock();
         try {
@@ -125,6 +136,9 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
                 if (indexStore != null) {
                     indexStore.addColumn(columnImpl);
                 }
+                if (columnImpl.valueStore != null) {
+                    addValueStoreColumn(columnImpl);
+                }
                 updateConfiguration(column);
             } else {
                 throw new IllegalArgumentException("The column already exist");
@@ -138,44 +152,51 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
         checkNonNullColumnObject(column);
 
         lock();
-        graphWriteLock();
         try {
             final ColumnImpl columnImpl = (ColumnImpl) column;
+            short id = idMap.getShort(column.getId());
+            if (id == NULL_SHORT) {
+                throw new IllegalArgumentException("The column doesnt exist");
+            }
+            int intId = shortToInt(id);
 
             // Clean attributes
-            if (graphStore != null && columnImpl.table != null) {
-                if (AttributeUtils.isNodeColumn(columnImpl)) {
-                    for (Node n : graphStore.nodeStore) {
-                        Object[] attributes = ((NodeImpl) n).attributes;
-                        if (attributes.length > columnImpl.getIndex()) {
-                            attributes[columnImpl.getIndex()] = null;
-                        }
-                    }
-                } else {
-                    for (Edge e : graphStore.edgeStore) {
-                        Object[] attributes = ((EdgeImpl) e).attributes;
-                        if (attributes.length > columnImpl.getIndex()) {
-                            attributes[columnImpl.getIndex()] = null;
-                        }
-                    }
-                }
+            if (columnImpl.valueStore != null) {
+                columnImpl.valueStore.clear();
             }
-
-            short id = idMap.removeShort(column.getId());
-            if (id == NULL_SHORT) {
-                throw new IllegalArgumentException("The column doesnt exist");
+            boolean eager = false;
+            if (columnImpl.valueStore == null && graphStore != null && columnImpl.table != null) {
+                eager = columnImpl.isDynamic() || (!AttributeUtils.isNodeColumn(columnImpl) && intId == GraphStoreConfiguration.EDGE_WEIGHT_INDEX);
+            }
+            if (eager) {
+                // The time index and the edge weights read these values
+                // directly, so they are cleared right away
+                graphWriteLock();
+                try {
+                    clearAttributes(new int[] { intId });
+                } finally {
+                    graphWriteUnlock();
+                }
+            } else {
+                // Elements clear the values on their next access, before the
+                // index is used by another column
+                int newGeneration = generation + 1;
+                removedGenerations[intId] = newGeneration;
+                generation = newGeneration;
             }
+            idMap.removeShort(column.getId());
             garbageQueue.add(id);
 
-            int intId = shortToInt(id);
             columns[intId] = null;
             if (indexStore != null) {
                 indexStore.removeColumn((ColumnImpl) column);
             }
+            if (columnImpl.valueStore != null) {
+                removeValueStoreColumn(columnImpl);
+            }
             columnImpl.setStoreId(NULL_ID);
             updateConfiguration(column);
         } finally {
-            graphWriteUnlock();
             unlock();
         }
     }
@@ -308,23 +329,13 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
                 for (int i = 0; i < indices.length; i++) {
                     indices[i] = cols.get(i).getIndex();
                 }
-                if (graphStore.nodeTable.store == this) {
-                    for (Node n : graphStore.nodeStore) {
-                        Object[] atts = ((NodeImpl) n).attributes;
-                        for (int i = 0; i < indices.length; i++) {
-                            atts[indices[i]] = null;
-                        }
-                    }
-                } else {
-                    for (Edge e : graphStore.edgeStore) {
-                        Object[] atts = ((EdgeImpl) e).attributes;
-                        for (int i = 0; i < indices.length; i++) {
-                            atts[indices[i]] = null;
-                        }
-                    }
-                }
+                clearAttributes(indices);
             }
 
+            for (ColumnImpl column : valueStoreColumns) {
+                column.valueStore.clear();
+            }
+            valueStoreColumns = new ColumnImpl[0];
             garbageQueue.clear();
             idMap.clear();
             length = 0;
@@ -341,6 +352,42 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
         return length - garbageQueue.size();
     }
 
+    private void clearAttributes(int[] indices) {
+        if (graphStore == null || indices.length == 0) {
+            return;
+        }
+        if (graphStore.nodeTable.store == this) {
+            for (Node n : graphStore.nodeStore) {
+                clearAttributes((NodeImpl) n, indices);
+            }
+        } else {
+            for (Edge e : graphStore.edgeStore) {
+                clearAttributes((EdgeImpl) e, indices);
+            }
+        }
+    }
+
+    private void clearAttributes(ElementImpl element, int[] indices) {
+        Object[] attributes = element.attributes;
+        for (int index : indices) {
+            if (index < attributes.length) {
+                attributes[index] = null;
+            }
+        }
+    }
+
+    protected void addValueStoreColumn(ColumnImpl column) {
+        ColumnImpl[] newValueStoreColumns = Arrays.copyOf(valueStoreColumns, valueStoreColumns.length + 1);
+        newValueStoreColumns[valueStoreColumns.length] = column;
+        valueStoreColumns = newValueStoreColumns;
+    }
+
+    protected void removeValueStoreColumn(ColumnImpl column) {
+        List<ColumnImpl> newValueStoreColumns = new ArrayList<ColumnImpl>(Arrays.asList(valueStoreColumns));
+        newValueStoreColumns.remove(column);
+        valueStoreColumns = newValueStoreColumns.toArray(new ColumnImpl[0]);
+    }
+
     protected TableObserverImpl createTableObserver(TableImpl table, boolean withDiff) {
         if (observers != null) {
             lock();
@@ -421,6 +468,17 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
         }
     }
 
+    void checkStorage(final Column column) {
+        if (Edge.class.equals(elementType) && column.getId().equals(GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID)) {
+            if (!column.getStorage().equals(ColumnStorage.DEFAULT) && !column.getStorage()
+                    .equals(ColumnStorage.PRIMITIVE)) {
+                throw new IllegalArgumentException("The weight column only supports the default or primitive storage");
+            }
+        } else if (!column.getStorage().equals(ColumnStorage.DEFAULT) && column.isProperty()) {
+            throw new IllegalArgumentException("Property columns only support the default storage");
+        }
+    }
+
     private final class ColumnStoreIterator implements Iterator<Column> {
 
         private int index;
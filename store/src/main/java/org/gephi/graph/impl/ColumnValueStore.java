@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.ColumnStorage;
+import org.gephi.graph.api.types.TimeMap;
+import org.gephi.graph.api.types.TimeSet;
+
+/**
+ * Column-wise storage of a column's values, indexed by the elements' store id.
+ * <p>
+ * Elements only keep their values in a value store while they belong to the
+ * graph store, as the store id identifies them.
+ */
+public abstract class ColumnValueStore {
+
+    /**
+     * Returns the value stored for the given element store id.
+     *
+     * @param storeId element store id
+     * @return the value, or null if not set
+     */
+    public abstract Object get(int storeId);
+
+    /**
+     * Sets the value for the given element store id. A null value removes the
+     * entry.
+     *
+     * @param storeId element store id
+     * @param value value, or null
+     */
+    public abstract void set(int storeId, Object value);
+
+    /**
+     * Returns the number of non-null values in this store.
+     *
+     * @return number of values
+     */
+    public abstract int size();
+
+    /**
+     * Removes all values from this store.
+     */
+    public abstract void clear();
+
+    protected static boolean isSupported(Class typeClass, ColumnStorage storage) {
+        switch (storage) {
+            case DEFAULT:
+                return true;
+            case PRIMITIVE:
+                return PrimitiveValueStore.isSupported(typeClass);
+            case DICTIONARY:
+                return typeClass.equals(String.class);
+            case CONTIGUOUS:
+                return ArrayValueStore.isSupported(typeClass);
+            case SPARSE:
+                // Dynamic values are updated in place by the element's time
+                // methods, which only use the attributes array
+                return !TimeMap.class.isAssignableFrom(typeClass) && !TimeSet.class.isAssignableFrom(typeClass);
+            case COMPUTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    protected static ColumnValueStore newValueStore(Class typeClass, ColumnStorage storage) {
+        switch (storage) {
+            case DEFAULT:
+                return null;
+            case PRIMITIVE:
+                return new PrimitiveValueStore(typeClass);
+            case DICTIONARY:
+                return new DictionaryValueStore();
+            case SPARSE:
+                return new SparseValueStore(typeClass);
+            case CONTIGUOUS:
+                return new ArrayValueStore(typeClass);
+            default:
+                throw new IllegalArgumentException("Unknown storage " + storage);
+        }
+    }
+
+    /**
+     * Checks the given value can be stored, before any change is made.
+     *
+     * @param value value, or null
+     * @throws IllegalArgumentException if the value can't be stored
+     */
+    protected void checkValue(Object value) {
+    }
+
+    protected void checkStoreId(int storeId) {
+        if (storeId < 0) {
+            throw new IllegalArgumentException("The store id should be positive");
+        }
+    }
+}
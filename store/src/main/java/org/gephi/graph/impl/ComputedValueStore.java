@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.gephi.graph.api.ColumnFunction;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Node;
+
+/**
+ * Value store computing values with a column function and caching them per
+ * element.
+ * <p>
+ * The cache is invalidated when the graph's node or edge version changes, or
+ * when the version of one of the source columns changes. Values are computed
+ * outside of this store's lock, so the function can read other columns.
+ * <p>
+ * If the graph store doesn't track versions, values aren't cached.
+ */
+public class ComputedValueStore extends ColumnValueStore {
+
+    // Null value marker
+    protected static final Object NULL_VALUE = new Object();
+    // Function
+    protected final ColumnImpl column;
+    protected final ColumnFunction function;
+    protected final ColumnImpl[] sourceColumns;
+    // Cache
+    protected final Int2ObjectOpenHashMap<Object> cache;
+    protected int nodeVersion;
+    protected int edgeVersion;
+    protected final int[] sourceVersions;
+    protected int version = Integer.MIN_VALUE + 1;
+
+    public ComputedValueStore(ColumnImpl column, ColumnFunction function, ColumnImpl[] sourceColumns) {
+        if (function == null) {
+            throw new NullPointerException("The function can't be null");
+        }
+        for (ColumnImpl sourceColumn : sourceColumns) {
+            if (sourceColumn == null) {
+                throw new NullPointerException("The source columns can't be null");
+            }
+        }
+        this.column = column;
+        this.function = function;
+        this.sourceColumns = sourceColumns;
+        this.cache = new Int2ObjectOpenHashMap<Object>();
+        this.sourceVersions = new int[sourceColumns.length];
+    }
+
+    @Override
+    public Object get(int storeId) {
+        checkStoreId(storeId);
+
+        GraphStore graphStore = getGraphStore();
+        if (graphStore == null) {
+            return null;
+        }
+
+        int v;
+        synchronized (this) {
+            v = validate();
+            Object value = cache.get(storeId);
+            if (value != null) {
+                return value == NULL_VALUE ? null : value;
+            }
+        }
+
+        Element element = Node.class.equals(column.table.store.elementType) ? graphStore.nodeStore.get(storeId)
+                : graphStore.edgeStore.get(storeId);
+        Object value = function.compute(element, graphStore);
+        if (value != null && !column.getTypeClass().isInstance(value)) {
+            throw new IllegalArgumentException(
+                    "The computed value class does not match with the column type (" + column.getTypeClass().getName() + ")");
+        }
+
+        synchronized (this) {
+            if (graphStore.version != null && validate() == v) {
+                cache.put(storeId, value == null ? NULL_VALUE : value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void set(int storeId, Object value) {
+        checkStoreId(storeId);
+        if (value != null) {
+            throw new IllegalStateException("The values of a computed column can't be set");
+        }
+        cache.remove(storeId);
+    }
+
+    @Override
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        cache.clear();
+        cache.trim();
+        version++;
+    }
+
+    /**
+     * Invalidates the cache if the graph or a source column has changed since
+     * the values were computed, and returns the cache version.
+     * <p>
+     * The version changes every time the cache is invalidated.
+     *
+     * @return the cache version
+     */
+    public synchronized int validate() {
+        GraphStore graphStore = getGraphStore();
+        boolean valid = graphStore != null && graphStore.version != null;
+        if (valid) {
+            GraphVersion graphVersion = graphStore.version;
+            if (graphVersion.nodeVersion != nodeVersion || graphVersion.edgeVersion != edgeVersion) {
+                nodeVersion = graphVersion.nodeVersion;
+                edgeVersion = graphVersion.edgeVersion;
+                valid = false;
+            }
+            for (int i = 0; i < sourceColumns.length; i++) {
+                int sourceVersion = sourceColumns[i].version.version.get();
+                if (sourceVersion != sourceVersions[i]) {
+                    sourceVersions[i] = sourceVersion;
+                    valid = false;
+                }
+            }
+        }
+        if (!valid) {
+            cache.clear();
+            version++;
+        }
+        return version;
+    }
+
+    private GraphStore getGraphStore() {
+        return column.table != null ? column.table.store.graphStore : null;
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.Arrays;
+import org.gephi.graph.api.DegreeIndex;
+import org.gephi.graph.api.DegreeType;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Node;
+
+/**
+ * Degree index implementation, based on bucket queues.
+ * <p>
+ * For each degree type, nodes are kept in doubly-linked lists, one per degree
+ * value, threaded through arrays indexed by node store id. Adding or removing
+ * an edge moves its endpoints to the neighbouring bucket in constant time and
+ * the minimum and maximum degrees are adjusted as buckets fill or empty.
+ * <p>
+ * Indices are only built when first queried, so graphs that never query degrees
+ * don't pay for them. They are then maintained incrementally, until a bulk
+ * operation invalidates a view index. Nodes are resolved through the node
+ * store.
+ */
+public class DegreeIndexImpl implements DegreeIndex {
+
+    // Const
+    protected static final int NULL_ID = -1;
+    protected static final int DEFAULT_CAPACITY = 16;
+    // Lock (optional)
+    protected final GraphLock lock;
+    // View, null if main index
+    protected final GraphViewImpl view;
+    // Stores
+    protected final EdgeStore edgeStore;
+    protected NodeStore nodeStore;
+    // Data
+    protected final DegreeBuckets[] buckets;
+    protected int capacity;
+    protected int size;
+    protected volatile boolean built;
+
+    public DegreeIndexImpl(GraphLock lock, EdgeStore edgeStore) {
+        this.lock = lock;
+        this.view = null;
+        this.edgeStore = edgeStore;
+        this.buckets = new DegreeBuckets[DegreeType.values().length];
+    }
+
+    public DegreeIndexImpl(GraphLock lock, GraphViewImpl view) {
+        this.lock = lock;
+        this.view = view;
+        this.edgeStore = view.graphStore.edgeStore;
+        this.nodeStore = view.graphStore.nodeStore;
+        this.buckets = new DegreeBuckets[DegreeType.values().length];
+    }
+
+    @Override
+    public Node[] getTopKByDegree(int k, DegreeType type) {
+        checkK(k);
+        checkDegreeType(type);
+
+        readLock();
+        try {
+            ensureBuilt();
+            DegreeBuckets b = buckets[type.ordinal()];
+            Node[] result = new Node[Math.min(k, size)];
+            int count = 0;
+            for (int d = b.maxDegree; d >= 0 && count < result.length; d--) {
+                for (int id = b.heads[d]; id != NULL_ID && count < result.length; id = b.next[id]) {
+                    result[count++] = nodeStore.get(id);
+                }
+            }
+            return result;
+        } finally {
+            readUnlock();
+        }
+    }
+
+    @Override
+    public int getMinDegree(DegreeType type) {
+        checkDegreeType(type);
+
+        readLock();
+        try {
+            ensureBuilt();
+            return Math.max(0, buckets[type.ordinal()].minDegree);
+        } finally {
+            readUnlock();
+        }
+    }
+
+    @Override
+    public int getMaxDegree(DegreeType type) {
+        checkDegreeType(type);
+
+        readLock();
+        try {
+            ensureBuilt();
+            return Math.max(0, buckets[type.ordinal()].maxDegree);
+        } finally {
+            readUnlock();
+        }
+    }
+
+    @Override
+    public int countNodes(int degree, DegreeType type) {
+        checkDegreeType(type);
+
+        readLock();
+        try {
+            ensureBuilt();
+            DegreeBuckets b = buckets[type.ordinal()];
+            if (degree < 0 || degree > b.maxDegree) {
+                return 0;
+            }
+            return b.counts[degree];
+        } finally {
+            readUnlock();
+        }
+    }
+
+    @Override
+    public int[] getDegreeHistogram(DegreeType type) {
+        checkDegreeType(type);
+
+        readLock();
+        try {
+            ensureBuilt();
+            DegreeBuckets b = buckets[type.ordinal()];
+            int[] histogram = new int[b.maxDegree + 1];
+            System.arraycopy(b.counts, 0, histogram, 0, histogram.length);
+            return histogram;
+        } finally {
+            readUnlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    protected void addNode(NodeImpl node) {
+        if (built) {
+            insertNode(node);
+        }
+    }
+
+    private void insertNode(NodeImpl node) {
+        if (contains(node)) {
+            return;
+        }
+        int id = node.storeId;
+        ensureCapacity(id + 1);
+        size++;
+        for (DegreeBuckets b : buckets) {
+            b.insert(id, 0);
+        }
+    }
+
+    protected void removeNode(NodeImpl node) {
+        if (!built || !contains(node)) {
+            return;
+        }
+        int id = node.storeId;
+        for (DegreeBuckets b : buckets) {
+            int degree = b.degrees[id];
+            b.unlink(id);
+            b.degrees[id] = NULL_ID;
+            b.bucketChanged(degree);
+        }
+        size--;
+    }
+
+    protected void addEdge(EdgeImpl edge) {
+        if (built) {
+            insertEdge(edge);
+        }
+    }
+
+    private void insertEdge(EdgeImpl edge) {
+        if (contains(edge.source)) {
+            buckets[DegreeType.OUT.ordinal()].move(edge.source.storeId, 1);
+            buckets[DegreeType.ALL.ordinal()].move(edge.source.storeId, 1);
+        }
+        if (contains(edge.target)) {
+            buckets[DegreeType.IN.ordinal()].move(edge.target.storeId, 1);
+            buckets[DegreeType.ALL.ordinal()].move(edge.target.storeId, 1);
+        }
+    }
+
+    protected void removeEdge(EdgeImpl edge) {
+        if (!built) {
+            return;
+        }
+        if (contains(edge.source)) {
+            buckets[DegreeType.OUT.ordinal()].move(edge.source.storeId, -1);
+            buckets[DegreeType.ALL.ordinal()].move(edge.source.storeId, -1);
+        }
+        if (contains(edge.target)) {
+            buckets[DegreeType.IN.ordinal()].move(edge.target.storeId, -1);
+            buckets[DegreeType.ALL.ordinal()].move(edge.target.storeId, -1);
+        }
+    }
+
+    protected void clearEdges() {
+        if (!built) {
+            return;
+        }
+        for (DegreeBuckets b : buckets) {
+            b.clear();
+            for (int i = 0; i < capacity; i++) {
+                if (b.degrees[i] != NULL_ID) {
+                    b.insert(i, 0);
+                }
+            }
+        }
+    }
+
+    protected void clear() {
+        if (built) {
+            initIndex();
+        }
+    }
+
+    protected void invalidate() {
+        if (view != null) {
+            built = false;
+            releaseIndex();
+        }
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (this) {
+                if (!built) {
+                    initIndex();
+                    if (view != null) {
+                        for (Node node : view.getDirectedGraph().getNodes()) {
+                            insertNode((NodeImpl) node);
+                        }
+                        for (Edge edge : view.getDirectedGraph().getEdges()) {
+                            insertEdge((EdgeImpl) edge);
+                        }
+                    } else {
+                        for (Node node : nodeStore) {
+                            insertNode((NodeImpl) node);
+                        }
+                        for (Edge edge : edgeStore) {
+                            insertEdge((EdgeImpl) edge);
+                        }
+                    }
+                    // Only published once complete, readers skipping the
+                    // monitor must not see partial buckets
+                    built = true;
+                }
+            }
+        }
+    }
+
+    private void initIndex() {
+        capacity = DEFAULT_CAPACITY;
+        size = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new DegreeBuckets(DEFAULT_CAPACITY);
+        }
+    }
+
+    private void releaseIndex() {
+        capacity = 0;
+        size = 0;
+        Arrays.fill(buckets, null);
+    }
+
+    private boolean contains(NodeImpl node) {
+        // Nodes not in the index have no degree
+        int id = node.storeId;
+        return id != NodeStore.NULL_ID && id < capacity && buckets[0].degrees[id] != NULL_ID;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            int newCapacity = Math.max(minCapacity, (int) (capacity * 1.5));
+            for (DegreeBuckets b : buckets) {
+                b.ensureCapacity(newCapacity);
+            }
+            capacity = newCapacity;
+        }
+    }
+
+    private void readLock() {
+        if (lock != null) {
+            lock.readLock();
+        }
+    }
+
+    private void readUnlock() {
+        if (lock != null) {
+            lock.readUnlock();
+        }
+    }
+
+    private void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("K should be positive or zero");
+        }
+    }
+
+    private void checkDegreeType(DegreeType type) {
+        if (type == null) {
+            throw new NullPointerException("The degree type can't be null");
+        }
+    }
+
+    protected static class DegreeBuckets {
+
+        // Per node, indexed by store id
+        protected int[] degrees;
+        protected int[] next;
+        protected int[] previous;
+        // Per degree
+        protected int[] heads;
+        protected int[] counts;
+        protected int minDegree = NULL_ID;
+        protected int maxDegree = NULL_ID;
+
+        public DegreeBuckets(int capacity) {
+            degrees = new int[capacity];
+            next = new int[capacity];
+            previous = new int[capacity];
+            heads = new int[DEFAULT_CAPACITY];
+            counts = new int[DEFAULT_CAPACITY];
+            Arrays.fill(degrees, NULL_ID);
+            Arrays.fill(heads, NULL_ID);
+        }
+
+        public void insert(int id, int degree) {
+            if (degree >= heads.length) {
+                int oldLength = heads.length;
+                int newLength = Math.max(degree + 1, oldLength * 2);
+                heads = Arrays.copyOf(heads, newLength);
+                counts = Arrays.copyOf(counts, newLength);
+                Arrays.fill(heads, oldLength, newLength, NULL_ID);
+            }
+            int head = heads[degree];
+            degrees[id] = degree;
+            next[id] = head;
+            previous[id] = NULL_ID;
+            if (head != NULL_ID) {
+                previous[head] = id;
+            }
+            heads[degree] = id;
+            counts[degree]++;
+
+            if (degree > maxDegree) {
+                maxDegree = degree;
+            }
+            if (minDegree == NULL_ID || degree < minDegree) {
+                minDegree = degree;
+            }
+        }
+
+        public void unlink(int id) {
+            int degree = degrees[id];
+            int n = next[id];
+            int p = previous[id];
+            if (p != NULL_ID) {
+                next[p] = n;
+            } else {
+                heads[degree] = n;
+            }
+            if (n != NULL_ID) {
+                previous[n] = p;
+            }
+            counts[degree]--;
+        }
+
+        public void move(int id, int delta) {
+            int degree = degrees[id];
+            unlink(id);
+            // Insert first so min and max only need to skip the emptied bucket
+            insert(id, degree + delta);
+            bucketChanged(degree);
+        }
+
+        public void bucketChanged(int degree) {
+            if (counts[degree] > 0) {
+                return;
+            }
+            if (degree == maxDegree) {
+                while (maxDegree >= 0 && counts[maxDegree] == 0) {
+                    maxDegree--;
+                }
+            }
+            if (degree == minDegree) {
+                if (maxDegree == NULL_ID) {
+                    minDegree = NULL_ID;
+                } else {
+                    while (counts[minDegree] == 0) {
+                        minDegree++;
+                    }
+                }
+            }
+        }
+
+        public void ensureCapacity(int capacity) {
+            int oldLength = degrees.length;
+            degrees = Arrays.copyOf(degrees, capacity);
+            Arrays.fill(degrees, oldLength, capacity, NULL_ID);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+        }
+
+        public void clear() {
+            Arrays.fill(heads, NULL_ID);
+            Arrays.fill(counts, 0);
+            minDegree = NULL_ID;
+            maxDegree = NULL_ID;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Arrays;
+
+/**
+ * Value store encoding string values as integer codes into a per-column
+ * dictionary.
+ * <p>
+ * Each distinct value is stored once in the dictionary and elements only keep
+ * its code, so low-cardinality columns use 4 bytes per element and share the
+ * same string instances. For indexed columns, values reach the store after
+ * going through the index, so the dictionary and the index value map hold the
+ * same string instances. Dictionary entries are reference counted and their
+ * codes recycled when no element uses them anymore.
+ * <p>
+ * The code <code>0</code> is reserved for null values.
+ */
+public class DictionaryValueStore extends ColumnValueStore {
+
+    // Config
+    protected static final int BLOCK_SIZE = GraphStoreConfiguration.COLUMNSTORE_VALUE_BLOCK_SIZE;
+    protected static final int NULL_CODE = 0;
+    // Codes
+    protected int[][] blocks;
+    protected int[] blockCounts;
+    protected int size;
+    // Dictionary
+    protected final Object2IntOpenHashMap<String> dictionary;
+    protected String[] values;
+    protected int[] counts;
+    protected final IntArrayList freeCodes;
+    protected int length;
+
+    public DictionaryValueStore() {
+        this.blocks = new int[0][];
+        this.blockCounts = new int[0];
+        this.dictionary = new Object2IntOpenHashMap<String>();
+        this.dictionary.defaultReturnValue(NULL_CODE);
+        this.values = new String[16];
+        this.counts = new int[16];
+        this.freeCodes = new IntArrayList();
+        this.length = 1;
+    }
+
+    @Override
+    public synchronized Object get(int storeId) {
+        // Code and value are read under the same lock, the code could
+        // otherwise be released and reused in between
+        return getValue(getCode(storeId));
+    }
+
+    /**
+     * Returns the code for the given element store id.
+     *
+     * @param storeId element store id
+     * @return the code, or <code>0</code> if not set
+     */
+    public synchronized int getCode(int storeId) {
+        checkStoreId(storeId);
+
+        int[][] b = blocks;
+        int blockIndex = storeId / BLOCK_SIZE;
+        if (blockIndex < b.length) {
+            int[] block = b[blockIndex];
+            if (block != null) {
+                return block[storeId % BLOCK_SIZE];
+            }
+        }
+        return NULL_CODE;
+    }
+
+    /**
+     * Returns the dictionary value for the given code.
+     *
+     * @param code code
+     * @return the value, or null if the code is <code>0</code>
+     */
+    public synchronized String getValue(int code) {
+        if (code < 0 || code >= length) {
+            throw new IllegalArgumentException("The code " + code + " is not in the dictionary");
+        }
+        return values[code];
+    }
+
+    /**
+     * Returns the code of the given value, or <code>0</code> if the value isn't
+     * in the dictionary.
+     *
+     * @param value value
+     * @return the code
+     */
+    public synchronized int getCode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        return dictionary.getInt(value);
+    }
+
+    @Override
+    public synchronized void set(int storeId, Object value) {
+        checkStoreId(storeId);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(
+                    "The value class does not match with the store type (" + String.class.getName() + ")");
+        }
+
+        int blockIndex = storeId / BLOCK_SIZE;
+        int index = storeId % BLOCK_SIZE;
+        int oldCode = getCode(storeId);
+        int newCode = value != null ? acquire((String) value) : NULL_CODE;
+        if (oldCode == newCode) {
+            if (newCode != NULL_CODE) {
+                release(newCode);
+            }
+            return;
+        }
+
+        if (newCode != NULL_CODE) {
+            if (blockIndex >= blocks.length) {
+                blocks = Arrays.copyOf(blocks, blockIndex + 1);
+                blockCounts = Arrays.copyOf(blockCounts, blockIndex + 1);
+            }
+            if (blocks[blockIndex] == null) {
+                blocks[blockIndex] = new int[BLOCK_SIZE];
+            }
+        }
+        int[] block = blocks[blockIndex];
+        block[index] = newCode;
+
+        if (oldCode == NULL_CODE) {
+            blockCounts[blockIndex]++;
+            size++;
+        } else {
+            release(oldCode);
+            if (newCode == NULL_CODE) {
+                size--;
+                if (--blockCounts[blockIndex] == 0) {
+                    blocks[blockIndex] = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of distinct values in the dictionary.
+     *
+     * @return number of distinct values
+     */
+    public synchronized int countValues() {
+        return dictionary.size();
+    }
+
+    /**
+     * Returns the dictionary as an array indexed by code. Unused codes have
+     * null values.
+     *
+     * @return dictionary values
+     */
+    public synchronized String[] getDictionary() {
+        return Arrays.copyOf(values, length);
+    }
+
+    @Override
+    public synchronized void clear() {
+        blocks = new int[0][];
+        blockCounts = new int[0];
+        size = 0;
+        dictionary.clear();
+        Arrays.fill(values, null);
+        Arrays.fill(counts, 0);
+        freeCodes.clear();
+        length = 1;
+    }
+
+    private int acquire(String value) {
+        int code = dictionary.getInt(value);
+        if (code == NULL_CODE) {
+            if (!freeCodes.isEmpty()) {
+                code = freeCodes.popInt();
+            } else {
+                code = length++;
+                if (code >= values.length) {
+                    int newLength = (int) (values.length * 1.5) + 1;
+                    values = Arrays.copyOf(values, newLength);
+                    counts = Arrays.copyOf(counts, newLength);
+                }
+            }
+            values[code] = value;
+            dictionary.put(value, code);
+        }
+        counts[code]++;
+        return code;
+    }
+
+    private void release(int code) {
+        if (--counts[code] == 0) {
+            dictionary.removeInt(values[code]);
+            values[code] = null;
+            freeCodes.add(code);
+        }
+    }
+}
@@ -80,8 +80,12 @@ public class EdgeImpl extends ElementImpl implements Edge {
 
     @Override
     public double getWeight() {
+        PrimitiveValueStore weightStore = getWeightStore();
+        if (weightStore != null) {
+            return weightStore.getDouble(storeId, DEFAULT_DYNAMIC_EDGE_WEIGHT_WHEN_MISSING);
+        }
         synchronized (this) {
-            Object weightObject = attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+            Object weightObject = getWeightObject();
             if (weightObject instanceof Double) {
                 return (Double) weightObject;
             } else {
@@ -142,7 +146,7 @@ public class EdgeImpl extends ElementImpl implements Edge {
     @Override
     public double getWeight(double timestamp) {
         synchronized (this) {
-            Object weightValue = attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+            Object weightValue = getWeightObject();
             if (weightValue instanceof Double) {
                 throw new IllegalStateException("The weight is static, call getWeight() instead");
             }
@@ -164,7 +168,7 @@ public class EdgeImpl extends ElementImpl implements Edge {
     @Override
     public double getWeight(Interval interval) {
         synchronized (this) {
-            Object weightValue = attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+            Object weightValue = getWeightObject();
             if (weightValue instanceof Double) {
                 throw new IllegalStateException("The weight is static, call getWeight() instead");
             }
@@ -185,8 +189,12 @@ public class EdgeImpl extends ElementImpl implements Edge {
 
     @Override
     public double getWeight(GraphView view) {
+        PrimitiveValueStore weightStore = getWeightStore();
+        if (weightStore != null) {
+            return weightStore.getDouble(storeId, DEFAULT_DYNAMIC_EDGE_WEIGHT_WHEN_MISSING);
+        }
         synchronized (this) {
-            Object value = attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+            Object value = getWeightObject();
             if (value instanceof TimeMap) {
                 Interval interval = view.getTimeInterval();
                 checkViewExist((GraphView) view);
@@ -212,7 +220,7 @@ public class EdgeImpl extends ElementImpl implements Edge {
     @Override
     public Iterable<Map.Entry> getWeights() {
         synchronized (this) {
-            Object weightValue = attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+            Object weightValue = getWeightObject();
             if (weightValue instanceof Double) {
                 throw new IllegalStateException("The weight is static, call getWeight() instead");
             }
@@ -246,8 +254,13 @@ public class EdgeImpl extends ElementImpl implements Edge {
     public void setWeight(double weight) {
         checkWeightStaticType();
 
-        synchronized (this) {
-            attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX] = weight;
+        PrimitiveValueStore weightStore = getWeightStore();
+        if (weightStore != null) {
+            weightStore.setDouble(storeId, weight);
+        } else {
+            synchronized (this) {
+                attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX] = weight;
+            }
         }
         ColumnStore columnStore = getColumnStore();
         if (columnStore != null && isValid()) {
@@ -256,6 +269,34 @@ public class EdgeImpl extends ElementImpl implements Edge {
         }
     }
 
+    private Object getWeightObject() {
+        PrimitiveValueStore weightStore = getWeightStore();
+        if (weightStore != null) {
+            return weightStore.get(storeId);
+        }
+        synchronized (this) {
+            return attributes.length > GraphStoreConfiguration.EDGE_WEIGHT_INDEX
+                    ? attributes[GraphStoreConfiguration.EDGE_WEIGHT_INDEX] : null;
+        }
+    }
+
+    /**
+     * Returns the store holding the static weights unboxed, see
+     * <code>GraphStore.newEdgeWeightColumn()</code>. Only set while the edge is
+     * in the store, otherwise the weight is in the attributes array.
+     *
+     * @return weight store or null
+     */
+    private PrimitiveValueStore getWeightStore() {
+        if (graphStore != null && isValid()) {
+            ColumnImpl column = graphStore.edgeTable.store.columns[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+            if (column != null && column.valueStore instanceof PrimitiveValueStore) {
+                return (PrimitiveValueStore) column.valueStore;
+            }
+        }
+        return null;
+    }
+
     public int getNextOutEdge() {
         return nextOutEdge;
     }
@@ -15,6 +15,7 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenCustomHashMap;
 import it.unimi.dsi.fastutil.longs.LongHash;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
@@ -28,9 +29,12 @@ import java.util.Iterator;
 import java.util.List;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.ElementVisitor;
+import org.gephi.graph.api.GraphView;
 import org.gephi.graph.api.Node;
+import org.gephi.graph.api.ParallelElementIterable;
 
-public class EdgeStore implements Collection<Edge>, EdgeIterable {
+public class EdgeStore implements Collection<Edge>, EdgeIterable, ParallelElementIterable<Edge> {
 
     // Const
     protected final static int NULL_ID = -1;
@@ -45,6 +49,9 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
     protected EdgeBlock currentBlock;
     protected Object2IntOpenHashMap dictionary;
     protected Long2ObjectOpenCustomHashMap<int[]>[] longDictionary;
+    protected volatile AdjacencyMatrix adjacencyMatrix;
+    protected boolean adjacencyMatrixEnabled;
+    protected int maxNodeStoreId;
     // Stats
     protected int undirectedSize;
     protected int mutualEdgesSize;
@@ -57,6 +64,8 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
     protected final EdgeTypeStore edgeTypeStore;
     // View store
     protected final GraphViewStore viewStore;
+    // Degree index (optional)
+    protected final DegreeIndexImpl degreeIndex;
 
     public EdgeStore() {
         initStore();
@@ -64,6 +73,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         this.edgeTypeStore = null;
         this.viewStore = null;
         this.version = null;
+        this.degreeIndex = null;
     }
 
     public EdgeStore(final EdgeTypeStore edgeTypeStore, final GraphLock lock, final GraphViewStore viewStore, final GraphVersion graphVersion) {
@@ -72,6 +82,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         this.edgeTypeStore = edgeTypeStore;
         this.viewStore = viewStore;
         this.version = graphVersion;
+        this.degreeIndex = GraphStoreConfiguration.ENABLE_DEGREE_INDEX ? new DegreeIndexImpl(lock, this) : null;
     }
 
     private void initStore() {
@@ -89,6 +100,8 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
                 GraphStoreConfiguration.EDGESTORE_DEFAULT_DICTIONARY_SIZE,
                 GraphStoreConfiguration.EDGESTORE_DICTIONARY_LOAD_FACTOR, new DictionaryHashStrategy());
         this.mutualEdgesTypeSize = new int[GraphStoreConfiguration.EDGESTORE_DEFAULT_TYPE_COUNT];
+        this.adjacencyMatrix = null;
+        this.maxNodeStoreId = NULL_ID;
     }
 
     private void ensureCapacity(final int capacity) {
@@ -281,9 +294,14 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
 
         for (EdgeStoreIterator itr = new EdgeStoreIterator(); itr.hasNext();) {
             EdgeImpl edge = itr.next();
+            edge.releaseAttributes();
             edge.setStoreId(EdgeStore.NULL_ID);
         }
         initStore();
+
+        if (degreeIndex != null) {
+            degreeIndex.clearEdges();
+        }
     }
 
     @Override
@@ -415,6 +433,48 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         return blocks[id / GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE].get(id);
     }
 
+    /**
+     * Copies the weights of all edges in <code>out</code>, indexed by edge
+     * store id. Store ids without an edge are set to <code>NaN</code>.
+     * <p>
+     * Static weights are copied block-wise from their primitive store, when
+     * there is one. Otherwise dynamic weights are estimated edge by edge for
+     * the given view.
+     *
+     * @param out destination array, at least as long as the maximum store id
+     * @param view view used to estimate dynamic weights
+     * @param weightStore store of the static weights, or null
+     */
+    protected void getWeights(final double[] out, final GraphView view, final PrimitiveValueStore weightStore) {
+        if (weightStore != null) {
+            weightStore.copyDoubles(out, GraphStoreConfiguration.DEFAULT_DYNAMIC_EDGE_WEIGHT_WHEN_MISSING);
+            // Store ids without an edge
+            for (int i = 0; i < blocksCount; i++) {
+                EdgeBlock block = blocks[i];
+                for (int j = 0; j < block.nodeLength; j++) {
+                    if (block.backingArray[j] == null) {
+                        out[block.offset + j] = Double.NaN;
+                    }
+                }
+            }
+            int maxStoreId = maxStoreId();
+            if (maxStoreId < out.length) {
+                Arrays.fill(out, maxStoreId, out.length, Double.NaN);
+            }
+            return;
+        }
+        Arrays.fill(out, Double.NaN);
+        for (int i = 0; i < blocksCount; i++) {
+            EdgeBlock block = blocks[i];
+            for (int j = 0; j < block.nodeLength; j++) {
+                EdgeImpl edge = block.backingArray[j];
+                if (edge != null) {
+                    out[edge.storeId] = edge.getWeight(view);
+                }
+            }
+        }
+    }
+
     public EdgeImpl get(final Object id) {
         checkNonNullObject(id);
 
@@ -439,6 +499,12 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         NodeImpl sourceImpl = (NodeImpl) source;
         NodeImpl targetImpl = (NodeImpl) target;
 
+        AdjacencyMatrix matrix = getAdjacencyMatrix();
+        if (matrix != null && !matrix.isAdjacent(sourceImpl.storeId, targetImpl.storeId, type) && !(undirectedDecorator && matrix
+                .isAdjacent(targetImpl.storeId, sourceImpl.storeId, type))) {
+            return null;
+        }
+
         if (type < longDictionary.length) {
             if (isUndirectedGraph()) {
                 int[] index = longDictionary[type].get(getLongId(sourceImpl, targetImpl, false));
@@ -582,6 +648,10 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             source.outDegree++;
             target.inDegree++;
 
+            if (degreeIndex != null) {
+                degreeIndex.addEdge(edge);
+            }
+
             if (dicoValue == null) {
                 dicoValue = new int[] { edge.storeId };
             } else {
@@ -590,6 +660,8 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             }
             dico.put(longId, dicoValue);
 
+            maxNodeStoreId = Math.max(maxNodeStoreId, Math.max(source.storeId, target.storeId));
+
             if (viewStore != null) {
                 viewStore.addEdge(edge);
             }
@@ -618,6 +690,14 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             }
 
             size++;
+
+            AdjacencyMatrix matrix = adjacencyMatrix;
+            if (matrix != null && matrix.fits(source) && matrix.fits(target)) {
+                matrix.add(edge);
+            } else if (adjacencyMatrixEnabled) {
+                // Rebuilt with a larger dimension, if dense enough
+                updateAdjacencyMatrix();
+            }
             return true;
         } else if (isValidIndex(edge.storeId) && get(edge.storeId) == edge) {
             return false;
@@ -657,6 +737,10 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             source.outDegree--;
             target.inDegree--;
 
+            if (degreeIndex != null) {
+                degreeIndex.removeEdge(edge);
+            }
+
             size--;
             garbageSize++;
             dictionary.remove(edge.getId());
@@ -719,6 +803,14 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
                 undirectedSize--;
             }
 
+            AdjacencyMatrix matrix = adjacencyMatrix;
+            if (matrix != null) {
+                matrix.set(source.storeId, target.storeId, type, containsInDictionary(source, target, type));
+                if (!directed) {
+                    matrix.set(target.storeId, source.storeId, type, containsInDictionary(target, source, type));
+                }
+            }
+
             if (edgeTypeStore != null) {
                 // TODO - if type count is zero, do smthing
             }
@@ -750,6 +842,115 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         checkNonNullObject(source);
         checkNonNullObject(target);
 
+        AdjacencyMatrix matrix = getAdjacencyMatrix();
+        if (matrix != null) {
+            return matrix.isAdjacent(source.storeId, target.storeId, type);
+        }
+        return containsInDictionary(source, target, type);
+    }
+
+    /**
+     * Counts the nodes that are neighbors of both <em>node1</em> and
+     * <em>node2</em> through edges of the given type, as returned by
+     * {@link #neighborIterator(org.gephi.graph.api.Node, int)}.
+     * <p>
+     * This intersects the rows of the adjacency matrix when it's enabled and
+     * the graph is undirected, and intersects neighbor sets otherwise.
+     *
+     * @param node1 first node
+     * @param node2 second node
+     * @param type edge type
+     * @return number of common neighbors
+     */
+    public int countCommonNeighbors(Node node1, Node node2, int type) {
+        checkValidNodeObject(node1);
+        checkValidNodeObject(node2);
+
+        AdjacencyMatrix matrix = adjacencyMatrix;
+        if (matrix != null && isUndirectedGraph()) {
+            // Rows are symmetric, so they hold all the neighbors
+            return matrix.countCommonNeighbors(((NodeImpl) node1).storeId, ((NodeImpl) node2).storeId, type);
+        }
+        return countCommonNeighbors(neighborIterator(node1, type), neighborIterator(node2, type));
+    }
+
+    /**
+     * Counts the distinct nodes returned by both iterators. Both iterators are
+     * consumed entirely, as some only release their read lock at the end.
+     *
+     * @param neighbors1 first neighbors
+     * @param neighbors2 second neighbors
+     * @return number of common nodes
+     */
+    protected static int countCommonNeighbors(Iterator<Node> neighbors1, Iterator<Node> neighbors2) {
+        IntOpenHashSet storeIds = new IntOpenHashSet();
+        while (neighbors1.hasNext()) {
+            storeIds.add(neighbors1.next().getStoreId());
+        }
+        int count = 0;
+        while (neighbors2.hasNext()) {
+            if (storeIds.remove(neighbors2.next().getStoreId())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the adjacency matrix, if enabled and the graph is small and dense
+     * enough.
+     *
+     * @return adjacency matrix, or null if not used
+     */
+    protected AdjacencyMatrix getAdjacencyMatrix() {
+        return adjacencyMatrix;
+    }
+
+    /**
+     * Enables or disables the adjacency matrix. When enabled, the matrix is
+     * built right away if the graph is small and dense enough, and later on
+     * edge additions once it becomes so.
+     *
+     * @param enabled true to enable the matrix
+     */
+    protected void setAdjacencyMatrixEnabled(boolean enabled) {
+        adjacencyMatrixEnabled = enabled;
+        if (enabled) {
+            updateAdjacencyMatrix();
+        } else {
+            adjacencyMatrix = null;
+        }
+    }
+
+    private void updateAdjacencyMatrix() {
+        if (!isAdjacencyMatrixSuitable()) {
+            adjacencyMatrix = null;
+            return;
+        }
+        int dimension = (int) Math.min(GraphStoreConfiguration.EDGESTORE_ADJACENCY_MATRIX_MAX_NODES, Math
+                .ceil((maxNodeStoreId + 1) * GraphStoreConfiguration.EDGESTORE_ADJACENCY_MATRIX_GROWING_FACTOR));
+        AdjacencyMatrix matrix = new AdjacencyMatrix(dimension);
+        for (int i = 0; i < blocksCount; i++) {
+            EdgeBlock block = blocks[i];
+            for (int j = 0; j < block.nodeLength; j++) {
+                EdgeImpl edge = block.backingArray[j];
+                if (edge != null) {
+                    matrix.add(edge);
+                }
+            }
+        }
+        adjacencyMatrix = matrix;
+    }
+
+    private boolean isAdjacencyMatrixSuitable() {
+        if (!adjacencyMatrixEnabled || size == 0) {
+            return false;
+        }
+        long nodes = maxNodeStoreId + 1;
+        return nodes <= GraphStoreConfiguration.EDGESTORE_ADJACENCY_MATRIX_MAX_NODES && size >= nodes * nodes * GraphStoreConfiguration.EDGESTORE_ADJACENCY_MATRIX_MIN_DENSITY;
+    }
+
+    private boolean containsInDictionary(NodeImpl source, NodeImpl target, int type) {
         if (type < longDictionary.length) {
             if (isUndirectedGraph()) {
                 return longDictionary[type].containsKey(getLongId(source, target, false));
@@ -988,6 +1189,24 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         readUnlock();
     }
 
+    @Override
+    public void parallelForEach(final ElementVisitor<Edge> visitor) {
+        readLock();
+        try {
+            ParallelExecutor.forEach(lock, newSpliterator(), visitor);
+        } finally {
+            readUnlock();
+        }
+    }
+
+    public EdgeStoreSpliterator newSpliterator() {
+        return new EdgeStoreSpliterator(false);
+    }
+
+    public EdgeStoreSpliterator newUndirectedSpliterator() {
+        return new EdgeStoreSpliterator(true);
+    }
+
     void checkUndirectedNotExist(EdgeImpl edge) {
         int type = edge.type;
         if (type < longDictionary.length) {
@@ -1183,6 +1402,33 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
     }
 
+    protected final class EdgeStoreSpliterator implements ElementSpliterator<Edge> {
+
+        private final boolean undirected;
+
+        public EdgeStoreSpliterator(boolean undirected) {
+            this.undirected = undirected;
+        }
+
+        @Override
+        public int getChunkCount() {
+            return blocksCount;
+        }
+
+        @Override
+        public void visitChunk(int chunk, ElementVisitor<Edge> visitor) {
+            EdgeBlock block = blocks[chunk];
+            EdgeImpl[] backingArray = block.backingArray;
+            int length = block.nodeLength;
+            for (int i = 0; i < length; i++) {
+                EdgeImpl edge = backingArray[i];
+                if (edge != null && !(undirected && isUndirectedToIgnore(edge))) {
+                    visitor.visit(edge);
+                }
+            }
+        }
+    }
+
     protected class EdgeStoreIterator implements Iterator<Edge> {
 
         protected int blockIndex;
@@ -15,10 +15,10 @@
  */
 package org.gephi.graph.impl;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.ColumnIterable;
 import org.gephi.graph.api.Estimator;
@@ -36,6 +36,7 @@ import org.gephi.graph.api.types.TimestampStringMap;
 import org.gephi.graph.api.types.TimestampMap;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.PrimitiveAttributes;
 import org.gephi.graph.api.TimeRepresentation;
 import org.gephi.graph.api.types.IntervalBooleanMap;
 import org.gephi.graph.api.types.IntervalByteMap;
@@ -51,12 +52,14 @@ import org.gephi.graph.api.types.IntervalStringMap;
 import org.gephi.graph.api.types.TimeMap;
 import org.gephi.graph.api.types.TimeSet;
 
-public abstract class ElementImpl implements Element {
+public abstract class ElementImpl implements Element, PrimitiveAttributes {
 
     // Reference to store
     protected final GraphStore graphStore;
     // Attributes
     protected Object[] attributes;
+    // Column store generation the attributes were last cleared at
+    protected int attributesGeneration;
 
     public ElementImpl(Object id, GraphStore graphStore) {
         if (id == null) {
@@ -93,11 +96,17 @@ public abstract class ElementImpl implements Element {
     public Object getAttribute(Column column) {
         checkColumn(column);
 
-        int index = column.getIndex();
         Object res = null;
-        synchronized (this) {
-            if (index < attributes.length) {
-                res = attributes[index];
+        ColumnValueStore valueStore = getValueStore(column);
+        if (valueStore != null) {
+            res = valueStore.get(getStoreId());
+        } else {
+            int index = column.getIndex();
+            synchronized (this) {
+                clearRemovedAttributes();
+                if (index < attributes.length) {
+                    res = attributes[index];
+                }
             }
         }
 
@@ -136,6 +145,7 @@ public abstract class ElementImpl implements Element {
 
         int index = column.getIndex();
         synchronized (this) {
+            clearRemovedAttributes();
             TimeMap dynamicValue = null;
             if (index < attributes.length) {
                 dynamicValue = (TimeMap) attributes[index];
@@ -164,6 +174,7 @@ public abstract class ElementImpl implements Element {
 
             int index = column.getIndex();
             synchronized (this) {
+                clearRemovedAttributes();
                 TimeMap dynamicValue = null;
                 if (index < attributes.length) {
                     dynamicValue = (TimeMap) attributes[index];
@@ -183,7 +194,23 @@ public abstract class ElementImpl implements Element {
 
     @Override
     public Object[] getAttributes() {
-        return attributes;
+        ColumnStore columnStore = getColumnStore();
+        Object[] res;
+        synchronized (this) {
+            clearRemovedAttributes();
+            res = attributes;
+            if (columnStore != null && columnStore.valueStoreColumns.length > 0 && isValid()) {
+                res = Arrays.copyOf(attributes, Math.max(attributes.length, columnStore.length));
+            }
+        }
+        if (res != attributes) {
+            // Value stores have their own lock and computed values may read
+            // other elements
+            for (ColumnImpl column : columnStore.valueStoreColumns) {
+                res[column.getIndex()] = column.valueStore.get(getStoreId());
+            }
+        }
+        return res;
     }
 
     @Override
@@ -208,16 +235,23 @@ public abstract class ElementImpl implements Element {
 
         int index = column.getIndex();
         Object oldValue = null;
+        ColumnValueStore valueStore = getValueStore(column);
         synchronized (this) {
-            if (index >= attributes.length) {
-                Object[] newArray = new Object[index + 1];
-                System.arraycopy(attributes, 0, newArray, 0, attributes.length);
-                attributes = newArray;
+            if (valueStore != null) {
+                oldValue = valueStore.get(getStoreId());
+                valueStore.set(getStoreId(), null);
             } else {
-                oldValue = attributes[index];
-            }
+                clearRemovedAttributes();
+                if (index >= attributes.length) {
+                    Object[] newArray = new Object[index + 1];
+                    System.arraycopy(attributes, 0, newArray, 0, attributes.length);
+                    attributes = newArray;
+                } else {
+                    oldValue = attributes[index];
+                }
 
-            attributes[index] = null;
+                attributes[index] = null;
+            }
         }
 
         if (isValid()) {
@@ -232,7 +266,10 @@ public abstract class ElementImpl implements Element {
                         timeIndexStore.remove((TimeSet) oldValue);
                     }
                 }
-            } else if (column.isIndexed() && columnStore != null && isValid()) {
+                if (columnImpl.temporalIndexed && columnStore != null) {
+                    columnStore.indexStore.setTemporal(column, (TimeMap) oldValue, null, this);
+                }
+            } else if ((column.isIndexed() || columnImpl.hasSecondaryIndex()) && columnStore != null && isValid()) {
                 columnStore.indexStore.set(column, oldValue, column.getDefaultValue(), this);
             }
             columnImpl.incrementVersion(this);
@@ -272,12 +309,18 @@ public abstract class ElementImpl implements Element {
         Object oldValue = null;
         boolean res = false;
         synchronized (this) {
+            clearRemovedAttributes();
             TimeMap dynamicValue = (TimeMap) attributes[index];
             if (dynamicValue != null) {
                 oldValue = dynamicValue.get(timeObject, null);
 
                 res = dynamicValue.remove(timeObject);
             }
+
+            ColumnStore columnStore = getColumnStore();
+            if (res && ((ColumnImpl) column).temporalIndexed && columnStore != null && isValid()) {
+                columnStore.indexStore.setTemporal(column, timeObject, oldValue, null, this);
+            }
         }
 
         if (res && isValid()) {
@@ -294,15 +337,24 @@ public abstract class ElementImpl implements Element {
     public void setLabel(String label) {
         if (GraphStoreConfiguration.ENABLE_ELEMENT_LABEL) {
             int index = GraphStoreConfiguration.ELEMENT_LABEL_INDEX;
+            ColumnStore columnStore = getColumnStore();
             synchronized (this) {
+                String oldLabel = null;
                 if (index >= attributes.length) {
                     Object[] newArray = new Object[index + 1];
                     System.arraycopy(attributes, 0, newArray, 0, attributes.length);
                     attributes = newArray;
+                } else {
+                    oldLabel = (String) attributes[index];
+                }
+                if (columnStore != null && columnStore.indexStore != null && isValid()) {
+                    ColumnImpl col = (ColumnImpl) columnStore.getColumnByIndex(index);
+                    if (col.textIndexed) {
+                        columnStore.indexStore.set(col, oldLabel, label, this);
+                    }
                 }
                 attributes[index] = label;
             }
-            ColumnStore columnStore = getColumnStore();
             if (columnStore != null && isValid()) {
                 Column col = columnStore.getColumnByIndex(index);
                 ((ColumnImpl) col).incrementVersion(this);
@@ -320,20 +372,102 @@ public abstract class ElementImpl implements Element {
         checkColumn(column);
         checkReadOnlyColumn(column);
 
-        value = AttributeUtils.standardizeValue(value);
-        checkType(column, value);
+        value = ((ColumnImpl) column).codec.standardize(value);
+        setAttributeValue(column, value);
+    }
+
+    @Override
+    public double getDouble(Column column) {
+        checkColumn(column);
+        return ((ColumnImpl) column).accessor.getDouble(this);
+    }
+
+    @Override
+    public float getFloat(Column column) {
+        checkColumn(column);
+        return ((ColumnImpl) column).accessor.getFloat(this);
+    }
+
+    @Override
+    public long getLong(Column column) {
+        checkColumn(column);
+        return ((ColumnImpl) column).accessor.getLong(this);
+    }
+
+    @Override
+    public int getInt(Column column) {
+        checkColumn(column);
+        return ((ColumnImpl) column).accessor.getInt(this);
+    }
+
+    @Override
+    public boolean getBoolean(Column column) {
+        checkColumn(column);
+        return ((ColumnImpl) column).accessor.getBoolean(this);
+    }
+
+    @Override
+    public void setDouble(Column column, double value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        ((ColumnImpl) column).accessor.setDouble(this, value);
+    }
+
+    @Override
+    public void setFloat(Column column, float value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        ((ColumnImpl) column).accessor.setFloat(this, value);
+    }
+
+    @Override
+    public void setLong(Column column, long value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        ((ColumnImpl) column).accessor.setLong(this, value);
+    }
+
+    @Override
+    public void setInt(Column column, int value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        ((ColumnImpl) column).accessor.setInt(this, value);
+    }
 
+    @Override
+    public void setBoolean(Column column, boolean value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        ((ColumnImpl) column).accessor.setBoolean(this, value);
+    }
+
+    /**
+     * Sets an already standardized and type-checked value for the given column.
+     *
+     * @param column column
+     * @param value value, or null
+     */
+    void setAttributeValue(Column column, Object value) {
         int index = column.getIndex();
         ColumnStore columnStore = getColumnStore();
+        ColumnValueStore valueStore = getValueStore(column);
+        if (valueStore != null) {
+            valueStore.checkValue(value);
+        }
         Object oldValue = null;
 
         synchronized (this) {
-            if (index >= attributes.length) {
-                Object[] newArray = new Object[index + 1];
-                System.arraycopy(attributes, 0, newArray, 0, attributes.length);
-                attributes = newArray;
+            if (valueStore != null) {
+                oldValue = valueStore.get(getStoreId());
             } else {
-                oldValue = attributes[index];
+                clearRemovedAttributes();
+                if (index >= attributes.length) {
+                    Object[] newArray = new Object[index + 1];
+                    System.arraycopy(attributes, 0, newArray, 0, attributes.length);
+                    attributes = newArray;
+                } else {
+                    oldValue = attributes[index];
+                }
             }
 
             if (column.isDynamic() && isValid()) {
@@ -355,10 +489,17 @@ public abstract class ElementImpl implements Element {
                         }
                     }
                 }
-            } else if (column.isIndexed() && columnStore != null && isValid()) {
+                if (((ColumnImpl) column).temporalIndexed && columnStore != null) {
+                    columnStore.indexStore.setTemporal(column, (TimeMap) oldValue, (TimeMap) value, this);
+                }
+            } else if ((column.isIndexed() || ((ColumnImpl) column).hasSecondaryIndex()) && columnStore != null && isValid()) {
                 value = columnStore.indexStore.set(column, oldValue, value, this);
             }
-            attributes[index] = value;
+            if (valueStore != null) {
+                valueStore.set(getStoreId(), value);
+            } else {
+                attributes[index] = value;
+            }
         }
         if (isValid()) {
             ((ColumnImpl) column).incrementVersion(this);
@@ -398,6 +539,7 @@ public abstract class ElementImpl implements Element {
         Object oldValue = null;
         boolean res;
         synchronized (this) {
+            clearRemovedAttributes();
             if (index >= attributes.length) {
                 Object[] newArray = new Object[index + 1];
                 System.arraycopy(attributes, 0, newArray, 0, attributes.length);
@@ -419,7 +561,13 @@ public abstract class ElementImpl implements Element {
                 dynamicValue = (TimeMap) oldValue;
             }
 
+            Object oldTimeValue = dynamicValue.get(timeObject, null);
             res = dynamicValue.put(timeObject, value);
+
+            ColumnStore columnStore = getColumnStore();
+            if (((ColumnImpl) column).temporalIndexed && columnStore != null && isValid()) {
+                columnStore.indexStore.setTemporal(column, timeObject, oldTimeValue, value, this);
+            }
         }
 
         if (res && isValid()) {
@@ -593,6 +741,7 @@ public abstract class ElementImpl implements Element {
         int index = column.getIndex();
         TimeMap dynamicValue = null;
         synchronized (this) {
+            clearRemovedAttributes();
             if (index < attributes.length) {
                 dynamicValue = (TimeMap) attributes[index];
             }
@@ -618,9 +767,23 @@ public abstract class ElementImpl implements Element {
 
     protected void indexAttributes() {
         synchronized (this) {
+            clearRemovedAttributes();
             ColumnStore columnStore = getColumnStore();
             if (columnStore != null) {
                 columnStore.indexStore.index(this);
+
+                // Move values to the column-wise stores
+                ColumnImpl[] valueStoreColumns = columnStore.valueStoreColumns;
+                if (valueStoreColumns.length > 0) {
+                    for (ColumnImpl column : valueStoreColumns) {
+                        int index = column.getIndex();
+                        if (index < attributes.length) {
+                            column.valueStore.set(getStoreId(), attributes[index]);
+                            attributes[index] = null;
+                        }
+                    }
+                    trimAttributes(columnStore);
+                }
             }
 
             TimeIndexStore timeIndexStore = getTimeIndexStore();
@@ -633,6 +796,7 @@ public abstract class ElementImpl implements Element {
     @Override
     public void clearAttributes() {
         synchronized (this) {
+            clearRemovedAttributes();
             if (isValid()) {
                 ColumnStore columnStore = getColumnStore();
                 if (columnStore != null) {
@@ -647,6 +811,14 @@ public abstract class ElementImpl implements Element {
             if (timeSet != null) {
                 timeSet.clear();
             }
+            if (isValid()) {
+                ColumnStore columnStore = getColumnStore();
+                if (columnStore != null) {
+                    for (ColumnImpl column : columnStore.valueStoreColumns) {
+                        column.valueStore.set(getStoreId(), null);
+                    }
+                }
+            }
 
             Object[] newAttributes = new Object[GraphStoreConfiguration.ELEMENT_ID_INDEX + 1];
             newAttributes[GraphStoreConfiguration.ELEMENT_ID_INDEX] = attributes[GraphStoreConfiguration.ELEMENT_ID_INDEX];
@@ -654,6 +826,128 @@ public abstract class ElementImpl implements Element {
         }
     }
 
+    /**
+     * Drops the trailing slots of the attributes array whose column keeps its
+     * values in a value store. Slots of default columns are kept.
+     *
+     * @param columnStore column store
+     */
+    private void trimAttributes(ColumnStore columnStore) {
+        ColumnImpl[] columns = columnStore.columns;
+        int length = attributes.length;
+        while (length > GraphStoreConfiguration.ELEMENT_ID_INDEX + 1 && attributes[length - 1] == null) {
+            ColumnImpl column = length - 1 < columns.length ? columns[length - 1] : null;
+            if (column != null && column.valueStore == null) {
+                break;
+            }
+            length--;
+        }
+        if (length < attributes.length) {
+            attributes = Arrays.copyOf(attributes, length);
+        }
+    }
+
+    /**
+     * Moves this element's values from the column-wise stores back to its
+     * attributes array. Called before the element loses its store id.
+     */
+    protected void releaseAttributes() {
+        synchronized (this) {
+            clearRemovedAttributes();
+            ColumnStore columnStore = getColumnStore();
+            if (columnStore != null && isValid()) {
+                ColumnImpl[] valueStoreColumns = columnStore.valueStoreColumns;
+                for (ColumnImpl column : valueStoreColumns) {
+                    Object value = column.valueStore.get(getStoreId());
+                    if (value != null) {
+                        int index = column.getIndex();
+                        if (index >= attributes.length) {
+                            attributes = Arrays.copyOf(attributes, columnStore.length);
+                        }
+                        attributes[index] = value;
+                        column.valueStore.set(getStoreId(), null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the raw value for the given column, without default value.
+     *
+     * @param column column
+     * @return value, or null if not set
+     */
+    Object readAttribute(Column column) {
+        ColumnValueStore valueStore = getValueStore(column);
+        if (valueStore != null) {
+            return valueStore.get(getStoreId());
+        }
+        synchronized (this) {
+            clearRemovedAttributes();
+            int index = column.getIndex();
+            if (index < attributes.length) {
+                return attributes[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the raw value for the given column, without updating indexes or
+     * versions.
+     *
+     * @param column column
+     * @param value value, or null
+     */
+    void writeAttribute(Column column, Object value) {
+        ColumnValueStore valueStore = getValueStore(column);
+        if (valueStore != null) {
+            valueStore.set(getStoreId(), value);
+            return;
+        }
+        synchronized (this) {
+            clearRemovedAttributes();
+            int index = column.getIndex();
+            if (index >= attributes.length) {
+                Object[] newArray = new Object[index + 1];
+                System.arraycopy(attributes, 0, newArray, 0, attributes.length);
+                attributes = newArray;
+            }
+            attributes[index] = value;
+        }
+    }
+
+    /**
+     * Clears the values of the columns removed since the last call. Removed
+     * columns don't walk the elements, so this must be called with this
+     * element's monitor held before its attributes array is used.
+     */
+    protected void clearRemovedAttributes() {
+        ColumnStore columnStore = getColumnStore();
+        if (columnStore != null) {
+            int generation = columnStore.generation;
+            if (generation != attributesGeneration) {
+                int[] removedGenerations = columnStore.removedGenerations;
+                int length = Math.min(attributes.length, removedGenerations.length);
+                for (int i = 0; i < length; i++) {
+                    if (removedGenerations[i] > attributesGeneration) {
+                        attributes[i] = null;
+                    }
+                }
+                attributesGeneration = generation;
+            }
+        }
+    }
+
+    private ColumnValueStore getValueStore(Column column) {
+        ColumnValueStore valueStore = ((ColumnImpl) column).valueStore;
+        if (valueStore != null && isValid()) {
+            return valueStore;
+        }
+        return null;
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
@@ -735,8 +1029,11 @@ public abstract class ElementImpl implements Element {
     }
 
     void checkType(Column column, Object value) {
+        checkType(column.getTypeClass(), value);
+    }
+
+    static void checkType(Class typeClass, Object value) {
         if (value != null) {
-            Class typeClass = column.getTypeClass();
             if (TimestampMap.class.isAssignableFrom(typeClass)) {
                 if ((value instanceof Double && (!typeClass.equals(TimestampDoubleMap.class))) || (value instanceof Float && !typeClass
                         .equals(TimestampFloatMap.class)) || (value instanceof Boolean && !typeClass
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.ElementVisitor;
+
+/**
+ * Source of elements cut into independent chunks that can be visited
+ * concurrently.
+ * <p>
+ * Chunks follow the natural layout of the data, for instance store blocks or
+ * ranges of words in a view's bit vector. Implementations expect the caller to
+ * hold the read lock.
+ *
+ * @param <T> the element class
+ */
+public interface ElementSpliterator<T extends Element> {
+
+    public int getChunkCount();
+
+    public void visitChunk(int chunk, ElementVisitor<T> visitor);
+}
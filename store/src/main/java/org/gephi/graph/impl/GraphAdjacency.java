@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+
+/**
+ * Read access to the adjacency of a graph, straight from the edge store and the
+ * view's bit vectors.
+ * <p>
+ * Nodes are addressed by their store id. Neighbors are read with a
+ * {@link Cursor}, which walks the node's edge lists and skips the edges that
+ * aren't in the view. Directed edges are followed from source to target only,
+ * unless the adjacency is symmetric. Undirected edges are always followed both
+ * ways.
+ * <p>
+ * Nothing is copied, so the caller must hold the read lock while the adjacency
+ * is used, see {@link #readLock()}. Cursors can then be used concurrently, one
+ * per thread.
+ */
+public final class GraphAdjacency {
+
+    private final GraphStore store;
+    private final GraphViewImpl view;
+    private final boolean symmetric;
+
+    public static GraphAdjacency create(Graph graph, boolean symmetric) {
+        if (graph instanceof GraphStore) {
+            return new GraphAdjacency((GraphStore) graph, null, symmetric);
+        } else if (graph instanceof UndirectedDecorator) {
+            return new GraphAdjacency(((UndirectedDecorator) graph).store, null, true);
+        } else if (graph instanceof GraphViewDecorator) {
+            GraphViewDecorator decorator = (GraphViewDecorator) graph;
+            return new GraphAdjacency(decorator.graphStore, decorator.view, symmetric || decorator.undirected);
+        } else if (graph == null) {
+            throw new NullPointerException();
+        }
+        throw new IllegalArgumentException("Unsupported graph implementation: " + graph.getClass().getName());
+    }
+
+    private GraphAdjacency(GraphStore store, GraphViewImpl view, boolean symmetric) {
+        this.store = store;
+        this.view = view;
+        this.symmetric = symmetric;
+    }
+
+    public void readLock() {
+        store.autoReadLock();
+    }
+
+    public void readUnlock() {
+        store.autoReadUnlock();
+    }
+
+    public int getNodeCapacity() {
+        return store.nodeStore.maxStoreId();
+    }
+
+    public boolean containsNode(int storeId) {
+        if (storeId < 0 || storeId >= store.nodeStore.maxStoreId()) {
+            return false;
+        }
+        NodeImpl node = store.nodeStore.blocks[storeId / GraphStoreConfiguration.NODESTORE_BLOCK_SIZE].get(storeId);
+        return node != null && (view == null || view.containsNode(node));
+    }
+
+    public boolean containsNode(Node node) {
+        return node != null && containsNode(node.getStoreId());
+    }
+
+    /**
+     * Returns the average weight of the edges in the graph.
+     *
+     * @return average weight or zero if there are no edges
+     * @throws IllegalArgumentException if a weight is negative
+     */
+    public double getAverageWeight() {
+        EdgeStore edgeStore = store.edgeStore;
+        double sum = 0.0;
+        int count = 0;
+        for (int i = 0; i < edgeStore.blocksCount; i++) {
+            EdgeStore.EdgeBlock block = edgeStore.blocks[i];
+            for (int j = 0; j < block.nodeLength; j++) {
+                EdgeImpl edge = block.backingArray[j];
+                if (edge != null && isIncluded(edge)) {
+                    sum += checkWeight(getWeight(edge));
+                    count++;
+                }
+            }
+        }
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    private boolean isIncluded(EdgeImpl edge) {
+        return view == null || (view.containsEdge(edge) && view.containsNode(edge.source) && view
+                .containsNode(edge.target));
+    }
+
+    private double getWeight(EdgeImpl edge) {
+        return view != null ? edge.getWeight(view) : edge.getWeight();
+    }
+
+    private static double checkWeight(double weight) {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Edge weights must be non-negative: " + weight);
+        }
+        return weight;
+    }
+
+    /**
+     * Iterates over the neighbors of a node.
+     * <p>
+     * Call {@link #reset(int)} with the node's store id and then
+     * {@link #next()} until it returns false. Cursors are reusable but not
+     * thread-safe.
+     */
+    public final class Cursor {
+
+        private NodeImpl node;
+        private boolean in;
+        private int typeIndex;
+        private EdgeImpl pointer;
+        private EdgeImpl edge;
+        private int neighbor;
+
+        private Cursor() {
+        }
+
+        public void reset(int storeId) {
+            node = store.nodeStore.get(storeId);
+            in = false;
+            typeIndex = 0;
+            pointer = null;
+            edge = null;
+        }
+
+        public boolean next() {
+            EdgeStore edgeStore = store.edgeStore;
+            while (true) {
+                while (pointer == null) {
+                    EdgeImpl[] heads = in ? node.headIn : node.headOut;
+                    if (typeIndex < heads.length) {
+                        pointer = heads[typeIndex++];
+                    } else if (!in && (symmetric || edgeStore.undirectedSize > 0)) {
+                        in = true;
+                        typeIndex = 0;
+                    } else {
+                        edge = null;
+                        return false;
+                    }
+                }
+                EdgeImpl current = pointer;
+                int nextId = in ? current.nextInEdge : current.nextOutEdge;
+                pointer = nextId != EdgeStore.NULL_ID ? edgeStore.get(nextId) : null;
+
+                if (in && (current.source == current.target || (!symmetric && current.isDirected()))) {
+                    continue;
+                }
+                if (isIncluded(current)) {
+                    edge = current;
+                    neighbor = in ? current.source.storeId : current.target.storeId;
+                    return true;
+                }
+            }
+        }
+
+        public int neighbor() {
+            return neighbor;
+        }
+
+        /**
+         * Returns the weight of the current edge.
+         *
+         * @return edge weight
+         * @throws IllegalArgumentException if the weight is negative
+         */
+        public double weight() {
+            return checkWeight(getWeight(edge));
+        }
+    }
+}
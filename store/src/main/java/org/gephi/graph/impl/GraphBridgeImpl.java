@@ -20,7 +20,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Element;
@@ -91,6 +93,10 @@ public class GraphBridgeImpl implements GraphBridge {
         TableImpl<Edge> edgeTable = store.edgeTable;
         copyColumns(sourceStore.edgeTable, edgeTable);
 
+        // Copy computed columns, once their source columns exist
+        copyComputedColumns(sourceStore.nodeTable, nodeTable);
+        copyComputedColumns(sourceStore.edgeTable, edgeTable);
+
         // Copy nodes
         GraphFactory factory = store.factory;
         for (Node node : nodes) {
@@ -175,17 +181,37 @@ public class GraphBridgeImpl implements GraphBridge {
 
     private void copyColumns(TableImpl sourceTable, TableImpl destTable) {
         for (Column col : sourceTable.toArray()) {
-            if (!col.isProperty() && !destTable.hasColumn(col.getId())) {
+            if (!col.isProperty() && !isComputed(col) && !destTable.hasColumn(col.getId())) {
                 destTable.addColumn(col.getId(), col.getTitle(), col.getTypeClass(), col.getOrigin(), col
-                        .getDefaultValue(), col.isIndexed());
+                        .getDefaultValue(), col.isIndexed(), col.getStorage());
             }
         }
     }
 
+    private void copyComputedColumns(TableImpl sourceTable, TableImpl destTable) {
+        for (Column col : sourceTable.toArray()) {
+            if (isComputed(col) && !destTable.hasColumn(col.getId())) {
+                ComputedValueStore valueStore = (ComputedValueStore) ((ColumnImpl) col).valueStore;
+                Column[] sourceColumns = new Column[valueStore.sourceColumns.length];
+                for (int i = 0; i < sourceColumns.length; i++) {
+                    ColumnImpl sourceColumn = valueStore.sourceColumns[i];
+                    TableImpl table = AttributeUtils.isNodeColumn(sourceColumn) ? store.nodeTable : store.edgeTable;
+                    sourceColumns[i] = table.getColumn(sourceColumn.getId());
+                }
+                destTable.addComputedColumn(col.getId(), col.getTitle(), col.getTypeClass(), valueStore.function, col
+                        .isIndexed(), sourceColumns);
+            }
+        }
+    }
+
+    private boolean isComputed(Column col) {
+        return col.getStorage().equals(ColumnStorage.COMPUTED);
+    }
+
     private void copyAttributes(TableImpl sourceTable, TableImpl destTable, Element element, Element elementCopy) {
         TimeRepresentation tr = sourceTable.store.configuration.getTimeRepresentation();
         for (Column col : sourceTable.toArray()) {
-            if (!col.isProperty()) {
+            if (!col.isProperty() && !isComputed(col)) {
                 Column colCopy = destTable.getColumn(col.getId());
                 if (col.isDynamic() && tr.equals(TimeRepresentation.TIMESTAMP)) {
                     for (Map.Entry<Double, Object> entry : element.getAttributes(col)) {
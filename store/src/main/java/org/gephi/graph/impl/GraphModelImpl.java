@@ -15,9 +15,13 @@
  */
 package org.gephi.graph.impl;
 
+import java.util.Arrays;
+import java.util.Collection;
 import org.gephi.graph.api.Configuration;
+import org.gephi.graph.api.DegreeIndex;
 import org.gephi.graph.api.HierarchicalGraphView;
 import org.gephi.graph.api.Index;
+import org.gephi.graph.api.IndexPredicate;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.TimeFormat;
 import org.gephi.graph.api.Interval;
@@ -254,6 +258,30 @@ public class GraphModelImpl implements GraphModel {
         return store.viewStore.createView(view, node, edge);
     }
 
+    @Override
+    public GraphView createNodeView(IndexPredicate predicate) {
+        IndexStore<Node> indexStore = store.nodeTable.store.indexStore;
+        if (indexStore == null) {
+            throw new UnsupportedOperationException("The node table isn't indexed");
+        }
+        Collection<Node> nodes = indexStore.mainIndex.get(predicate);
+        GraphView view = store.viewStore.createView(true, false);
+        store.viewStore.getGraph(view).addAllNodes(nodes);
+        return view;
+    }
+
+    @Override
+    public GraphView createEdgeView(IndexPredicate predicate) {
+        IndexStore<Edge> indexStore = store.edgeTable.store.indexStore;
+        if (indexStore == null) {
+            throw new UnsupportedOperationException("The edge table isn't indexed");
+        }
+        Collection<Edge> edges = indexStore.mainIndex.get(predicate);
+        GraphView view = store.viewStore.createView(false, true);
+        store.viewStore.getGraph(view).addAllEdges(edges);
+        return view;
+    }
+
     @Override
     public void destroyView(GraphView view) {
         store.viewStore.destroyView(view);
@@ -325,6 +353,39 @@ public class GraphModelImpl implements GraphModel {
         return null;
     }
 
+    @Override
+    public DegreeIndex getDegreeIndex() {
+        return getDegreeIndex(store.mainGraphView);
+    }
+
+    @Override
+    public DegreeIndex getDegreeIndex(GraphView view) {
+        if (view.isMainView()) {
+            return store.edgeStore.degreeIndex;
+        }
+        return ((GraphViewImpl) view).degreeIndex;
+    }
+
+    @Override
+    public void setAdjacencyMatrixEnabled(boolean enabled) {
+        store.autoWriteLock();
+        try {
+            store.edgeStore.setAdjacencyMatrixEnabled(enabled);
+        } finally {
+            store.autoWriteUnlock();
+        }
+    }
+
+    @Override
+    public boolean isAdjacencyMatrixEnabled() {
+        store.autoReadLock();
+        try {
+            return store.edgeStore.adjacencyMatrixEnabled;
+        } finally {
+            store.autoReadUnlock();
+        }
+    }
+
     @Override
     public TimeIndex<Edge> getEdgeTimeIndex() {
         return getEdgeTimeIndex(store.mainGraphView);
@@ -467,8 +528,7 @@ public class GraphModelImpl implements GraphModel {
                 if (config.getEdgeWeightColumn()) {
                     edgeTable.store.garbageQueue.add(edgeTable.store
                             .intToShort(GraphStoreConfiguration.EDGE_WEIGHT_INDEX));
-                    edgeTable.store.addColumn(new ColumnImpl(edgeTable, GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID,
-                            config.getEdgeWeightType(), "Weight", null, Origin.PROPERTY, false, false));
+                    edgeTable.store.addColumn(GraphStore.newEdgeWeightColumn(edgeTable, config.getEdgeWeightType()));
                 } else {
                     edgeTable.removeColumn(GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID);
                     edgeTable.store.garbageQueue.remove(edgeTable.store
@@ -484,8 +544,7 @@ public class GraphModelImpl implements GraphModel {
                 if (config.getEdgeWeightColumn()) {
                     edgeTable.removeColumn(GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID);
 
-                    edgeTable.store.addColumn(new ColumnImpl(edgeTable, GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID,
-                            newWeightType, "Weight", null, Origin.PROPERTY, false, false));
+                    edgeTable.store.addColumn(GraphStore.newEdgeWeightColumn(edgeTable, newWeightType));
                 }
 
                 configuration.setEdgeWeightType(newWeightType);
@@ -507,6 +566,38 @@ public class GraphModelImpl implements GraphModel {
         return store.nodeStore.maxStoreId();
     }
 
+    @Override
+    public void getEdgeWeights(double[] weights) {
+        getEdgeWeights(store.mainGraphView, weights);
+    }
+
+    @Override
+    public void getEdgeWeights(GraphView view, double[] weights) {
+        if (view == null || weights == null) {
+            throw new NullPointerException();
+        }
+        store.autoReadLock();
+        try {
+            if (weights.length < store.edgeStore.maxStoreId()) {
+                throw new IllegalArgumentException(
+                        "The weights array should be at least of length " + store.edgeStore.maxStoreId());
+            }
+            if (view.isMainView()) {
+                ColumnImpl weightColumn = store.edgeTable.store.columns[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+                PrimitiveValueStore weightStore = weightColumn != null && weightColumn.valueStore instanceof PrimitiveValueStore
+                        ? (PrimitiveValueStore) weightColumn.valueStore : null;
+                store.edgeStore.getWeights(weights, view, weightStore);
+            } else {
+                Arrays.fill(weights, Double.NaN);
+                for (Edge edge : store.viewStore.getDirectedGraph(view).getEdges()) {
+                    weights[edge.getStoreId()] = edge.getWeight(view);
+                }
+            }
+        } finally {
+            store.autoReadUnlock();
+        }
+    }
+
     public void destroyGraphObserver(GraphObserver observer) {
         checkGraphObserver(observer);
 
@@ -15,11 +15,13 @@
  */
 package org.gephi.graph.impl;
 
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.DirectedGraph;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.ElementVisitor;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.GraphView;
@@ -27,6 +29,7 @@ import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
 import org.gephi.graph.api.Origin;
+import org.gephi.graph.api.ParallelElementIterable;
 import org.gephi.graph.api.Subgraph;
 import org.gephi.graph.api.TimeFormat;
 import org.gephi.graph.api.TimeRepresentation;
@@ -139,13 +142,28 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
             }
         }
         if (configuration.getEdgeWeightColumn()) {
-            edgeTable.store.addColumn(new ColumnImpl(edgeTable, GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID,
-                    configuration.getEdgeWeightType(), "Weight", null, Origin.PROPERTY, false, false));
+            edgeTable.store.addColumn(newEdgeWeightColumn(edgeTable, configuration.getEdgeWeightType()));
         } else {
             edgeTable.store.length++;
         }
     }
 
+    /**
+     * Creates the edge weight column. Static weights are kept unboxed in a
+     * primitive store when the type allows it, which is where
+     * {@link EdgeImpl#getWeight()} reads them from.
+     *
+     * @param edgeTable edge table
+     * @param weightType weight type
+     * @return new weight column
+     */
+    protected static ColumnImpl newEdgeWeightColumn(TableImpl<Edge> edgeTable, Class weightType) {
+        ColumnStorage storage = PrimitiveValueStore.isSupported(weightType) ? ColumnStorage.PRIMITIVE
+                : ColumnStorage.DEFAULT;
+        return new ColumnImpl(edgeTable, GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID, weightType, "Weight", null,
+                Origin.PROPERTY, false, false, storage);
+    }
+
     @Override
     public boolean addNode(final Node node) {
         autoWriteLock();
@@ -512,6 +530,26 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         }
     }
 
+    @Override
+    public int countCommonNeighbors(final Node node1, final Node node2) {
+        autoReadLock();
+        try {
+            return EdgeStore.countCommonNeighbors(edgeStore.neighborIterator(node1), edgeStore.neighborIterator(node2));
+        } finally {
+            autoReadUnlock();
+        }
+    }
+
+    @Override
+    public int countCommonNeighbors(final Node node1, final Node node2, final int type) {
+        autoReadLock();
+        try {
+            return edgeStore.countCommonNeighbors(node1, node2, type);
+        } finally {
+            autoReadUnlock();
+        }
+    }
+
     @Override
     public boolean isIncident(final Edge edge1, final Edge edge2) {
         autoReadLock();
@@ -804,6 +842,14 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         return new NodeIterableWrapper(nodeIterator, blocking);
     }
 
+    protected EdgeIterableWrapper getEdgeIterableWrapper(Iterator<Edge> edgeIterator, ElementSpliterator<Edge> spliterator) {
+        return new EdgeIterableWrapper(edgeIterator, spliterator);
+    }
+
+    protected NodeIterableWrapper getNodeIterableWrapper(Iterator<Node> nodeIterator, ElementSpliterator<Node> spliterator) {
+        return new NodeIterableWrapper(nodeIterator, spliterator);
+    }
+
     public int deepHashCode() {
         int hash = 3;
         hash = 29 * hash + (this.nodeStore != null ? this.nodeStore.deepHashCode() : 0);
@@ -837,19 +883,30 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         return true;
     }
 
-    protected class NodeIterableWrapper implements NodeIterable {
+    protected class NodeIterableWrapper implements NodeIterable, ParallelElementIterable<Node> {
 
         protected final Iterator<Node> iterator;
 
         protected final boolean blocking;
 
+        protected final ElementSpliterator<Node> spliterator;
+
         public NodeIterableWrapper(Iterator<Node> iterator) {
             this(iterator, true);
         }
 
         public NodeIterableWrapper(Iterator<Node> iterator, boolean blocking) {
+            this(iterator, blocking, null);
+        }
+
+        public NodeIterableWrapper(Iterator<Node> iterator, ElementSpliterator<Node> spliterator) {
+            this(iterator, true, spliterator);
+        }
+
+        private NodeIterableWrapper(Iterator<Node> iterator, boolean blocking, ElementSpliterator<Node> spliterator) {
             this.iterator = iterator;
             this.blocking = blocking;
+            this.spliterator = spliterator;
         }
 
         @Override
@@ -887,21 +944,48 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
                 autoReadUnlock();
             }
         }
+
+        @Override
+        public void parallelForEach(ElementVisitor<Node> visitor) {
+            if (spliterator == null) {
+                for (; iterator.hasNext();) {
+                    visitor.visit(iterator.next());
+                }
+                return;
+            }
+            try {
+                ParallelExecutor
+                        .forEach(GraphStoreConfiguration.ENABLE_AUTO_LOCKING ? lock : null, spliterator, visitor);
+            } finally {
+                doBreak();
+            }
+        }
     }
 
-    protected class EdgeIterableWrapper implements EdgeIterable {
+    protected class EdgeIterableWrapper implements EdgeIterable, ParallelElementIterable<Edge> {
 
         protected final Iterator<Edge> iterator;
 
         protected final boolean blocking;
 
+        protected final ElementSpliterator<Edge> spliterator;
+
         public EdgeIterableWrapper(Iterator<Edge> iterator) {
             this(iterator, true);
         }
 
         public EdgeIterableWrapper(Iterator<Edge> iterator, boolean blocking) {
+            this(iterator, blocking, null);
+        }
+
+        public EdgeIterableWrapper(Iterator<Edge> iterator, ElementSpliterator<Edge> spliterator) {
+            this(iterator, true, spliterator);
+        }
+
+        private EdgeIterableWrapper(Iterator<Edge> iterator, boolean blocking, ElementSpliterator<Edge> spliterator) {
             this.iterator = iterator;
             this.blocking = blocking;
+            this.spliterator = spliterator;
         }
 
         @Override
@@ -933,6 +1017,22 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
                 autoReadUnlock();
             }
         }
+
+        @Override
+        public void parallelForEach(ElementVisitor<Edge> visitor) {
+            if (spliterator == null) {
+                for (; iterator.hasNext();) {
+                    visitor.visit(iterator.next());
+                }
+                return;
+            }
+            try {
+                ParallelExecutor
+                        .forEach(GraphStoreConfiguration.ENABLE_AUTO_LOCKING ? lock : null, spliterator, visitor);
+            } finally {
+                doBreak();
+            }
+        }
     }
 
     private final class MainGraphView implements GraphView {
@@ -32,6 +32,7 @@ public final class GraphStoreConfiguration {
     public static final boolean ENABLE_NODE_PROPERTIES = true;
     public static final boolean ENABLE_EDGE_PROPERTIES = true;
     public static final boolean ENABLE_PARALLEL_EDGES = true;
+    public static final boolean ENABLE_DEGREE_INDEX = true;
     // NodeStore
     public final static int NODESTORE_BLOCK_SIZE = 5000;
     public final static int NODESTORE_DEFAULT_BLOCKS = 10;
@@ -43,11 +44,26 @@ public final class GraphStoreConfiguration {
     public static final int EDGESTORE_DEFAULT_TYPE_COUNT = 1;
     public static final int EDGESTORE_DEFAULT_DICTIONARY_SIZE = 1000;
     public static final float EDGESTORE_DICTIONARY_LOAD_FACTOR = .7f;
+    public static final int EDGESTORE_ADJACENCY_MATRIX_MAX_NODES = 16384;
+    public static final double EDGESTORE_ADJACENCY_MATRIX_MIN_DENSITY = 0.01;
+    public static final double EDGESTORE_ADJACENCY_MATRIX_GROWING_FACTOR = 1.25;
+    // ColumnStore
+    public static final int COLUMNSTORE_VALUE_BLOCK_SIZE = 8192;
     // GraphView
     public static final int VIEW_DEFAULT_TYPE_COUNT = 1;
     public static final double VIEW_GROWING_FACTOR = 1.1;
+    // View indexes
+    public static final int VIEW_INDEX_CACHE_MAX_VIEWS = 32;
+    public static final long VIEW_INDEX_CACHE_MAX_POSTINGS = 10000000;
+    public static final int VIEW_INDEX_CHANGE_LOG_SIZE = 4096;
+    // Bulk writes, indexes rebuilt once instead of updated per element
+    public static final int BULK_WRITE_INDEX_REBUILD_MIN_COUNT = 1024;
+    public static final double BULK_WRITE_INDEX_REBUILD_RATIO = 0.25;
+    // Parallel iteration
+    public static final int PARALLEL_ITERATION_THREADS = Runtime.getRuntime().availableProcessors();
     // Diff
     public static final double COLUMNDIFF_GROWING_FACTOR = 1.1;
+    public static final int COLUMNDIFF_MAX_LOG_SIZE = 4096;
     // Properties
     public static final boolean ENABLE_ELEMENT_LABEL = true;
     public static final boolean ENABLE_ELEMENT_TIME_SET = true;
@@ -15,9 +15,11 @@
  */
 package org.gephi.graph.impl;
 
+import cern.colt.bitvector.BitVector;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.ElementVisitor;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.GraphView;
@@ -176,6 +178,27 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph
         }
     }
 
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2) {
+        graphStore.autoReadLock();
+        try {
+            return EdgeStore.countCommonNeighbors(getNeighbors(node1).iterator(), getNeighbors(node2).iterator());
+        } finally {
+            graphStore.autoReadUnlock();
+        }
+    }
+
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2, int type) {
+        graphStore.autoReadLock();
+        try {
+            return EdgeStore.countCommonNeighbors(getNeighbors(node1, type).iterator(), getNeighbors(node2, type)
+                    .iterator());
+        } finally {
+            graphStore.autoReadUnlock();
+        }
+    }
+
     @Override
     public boolean addEdge(Edge edge) {
         checkValidEdgeObject(edge);
@@ -323,15 +346,20 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph
 
     @Override
     public NodeIterable getNodes() {
-        return graphStore.getNodeIterableWrapper(new NodeViewIterator(graphStore.nodeStore.iterator()));
+        return graphStore
+                .getNodeIterableWrapper(new NodeViewIterator(graphStore.nodeStore.iterator()), new NodeViewSpliterator());
     }
 
     @Override
     public EdgeIterable getEdges() {
         if (undirected) {
-            return graphStore.getEdgeIterableWrapper(new UndirectedEdgeViewIterator(graphStore.edgeStore.iterator()));
+            return graphStore
+                    .getEdgeIterableWrapper(new UndirectedEdgeViewIterator(graphStore.edgeStore.iterator()), new EdgeViewSpliterator(
+                            true));
         } else {
-            return graphStore.getEdgeIterableWrapper(new EdgeViewIterator(graphStore.edgeStore.iterator()));
+            return graphStore
+                    .getEdgeIterableWrapper(new EdgeViewIterator(graphStore.edgeStore.iterator()), new EdgeViewSpliterator(
+                            false));
         }
     }
 
@@ -754,6 +782,85 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph
         return false;
     }
 
+    protected final class NodeViewSpliterator implements ElementSpliterator<Node> {
+
+        private final NodeStore.NodeStoreSpliterator storeSpliterator;
+
+        public NodeViewSpliterator() {
+            this.storeSpliterator = graphStore.nodeStore.newSpliterator();
+        }
+
+        @Override
+        public int getChunkCount() {
+            if (!view.nodeView) {
+                return storeSpliterator.getChunkCount();
+            }
+            return getBitVectorChunkCount(view.nodeBitVector, GraphStoreConfiguration.NODESTORE_BLOCK_SIZE);
+        }
+
+        @Override
+        public void visitChunk(int chunk, ElementVisitor<Node> visitor) {
+            if (!view.nodeView) {
+                storeSpliterator.visitChunk(chunk, visitor);
+                return;
+            }
+            NodeStore nodeStore = graphStore.nodeStore;
+            long[] bits = view.nodeBitVector.elements();
+            int wordsPerChunk = getBitVectorChunkWords(GraphStoreConfiguration.NODESTORE_BLOCK_SIZE);
+            int from = chunk * wordsPerChunk;
+            int to = Math.min(from + wordsPerChunk, bits.length);
+            for (int i = from; i < to; i++) {
+                long word = bits[i];
+                while (word != 0) {
+                    visitor.visit(nodeStore.get((i << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    protected final class EdgeViewSpliterator implements ElementSpliterator<Edge> {
+
+        private final boolean undirected;
+
+        public EdgeViewSpliterator(boolean undirected) {
+            this.undirected = undirected;
+        }
+
+        @Override
+        public int getChunkCount() {
+            return getBitVectorChunkCount(view.edgeBitVector, GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE);
+        }
+
+        @Override
+        public void visitChunk(int chunk, ElementVisitor<Edge> visitor) {
+            EdgeStore edgeStore = graphStore.edgeStore;
+            long[] bits = view.edgeBitVector.elements();
+            int wordsPerChunk = getBitVectorChunkWords(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE);
+            int from = chunk * wordsPerChunk;
+            int to = Math.min(from + wordsPerChunk, bits.length);
+            for (int i = from; i < to; i++) {
+                long word = bits[i];
+                while (word != 0) {
+                    EdgeImpl edge = edgeStore.get((i << 6) + Long.numberOfTrailingZeros(word));
+                    if (!undirected || !isUndirectedToIgnore(edge)) {
+                        visitor.visit(edge);
+                    }
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    private static int getBitVectorChunkWords(int blockSize) {
+        return Math.max(1, blockSize >> 6);
+    }
+
+    private static int getBitVectorChunkCount(BitVector bitVector, int blockSize) {
+        int wordsPerChunk = getBitVectorChunkWords(blockSize);
+        return (bitVector.elements().length + wordsPerChunk - 1) / wordsPerChunk;
+    }
+
     protected final class NodeViewIterator implements Iterator<Node> {
 
         private final Iterator<Node> nodeIterator;
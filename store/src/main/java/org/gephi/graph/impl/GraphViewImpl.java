@@ -43,6 +43,8 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
     // Decorators
     protected final GraphViewDecorator directedDecorator;
     protected final GraphViewDecorator undirectedDecorator;
+    // Degree index (optional)
+    protected final DegreeIndexImpl degreeIndex;
     // Stats
     protected int nodeCount;
     protected int edgeCount;
@@ -65,6 +67,8 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         this.undirectedDecorator = new GraphViewDecorator(graphStore, this, true);
         this.version = graphStore.version != null ? new GraphVersion(directedDecorator) : null;
         this.observers = graphStore.version != null ? new ArrayList<GraphObserverImpl>() : null;
+        this.degreeIndex = GraphStoreConfiguration.ENABLE_DEGREE_INDEX ? new DegreeIndexImpl(
+                GraphStoreConfiguration.ENABLE_AUTO_LOCKING ? graphStore.lock : null, this) : null;
     }
 
     public GraphViewImpl(final GraphViewImpl view, boolean nodes, boolean edges) {
@@ -85,6 +89,8 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         this.undirectedDecorator = new GraphViewDecorator(graphStore, this, true);
         this.version = graphStore.version != null ? new GraphVersion(directedDecorator) : null;
         this.observers = graphStore.version != null ? new ArrayList<GraphObserverImpl>() : null;
+        this.degreeIndex = GraphStoreConfiguration.ENABLE_DEGREE_INDEX ? new DegreeIndexImpl(
+                GraphStoreConfiguration.ENABLE_AUTO_LOCKING ? graphStore.lock : null, this) : null;
     }
 
     @Override
@@ -110,10 +116,10 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
             nodeCount++;
             incrementNodeVersion();
 
-            IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
-            if (indexStore != null) {
-                indexStore.indexInView(nodeImpl, this);
+            if (degreeIndex != null) {
+                degreeIndex.addNode(nodeImpl);
             }
+
             TimeIndexStore timeIndexStore = graphStore.timeStore.nodeIndexStore;
             if (timeIndexStore != null) {
                 timeIndexStore.indexInView(nodeImpl, this);
@@ -210,10 +216,6 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
             nodeCount--;
             incrementNodeVersion();
 
-            IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
-            if (indexStore != null) {
-                indexStore.clearInView(nodeImpl, this);
-            }
             TimeIndexStore timeIndexStore = graphStore.timeStore.nodeIndexStore;
             if (timeIndexStore != null) {
                 timeIndexStore.clearInView(nodeImpl, this);
@@ -230,6 +232,10 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
                     removeEdge(edgeImpl);
                 }
             }
+
+            if (degreeIndex != null) {
+                degreeIndex.removeNode(nodeImpl);
+            }
             return true;
         }
         return false;
@@ -302,20 +308,16 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         mutualEdgeTypeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
         mutualEdgesCount = 0;
 
+        if (degreeIndex != null) {
+            degreeIndex.invalidate();
+        }
+
         if (nodeView) {
-            IndexStore<Node> nodeIndexStore = graphStore.nodeTable.store.indexStore;
-            if (nodeIndexStore != null) {
-                nodeIndexStore.clear(this);
-            }
             TimeIndexStore nodeTimeIndexStore = graphStore.timeStore.nodeIndexStore;
             if (nodeTimeIndexStore != null) {
                 nodeTimeIndexStore.clear(this);
             }
         }
-        IndexStore<Edge> edgeIndexStore = graphStore.edgeTable.store.indexStore;
-        if (edgeIndexStore != null) {
-            edgeIndexStore.clear(this);
-        }
         TimeIndexStore edgeTimeIndexStore = graphStore.timeStore.edgeIndexStore;
         if (edgeTimeIndexStore != null) {
             edgeTimeIndexStore.clear(this);
@@ -332,10 +334,10 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         mutualEdgeTypeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
         mutualEdgesCount = 0;
 
-        IndexStore<Edge> edgeIndexStore = graphStore.edgeTable.store.indexStore;
-        if (edgeIndexStore != null) {
-            edgeIndexStore.clear(this);
+        if (degreeIndex != null) {
+            degreeIndex.invalidate();
         }
+
         TimeIndexStore edgeTimeIndexStore = graphStore.timeStore.edgeIndexStore;
         if (edgeTimeIndexStore != null) {
             edgeTimeIndexStore.clear(this);
@@ -366,6 +368,10 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         System.arraycopy(graphStore.edgeStore.mutualEdgesTypeSize, 0, this.mutualEdgeTypeCounts, 0, this.mutualEdgeTypeCounts.length);
         this.mutualEdgesCount = graphStore.edgeStore.mutualEdgesSize;
 
+        if (degreeIndex != null) {
+            degreeIndex.invalidate();
+        }
+
         if (edgeCount > 0) {
             incrementEdgeVersion();
         }
@@ -374,19 +380,11 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         }
 
         if (nodeView) {
-            IndexStore<Node> nodeIndexStore = graphStore.nodeTable.store.indexStore;
-            if (nodeIndexStore != null) {
-                nodeIndexStore.indexView(directedDecorator);
-            }
             TimeIndexStore nodeTimeIndexStore = graphStore.timeStore.nodeIndexStore;
             if (nodeTimeIndexStore != null) {
                 nodeTimeIndexStore.indexView(directedDecorator);
             }
         }
-        IndexStore<Edge> edgeIndexStore = graphStore.edgeTable.store.indexStore;
-        if (edgeIndexStore != null) {
-            edgeIndexStore.indexView(directedDecorator);
-        }
         TimeIndexStore edgeTimeIndexStore = graphStore.timeStore.edgeIndexStore;
         if (edgeTimeIndexStore != null) {
             edgeTimeIndexStore.indexView(directedDecorator);
@@ -474,6 +472,10 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         }
         this.mutualEdgesCount = graphStore.edgeStore.mutualEdgesSize - this.mutualEdgesCount;
 
+        if (degreeIndex != null) {
+            degreeIndex.invalidate();
+        }
+
         if (nodeView) {
             incrementNodeVersion();
         }
@@ -490,22 +492,12 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         }
 
         if (nodeView) {
-            IndexStore<Node> nodeIndexStore = graphStore.nodeTable.store.indexStore;
-            if (nodeIndexStore != null) {
-                nodeIndexStore.clear(directedDecorator.view);
-                nodeIndexStore.indexView(directedDecorator);
-            }
             TimeIndexStore nodeTimeIndexStore = graphStore.timeStore.nodeIndexStore;
             if (nodeTimeIndexStore != null) {
                 nodeTimeIndexStore.clear(directedDecorator.view);
                 nodeTimeIndexStore.indexView(directedDecorator);
             }
         }
-        IndexStore<Edge> edgeIndexStore = graphStore.edgeTable.store.indexStore;
-        if (edgeIndexStore != null) {
-            edgeIndexStore.clear(directedDecorator.view);
-            edgeIndexStore.indexView(directedDecorator);
-        }
         TimeIndexStore edgeTimeIndexStore = graphStore.timeStore.edgeIndexStore;
         if (edgeTimeIndexStore != null) {
             edgeTimeIndexStore.clear(directedDecorator.view);
@@ -587,6 +579,9 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
     @Override
     protected void nodeAdded(NodeImpl node) {
         this.ensureNodeVectorSize(node);
+        if (!this.nodeView && degreeIndex != null) {
+            degreeIndex.addNode(node);
+        }
     }
 
     @Override
@@ -648,15 +643,15 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
 
         typeCounts[type]++;
 
+        if (degreeIndex != null) {
+            degreeIndex.addEdge(edgeImpl);
+        }
+
         if (edgeImpl.isMutual() && edgeImpl.source.storeId < edgeImpl.target.storeId) {
             mutualEdgeTypeCounts[type]++;
             mutualEdgesCount++;
         }
 
-        IndexStore<Edge> indexStore = graphStore.edgeTable.store.indexStore;
-        if (indexStore != null) {
-            indexStore.indexInView(edgeImpl, this);
-        }
         TimeIndexStore timeIndexStore = graphStore.timeStore.edgeIndexStore;
         if (timeIndexStore != null) {
             timeIndexStore.indexInView(edgeImpl, this);
@@ -670,15 +665,14 @@ public class GraphViewImpl extends AbstractGraphView implements GraphView {
         edgeCount--;
         typeCounts[edgeImpl.type]--;
 
+        if (degreeIndex != null) {
+            degreeIndex.removeEdge(edgeImpl);
+        }
+
         if (edgeImpl.isMutual() && edgeImpl.source.storeId < edgeImpl.target.storeId) {
             mutualEdgeTypeCounts[edgeImpl.type]--;
             mutualEdgesCount--;
         }
-
-        IndexStore<Edge> indexStore = graphStore.edgeTable.store.indexStore;
-        if (indexStore != null) {
-            indexStore.clearInView(edgeImpl, this);
-        }
     }
 
     private BitVector growBitVector(BitVector bitVector, int size) {
@@ -11,6 +11,7 @@ import org.gephi.graph.api.GraphView;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
+import org.gephi.graph.api.PrimitiveAttributes;
 import org.gephi.graph.api.Subgraph;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.TextProperties;
@@ -256,6 +257,17 @@ public class HierarchicalGraphDecorator implements DirectedSubgraph, UndirectedS
         }
     }
 
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2) {
+        return EdgeStore.countCommonNeighbors(getNeighbors(node1).iterator(), getNeighbors(node2).iterator());
+    }
+
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2, int type) {
+        return EdgeStore.countCommonNeighbors(getNeighbors(node1, type).iterator(), getNeighbors(node2, type)
+                .iterator());
+    }
+
     @Override
     public boolean addEdge(Edge edge) {
         Edge unpacked = undecorateEdge(edge);
@@ -1220,7 +1232,7 @@ public class HierarchicalGraphDecorator implements DirectedSubgraph, UndirectedS
         }
     }
 
-    protected class MappedEdgeDecorator implements Edge {
+    protected class MappedEdgeDecorator implements Edge, PrimitiveAttributes {
         private final EdgeImpl edge;
 
         private final Node source;
@@ -1428,6 +1440,56 @@ public class HierarchicalGraphDecorator implements DirectedSubgraph, UndirectedS
             edge.setAttribute(column, value);
         }
 
+        @Override
+        public double getDouble(Column column) {
+            return edge.getDouble(column);
+        }
+
+        @Override
+        public float getFloat(Column column) {
+            return edge.getFloat(column);
+        }
+
+        @Override
+        public long getLong(Column column) {
+            return edge.getLong(column);
+        }
+
+        @Override
+        public int getInt(Column column) {
+            return edge.getInt(column);
+        }
+
+        @Override
+        public boolean getBoolean(Column column) {
+            return edge.getBoolean(column);
+        }
+
+        @Override
+        public void setDouble(Column column, double value) {
+            edge.setDouble(column, value);
+        }
+
+        @Override
+        public void setFloat(Column column, float value) {
+            edge.setFloat(column, value);
+        }
+
+        @Override
+        public void setLong(Column column, long value) {
+            edge.setLong(column, value);
+        }
+
+        @Override
+        public void setInt(Column column, int value) {
+            edge.setInt(column, value);
+        }
+
+        @Override
+        public void setBoolean(Column column, boolean value) {
+            edge.setBoolean(column, value);
+        }
+
         @Override
         public void setAttribute(String key, Object value, double timestamp) {
             edge.setAttribute(key, value, timestamp);
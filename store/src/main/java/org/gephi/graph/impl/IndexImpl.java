@@ -32,28 +32,56 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrays;
+import it.unimi.dsi.fastutil.objects.ObjectBidirectionalIterator;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSortedSet;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.shorts.ShortArrays;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedMap;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnStatistics;
+import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Index;
+import org.gephi.graph.api.IndexPredicate;
 import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Histogram;
+import org.gephi.graph.api.Interval;
+import org.gephi.graph.api.Node;
 
 public class IndexImpl<T extends Element> implements Index<T> {
 
     protected final TableLock lock;
     protected final ColumnStore<T> columnStore;
+    protected final Graph graph;
+    protected final IndexImpl<T> mainIndex;
     protected AbstractIndex[] columns;
     protected int columnsCount;
+    // View indexes evicted from the cache, see IndexStore
+    protected volatile boolean evicted;
 
     public IndexImpl(ColumnStore<T> columnStore) {
         this.columnStore = columnStore;
+        this.graph = columnStore.graphStore;
+        this.mainIndex = null;
+        this.columns = new AbstractIndex[0];
+        this.lock = columnStore.lock;
+    }
+
+    public IndexImpl(IndexImpl<T> mainIndex, Graph graph) {
+        this.columnStore = mainIndex.columnStore;
+        this.graph = graph;
+        this.mainIndex = mainIndex;
         this.columns = new AbstractIndex[0];
         this.lock = columnStore.lock;
     }
@@ -72,9 +100,8 @@ public class IndexImpl<T extends Element> implements Index<T> {
     public int count(Column column, Object value) {
         checkNonNullColumnObject(column);
 
-        lock();
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         try {
-            AbstractIndex index = getIndex((ColumnImpl) column);
             return index.getCount(value);
         } finally {
             unlock();
@@ -100,12 +127,15 @@ public class IndexImpl<T extends Element> implements Index<T> {
         checkNonNullColumnObject(column);
 
         if (lock != null) {
-            lock.lock();
-            AbstractIndex index = getIndex((ColumnImpl) column);
+            AbstractIndex index = lockIndex((ColumnImpl) column);
             Set<T> valueSet = index.getValueSet(value);
-            return valueSet == null ? null : new LockableIterable<T>(index.getValueSet(value));
+            if (valueSet == null) {
+                lock.unlock();
+                return null;
+            }
+            return new LockableIterable<T>(valueSet);
         }
-        AbstractIndex index = getIndex((ColumnImpl) column);
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         return index.getValueSet(value);
     }
 
@@ -113,9 +143,8 @@ public class IndexImpl<T extends Element> implements Index<T> {
     public boolean isSortable(Column column) {
         checkNonNullColumnObject(column);
 
-        lock();
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         try {
-            AbstractIndex index = getIndex((ColumnImpl) column);
 
             return index.isSortable();
         } finally {
@@ -127,9 +156,8 @@ public class IndexImpl<T extends Element> implements Index<T> {
     public Number getMinValue(Column column) {
         checkNonNullColumnObject(column);
 
-        lock();
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         try {
-            AbstractIndex index = getIndex((ColumnImpl) column);
             return index.getMinValue();
         } finally {
             unlock();
@@ -139,15 +167,187 @@ public class IndexImpl<T extends Element> implements Index<T> {
     @Override
     public Number getMaxValue(Column column) {
         checkNonNullColumnObject(column);
-        lock();
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         try {
-            AbstractIndex index = getIndex((ColumnImpl) column);
             return index.getMaxValue();
         } finally {
             unlock();
         }
     }
 
+    @Override
+    public Iterable<T> getRange(Column column, Number low, boolean lowInclusive, Number high, boolean highInclusive) {
+        checkNonNullColumnObject(column);
+        checkBound(column, low);
+        checkBound(column, high);
+
+        if (lock != null) {
+            AbstractIndex index = lockIndex((ColumnImpl) column);
+            try {
+                return new LockableIterable<T>(index.getRange(low, lowInclusive, high, highInclusive));
+            } catch (RuntimeException e) {
+                lock.unlock();
+                throw e;
+            }
+        }
+        AbstractIndex index = lockIndex((ColumnImpl) column);
+        return index.getRange(low, lowInclusive, high, highInclusive);
+    }
+
+    @Override
+    public int countRange(Column column, Number low, boolean lowInclusive, Number high, boolean highInclusive) {
+        checkNonNullColumnObject(column);
+        checkBound(column, low);
+        checkBound(column, high);
+
+        AbstractIndex index = lockIndex((ColumnImpl) column);
+        try {
+            return index.countRange(low, lowInclusive, high, highInclusive);
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> topK(Column column, int k, boolean descending) {
+        checkNonNullColumnObject(column);
+        if (k < 0) {
+            throw new IllegalArgumentException("k should be positive");
+        }
+
+        if (lock != null) {
+            AbstractIndex index = lockIndex((ColumnImpl) column);
+            try {
+                return new LockableIterable<T>(index.topK(k, descending));
+            } catch (RuntimeException e) {
+                lock.unlock();
+                throw e;
+            }
+        }
+        AbstractIndex index = lockIndex((ColumnImpl) column);
+        return index.topK(k, descending);
+    }
+
+    @Override
+    public Collection<T> getByPrefix(Column column, String prefix, boolean ignoreCase) {
+        checkNonNullColumnObject(column);
+        checkNonNullObject(prefix);
+
+        TextIndex<T> textIndex = lockTextIndex((ColumnImpl) column);
+        try {
+            return filterView(textIndex.getByPrefix(prefix, ignoreCase));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Collection<T> getBySubstring(Column column, String substring, boolean ignoreCase) {
+        checkNonNullColumnObject(column);
+        checkNonNullObject(substring);
+
+        TextIndex<T> textIndex = lockTextIndex((ColumnImpl) column);
+        try {
+            return filterView(textIndex.getBySubstring(substring, ignoreCase));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Collection<T> getContainingAny(Column column, Object... values) {
+        checkNonNullColumnObject(column);
+        checkMemberValues(values);
+
+        MemberIndex<T> memberIndex = lockMemberIndex((ColumnImpl) column);
+        try {
+            return filterView(memberIndex.getContainingAny(values));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Collection<T> getContainingAll(Column column, Object... values) {
+        checkNonNullColumnObject(column);
+        checkMemberValues(values);
+
+        MemberIndex<T> memberIndex = lockMemberIndex((ColumnImpl) column);
+        try {
+            return filterView(memberIndex.getContainingAll(values));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Collection<T> getAt(Column column, Object value, double timestamp) {
+        return getDuring(column, value, new Interval(timestamp, timestamp));
+    }
+
+    @Override
+    public Collection<T> getDuring(Column column, Object value, Interval interval) {
+        checkNonNullColumnObject(column);
+        checkNonNullObject(value);
+        checkNonNullObject(interval);
+
+        TemporalIndex<T> temporalIndex = lockTemporalIndex((ColumnImpl) column);
+        try {
+            if (!value.getClass().equals(temporalIndex.valueType)) {
+                throw new IllegalArgumentException("The value should be a " + temporalIndex.valueType.getSimpleName());
+            }
+            return filterView(temporalIndex.get(value, interval));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Collection<T> getRangeDuring(Column column, Number low, boolean lowInclusive, Number high, boolean highInclusive, Interval interval) {
+        checkNonNullColumnObject(column);
+        checkNonNullObject(interval);
+
+        TemporalIndex<T> temporalIndex = lockTemporalIndex((ColumnImpl) column);
+        try {
+            if (!Number.class.isAssignableFrom(temporalIndex.valueType)) {
+                throw new UnsupportedOperationException("'" + column.getId() + "' is not a numerical dynamic column");
+            }
+            for (Number bound : new Number[] { low, high }) {
+                if (bound != null && !bound.getClass().equals(temporalIndex.valueType)) {
+                    throw new IllegalArgumentException(
+                            "The bound should be a " + temporalIndex.valueType.getSimpleName());
+                }
+            }
+            return filterView(temporalIndex.getRange(low, lowInclusive, high, highInclusive, interval));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Collection<T> get(IndexPredicate predicate) {
+        checkNonNullObject(predicate);
+
+        lockIndexes(getColumns(predicate));
+        try {
+            return new IndexQuery<T>(this).get(predicate);
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public int count(IndexPredicate predicate) {
+        checkNonNullObject(predicate);
+
+        lockIndexes(getColumns(predicate));
+        try {
+            return new IndexQuery<T>(this).count(predicate);
+        } finally {
+            unlock();
+        }
+    }
+
     public Iterable<Map.Entry<Object, Set<T>>> get(Column column) {
         checkNonNullColumnObject(column);
 
@@ -159,9 +359,8 @@ public class IndexImpl<T extends Element> implements Index<T> {
     public Collection values(Column column) {
         checkNonNullColumnObject(column);
 
-        lock();
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         try {
-            AbstractIndex index = getIndex((ColumnImpl) column);
             return new ArrayList(index.values());
         } finally {
             unlock();
@@ -171,9 +370,8 @@ public class IndexImpl<T extends Element> implements Index<T> {
     @Override
     public int countValues(Column column) {
         checkNonNullColumnObject(column);
-        lock();
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         try {
-            AbstractIndex index = getIndex((ColumnImpl) column);
             return index.countValues();
         } finally {
             unlock();
@@ -183,15 +381,29 @@ public class IndexImpl<T extends Element> implements Index<T> {
     @Override
     public int countElements(Column column) {
         checkNonNullColumnObject(column);
-        lock();
+        AbstractIndex index = lockIndex((ColumnImpl) column);
         try {
-            AbstractIndex index = getIndex((ColumnImpl) column);
             return index.elements;
         } finally {
             unlock();
         }
     }
 
+    @Override
+    public ColumnStatistics getStatistics(Column column) {
+        checkNonNullColumnObject(column);
+
+        AbstractIndex index = lockIndex((ColumnImpl) column);
+        try {
+            if (index == null) {
+                throw new IllegalArgumentException("The column '" + column.getId() + "' isn't indexed");
+            }
+        } finally {
+            unlock();
+        }
+        return new Statistics((ColumnImpl) column);
+    }
+
     public Object put(String key, Object value, T element) {
         checkNonNullObject(key);
 
@@ -203,6 +415,10 @@ public class IndexImpl<T extends Element> implements Index<T> {
         checkNonNullColumnObject(column);
 
         AbstractIndex index = getIndex((ColumnImpl) column);
+        if (index.stale) {
+            index.defer(element, value);
+            return value;
+        }
         return index.putValue(element, value);
     }
 
@@ -217,6 +433,10 @@ public class IndexImpl<T extends Element> implements Index<T> {
         checkNonNullColumnObject(column);
 
         AbstractIndex index = getIndex((ColumnImpl) column);
+        if (index.stale) {
+            index.deferRemove(element);
+            return;
+        }
         index.removeValue(element, value);
     }
 
@@ -231,6 +451,10 @@ public class IndexImpl<T extends Element> implements Index<T> {
         checkNonNullColumnObject(column);
 
         AbstractIndex index = getIndex((ColumnImpl) column);
+        if (index.stale) {
+            index.defer(element, value);
+            return value;
+        }
         return index.replaceValue(element, oldValue, value);
     }
 
@@ -238,6 +462,10 @@ public class IndexImpl<T extends Element> implements Index<T> {
         for (AbstractIndex ai : columns) {
             if (ai != null) {
                 ai.clear();
+                // The graph is cleared, a rebuild in progress would restore its
+                // elements
+                ai.snapshot = null;
+                ai.stale = false;
             }
         }
     }
@@ -246,6 +474,8 @@ public class IndexImpl<T extends Element> implements Index<T> {
         if (col.isIndexed()) {
             ensureColumnSize(col.storeId);
             AbstractIndex index = createIndex(col);
+            // Existing elements are indexed by the first query
+            index.stale = mainIndex == null && hasElements();
             columns[col.storeId] = index;
             columnsCount++;
         }
@@ -253,9 +483,11 @@ public class IndexImpl<T extends Element> implements Index<T> {
 
     protected void addAllColumns(ColumnImpl[] cols) {
         ensureColumnSize(cols.length);
+        boolean stale = mainIndex == null && hasElements();
         for (ColumnImpl col : cols) {
             if (col.isIndexed()) {
                 AbstractIndex index = createIndex(col);
+                index.stale = stale;
                 columns[col.storeId] = index;
                 columnsCount++;
             }
@@ -282,11 +514,17 @@ public class IndexImpl<T extends Element> implements Index<T> {
     }
 
     protected AbstractIndex getIndex(ColumnImpl col) {
+        if (evicted) {
+            columnStore.indexStore.restoreViewIndex(this);
+        }
         if (col.isIndexed()) {
             int id = col.storeId;
             if (id != ColumnStore.NULL_ID && columns.length > id) {
                 AbstractIndex index = columns[id];
                 if (index != null && index.column == col) {
+                    if (mainIndex != null) {
+                        refreshViewIndex(index);
+                    }
                     return index;
                 }
             }
@@ -302,6 +540,16 @@ public class IndexImpl<T extends Element> implements Index<T> {
         return null;
     }
 
+    private boolean hasElements() {
+        GraphStore graphStore = columnStore.graphStore;
+        if (graphStore == null) {
+            return false;
+        }
+        // Elements are indexed under the table lock, held by the caller
+        return columnStore.elementType.equals(Node.class) ? graphStore.nodeStore.size() > 0 : graphStore.edgeStore
+                .size() > 0;
+    }
+
     protected void destroy() {
         for (AbstractIndex ai : columns) {
             if (ai != null) {
@@ -316,6 +564,326 @@ public class IndexImpl<T extends Element> implements Index<T> {
         return columnsCount;
     }
 
+    protected long countPostings() {
+        long postings = 0;
+        for (AbstractIndex ai : columns) {
+            if (ai != null) {
+                postings += ai.elements;
+            }
+        }
+        return postings;
+    }
+
+    protected void evict() {
+        evicted = true;
+        destroy();
+    }
+
+    protected void defer(ColumnImpl col, T element, Object value) {
+        AbstractIndex index = getMainColumnIndex(col);
+        if (index != null) {
+            index.defer(element, value);
+        }
+    }
+
+    protected void deferRemove(ColumnImpl col, T element) {
+        AbstractIndex index = getMainColumnIndex(col);
+        if (index != null) {
+            index.deferRemove(element);
+        }
+    }
+
+    /**
+     * Marks the index of the given column stale and discards the rebuild in
+     * progress, if any. The caller holds the table lock.
+     *
+     * @param col column
+     */
+    protected void invalidate(ColumnImpl col) {
+        AbstractIndex index = getMainColumnIndex(col);
+        if (index != null) {
+            index.stale = true;
+            index.snapshot = null;
+        }
+    }
+
+    protected boolean isStale(ColumnImpl col) {
+        if (mainIndex != null) {
+            return mainIndex.isStale(col);
+        }
+        AbstractIndex index = getMainColumnIndex(col);
+        return index != null && index.stale;
+    }
+
+    /**
+     * Takes the table lock once the indexes of the given columns are up to
+     * date, rebuilding them first if needed. The caller releases the lock.
+     * <p>
+     * Indexes are rebuilt without holding the table lock, see
+     * {@link IndexSnapshot}. An index made stale again by a concurrent write is
+     * used as of the rebuild.
+     *
+     * @param cols columns
+     */
+    protected void lockIndexes(ColumnImpl... cols) {
+        IndexImpl<T> main = mainIndex != null ? mainIndex : this;
+        boolean refreshed = false;
+        while (true) {
+            lock();
+            List<AbstractIndex> outdated = refreshed ? null : main.getOutdatedIndexes(cols);
+            if (outdated == null || outdated.isEmpty()) {
+                return;
+            }
+            unlock();
+            main.refresh(outdated);
+            refreshed = true;
+        }
+    }
+
+    /**
+     * Returns the index of the given column with the table lock held, see
+     * {@link #lockIndexes(org.gephi.graph.impl.ColumnImpl...)}. The caller
+     * releases the lock.
+     *
+     * @param col column
+     * @return the column index, or null if not indexed
+     */
+    protected AbstractIndex lockIndex(ColumnImpl col) {
+        lockIndexes(col);
+        try {
+            return getIndex(col);
+        } catch (RuntimeException e) {
+            unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds the stale indexes of the columns that aren't lazily indexed. The
+     * table lock shouldn't be held.
+     */
+    protected void refreshStale() {
+        List<AbstractIndex> staleIndexes = new ArrayList<AbstractIndex>();
+        lock();
+        try {
+            for (AbstractIndex index : columns) {
+                if (index != null && index.stale && !index.column.lazyIndex) {
+                    staleIndexes.add(index);
+                }
+            }
+        } finally {
+            unlock();
+        }
+        if (!staleIndexes.isEmpty()) {
+            refresh(staleIndexes);
+        }
+    }
+
+    private TextIndex<T> lockTextIndex(ColumnImpl col) {
+        if (columnStore.indexStore == null) {
+            throw new IllegalArgumentException("The column '" + col.getId() + "' doesn't have a text index");
+        }
+        return columnStore.indexStore.lockTextIndex(col);
+    }
+
+    private MemberIndex<T> lockMemberIndex(ColumnImpl col) {
+        if (columnStore.indexStore == null) {
+            throw new IllegalArgumentException("The column '" + col.getId() + "' doesn't have a member index");
+        }
+        return columnStore.indexStore.lockMemberIndex(col);
+    }
+
+    private TemporalIndex<T> lockTemporalIndex(ColumnImpl col) {
+        if (columnStore.indexStore == null) {
+            throw new IllegalArgumentException("The column '" + col.getId() + "' doesn't have a temporal index");
+        }
+        return columnStore.indexStore.lockTemporalIndex(col);
+    }
+
+    private void checkMemberValues(Object[] values) {
+        checkNonNullObject(values);
+        if (values.length == 0) {
+            throw new IllegalArgumentException("At least one value should be provided");
+        }
+        for (Object value : values) {
+            checkNonNullObject(value);
+        }
+    }
+
+    private List<T> filterView(List<T> elements) {
+        if (mainIndex == null) {
+            return elements;
+        }
+        GraphViewImpl view = (GraphViewImpl) graph.getView();
+        List<T> result = new ArrayList<T>();
+        for (T element : elements) {
+            if (isInView(view, element)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    private boolean isInView(GraphViewImpl view, T element) {
+        if (element instanceof Node) {
+            return view.containsNode((NodeImpl) element);
+        }
+        return view.containsEdge((EdgeImpl) element);
+    }
+
+    private void refreshViewIndex(AbstractIndex index) {
+        AbstractIndex source = mainIndex.getIndex(index.column);
+        GraphViewImpl view = (GraphViewImpl) graph.getView();
+        GraphVersion graphVersion = view.version;
+        if (graphVersion != null && index.sourceVersion == source.version && index.nodeVersion == graphVersion.nodeVersion && index.edgeVersion == graphVersion.edgeVersion) {
+            return;
+        }
+
+        ChangeLog changes = source.changes;
+        boolean sameView = graphVersion != null && index.nodeVersion == graphVersion.nodeVersion && index.edgeVersion == graphVersion.edgeVersion;
+        if (sameView && changes != null && changes.covers(index.sourceVersion, source.version) && source.version - index.sourceVersion <= source.elements) {
+            // Replay the writes made to the main index since the last refresh
+            for (long v = index.sourceVersion + 1; v <= source.version; v++) {
+                int slot = changes.slot(v);
+                T element = (T) changes.elements[slot];
+                if (isInView(view, element)) {
+                    if (changes.removals[slot]) {
+                        index.removeValue(element, changes.values[slot]);
+                    } else {
+                        index.putValue(element, changes.values[slot]);
+                    }
+                }
+            }
+        } else {
+            // Intersect the main index postings with the view
+            index.clear();
+            for (Object o : source) {
+                Map.Entry<Object, Set<T>> entry = (Map.Entry<Object, Set<T>>) o;
+                for (T element : entry.getValue()) {
+                    if (isInView(view, element)) {
+                        index.putValue(element, entry.getKey());
+                    }
+                }
+            }
+            if (changes == null) {
+                source.changes = new ChangeLog(GraphStoreConfiguration.VIEW_INDEX_CHANGE_LOG_SIZE);
+            }
+        }
+
+        index.sourceVersion = source.version;
+        if (graphVersion != null) {
+            index.nodeVersion = graphVersion.nodeVersion;
+            index.edgeVersion = graphVersion.edgeVersion;
+        }
+    }
+
+    private List<AbstractIndex> getOutdatedIndexes(ColumnImpl[] cols) {
+        List<AbstractIndex> outdated = new ArrayList<AbstractIndex>();
+        for (ColumnImpl col : cols) {
+            AbstractIndex index = getMainColumnIndex(col);
+            if (index != null && isOutdated(index) && !outdated.contains(index)) {
+                outdated.add(index);
+            }
+        }
+        return outdated;
+    }
+
+    private boolean isOutdated(AbstractIndex index) {
+        if (index.column.valueStore instanceof ComputedValueStore) {
+            GraphVersion graphVersion = getGraphVersion();
+            return graphVersion == null || index.computedVersion != ((ComputedValueStore) index.column.valueStore)
+                    .validate() || index.nodeVersion != graphVersion.nodeVersion || index.edgeVersion != graphVersion.edgeVersion;
+        }
+        return index.stale;
+    }
+
+    private void refresh(List<AbstractIndex> outdated) {
+        final AbstractIndex[] indexes = outdated.toArray(new AbstractIndex[0]);
+        final IndexSnapshot<T>[] snapshots = new IndexSnapshot[indexes.length];
+        lock();
+        try {
+            for (int i = 0; i < indexes.length; i++) {
+                AbstractIndex index = indexes[i];
+                if (index.snapshot == null) {
+                    index.snapshot = new IndexSnapshot<T>();
+                }
+                snapshots[i] = index.snapshot;
+                if (index.column.valueStore instanceof ComputedValueStore) {
+                    GraphVersion graphVersion = getGraphVersion();
+                    snapshots[i].computedVersion = ((ComputedValueStore) index.column.valueStore).validate();
+                    if (graphVersion != null) {
+                        snapshots[i].nodeVersion = graphVersion.nodeVersion;
+                        snapshots[i].edgeVersion = graphVersion.edgeVersion;
+                    }
+                }
+            }
+        } finally {
+            unlock();
+        }
+
+        final ElementImpl[] elements = IndexSnapshot.getElements(graph, columnStore.elementType);
+
+        // Each column is read by a single worker
+        ParallelExecutor.execute(null, indexes.length, new ParallelExecutor.ChunkTask() {
+            @Override
+            public void run(int chunk) {
+                snapshots[chunk].read(elements, indexes[chunk].column);
+            }
+        });
+
+        lock();
+        try {
+            for (int i = 0; i < indexes.length; i++) {
+                AbstractIndex index = indexes[i];
+                // Skip removed columns and snapshots discarded by a clear
+                if (getMainColumnIndex(index.column) == index && index.snapshot == snapshots[i]) {
+                    index.install(snapshots[i]);
+                }
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    private AbstractIndex getMainColumnIndex(ColumnImpl col) {
+        int id = col.storeId;
+        if (col.isIndexed() && id != ColumnStore.NULL_ID && columns.length > id) {
+            AbstractIndex index = columns[id];
+            if (index != null && index.column == col) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private ColumnImpl[] getColumns(IndexPredicate predicate) {
+        List<ColumnImpl> cols = new ArrayList<ColumnImpl>();
+        addColumns(predicate, cols);
+        return cols.toArray(new ColumnImpl[0]);
+    }
+
+    private void addColumns(IndexPredicate predicate, List<ColumnImpl> cols) {
+        if (predicate.getColumn() != null) {
+            cols.add((ColumnImpl) predicate.getColumn());
+        }
+        if (predicate.getPredicates() != null) {
+            for (IndexPredicate p : predicate.getPredicates()) {
+                addColumns(p, cols);
+            }
+        }
+    }
+
+    private GraphVersion getGraphVersion() {
+        if (graph == null) {
+            return null;
+        }
+        GraphView view = graph.getView();
+        if (view.isMainView()) {
+            return columnStore.graphStore.version;
+        }
+        return ((GraphViewImpl) view).version;
+    }
+
     AbstractIndex createIndex(ColumnImpl column) {
         if (column.getTypeClass().equals(Byte.class)) {
             // Byte
@@ -407,6 +975,12 @@ public class IndexImpl<T extends Element> implements Index<T> {
         }
     }
 
+    void checkBound(final Column column, final Number bound) {
+        if (bound != null && !bound.getClass().equals(column.getTypeClass())) {
+            throw new IllegalArgumentException("The bound should be a " + column.getTypeClass().getSimpleName());
+        }
+    }
+
     void checkNonNullColumnObject(final Object o) {
         if (o == null) {
             throw new NullPointerException();
@@ -416,6 +990,57 @@ public class IndexImpl<T extends Element> implements Index<T> {
         }
     }
 
+    /**
+     * Bounded log of the latest writes to a main index, by version.
+     * <p>
+     * Writes are logged once a view index is derived from the main index, so
+     * the view index can be brought up to date by replaying them rather than by
+     * intersecting all the postings with the view again.
+     */
+    protected static final class ChangeLog {
+
+        protected final Object[] elements;
+        protected final Object[] values;
+        protected final boolean[] removals;
+        // Version of the latest logged write
+        protected long last = -1;
+        // Number of contiguous versions logged, up to the capacity
+        protected int size;
+
+        public ChangeLog(int capacity) {
+            this.elements = new Object[capacity];
+            this.values = new Object[capacity];
+            this.removals = new boolean[capacity];
+        }
+
+        public void add(long version, Object element, Object value, boolean removal) {
+            int slot = slot(version);
+            elements[slot] = element;
+            values[slot] = value;
+            removals[slot] = removal;
+            size = last == version - 1 ? Math.min(size + 1, elements.length) : 1;
+            last = version;
+        }
+
+        public int slot(long version) {
+            return (int) (version % elements.length);
+        }
+
+        /**
+         * Returns true if the writes after version <code>from</code> up to
+         * version <code>to</code> are all logged.
+         */
+        public boolean covers(long from, long to) {
+            return from >= 0 && last == to && to - from <= size;
+        }
+
+        public void reset() {
+            Arrays.fill(elements, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
     protected abstract class AbstractIndex<K> implements Iterable<Map.Entry<K, Set<T>>> {
 
         // Const
@@ -427,13 +1052,45 @@ public class IndexImpl<T extends Element> implements Index<T> {
         protected Map<K, Set<T>> map;
         // Variable
         protected int elements;
+        // Deferred maintenance, see IndexStore
+        protected volatile boolean stale;
+        // Rebuild in progress, see IndexSnapshot
+        protected IndexSnapshot<T> snapshot;
+        // Computed columns and view indexes
+        protected int computedVersion = Integer.MIN_VALUE;
+        protected int nodeVersion;
+        protected int edgeVersion;
+        // Modification count, view indexes are derived from a given version
+        protected long version;
+        protected long sourceVersion = -1;
+        // Recent writes, replayed by the view indexes derived from this one
+        protected ChangeLog changes;
+        // Statistics of numerical values
+        protected final boolean numeric;
+        protected int numericCount;
+        protected int nonFiniteCount;
+        protected double sum;
+        protected double mean;
+        protected double squaredDeviations;
+        // Histograms, computed for a given version
+        protected Histogram equiWidthHistogram;
+        protected long equiWidthVersion = -1;
+        protected int equiWidthBins;
+        protected Histogram equiDepthHistogram;
+        protected long equiDepthVersion = -1;
+        protected int equiDepthBins;
 
         public AbstractIndex(ColumnImpl column) {
             this.column = column;
-            this.nullSet = new ObjectOpenHashSet<T>();
+            this.nullSet = new ValueSet(null);
+            this.numeric = Number.class.isAssignableFrom(column.getTypeClass());
         }
 
         public Object putValue(T element, Object value) {
+            version++;
+            if (changes != null) {
+                changes.add(version, element, value, false);
+            }
             if (value == null) {
                 if (nullSet.add(element)) {
                     elements++;
@@ -447,20 +1104,34 @@ public class IndexImpl<T extends Element> implements Index<T> {
 
                 if (set.add(element)) {
                     elements++;
+                    if (numeric) {
+                        addStatistics(((Number) value).doubleValue());
+                    }
                 }
             }
             return value;
         }
 
         public void removeValue(T element, Object value) {
+            version++;
+            if (changes != null) {
+                changes.add(version, element, value, true);
+            }
             if (value == null) {
                 if (nullSet.remove(element)) {
                     elements--;
                 }
             } else {
                 Set<T> set = getValueSet((K) value);
+                if (set == null) {
+                    // Dynamic maps filled in place were never put
+                    return;
+                }
                 if (set.remove(element)) {
                     elements--;
+                    if (numeric) {
+                        removeStatistics(((Number) value).doubleValue());
+                    }
                 }
                 if (set.isEmpty()) {
                     removeValue((K) value);
@@ -473,6 +1144,35 @@ public class IndexImpl<T extends Element> implements Index<T> {
             return putValue(element, newValue);
         }
 
+        public void defer(T element, Object value) {
+            stale = true;
+            if (snapshot != null) {
+                snapshot.put(element, value);
+            }
+        }
+
+        public void deferRemove(T element) {
+            stale = true;
+            if (snapshot != null) {
+                snapshot.remove(element);
+            }
+        }
+
+        public void install(IndexSnapshot<T> snapshot) {
+            clear();
+            snapshot.merge();
+            for (int i = 0; i < snapshot.size; i++) {
+                putValue((T) snapshot.elements[i], snapshot.values[i]);
+            }
+            if (column.valueStore instanceof ComputedValueStore) {
+                computedVersion = snapshot.computedVersion;
+                nodeVersion = snapshot.nodeVersion;
+                edgeVersion = snapshot.edgeVersion;
+            }
+            this.snapshot = null;
+            stale = false;
+        }
+
         public int getCount(K value) {
             if (value == null) {
                 return nullSet.size();
@@ -519,16 +1219,209 @@ public class IndexImpl<T extends Element> implements Index<T> {
             }
         }
 
+        public Number getFiniteMinValue() {
+            checkSortable();
+            return getFiniteValue(map.entrySet().iterator());
+        }
+
+        public Number getFiniteMaxValue() {
+            checkSortable();
+            return getFiniteValue(new DescendingIterator());
+        }
+
+        private Number getFiniteValue(Iterator<Map.Entry<K, Set<T>>> entries) {
+            // Non-finite values are sorted at both ends
+            while (entries.hasNext()) {
+                Number value = (Number) entries.next().getKey();
+                if (isFinite(value.doubleValue())) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        public Iterable<T> getRange(final Number low, final boolean lowInclusive, final Number high, final boolean highInclusive) {
+            checkSortable();
+            return new Iterable<T>() {
+                @Override
+                public Iterator<T> iterator() {
+                    return new ElementIterator(new RangeIterator(low, lowInclusive, high, highInclusive),
+                            Integer.MAX_VALUE);
+                }
+            };
+        }
+
+        public int countRange(Number low, boolean lowInclusive, Number high, boolean highInclusive) {
+            checkSortable();
+            int count = 0;
+            for (Iterator<Map.Entry<K, Set<T>>> itr = new RangeIterator(low, lowInclusive, high, highInclusive); itr
+                    .hasNext();) {
+                count += itr.next().getValue().size();
+            }
+            return count;
+        }
+
+        public Iterable<T> topK(final int k, final boolean descending) {
+            checkSortable();
+            return new Iterable<T>() {
+                @Override
+                public Iterator<T> iterator() {
+                    Iterator<Map.Entry<K, Set<T>>> entryIterator;
+                    if (descending) {
+                        entryIterator = new DescendingIterator();
+                    } else {
+                        entryIterator = map.entrySet().iterator();
+                    }
+                    return new ElementIterator(entryIterator, k);
+                }
+            };
+        }
+
+        public Histogram getEquiWidthHistogram(int bins) {
+            checkSortable();
+            if (equiWidthHistogram == null || equiWidthVersion != version || equiWidthBins != bins) {
+                equiWidthHistogram = computeEquiWidthHistogram(bins);
+                equiWidthVersion = version;
+                equiWidthBins = bins;
+            }
+            return equiWidthHistogram;
+        }
+
+        public Histogram getEquiDepthHistogram(int bins) {
+            checkSortable();
+            if (equiDepthHistogram == null || equiDepthVersion != version || equiDepthBins != bins) {
+                equiDepthHistogram = computeEquiDepthHistogram(bins);
+                equiDepthVersion = version;
+                equiDepthBins = bins;
+            }
+            return equiDepthHistogram;
+        }
+
+        private Histogram computeEquiWidthHistogram(int bins) {
+            Number minValue = getFiniteMinValue();
+            if (minValue == null) {
+                return new Histogram(new double[0], new double[0], new int[0]);
+            }
+            double min = minValue.doubleValue();
+            double max = getFiniteMaxValue().doubleValue();
+            double width = (max - min) / bins;
+
+            double[] lows = new double[bins];
+            double[] highs = new double[bins];
+            int[] counts = new int[bins];
+            for (int i = 0; i < bins; i++) {
+                lows[i] = min + i * width;
+                highs[i] = i == bins - 1 ? max : min + (i + 1) * width;
+            }
+            for (Map.Entry<K, Set<T>> entry : map.entrySet()) {
+                double value = ((Number) entry.getKey()).doubleValue();
+                if (!isFinite(value)) {
+                    continue;
+                }
+                int bin = width == 0 ? 0 : Math.min((int) ((value - min) / width), bins - 1);
+                counts[bin] += entry.getValue().size();
+            }
+            return new Histogram(lows, highs, counts);
+        }
+
+        private Histogram computeEquiDepthHistogram(int bins) {
+            int total = elements - nullSet.size() - nonFiniteCount;
+            double[] lows = new double[bins];
+            double[] highs = new double[bins];
+            int[] counts = new int[bins];
+            int bin = 0;
+            int cumulated = 0;
+            for (Map.Entry<K, Set<T>> entry : map.entrySet()) {
+                double value = ((Number) entry.getKey()).doubleValue();
+                if (!isFinite(value)) {
+                    continue;
+                }
+                if (counts[bin] == 0) {
+                    lows[bin] = value;
+                }
+                highs[bin] = value;
+                counts[bin] += entry.getValue().size();
+                cumulated += entry.getValue().size();
+
+                // Close the bin once it reaches its share of the elements
+                if (bin < bins - 1 && cumulated >= (long) total * (bin + 1) / bins) {
+                    bin++;
+                }
+            }
+            int binCount = bin < bins && counts[bin] > 0 ? bin + 1 : bin;
+            return new Histogram(Arrays.copyOf(lows, binCount), Arrays.copyOf(highs, binCount),
+                    Arrays.copyOf(counts, binCount));
+        }
+
+        private void addStatistics(double value) {
+            if (!isFinite(value)) {
+                // Kept out of the moments, which could never recover from them
+                nonFiniteCount++;
+                return;
+            }
+            // Welford's online algorithm
+            numericCount++;
+            sum += value;
+            double delta = value - mean;
+            mean += delta / numericCount;
+            squaredDeviations += delta * (value - mean);
+        }
+
+        private void removeStatistics(double value) {
+            if (!isFinite(value)) {
+                nonFiniteCount--;
+                return;
+            }
+            numericCount--;
+            if (numericCount == 0) {
+                sum = 0.0;
+                mean = 0.0;
+                squaredDeviations = 0.0;
+                return;
+            }
+            sum -= value;
+            double oldMean = mean;
+            mean = (oldMean * (numericCount + 1) - value) / numericCount;
+            squaredDeviations = Math.max(0.0, squaredDeviations - (value - oldMean) * (value - mean));
+        }
+
+        private boolean isFinite(double value) {
+            return !Double.isNaN(value) && !Double.isInfinite(value);
+        }
+
+        private void resetStatistics() {
+            numericCount = 0;
+            nonFiniteCount = 0;
+            sum = 0.0;
+            mean = 0.0;
+            squaredDeviations = 0.0;
+        }
+
+        private void checkSortable() {
+            if (!isSortable()) {
+                throw new UnsupportedOperationException("'" + column.getId() + "' is not a sortable column (" + column
+                        .getTypeClass().getSimpleName() + ").");
+            }
+        }
+
         protected void destroy() {
+            version++;
+            changes = null;
             map = null;
             nullSet.clear();
             elements = 0;
+            resetStatistics();
         }
 
         protected void clear() {
+            version++;
+            if (changes != null) {
+                changes.reset();
+            }
             map.clear();
             nullSet.clear();
             elements = 0;
+            resetStatistics();
         }
 
         @Override
@@ -692,6 +1585,127 @@ public class IndexImpl<T extends Element> implements Index<T> {
             }
         }
 
+        private final class RangeIterator implements Iterator<Map.Entry<K, Set<T>>> {
+
+            private final Iterator<Map.Entry<K, Set<T>>> mapIterator;
+            private final Comparable high;
+            private final boolean highInclusive;
+            private Map.Entry<K, Set<T>> next;
+
+            public RangeIterator(Number low, boolean lowInclusive, Number high, boolean highInclusive) {
+                SortedMap<K, Set<T>> sortedMap = (SortedMap<K, Set<T>>) map;
+                this.mapIterator = (low != null ? sortedMap.tailMap((K) low) : sortedMap).entrySet().iterator();
+                this.high = (Comparable) high;
+                this.highInclusive = highInclusive;
+                advance();
+                if (next != null && !lowInclusive && next.getKey().equals(low)) {
+                    advance();
+                }
+            }
+
+            private void advance() {
+                next = null;
+                if (mapIterator.hasNext()) {
+                    Map.Entry<K, Set<T>> entry = mapIterator.next();
+                    if (high != null) {
+                        int c = high.compareTo(entry.getKey());
+                        if (c < 0 || (c == 0 && !highInclusive)) {
+                            return;
+                        }
+                    }
+                    next = entry;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<K, Set<T>> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<K, Set<T>> entry = next;
+                advance();
+                return entry;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Not supported operation.");
+            }
+        }
+
+        private final class DescendingIterator implements Iterator<Map.Entry<K, Set<T>>> {
+
+            private final ObjectBidirectionalIterator<Map.Entry<K, Set<T>>> mapIterator;
+
+            public DescendingIterator() {
+                ObjectSortedSet<Map.Entry<K, Set<T>>> entries = (ObjectSortedSet<Map.Entry<K, Set<T>>>) map.entrySet();
+                mapIterator = entries.isEmpty() ? null : entries.iterator(entries.last());
+            }
+
+            @Override
+            public boolean hasNext() {
+                return mapIterator != null && mapIterator.hasPrevious();
+            }
+
+            @Override
+            public Map.Entry<K, Set<T>> next() {
+                if (mapIterator == null) {
+                    throw new NoSuchElementException();
+                }
+                return mapIterator.previous();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Not supported operation.");
+            }
+        }
+
+        private final class ElementIterator implements Iterator<T> {
+
+            private final Iterator<Map.Entry<K, Set<T>>> entryIterator;
+            private Iterator<T> setIterator;
+            private int remaining;
+
+            public ElementIterator(Iterator<Map.Entry<K, Set<T>>> entryIterator, int limit) {
+                this.entryIterator = entryIterator;
+                this.remaining = limit;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (remaining <= 0) {
+                    return false;
+                }
+                while (setIterator == null || !setIterator.hasNext()) {
+                    if (!entryIterator.hasNext()) {
+                        return false;
+                    }
+                    setIterator = entryIterator.next().getValue().iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return setIterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Not supported operation.");
+            }
+        }
+
         private final class EntryIterator implements Iterator<Map.Entry<K, Set<T>>> {
 
             private final Iterator<Map.Entry<K, Set<T>>> mapIterator;
@@ -747,59 +1761,258 @@ public class IndexImpl<T extends Element> implements Index<T> {
         }
     }
 
-    private static final class ValueSet<K, T> implements Set<T> {
+    private T getElement(int storeId) {
+        GraphStore graphStore = columnStore.graphStore;
+        if (graphStore != null) {
+            if (columnStore.elementType.equals(Node.class)) {
+                if (graphStore.nodeStore.isValidIndex(storeId)) {
+                    return (T) graphStore.nodeStore.get(storeId);
+                }
+            } else if (columnStore.elementType.equals(Edge.class)) {
+                if (graphStore.edgeStore.isValidIndex(storeId)) {
+                    return (T) graphStore.edgeStore.get(storeId);
+                }
+            }
+        }
+        return null;
+    }
 
-        private final K value;
-        private final Set<T> set;
+    /**
+     * Elements of a value.
+     * <p>
+     * Elements belonging to the graph store are kept as a compressed bitmap of
+     * their store ids and resolved through the node or edge store when
+     * iterating. Other elements, which can't be resolved, are kept in a hash
+     * set.
+     */
+    private final class Statistics implements ColumnStatistics {
 
-        public ValueSet(K value) {
-            this.value = value;
-            this.set = new ObjectOpenHashSet<T>();
+        private final ColumnImpl column;
+
+        public Statistics(ColumnImpl column) {
+            this.column = column;
         }
 
         @Override
-        public int size() {
-            return set.size();
+        public Column getColumn() {
+            return column;
         }
 
         @Override
-        public boolean isEmpty() {
-            return set.isEmpty();
+        public int getElementCount() {
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.elements;
+            } finally {
+                unlock();
+            }
         }
 
         @Override
-        public boolean contains(Object o) {
-            return set.contains(o);
+        public int getNullCount() {
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.nullSet.size();
+            } finally {
+                unlock();
+            }
         }
 
         @Override
-        public Iterator<T> iterator() {
-            return set.iterator();
+        public int getDistinctCount() {
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.map.size();
+            } finally {
+                unlock();
+            }
         }
 
         @Override
-        public Object[] toArray() {
-            return set.toArray();
+        public boolean isNumeric() {
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.isSortable();
+            } finally {
+                unlock();
+            }
         }
 
         @Override
-        public <T> T[] toArray(T[] ts) {
-            return set.toArray(ts);
+        public Number getMin() {
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.getFiniteMinValue();
+            } finally {
+                unlock();
+            }
         }
 
         @Override
-        public boolean add(T e) {
-            return set.add(e);
+        public Number getMax() {
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.getFiniteMaxValue();
+            } finally {
+                unlock();
+            }
         }
 
         @Override
-        public boolean remove(Object o) {
-            return set.remove(o);
+        public int getNonFiniteCount() {
+            AbstractIndex index = lockNumericIndex();
+            try {
+                return index.nonFiniteCount;
+            } finally {
+                unlock();
+            }
+        }
+
+        @Override
+        public double getSum() {
+            AbstractIndex index = lockNumericIndex();
+            try {
+                return index.sum;
+            } finally {
+                unlock();
+            }
+        }
+
+        @Override
+        public double getMean() {
+            AbstractIndex index = lockNumericIndex();
+            try {
+                return index.numericCount == 0 ? Double.NaN : index.mean;
+            } finally {
+                unlock();
+            }
+        }
+
+        @Override
+        public double getVariance() {
+            AbstractIndex index = lockNumericIndex();
+            try {
+                return index.numericCount == 0 ? Double.NaN : index.squaredDeviations / index.numericCount;
+            } finally {
+                unlock();
+            }
+        }
+
+        @Override
+        public Histogram getEquiWidthHistogram(int bins) {
+            checkBins(bins);
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.getEquiWidthHistogram(bins);
+            } finally {
+                unlock();
+            }
+        }
+
+        @Override
+        public Histogram getEquiDepthHistogram(int bins) {
+            checkBins(bins);
+            AbstractIndex index = lockColumnIndex();
+            try {
+                return index.getEquiDepthHistogram(bins);
+            } finally {
+                unlock();
+            }
+        }
+
+        private AbstractIndex lockColumnIndex() {
+            AbstractIndex index = lockIndex(column);
+            if (index == null) {
+                unlock();
+                throw new IllegalStateException("The column '" + column.getId() + "' isn't indexed anymore");
+            }
+            return index;
+        }
+
+        private AbstractIndex lockNumericIndex() {
+            AbstractIndex index = lockColumnIndex();
+            if (!index.isSortable()) {
+                unlock();
+                throw new UnsupportedOperationException("'" + column.getId() + "' is not a sortable column (" + column
+                        .getTypeClass().getSimpleName() + ").");
+            }
+            return index;
+        }
+
+        private void checkBins(int bins) {
+            if (bins <= 0) {
+                throw new IllegalArgumentException("The number of bins should be positive");
+            }
+        }
+    }
+
+    private final class ValueSet<K> extends AbstractSet<T> {
+
+        private final K value;
+        private final IntBitmap storeIds;
+        private Set<T> others;
+
+        public ValueSet(K value) {
+            this.value = value;
+            this.storeIds = new IntBitmap();
+        }
+
+        private boolean isStored(Element element) {
+            int storeId = element.getStoreId();
+            return storeId >= 0 && getElement(storeId) == element;
+        }
+
+        @Override
+        public int size() {
+            return storeIds.size() + (others != null ? others.size() : 0);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return storeIds.isEmpty() && (others == null || others.isEmpty());
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Element)) {
+                return false;
+            }
+            Element element = (Element) o;
+            if (isStored(element) && storeIds.contains(element.getStoreId())) {
+                return true;
+            }
+            return others != null && others.contains(element);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new ValueSetIterator();
+        }
+
+        @Override
+        public boolean add(T e) {
+            if (isStored(e)) {
+                if (others != null && others.contains(e)) {
+                    return false;
+                }
+                return storeIds.add(e.getStoreId());
+            }
+            if (others == null) {
+                others = new ObjectOpenHashSet<T>();
+            }
+            return others.add(e);
         }
 
         @Override
-        public boolean containsAll(Collection<?> clctn) {
-            return set.containsAll(clctn);
+        public boolean remove(Object o) {
+            if (!(o instanceof Element)) {
+                return false;
+            }
+            Element element = (Element) o;
+            if (isStored(element) && storeIds.remove(element.getStoreId())) {
+                return true;
+            }
+            return others != null && others.remove(element);
         }
 
         @Override
@@ -819,17 +2032,50 @@ public class IndexImpl<T extends Element> implements Index<T> {
 
         @Override
         public void clear() {
-            throw new UnsupportedOperationException("Not supported operation.");
+            storeIds.clear();
+            others = null;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            return set.equals(o);
-        }
+        private final class ValueSetIterator implements Iterator<T> {
 
-        @Override
-        public int hashCode() {
-            return set.hashCode();
+            private final IntBitmap.BitmapIterator storeIdIterator;
+            private Iterator<T> othersIterator;
+            private T next;
+
+            public ValueSetIterator() {
+                storeIdIterator = storeIds.iterator();
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && storeIdIterator.hasNext()) {
+                    next = getElement(storeIdIterator.nextInt());
+                }
+                if (next == null && others != null) {
+                    if (othersIterator == null) {
+                        othersIterator = others.iterator();
+                    }
+                    if (othersIterator.hasNext()) {
+                        next = othersIterator.next();
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T t = next;
+                next = null;
+                return t;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Not supported operation.");
+            }
         }
     }
 
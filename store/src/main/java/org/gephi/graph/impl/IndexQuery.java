@@ -0,0 +1,369 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.IndexPredicate;
+
+/**
+ * Evaluates index predicates over the postings of an index.
+ * <p>
+ * Elements are streamed rather than collected into intermediate sets. An
+ * <code>AND</code> iterates its most selective operand, estimated from the
+ * index counts, and tests the other operands on each element. An
+ * <code>OR</code> iterates each operand in turn and skips elements already
+ * matched by a previous one. A <code>NOT</code> has to iterate all the
+ * elements, which are read from the postings of one of its columns, including
+ * nulls. Elements tested against a <code>RANGE</code> are looked up in the set
+ * of elements it matches, collected once.
+ * <p>
+ * This class isn't thread-safe, the caller should hold the table lock. Neither
+ * the graph lock nor the element monitors are taken, as writers acquire them
+ * before the table lock.
+ *
+ * @param <T> element type
+ */
+class IndexQuery<T extends Element> {
+
+    private final IndexImpl<T> index;
+    private final Map<IndexPredicate, Set<T>> ranges;
+
+    public IndexQuery(IndexImpl<T> index) {
+        this.index = index;
+        this.ranges = new IdentityHashMap<IndexPredicate, Set<T>>();
+    }
+
+    public List<T> get(IndexPredicate predicate) {
+        List<T> result = new ArrayList<T>();
+        for (Iterator<T> itr = iterator(predicate); itr.hasNext();) {
+            result.add(itr.next());
+        }
+        return result;
+    }
+
+    public int count(IndexPredicate predicate) {
+        switch (predicate.getType()) {
+            case EQUAL:
+            case IN:
+            case RANGE:
+                // Exact for single column predicates
+                return estimate(predicate);
+            default:
+                int count = 0;
+                for (Iterator<T> itr = iterator(predicate); itr.hasNext(); itr.next()) {
+                    count++;
+                }
+                return count;
+        }
+    }
+
+    protected int estimate(IndexPredicate predicate) {
+        switch (predicate.getType()) {
+            case EQUAL:
+            case IN: {
+                int count = 0;
+                for (Set<T> set : getValueSets(predicate)) {
+                    count += set.size();
+                }
+                return count;
+            }
+            case RANGE:
+                checkBounds(predicate);
+                return getIndex(predicate)
+                        .countRange(predicate.getLow(), predicate.isLowInclusive(), predicate.getHigh(), predicate.isHighInclusive());
+            case AND: {
+                int min = Integer.MAX_VALUE;
+                for (IndexPredicate p : predicate.getPredicates()) {
+                    min = Math.min(min, estimate(p));
+                }
+                return min;
+            }
+            case OR: {
+                long sum = 0;
+                for (IndexPredicate p : predicate.getPredicates()) {
+                    sum += estimate(p);
+                }
+                return (int) Math.min(Integer.MAX_VALUE, sum);
+            }
+            default:
+                // A negation can match the whole graph
+                return Integer.MAX_VALUE;
+        }
+    }
+
+    protected Iterator<T> iterator(final IndexPredicate predicate) {
+        switch (predicate.getType()) {
+            case EQUAL:
+            case IN: {
+                List<Iterator<T>> iterators = new ArrayList<Iterator<T>>();
+                for (Set<T> set : getValueSets(predicate)) {
+                    iterators.add(set.iterator());
+                }
+                return new ChainIterator(iterators.iterator());
+            }
+            case RANGE:
+                checkBounds(predicate);
+                return getIndex(predicate)
+                        .getRange(predicate.getLow(), predicate.isLowInclusive(), predicate.getHigh(), predicate.isHighInclusive())
+                        .iterator();
+            case AND: {
+                final IndexPredicate[] predicates = getPredicatesBySelectivity(predicate);
+                return new FilterIterator(iterator(predicates[0])) {
+                    @Override
+                    boolean accept(T element) {
+                        for (int i = 1; i < predicates.length; i++) {
+                            if (!matches(predicates[i], element)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                };
+            }
+            case OR: {
+                final IndexPredicate[] predicates = predicate.getPredicates();
+                List<Iterator<T>> iterators = new ArrayList<Iterator<T>>();
+                for (int i = 0; i < predicates.length; i++) {
+                    final int operand = i;
+                    iterators.add(new FilterIterator(iterator(predicates[i])) {
+                        @Override
+                        boolean accept(T element) {
+                            for (int j = 0; j < operand; j++) {
+                                if (matches(predicates[j], element)) {
+                                    return false;
+                                }
+                            }
+                            return true;
+                        }
+                    });
+                }
+                return new ChainIterator(iterators.iterator());
+            }
+            default: {
+                final IndexPredicate operand = predicate.getPredicates()[0];
+                return new FilterIterator(getElements(operand)) {
+                    @Override
+                    boolean accept(T element) {
+                        return !matches(operand, element);
+                    }
+                };
+            }
+        }
+    }
+
+    protected boolean matches(IndexPredicate predicate, T element) {
+        switch (predicate.getType()) {
+            case EQUAL:
+            case IN:
+                for (Set<T> set : getValueSets(predicate)) {
+                    if (set.contains(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            case RANGE:
+                return getRangeSet(predicate).contains(element);
+            case AND:
+                for (IndexPredicate p : predicate.getPredicates()) {
+                    if (!matches(p, element)) {
+                        return false;
+                    }
+                }
+                return true;
+            case OR:
+                for (IndexPredicate p : predicate.getPredicates()) {
+                    if (matches(p, element)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return !matches(predicate.getPredicates()[0], element);
+        }
+    }
+
+    private Set<T> getRangeSet(IndexPredicate predicate) {
+        Set<T> set = ranges.get(predicate);
+        if (set == null) {
+            set = new ObjectOpenHashSet<T>();
+            for (Iterator<T> itr = iterator(predicate); itr.hasNext();) {
+                set.add(itr.next());
+            }
+            ranges.put(predicate, set);
+        }
+        return set;
+    }
+
+    private void checkBounds(IndexPredicate predicate) {
+        if (!getIndex(predicate).isSortable()) {
+            throw new UnsupportedOperationException(
+                    "'" + predicate.getColumn().getId() + "' is not a sortable column (" + predicate.getColumn()
+                            .getTypeClass().getSimpleName() + ").");
+        }
+        index.checkBound(predicate.getColumn(), predicate.getLow());
+        index.checkBound(predicate.getColumn(), predicate.getHigh());
+    }
+
+    private IndexPredicate[] getPredicatesBySelectivity(IndexPredicate predicate) {
+        IndexPredicate[] predicates = predicate.getPredicates();
+        final int[] estimates = new int[predicates.length];
+        Integer[] order = new Integer[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            estimates[i] = estimate(predicates[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return estimates[a] < estimates[b] ? -1 : (estimates[a] == estimates[b] ? 0 : 1);
+            }
+        });
+        IndexPredicate[] sorted = new IndexPredicate[predicates.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = predicates[order[i]];
+        }
+        return sorted;
+    }
+
+    private List<Set<T>> getValueSets(IndexPredicate predicate) {
+        IndexImpl.AbstractIndex columnIndex = getIndex(predicate);
+        List<Set<T>> sets = new ArrayList<Set<T>>();
+        for (Object value : predicate.getValues()) {
+            Set<T> set = columnIndex.getValueSet(value);
+            // Equal values share the same set
+            if (set != null && !containsSame(sets, set)) {
+                sets.add(set);
+            }
+        }
+        return sets;
+    }
+
+    private boolean containsSame(List<Set<T>> sets, Set<T> set) {
+        for (Set<T> s : sets) {
+            if (s == set) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IndexImpl.AbstractIndex getIndex(IndexPredicate predicate) {
+        return getIndex(predicate.getColumn());
+    }
+
+    private IndexImpl.AbstractIndex getIndex(Column column) {
+        IndexImpl.AbstractIndex columnIndex = index.getIndex((ColumnImpl) column);
+        if (columnIndex == null) {
+            throw new IllegalArgumentException("The column '" + column.getId() + "' isn't indexed in this index");
+        }
+        return columnIndex;
+    }
+
+    private Iterator<T> getElements(IndexPredicate predicate) {
+        while (predicate.getColumn() == null) {
+            predicate = predicate.getPredicates()[0];
+        }
+        // Every element has a posting in a column index, possibly null
+        List<Iterator<T>> iterators = new ArrayList<Iterator<T>>();
+        for (Object o : getIndex(predicate)) {
+            iterators.add(((Map.Entry<Object, Set<T>>) o).getValue().iterator());
+        }
+        return new ChainIterator(iterators.iterator());
+    }
+
+    private final class ChainIterator implements Iterator<T> {
+
+        private final Iterator<Iterator<T>> iterators;
+        private Iterator<T> current;
+
+        public ChainIterator(Iterator<Iterator<T>> iterators) {
+            this.iterators = iterators;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (!iterators.hasNext()) {
+                    return false;
+                }
+                current = iterators.next();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Not supported operation.");
+        }
+    }
+
+    private abstract class FilterIterator implements Iterator<T> {
+
+        private final Iterator<T> itr;
+        private T next;
+
+        public FilterIterator(Iterator<T> itr) {
+            this.itr = itr;
+        }
+
+        abstract boolean accept(T element);
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && itr.hasNext()) {
+                T element = itr.next();
+                if (accept(element)) {
+                    next = element;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T t = next;
+            next = null;
+            return t;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Not supported operation.");
+        }
+    }
+}
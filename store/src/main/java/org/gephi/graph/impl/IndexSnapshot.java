@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import java.util.Arrays;
+import java.util.Map;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+
+/**
+ * Values of a column read to rebuild a stale index.
+ * <p>
+ * Reading the values takes the graph lock and the element monitors, which are
+ * acquired before the table lock by writers, so they're read without holding
+ * the table lock. The snapshot is registered on the index under the table lock
+ * before the elements are listed, and the writes made to the index until it's
+ * installed are recorded. When the snapshot is installed, again under the table
+ * lock, the recorded writes take precedence over the values read.
+ *
+ * @param <T> element type
+ */
+public class IndexSnapshot<T extends Element> {
+
+    // Recorded value of removed elements
+    private static final Object REMOVED = new Object();
+    // Writes, by element identity
+    private final Map<T, Object> writes;
+    // Data
+    protected ElementImpl[] elements;
+    protected Object[] values;
+    protected int size;
+    // Computed columns, versions the values are read for
+    protected int computedVersion;
+    protected int nodeVersion;
+    protected int edgeVersion;
+
+    public IndexSnapshot() {
+        this.writes = new Reference2ObjectOpenHashMap<T, Object>();
+        this.elements = new ElementImpl[0];
+        this.values = new Object[0];
+    }
+
+    public void put(T element, Object value) {
+        writes.put(element, value);
+    }
+
+    public void remove(T element) {
+        writes.put(element, REMOVED);
+    }
+
+    public void read(ElementImpl[] elements, Column column) {
+        // Computed values aren't written, and may need the graph lock
+        boolean computed = ((ColumnImpl) column).valueStore instanceof ComputedValueStore;
+        Object[] vals = new Object[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            ElementImpl element = elements[i];
+            if (computed) {
+                vals[i] = element.readAttribute(column);
+            } else {
+                // Writers update the index and the value under the monitor
+                synchronized (element) {
+                    vals[i] = element.readAttribute(column);
+                }
+            }
+        }
+        this.elements = elements;
+        this.values = vals;
+        this.size = elements.length;
+    }
+
+    /**
+     * Applies the recorded writes over the values read. The caller holds the
+     * table lock.
+     */
+    public void merge() {
+        ElementImpl[] mergedElements = new ElementImpl[size + writes.size()];
+        Object[] mergedValues = new Object[mergedElements.length];
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (!writes.containsKey(elements[i])) {
+                mergedElements[j] = elements[i];
+                mergedValues[j++] = values[i];
+            }
+        }
+        for (Map.Entry<T, Object> entry : writes.entrySet()) {
+            if (entry.getValue() != REMOVED) {
+                mergedElements[j] = (ElementImpl) entry.getKey();
+                mergedValues[j++] = entry.getValue();
+            }
+        }
+        writes.clear();
+        elements = mergedElements;
+        values = mergedValues;
+        size = j;
+    }
+
+    public static ElementImpl[] getElements(Graph graph, Class<? extends Element> elementType) {
+        if (graph == null) {
+            return new ElementImpl[0];
+        }
+        Object[] array;
+        graph.readLock();
+        try {
+            array = elementType.equals(Node.class) ? graph.getNodes().toArray() : graph.getEdges().toArray();
+        } finally {
+            graph.readUnlock();
+        }
+        return Arrays.copyOf(array, array.length, ElementImpl[].class);
+    }
+}
@@ -16,28 +16,50 @@
 package org.gephi.graph.impl;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import org.gephi.graph.api.Column;
-import org.gephi.graph.api.DirectedSubgraph;
-import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphView;
-import org.gephi.graph.api.Node;
+import org.gephi.graph.api.types.TimeMap;
 
 public class IndexStore<T extends Element> {
 
     protected final ColumnStore<T> columnStore;
     protected final TableLock lock;
     protected final IndexImpl<T> mainIndex;
-    protected final Map<GraphView, IndexImpl<T>> viewIndexes;
+    protected final ViewIndexCache<IndexImpl<T>> viewIndexes;
+    protected final Map<ColumnImpl, TextIndex<T>> textIndexes;
+    protected final Map<ColumnImpl, MemberIndex<T>> memberIndexes;
+    protected final Map<ColumnImpl, TemporalIndex<T>> temporalIndexes;
+    protected final List<Map<ColumnImpl, ? extends SecondaryIndex<T>>> secondaryIndexes;
+    // Deferred maintenance
+    protected volatile boolean suspended;
 
     public IndexStore(ColumnStore<T> columnStore) {
         this.columnStore = columnStore;
         this.mainIndex = new IndexImpl<T>(columnStore);
-        this.viewIndexes = new Object2ObjectOpenHashMap<GraphView, IndexImpl<T>>();
+        this.viewIndexes = new ViewIndexCache<IndexImpl<T>>(GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_VIEWS,
+                GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_POSTINGS) {
+            @Override
+            protected long weigh(IndexImpl<T> index) {
+                return index.countPostings();
+            }
+
+            @Override
+            protected void evict(GraphView view, IndexImpl<T> index) {
+                index.evict();
+            }
+        };
+        this.textIndexes = new Object2ObjectOpenHashMap<ColumnImpl, TextIndex<T>>();
+        this.memberIndexes = new Object2ObjectOpenHashMap<ColumnImpl, MemberIndex<T>>();
+        this.temporalIndexes = new Object2ObjectOpenHashMap<ColumnImpl, TemporalIndex<T>>();
+        this.secondaryIndexes = Arrays
+                .<Map<ColumnImpl, ? extends SecondaryIndex<T>>> asList(textIndexes, memberIndexes, temporalIndexes);
         this.lock = columnStore.lock;
     }
 
@@ -53,6 +75,12 @@ public class IndexStore<T extends Element> {
         for (IndexImpl<T> index : viewIndexes.values()) {
             index.removeColumn(col);
         }
+        for (Map<ColumnImpl, ? extends SecondaryIndex<T>> indexes : secondaryIndexes) {
+            SecondaryIndex<T> index = indexes.remove(col);
+            if (index != null) {
+                index.setColumnIndexed(false);
+            }
+        }
     }
 
     protected boolean hasColumn(ColumnImpl col) {
@@ -66,7 +94,7 @@ public class IndexStore<T extends Element> {
         }
         lock();
         try {
-            IndexImpl<T> viewIndex = viewIndexes.get(graph.getView());
+            IndexImpl<T> viewIndex = viewIndexes.access(graph.getView());
             if (viewIndex == null) {
                 viewIndex = createViewIndex(graph);
             }
@@ -80,16 +108,29 @@ public class IndexStore<T extends Element> {
         if (graph.getView().isMainView()) {
             throw new IllegalArgumentException("Can't create a view index for the main view");
         }
-        IndexImpl viewIndex = new IndexImpl<T>(columnStore);
+        // View indexes are derived from the main index when queried
+        IndexImpl viewIndex = new IndexImpl<T>(mainIndex, graph);
         ColumnImpl[] columns = columnStore.toArray();
         viewIndex.addAllColumns(columns);
         viewIndexes.put(graph.getView(), viewIndex);
 
-        indexView(graph);
-
         return viewIndex;
     }
 
+    protected void restoreViewIndex(IndexImpl<T> viewIndex) {
+        lock();
+        try {
+            if (viewIndex.evicted) {
+                // Postings are derived again from the main index when queried
+                viewIndex.evicted = false;
+                viewIndex.addAllColumns(columnStore.toArray());
+                viewIndexes.put(viewIndex.graph.getView(), viewIndex);
+            }
+        } finally {
+            unlock();
+        }
+    }
+
     protected void deleteViewIndex(Graph graph) {
         if (graph.getView().isMainView()) {
             throw new IllegalArgumentException("Can't delete a view index for the main view");
@@ -108,21 +149,20 @@ public class IndexStore<T extends Element> {
     public Object set(Column column, Object oldValue, Object value, T element) {
         lock();
         try {
-            value = mainIndex.set(column, oldValue, value, element);
-
-            if (!viewIndexes.isEmpty()) {
-                for (Entry<GraphView, IndexImpl<T>> entry : viewIndexes.entrySet()) {
-                    GraphViewImpl graphView = (GraphViewImpl) entry.getKey();
-                    DirectedSubgraph graph = graphView.getDirectedGraph();
-                    boolean inView = element instanceof Node ? graph.contains((Node) element) : graph
-                            .contains((Edge) element);
-                    if (inView) {
-                        entry.getValue().set(column, oldValue, value, element);
-                    }
-                }
+            if (((ColumnImpl) column).textIndexed) {
+                update(textIndexes.get(column), oldValue, value, element);
             }
-
-            return value;
+            if (((ColumnImpl) column).memberIndexed) {
+                update(memberIndexes.get(column), oldValue, value, element);
+            }
+            if (!column.isIndexed()) {
+                return value;
+            }
+            if (isDeferred(column)) {
+                mainIndex.defer((ColumnImpl) column, element, value);
+                return value;
+            }
+            return mainIndex.set(column, oldValue, value, element);
         } finally {
             unlock();
         }
@@ -137,18 +177,18 @@ public class IndexStore<T extends Element> {
             final ColumnImpl[] cols = columnStore.columns;
             for (int i = 0; i < length; i++) {
                 Column c = cols[i];
-                if (c != null && c.isIndexed() && elementImpl.attributes.length > c.getIndex()) {
-                    Object value = elementImpl.attributes[c.getIndex()];
-                    mainIndex.remove(c, value, element);
-                    for (Entry<GraphView, IndexImpl<T>> entry : viewIndexes.entrySet()) {
-                        GraphViewImpl graphView = (GraphViewImpl) entry.getKey();
-                        DirectedSubgraph graph = graphView.getDirectedGraph();
-                        boolean inView = element instanceof Node ? graph.contains((Node) element) : graph
-                                .contains((Edge) element);
-                        if (inView) {
-                            entry.getValue().remove(c, value, element);
-                        }
+                if (c != null && isElementIndexed(c)) {
+                    if (isDeferred(c)) {
+                        mainIndex.deferRemove((ColumnImpl) c, element);
+                        continue;
                     }
+                    Object value = elementImpl.readAttribute(c);
+                    mainIndex.remove(c, value, element);
+                }
+            }
+            for (Map<ColumnImpl, ? extends SecondaryIndex<T>> indexes : secondaryIndexes) {
+                for (SecondaryIndex<T> index : indexes.values()) {
+                    update(index, elementImpl.readAttribute(index.column), null, element);
                 }
             }
         } finally {
@@ -166,117 +206,306 @@ public class IndexStore<T extends Element> {
             final ColumnImpl[] cols = columnStore.columns;
             for (int i = 0; i < length; i++) {
                 Column c = cols[i];
-                if (c != null && c.isIndexed()) {
+                if (c != null && isElementIndexed(c)) {
+                    if (isDeferred(c)) {
+                        mainIndex.defer((ColumnImpl) c, element, elementImpl.attributes[c.getIndex()]);
+                        continue;
+                    }
                     Object value = elementImpl.attributes[c.getIndex()];
                     value = mainIndex.put(c, value, element);
                     elementImpl.attributes[c.getIndex()] = value;
                 }
             }
+            for (Map<ColumnImpl, ? extends SecondaryIndex<T>> indexes : secondaryIndexes) {
+                for (SecondaryIndex<T> index : indexes.values()) {
+                    update(index, null, elementImpl.attributes[index.column.getIndex()], element);
+                }
+            }
         } finally {
             unlock();
         }
     }
 
-    public void indexView(Graph graph) {
-        IndexImpl viewIndex = viewIndexes.get(graph.getView());
-        if (viewIndex != null) {
-            graph.readLock();
-            try {
-                Iterator<T> iterator = null;
-                if (columnStore.elementType.equals(Node.class)) {
-                    iterator = (Iterator<T>) graph.getNodes().iterator();
-                } else if (columnStore.elementType.equals(Edge.class)) {
-                    iterator = (Iterator<T>) graph.getEdges().iterator();
-                }
-
-                if (iterator != null) {
-                    while (iterator.hasNext()) {
-                        ElementImpl element = (ElementImpl) iterator.next();
-                        ensureAttributeArrayLength(element, columnStore.length);
-
-                        final ColumnImpl[] cols = columnStore.columns;
-                        synchronized (element) {
-                            int length = columnStore.length;
-                            for (int i = 0; i < length; i++) {
-                                Column c = cols[i];
-                                if (c != null && c.isIndexed()) {
-                                    Object value = element.attributes[c.getIndex()];
-                                    viewIndex.put(c, value, element);
-                                }
-                            }
-                        }
-                    }
+    public void clear() {
+        lock();
+        try {
+            mainIndex.clear();
+            for (IndexImpl index : viewIndexes.values()) {
+                index.clear();
+            }
+            for (Map<ColumnImpl, ? extends SecondaryIndex<T>> indexes : secondaryIndexes) {
+                for (SecondaryIndex<T> index : indexes.values()) {
+                    index.clear();
+                    // The graph is cleared, a rebuild in progress would restore
+                    // its elements
+                    index.snapshot = null;
+                    index.stale = false;
                 }
-            } finally {
-                graph.readUnlock();
             }
+        } finally {
+            unlock();
         }
     }
 
-    public void indexInView(T element, GraphView view) {
-        ElementImpl elementImpl = (ElementImpl) element;
+    /**
+     * Marks the indexes of the given column stale ahead of a bulk write. The
+     * values are then written without updating the indexes, and
+     * {@link #rebuild(org.gephi.graph.impl.ColumnImpl)} is called once they're
+     * all written.
+     *
+     * @param column column
+     */
+    protected void invalidate(ColumnImpl column) {
         lock();
         try {
-            IndexImpl<T> index = viewIndexes.get(view);
-            if (index != null) {
-                final int length = columnStore.length;
-                final ColumnImpl[] cols = columnStore.columns;
-                for (int i = 0; i < length; i++) {
-                    Column c = cols[i];
-                    if (c != null && c.isIndexed()) {
-                        Object value = elementImpl.attributes[c.getIndex()];
-                        index.put(c, value, element);
-                    }
-                }
+            invalidateIndexes(column);
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the indexes of the given column after a bulk write, unless
+     * indexing is deferred. The table lock shouldn't be held.
+     * <p>
+     * A rebuild started during the write may have missed some of its values, so
+     * the indexes are invalidated again first. Concurrent writes to single
+     * elements are recorded on the new snapshot.
+     *
+     * @param column column
+     */
+    protected void rebuild(ColumnImpl column) {
+        boolean deferred;
+        lock();
+        try {
+            invalidateIndexes(column);
+            deferred = isDeferred(column);
+        } finally {
+            unlock();
+        }
+        if (!deferred) {
+            rebuildStale();
+        }
+    }
+
+    protected void suspend() {
+        lock();
+        try {
+            suspended = true;
+        } finally {
+            unlock();
+        }
+    }
+
+    protected void resume() {
+        lock();
+        try {
+            suspended = false;
+        } finally {
+            unlock();
+        }
+        rebuildStale();
+    }
+
+    protected void setLazy(ColumnImpl column, boolean lazy) {
+        boolean rebuild;
+        lock();
+        try {
+            column.lazyIndex = lazy;
+            rebuild = !lazy && !suspended;
+        } finally {
+            unlock();
+        }
+        if (rebuild) {
+            rebuildStale();
+        }
+    }
+
+    protected void setTextIndexing(ColumnImpl column, boolean enabled) {
+        setIndexing(textIndexes, column, enabled ? new TextIndex<T>(column, columnStore.elementType) : null);
+    }
+
+    protected TextIndex<T> lockTextIndex(ColumnImpl column) {
+        return lockIndex(textIndexes, column, "text");
+    }
+
+    protected void setMemberIndexing(ColumnImpl column, boolean enabled) {
+        setIndexing(memberIndexes, column, enabled ? new MemberIndex<T>(column, columnStore.elementType) : null);
+    }
+
+    protected MemberIndex<T> lockMemberIndex(ColumnImpl column) {
+        return lockIndex(memberIndexes, column, "member");
+    }
+
+    public void setTemporal(Column column, TimeMap oldValue, TimeMap value, T element) {
+        lock();
+        try {
+            update(temporalIndexes.get(column), oldValue, value, element);
+        } finally {
+            unlock();
+        }
+    }
+
+    public void setTemporal(Column column, Object time, Object oldValue, Object value, T element) {
+        lock();
+        try {
+            TemporalIndex<T> temporalIndex = temporalIndexes.get(column);
+            if (temporalIndex == null) {
+                return;
             }
+            if (temporalIndex.stale || suspended) {
+                // The caller holds the element, whose map is already updated
+                temporalIndex.defer(element, ((ElementImpl) element).readAttribute(column));
+                return;
+            }
+            temporalIndex.remove(element, time, oldValue);
+            temporalIndex.add(element, time, value);
         } finally {
             unlock();
         }
     }
 
-    public void clearInView(T element, GraphView view) {
-        ElementImpl elementImpl = (ElementImpl) element;
+    protected void setTemporalIndexing(ColumnImpl column, boolean enabled) {
+        setIndexing(temporalIndexes, column, enabled ? new TemporalIndex<T>(column, columnStore.elementType) : null);
+    }
+
+    protected TemporalIndex<T> lockTemporalIndex(ColumnImpl column) {
+        return lockIndex(temporalIndexes, column, "temporal");
+    }
+
+    private <I extends SecondaryIndex<T>> void setIndexing(Map<ColumnImpl, I> indexes, ColumnImpl column, I index) {
+        boolean added = false;
         lock();
         try {
-            IndexImpl<T> index = viewIndexes.get(view);
-            if (index != null) {
-                final int length = columnStore.length;
-                final ColumnImpl[] cols = columnStore.columns;
-                for (int i = 0; i < length; i++) {
-                    Column c = cols[i];
-                    if (c != null && c.isIndexed()) {
-                        Object value = elementImpl.attributes[c.getIndex()];
-                        index.remove(c, value, element);
-                    }
+            if (index != null && !indexes.containsKey(column)) {
+                // Filled by refresh(), without the table lock
+                index.stale = true;
+                indexes.put(column, index);
+                index.setColumnIndexed(true);
+                added = true;
+            } else if (index == null) {
+                I removed = indexes.remove(column);
+                if (removed != null) {
+                    removed.setColumnIndexed(false);
                 }
             }
         } finally {
             unlock();
         }
+        if (added) {
+            refresh(index);
+        }
+    }
+
+    /**
+     * Returns the given secondary index with the table lock held, rebuilding it
+     * first if stale. The caller releases the lock.
+     */
+    private <I extends SecondaryIndex<T>> I lockIndex(Map<ColumnImpl, I> indexes, ColumnImpl column, String name) {
+        boolean refreshed = false;
+        while (true) {
+            lock();
+            I index = indexes.get(column);
+            if (index == null) {
+                unlock();
+                throw new IllegalArgumentException(
+                        "The column '" + column.getId() + "' doesn't have a " + name + " index");
+            }
+            if (!index.stale || refreshed) {
+                // Made stale again by a concurrent write, used as of the
+                // rebuild
+                return index;
+            }
+            unlock();
+            refresh(index);
+            refreshed = true;
+        }
     }
 
-    public void clear(GraphView view) {
+    /**
+     * Rebuilds the given secondary index if stale, see {@link IndexSnapshot}.
+     * The table lock shouldn't be held.
+     */
+    private void refresh(SecondaryIndex<T> index) {
+        IndexSnapshot<T> snapshot;
         lock();
         try {
-            IndexImpl<T> index = viewIndexes.get(view);
-            if (index != null) {
-                index.clear();
+            if (!index.stale) {
+                return;
+            }
+            if (index.snapshot == null) {
+                index.snapshot = new IndexSnapshot<T>();
+            }
+            snapshot = index.snapshot;
+        } finally {
+            unlock();
+        }
+
+        snapshot.read(IndexSnapshot.getElements(columnStore.graphStore, columnStore.elementType), index.column);
+
+        lock();
+        try {
+            // Skip snapshots discarded by a clear
+            if (index.snapshot == snapshot) {
+                index.install(snapshot);
             }
         } finally {
             unlock();
         }
     }
 
-    public void clear() {
+    private void update(SecondaryIndex<T> index, Object oldValue, Object value, T element) {
+        if (index == null) {
+            return;
+        }
+        if (index.stale || suspended) {
+            index.defer(element, value);
+            return;
+        }
+        index.remove(element, oldValue);
+        index.add(element, value);
+    }
+
+    private void rebuildStale() {
+        mainIndex.refreshStale();
+        List<SecondaryIndex<T>> staleIndexes = new ArrayList<SecondaryIndex<T>>();
         lock();
         try {
-            mainIndex.clear();
-            for (IndexImpl index : viewIndexes.values()) {
-                index.clear();
+            for (Map<ColumnImpl, ? extends SecondaryIndex<T>> indexes : secondaryIndexes) {
+                for (SecondaryIndex<T> index : indexes.values()) {
+                    if (index.stale) {
+                        staleIndexes.add(index);
+                    }
+                }
             }
         } finally {
             unlock();
         }
+        for (SecondaryIndex<T> index : staleIndexes) {
+            refresh(index);
+        }
+    }
+
+    private void invalidateIndexes(ColumnImpl column) {
+        if (column.isIndexed()) {
+            mainIndex.invalidate(column);
+        }
+        for (Map<ColumnImpl, ? extends SecondaryIndex<T>> indexes : secondaryIndexes) {
+            SecondaryIndex<T> index = indexes.get(column);
+            if (index != null) {
+                index.stale = true;
+                index.snapshot = null;
+            }
+        }
+    }
+
+    private boolean isDeferred(Column column) {
+        return suspended || ((ColumnImpl) column).lazyIndex;
+    }
+
+    private static boolean isElementIndexed(Column column) {
+        // Computed columns are indexed on demand, see IndexImpl
+        return column.isIndexed() && !column.getStorage().equals(ColumnStorage.COMPUTED);
     }
 
     private void ensureAttributeArrayLength(ElementImpl element, int size) {
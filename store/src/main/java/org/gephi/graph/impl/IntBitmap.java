@@ -0,0 +1,314 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Compressed set of non-negative integers.
+ * <p>
+ * Integers are partitioned by their 16 high bits, and the low bits of each
+ * partition are kept in a container: a sorted <code>char</code> array while the
+ * partition is sparse, and a 65536-bit bitmap once it holds more than
+ * {@link #ARRAY_MAX_SIZE} values. Dense and sparse sets of store ids are both
+ * represented with a few bits per value.
+ */
+public final class IntBitmap {
+
+    // Const
+    protected static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    // Data
+    private char[] keys;
+    private Container[] containers;
+    private int containerCount;
+    private int size;
+
+    public IntBitmap() {
+        keys = new char[0];
+        containers = new Container[0];
+    }
+
+    public boolean add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int index = Arrays.binarySearch(keys, 0, containerCount, high);
+        Container container;
+        if (index >= 0) {
+            container = containers[index];
+        } else {
+            index = -index - 1;
+            container = new ArrayContainer();
+            insertContainer(index, high, container);
+        }
+        if (container.add((char) value)) {
+            if (container.cardinality > ARRAY_MAX_SIZE && container instanceof ArrayContainer) {
+                containers[index] = ((ArrayContainer) container).toBitmap();
+            }
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, containerCount, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        if (container.remove((char) value)) {
+            if (container.cardinality == 0) {
+                removeContainer(index);
+            } else if (container.cardinality <= ARRAY_MAX_SIZE && container instanceof BitmapContainer) {
+                containers[index] = ((BitmapContainer) container).toArray();
+            }
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, containerCount, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        keys = new char[0];
+        containers = new Container[0];
+        containerCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns an iterator over the values, in ascending order.
+     * <p>
+     * The bitmap shouldn't be modified while iterating.
+     *
+     * @return value iterator
+     */
+    public BitmapIterator iterator() {
+        return new BitmapIterator();
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (containerCount == keys.length) {
+            int length = Math.max(4, containerCount * 2);
+            keys = Arrays.copyOf(keys, length);
+            containers = Arrays.copyOf(containers, length);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+        System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+        keys[index] = key;
+        containers[index] = container;
+        containerCount++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, containerCount - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, containerCount - index - 1);
+        containerCount--;
+        containers[containerCount] = null;
+    }
+
+    private void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("The value should be positive");
+        }
+    }
+
+    private abstract static class Container {
+
+        protected int cardinality;
+
+        abstract boolean add(char value);
+
+        abstract boolean remove(char value);
+
+        abstract boolean contains(char value);
+
+        // Returns the next value >= from, or -1
+        abstract int next(int from);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values = new char[4];
+
+        @Override
+        boolean add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE + 1, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int next(int from) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < cardinality ? values[index] : -1;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words = new long[BITMAP_WORDS];
+
+        @Override
+        boolean add(char value) {
+            int index = value >>> 6;
+            long bit = 1L << value;
+            if ((words[index] & bit) != 0) {
+                return false;
+            }
+            words[index] |= bit;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char value) {
+            int index = value >>> 6;
+            long bit = 1L << value;
+            if ((words[index] & bit) == 0) {
+                return false;
+            }
+            words[index] &= ~bit;
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int next(int from) {
+            int index = from >>> 6;
+            if (index >= BITMAP_WORDS) {
+                return -1;
+            }
+            long word = words[index] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (index << 6) + Long.numberOfTrailingZeros(word);
+                }
+                if (++index == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[cardinality];
+            for (int value = next(0); value != -1; value = next(value + 1)) {
+                array.values[array.cardinality++] = (char) value;
+            }
+            return array;
+        }
+    }
+
+    public final class BitmapIterator {
+
+        private int containerIndex;
+        private int nextLow = -1;
+        private int from;
+
+        private BitmapIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (containerIndex < containerCount) {
+                nextLow = from <= 0xFFFF ? containers[containerIndex].next(from) : -1;
+                if (nextLow != -1) {
+                    from = nextLow + 1;
+                    return;
+                }
+                containerIndex++;
+                from = 0;
+            }
+            nextLow = -1;
+        }
+
+        public boolean hasNext() {
+            return nextLow != -1;
+        }
+
+        public int nextInt() {
+            if (nextLow == -1) {
+                throw new NoSuchElementException();
+            }
+            int value = (keys[containerIndex] << 16) | nextLow;
+            advance();
+            return value;
+        }
+    }
+}
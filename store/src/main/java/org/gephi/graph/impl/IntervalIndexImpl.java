@@ -32,6 +32,7 @@ public class IntervalIndexImpl<T extends Element> extends TimeIndexImpl<T, Inter
 
     @Override
     public double getMinTimestamp() {
+        checkEvicted();
         if (mainIndex) {
             Interval2IntTreeMap sortedMap = (Interval2IntTreeMap) timestampIndexStore.timeSortedMap;
             if (!sortedMap.isEmpty()) {
@@ -56,6 +57,7 @@ public class IntervalIndexImpl<T extends Element> extends TimeIndexImpl<T, Inter
 
     @Override
     public double getMaxTimestamp() {
+        checkEvicted();
         if (mainIndex) {
             Interval2IntTreeMap sortedMap = (Interval2IntTreeMap) timestampIndexStore.timeSortedMap;
             if (!sortedMap.isEmpty()) {
@@ -88,6 +90,7 @@ public class IntervalIndexImpl<T extends Element> extends TimeIndexImpl<T, Inter
 
     @Override
     public ElementIterable get(double timestamp) {
+        checkEvicted();
         checkDouble(timestamp);
 
         readLock();
@@ -112,6 +115,7 @@ public class IntervalIndexImpl<T extends Element> extends TimeIndexImpl<T, Inter
 
     @Override
     public ElementIterable get(Interval interval) {
+        checkEvicted();
 
         readLock();
         ObjectSet<Element> elements = new ObjectOpenHashSet<Element>();
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gephi.graph.api.Element;
+
+/**
+ * Inverted index over the members of an array, List or Set column.
+ * <p>
+ * Each distinct member points to the elements whose value contains it, so
+ * contains queries don't depend on whole-value equality like the column index.
+ * Primitive array members are boxed, so queries use the wrapper type of the
+ * array component. Null members aren't indexed.
+ * <p>
+ * This class isn't thread-safe, see {@link SecondaryIndex}.
+ *
+ * @param <T> element type
+ */
+public class MemberIndex<T extends Element> extends SecondaryIndex<T> {
+
+    // Data
+    private final Map<Object, Set<T>> postings;
+
+    public MemberIndex(ColumnImpl column, Class<T> elementType) {
+        super(column, elementType);
+        this.postings = new Object2ObjectOpenHashMap<Object, Set<T>>();
+    }
+
+    @Override
+    public void add(T element, Object value) {
+        if (value == null) {
+            return;
+        }
+        for (Object member : getMembers(value)) {
+            if (member != null) {
+                Set<T> elements = postings.get(member);
+                if (elements == null) {
+                    elements = new ObjectOpenHashSet<T>();
+                    postings.put(member, elements);
+                }
+                elements.add(element);
+            }
+        }
+    }
+
+    @Override
+    public void remove(T element, Object value) {
+        if (value == null) {
+            return;
+        }
+        for (Object member : getMembers(value)) {
+            if (member != null) {
+                Set<T> elements = postings.get(member);
+                if (elements != null && elements.remove(element) && elements.isEmpty()) {
+                    postings.remove(member);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void setColumnIndexed(boolean indexed) {
+        column.memberIndexed = indexed;
+    }
+
+    @Override
+    public void clear() {
+        postings.clear();
+    }
+
+    public List<T> getContainingAny(Object[] members) {
+        Set<T> result = new ObjectOpenHashSet<T>();
+        for (Object member : members) {
+            Set<T> elements = postings.get(member);
+            if (elements != null) {
+                result.addAll(elements);
+            }
+        }
+        return new ArrayList<T>(result);
+    }
+
+    public List<T> getContainingAll(Object[] members) {
+        Set<T>[] sets = new Set[members.length];
+        for (int i = 0; i < members.length; i++) {
+            sets[i] = postings.get(members[i]);
+            if (sets[i] == null) {
+                return new ArrayList<T>();
+            }
+        }
+
+        // Iterate over the rarest member and test the others
+        Arrays.sort(sets, new Comparator<Set<T>>() {
+            @Override
+            public int compare(Set<T> o1, Set<T> o2) {
+                return o1.size() - o2.size();
+            }
+        });
+        List<T> result = new ArrayList<T>();
+        for (T element : sets[0]) {
+            boolean all = true;
+            for (int i = 1; i < sets.length && all; i++) {
+                all = sets[i].contains(element);
+            }
+            if (all) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    protected int countMembers() {
+        return postings.size();
+    }
+
+    private static Object[] getMembers(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection) value).toArray();
+        } else if (value instanceof Object[]) {
+            return (Object[]) value;
+        }
+        int length = Array.getLength(value);
+        Object[] members = new Object[length];
+        for (int i = 0; i < length; i++) {
+            members[i] = Array.get(value, i);
+        }
+        return members;
+    }
+}
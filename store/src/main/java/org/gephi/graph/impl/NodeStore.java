@@ -22,10 +22,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import org.gephi.graph.api.ElementVisitor;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
+import org.gephi.graph.api.ParallelElementIterable;
 
-public class NodeStore implements Collection<Node>, NodeIterable {
+public class NodeStore implements Collection<Node>, NodeIterable, ParallelElementIterable<Node> {
 
     // Const
     protected final static int NULL_ID = -1;
@@ -45,6 +47,8 @@ public class NodeStore implements Collection<Node>, NodeIterable {
     protected Object2IntOpenHashMap dictionary;
     // View store
     protected final GraphViewStore viewStore;
+    // Degree index (optional)
+    protected final DegreeIndexImpl degreeIndex;
 
     public NodeStore() {
         initStore();
@@ -52,6 +56,7 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         this.edgeStore = null;
         this.viewStore = null;
         this.version = null;
+        this.degreeIndex = null;
     }
 
     public NodeStore(final EdgeStore edgeStore, final GraphLock lock, final GraphViewStore viewStore, final GraphVersion graphVersion) {
@@ -60,6 +65,10 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         this.edgeStore = edgeStore;
         this.viewStore = viewStore;
         this.version = graphVersion;
+        this.degreeIndex = edgeStore != null ? edgeStore.degreeIndex : null;
+        if (degreeIndex != null) {
+            degreeIndex.nodeStore = this;
+        }
     }
 
     private void initStore() {
@@ -135,9 +144,14 @@ public class NodeStore implements Collection<Node>, NodeIterable {
 
         for (NodeStoreIterator itr = new NodeStoreIterator(); itr.hasNext();) {
             NodeImpl node = itr.next();
+            node.releaseAttributes();
             node.setStoreId(NodeStore.NULL_ID);
         }
         initStore();
+
+        if (degreeIndex != null) {
+            degreeIndex.clear();
+        }
     }
 
     @Override
@@ -251,6 +265,9 @@ public class NodeStore implements Collection<Node>, NodeIterable {
             if (viewStore != null) {
                 viewStore.addNode(node);
             }
+            if (degreeIndex != null) {
+                degreeIndex.addNode(node);
+            }
             node.indexAttributes();
 
             size++;
@@ -275,6 +292,9 @@ public class NodeStore implements Collection<Node>, NodeIterable {
             if (viewStore != null) {
                 viewStore.removeNode(node);
             }
+            if (degreeIndex != null) {
+                degreeIndex.removeNode(node);
+            }
 
             node.clearAttributes();
 
@@ -447,6 +467,20 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         readUnlock();
     }
 
+    @Override
+    public void parallelForEach(final ElementVisitor<Node> visitor) {
+        readLock();
+        try {
+            ParallelExecutor.forEach(lock, newSpliterator(), visitor);
+        } finally {
+            readUnlock();
+        }
+    }
+
+    public NodeStoreSpliterator newSpliterator() {
+        return new NodeStoreSpliterator();
+    }
+
     void readLock() {
         if (lock != null) {
             lock.readLock();
@@ -576,6 +610,27 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         }
     }
 
+    protected final class NodeStoreSpliterator implements ElementSpliterator<Node> {
+
+        @Override
+        public int getChunkCount() {
+            return blocksCount;
+        }
+
+        @Override
+        public void visitChunk(int chunk, ElementVisitor<Node> visitor) {
+            NodeBlock block = blocks[chunk];
+            NodeImpl[] backingArray = block.backingArray;
+            int length = block.nodeLength;
+            for (int i = 0; i < length; i++) {
+                NodeImpl node = backingArray[i];
+                if (node != null) {
+                    visitor.visit(node);
+                }
+            }
+        }
+    }
+
     protected final class NodeStoreIterator implements Iterator<Node> {
 
         protected int blockIndex;
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.ElementVisitor;
+
+/**
+ * Runs chunked work, such as the chunks of an {@link ElementSpliterator}, with
+ * a shared pool of daemon threads.
+ * <p>
+ * When a lock is given, the caller must hold the read lock for the whole
+ * computation, which guarantees that no write happens while the workers are
+ * running. The caller runs chunks itself and only waits for the chunks other
+ * workers have already claimed. Workers acquire the read lock before claiming
+ * any chunk so visitors can call read methods on the graph. As a worker may be
+ * blocked by a pending writer, the caller never waits for a worker that hasn't
+ * started, which avoids deadlocks.
+ */
+public final class ParallelExecutor {
+
+    private static ExecutorService executor;
+
+    private ParallelExecutor() {
+    }
+
+    public static <T extends Element> void forEach(GraphLock lock, final ElementSpliterator<T> spliterator, final ElementVisitor<T> visitor) {
+        if (visitor == null) {
+            throw new NullPointerException();
+        }
+        execute(lock, spliterator.getChunkCount(), new ChunkTask() {
+            @Override
+            public void run(int chunk) {
+                spliterator.visitChunk(chunk, visitor);
+            }
+        });
+    }
+
+    public static void execute(GraphLock lock, int chunkCount, ChunkTask task) {
+        int workers = Math.min(GraphStoreConfiguration.PARALLEL_ITERATION_THREADS, chunkCount) - 1;
+        if (workers <= 0 || Thread.currentThread() instanceof WorkerThread || (lock != null && lock.readWriteLock
+                .isWriteLockedByCurrentThread())) {
+            for (int i = 0; i < chunkCount; i++) {
+                task.run(i);
+            }
+            return;
+        }
+
+        Job job = new Job(lock, task, chunkCount);
+        ExecutorService service = getExecutor();
+        for (int i = 0; i < workers; i++) {
+            service.execute(job);
+        }
+        job.runChunks();
+        job.await();
+    }
+
+    /**
+     * Unit of work run once per chunk, possibly concurrently with other chunks.
+     */
+    public interface ChunkTask {
+
+        public void run(int chunk);
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors
+                    .newFixedThreadPool(GraphStoreConfiguration.PARALLEL_ITERATION_THREADS, new WorkerThreadFactory());
+        }
+        return executor;
+    }
+
+    private static final class Job implements Runnable {
+
+        private final GraphLock lock;
+        private final ChunkTask task;
+        private final int chunkCount;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final AtomicInteger pendingChunks;
+        private volatile Throwable failure;
+
+        public Job(GraphLock lock, ChunkTask task, int chunkCount) {
+            this.lock = lock;
+            this.task = task;
+            this.chunkCount = chunkCount;
+            this.pendingChunks = new AtomicInteger(chunkCount);
+        }
+
+        @Override
+        public void run() {
+            if (lock != null) {
+                lock.readLock();
+            }
+            try {
+                runChunks();
+            } finally {
+                if (lock != null) {
+                    lock.readUnlock();
+                }
+            }
+        }
+
+        public void runChunks() {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                try {
+                    if (failure == null) {
+                        task.run(chunk);
+                    }
+                } catch (Throwable t) {
+                    if (failure == null) {
+                        failure = t;
+                    }
+                } finally {
+                    if (pendingChunks.decrementAndGet() == 0) {
+                        synchronized (this) {
+                            notifyAll();
+                        }
+                    }
+                }
+            }
+        }
+
+        public void await() {
+            boolean interrupted = false;
+            synchronized (this) {
+                while (pendingChunks.get() > 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable t = failure;
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t != null) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+
+    private static final class WorkerThread extends Thread {
+
+        public WorkerThread(Runnable runnable, String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new WorkerThread(runnable, "graphstore-parallel-" + threadNumber.getAndIncrement());
+        }
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Value store keeping static primitive values unboxed.
+ * <p>
+ * Values are stored in blocks of primitive arrays, indexed by store id. Each
+ * block has a bitmap telling which entries are set, so null values can be
+ * represented. Blocks are allocated on demand and released when empty.
+ * <p>
+ * Writes are synchronized on the store. Reads don't lock: long and double
+ * values are kept in atomic arrays so they can't be read half-written, and a
+ * read concurrent with a write of the same entry returns the old or the new
+ * value.
+ */
+public class PrimitiveValueStore extends ColumnValueStore {
+
+    // Types
+    protected static final int DOUBLE = 0;
+    protected static final int FLOAT = 1;
+    protected static final int LONG = 2;
+    protected static final int INT = 3;
+    protected static final int SHORT = 4;
+    protected static final int BYTE = 5;
+    protected static final int CHAR = 6;
+    protected static final int BOOLEAN = 7;
+    // Config
+    protected static final int BLOCK_SIZE = GraphStoreConfiguration.COLUMNSTORE_VALUE_BLOCK_SIZE;
+    // Data
+    protected final Class typeClass;
+    protected final int type;
+    protected volatile Block[] blocks;
+    protected int size;
+
+    public PrimitiveValueStore(Class typeClass) {
+        this.typeClass = typeClass;
+        this.type = getType(typeClass);
+        this.blocks = new Block[0];
+    }
+
+    protected static boolean isSupported(Class typeClass) {
+        return getType(typeClass) != -1;
+    }
+
+    protected static int getType(Class typeClass) {
+        if (typeClass.equals(Double.class)) {
+            return DOUBLE;
+        } else if (typeClass.equals(Float.class)) {
+            return FLOAT;
+        } else if (typeClass.equals(Long.class)) {
+            return LONG;
+        } else if (typeClass.equals(Integer.class)) {
+            return INT;
+        } else if (typeClass.equals(Short.class)) {
+            return SHORT;
+        } else if (typeClass.equals(Byte.class)) {
+            return BYTE;
+        } else if (typeClass.equals(Character.class)) {
+            return CHAR;
+        } else if (typeClass.equals(Boolean.class)) {
+            return BOOLEAN;
+        }
+        return -1;
+    }
+
+    @Override
+    public Object get(int storeId) {
+        checkStoreId(storeId);
+
+        Block[] b = blocks;
+        int blockIndex = storeId / BLOCK_SIZE;
+        if (blockIndex < b.length) {
+            Block block = b[blockIndex];
+            if (block != null) {
+                return block.get(storeId % BLOCK_SIZE);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value for the given store id as a double, without boxing.
+     *
+     * @param storeId element store id
+     * @param missing value returned if not set
+     * @return the value, or <code>missing</code> if not set
+     * @throws IllegalStateException if the store type isn't a number
+     */
+    public double getDouble(int storeId, double missing) {
+        checkStoreId(storeId);
+
+        Block[] b = blocks;
+        int blockIndex = storeId / BLOCK_SIZE;
+        if (blockIndex < b.length) {
+            Block block = b[blockIndex];
+            int index = storeId % BLOCK_SIZE;
+            if (block != null && block.isSet(index)) {
+                switch (type) {
+                    case DOUBLE:
+                        return Double.longBitsToDouble(block.doubles.get(index));
+                    case FLOAT:
+                        return block.floats[index];
+                    case LONG:
+                        return block.longs.get(index);
+                    case INT:
+                        return block.ints[index];
+                    case SHORT:
+                        return block.shorts[index];
+                    case BYTE:
+                        return block.bytes[index];
+                    default:
+                        throw new IllegalStateException("The store type isn't a number");
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Returns the value for the given store id as a long, without boxing.
+     *
+     * @param storeId element store id
+     * @param missing value returned if not set
+     * @return the value, or <code>missing</code> if not set
+     * @throws IllegalStateException if the store type isn't an integer type
+     */
+    public long getLong(int storeId, long missing) {
+        checkStoreId(storeId);
+
+        Block[] b = blocks;
+        int blockIndex = storeId / BLOCK_SIZE;
+        if (blockIndex < b.length) {
+            Block block = b[blockIndex];
+            int index = storeId % BLOCK_SIZE;
+            if (block != null && block.isSet(index)) {
+                switch (type) {
+                    case LONG:
+                        return block.longs.get(index);
+                    case INT:
+                        return block.ints[index];
+                    case SHORT:
+                        return block.shorts[index];
+                    case BYTE:
+                        return block.bytes[index];
+                    default:
+                        throw new IllegalStateException("The store type isn't an integer type");
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Returns the value for the given store id as a boolean, without boxing.
+     *
+     * @param storeId element store id
+     * @param missing value returned if not set
+     * @return the value, or <code>missing</code> if not set
+     * @throws IllegalStateException if the store type isn't boolean
+     */
+    public boolean getBoolean(int storeId, boolean missing) {
+        checkStoreId(storeId);
+        if (type != BOOLEAN) {
+            throw new IllegalStateException("The store type isn't boolean");
+        }
+
+        Block[] b = blocks;
+        int blockIndex = storeId / BLOCK_SIZE;
+        if (blockIndex < b.length) {
+            Block block = b[blockIndex];
+            int index = storeId % BLOCK_SIZE;
+            if (block != null && block.isSet(index)) {
+                return (block.booleans[index >>> 6] & (1L << index)) != 0;
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Copies the values as doubles into <code>out</code>, indexed by store id,
+     * under a single lock acquisition.
+     * <p>
+     * Entries not set are filled with <code>missing</code>.
+     *
+     * @param out destination array, indexed by store id
+     * @param missing value copied for the entries not set
+     * @throws IllegalStateException if the store type isn't a number
+     */
+    public synchronized void copyDoubles(double[] out, double missing) {
+        if (type > BYTE) {
+            throw new IllegalStateException("The store type isn't a number");
+        }
+        Arrays.fill(out, missing);
+        Block[] b = blocks;
+        for (int blockIndex = 0; blockIndex < b.length; blockIndex++) {
+            Block block = b[blockIndex];
+            int offset = blockIndex * BLOCK_SIZE;
+            if (block == null || offset >= out.length) {
+                continue;
+            }
+            int length = Math.min(BLOCK_SIZE, out.length - offset);
+            for (int i = 0; i < length; i++) {
+                if (block.isSet(i)) {
+                    out[offset + i] = block.getDouble(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets a double value for the given store id, without boxing.
+     *
+     * @param storeId element store id
+     * @param value value
+     * @throws IllegalArgumentException if the store type isn't double
+     */
+    public synchronized void setDouble(int storeId, double value) {
+        checkStoreId(storeId);
+        checkType(DOUBLE);
+
+        Block block = getOrCreateBlock(storeId / BLOCK_SIZE);
+        int index = storeId % BLOCK_SIZE;
+        block.doubles.set(index, Double.doubleToRawLongBits(value));
+        if (block.markSet(index)) {
+            size++;
+        }
+    }
+
+    /**
+     * Sets a float value for the given store id, without boxing.
+     *
+     * @param storeId element store id
+     * @param value value
+     * @throws IllegalArgumentException if the store type isn't float
+     */
+    public synchronized void setFloat(int storeId, float value) {
+        checkStoreId(storeId);
+        checkType(FLOAT);
+
+        Block block = getOrCreateBlock(storeId / BLOCK_SIZE);
+        int index = storeId % BLOCK_SIZE;
+        block.floats[index] = value;
+        if (block.markSet(index)) {
+            size++;
+        }
+    }
+
+    /**
+     * Sets a long value for the given store id, without boxing.
+     *
+     * @param storeId element store id
+     * @param value value
+     * @throws IllegalArgumentException if the store type isn't long
+     */
+    public synchronized void setLong(int storeId, long value) {
+        checkStoreId(storeId);
+        checkType(LONG);
+
+        Block block = getOrCreateBlock(storeId / BLOCK_SIZE);
+        int index = storeId % BLOCK_SIZE;
+        block.longs.set(index, value);
+        if (block.markSet(index)) {
+            size++;
+        }
+    }
+
+    /**
+     * Sets an integer value for the given store id, without boxing.
+     *
+     * @param storeId element store id
+     * @param value value
+     * @throws IllegalArgumentException if the store type isn't integer
+     */
+    public synchronized void setInt(int storeId, int value) {
+        checkStoreId(storeId);
+        checkType(INT);
+
+        Block block = getOrCreateBlock(storeId / BLOCK_SIZE);
+        int index = storeId % BLOCK_SIZE;
+        block.ints[index] = value;
+        if (block.markSet(index)) {
+            size++;
+        }
+    }
+
+    /**
+     * Sets a boolean value for the given store id, without boxing.
+     *
+     * @param storeId element store id
+     * @param value value
+     * @throws IllegalArgumentException if the store type isn't boolean
+     */
+    public synchronized void setBoolean(int storeId, boolean value) {
+        checkStoreId(storeId);
+        checkType(BOOLEAN);
+
+        Block block = getOrCreateBlock(storeId / BLOCK_SIZE);
+        int index = storeId % BLOCK_SIZE;
+        block.setBoolean(index, value);
+        if (block.markSet(index)) {
+            size++;
+        }
+    }
+
+    @Override
+    public synchronized void set(int storeId, Object value) {
+        checkStoreId(storeId);
+
+        int blockIndex = storeId / BLOCK_SIZE;
+        int index = storeId % BLOCK_SIZE;
+        if (value == null) {
+            if (blockIndex < blocks.length) {
+                Block block = blocks[blockIndex];
+                if (block != null && block.remove(index)) {
+                    size--;
+                    if (block.count == 0) {
+                        blocks[blockIndex] = null;
+                    }
+                }
+            }
+        } else {
+            checkValue(value);
+            Block block = getOrCreateBlock(blockIndex);
+            if (block.set(index, value)) {
+                size++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        blocks = new Block[0];
+        size = 0;
+    }
+
+    private Block getOrCreateBlock(int blockIndex) {
+        Block[] b = blocks;
+        if (blockIndex >= b.length) {
+            b = Arrays.copyOf(b, blockIndex + 1);
+        }
+        Block block = b[blockIndex];
+        if (block == null) {
+            block = new Block();
+            b[blockIndex] = block;
+            // Publishes the new block to the readers
+            blocks = b;
+        }
+        return block;
+    }
+
+    private void checkType(int expectedType) {
+        if (type != expectedType) {
+            throw new IllegalArgumentException(
+                    "The value class does not match with the store type (" + typeClass.getName() + ")");
+        }
+    }
+
+    @Override
+    protected void checkValue(Object value) {
+        if (value != null && !value.getClass().equals(typeClass)) {
+            throw new IllegalArgumentException(
+                    "The value class does not match with the store type (" + typeClass.getName() + ")");
+        }
+    }
+
+    protected final class Block {
+
+        // Set entries bitmap
+        protected final long[] present = new long[(BLOCK_SIZE + 63) >>> 6];
+        // Values, only one is not null depending on the type. Doubles are kept
+        // as raw long bits.
+        protected final AtomicLongArray doubles;
+        protected final float[] floats;
+        protected final AtomicLongArray longs;
+        protected final int[] ints;
+        protected final short[] shorts;
+        protected final byte[] bytes;
+        protected final char[] chars;
+        protected final long[] booleans;
+        // Number of set entries
+        protected int count;
+
+        public Block() {
+            doubles = type == DOUBLE ? new AtomicLongArray(BLOCK_SIZE) : null;
+            floats = type == FLOAT ? new float[BLOCK_SIZE] : null;
+            longs = type == LONG ? new AtomicLongArray(BLOCK_SIZE) : null;
+            ints = type == INT ? new int[BLOCK_SIZE] : null;
+            shorts = type == SHORT ? new short[BLOCK_SIZE] : null;
+            bytes = type == BYTE ? new byte[BLOCK_SIZE] : null;
+            chars = type == CHAR ? new char[BLOCK_SIZE] : null;
+            booleans = type == BOOLEAN ? new long[present.length] : null;
+        }
+
+        public boolean isSet(int index) {
+            return (present[index >>> 6] & (1L << index)) != 0;
+        }
+
+        public Object get(int index) {
+            if (!isSet(index)) {
+                return null;
+            }
+            switch (type) {
+                case DOUBLE:
+                    return Double.longBitsToDouble(doubles.get(index));
+                case FLOAT:
+                    return floats[index];
+                case LONG:
+                    return longs.get(index);
+                case INT:
+                    return ints[index];
+                case SHORT:
+                    return shorts[index];
+                case BYTE:
+                    return bytes[index];
+                case CHAR:
+                    return chars[index];
+                default:
+                    return (booleans[index >>> 6] & (1L << index)) != 0;
+            }
+        }
+
+        public double getDouble(int index) {
+            switch (type) {
+                case DOUBLE:
+                    return Double.longBitsToDouble(doubles.get(index));
+                case FLOAT:
+                    return floats[index];
+                case LONG:
+                    return longs.get(index);
+                case INT:
+                    return ints[index];
+                case SHORT:
+                    return shorts[index];
+                default:
+                    return bytes[index];
+            }
+        }
+
+        public boolean set(int index, Object value) {
+            switch (type) {
+                case DOUBLE:
+                    doubles.set(index, Double.doubleToRawLongBits((Double) value));
+                    break;
+                case FLOAT:
+                    floats[index] = (Float) value;
+                    break;
+                case LONG:
+                    longs.set(index, (Long) value);
+                    break;
+                case INT:
+                    ints[index] = (Integer) value;
+                    break;
+                case SHORT:
+                    shorts[index] = (Short) value;
+                    break;
+                case BYTE:
+                    bytes[index] = (Byte) value;
+                    break;
+                case CHAR:
+                    chars[index] = (Character) value;
+                    break;
+                default:
+                    setBoolean(index, (Boolean) value);
+            }
+            return markSet(index);
+        }
+
+        public void setBoolean(int index, boolean value) {
+            if (value) {
+                booleans[index >>> 6] |= 1L << index;
+            } else {
+                booleans[index >>> 6] &= ~(1L << index);
+            }
+        }
+
+        public boolean markSet(int index) {
+            if (!isSet(index)) {
+                present[index >>> 6] |= 1L << index;
+                count++;
+                return true;
+            }
+            return false;
+        }
+
+        public boolean remove(int index) {
+            if (isSet(index)) {
+                present[index >>> 6] &= ~(1L << index);
+                count--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.Element;
+
+/**
+ * Base class of the optional indexes of a column, in addition to the column
+ * index.
+ * <p>
+ * Secondary indexes are enabled per column and maintained by {@link IndexStore}
+ * under the table lock. They aren't thread-safe. A stale index is rebuilt from
+ * an {@link IndexSnapshot}, the writes made to it in the meantime are only
+ * recorded on the snapshot.
+ *
+ * @param <T> element type
+ */
+public abstract class SecondaryIndex<T extends Element> {
+
+    // Data
+    protected final ColumnImpl column;
+    protected final Class<T> elementType;
+    // Deferred maintenance, see IndexStore
+    protected boolean stale;
+    // Rebuild in progress
+    protected IndexSnapshot<T> snapshot;
+
+    public SecondaryIndex(ColumnImpl column, Class<T> elementType) {
+        this.column = column;
+        this.elementType = elementType;
+    }
+
+    public abstract void add(T element, Object value);
+
+    public abstract void remove(T element, Object value);
+
+    public abstract void clear();
+
+    /**
+     * Sets the column flag checked by writers before updating this index.
+     *
+     * @param indexed true if the column has this index
+     */
+    protected abstract void setColumnIndexed(boolean indexed);
+
+    public void defer(T element, Object value) {
+        if (!stale) {
+            stale = true;
+            clear();
+        }
+        if (snapshot != null) {
+            snapshot.put(element, value);
+        }
+    }
+
+    public void install(IndexSnapshot<T> snapshot) {
+        clear();
+        snapshot.merge();
+        for (int i = 0; i < snapshot.size; i++) {
+            add((T) snapshot.elements[i], snapshot.values[i]);
+        }
+        this.snapshot = null;
+        stale = false;
+    }
+}
@@ -45,6 +45,8 @@ import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.shorts.ShortArrayList;
 import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortRBTreeSet;
+import it.unimi.dsi.fastutil.shorts.ShortSortedSet;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.EOFException;
@@ -52,12 +54,15 @@ import java.io.IOException;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import org.gephi.graph.api.Configuration;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Origin;
 import org.gephi.graph.api.Estimator;
 import org.gephi.graph.api.TimeFormat;
@@ -96,7 +101,7 @@ import org.joda.time.DateTimeZone;
 // Greatly inspired from JDBM https://github.com/jankotek/JDBM3
 public class Serialization {
 
-    final static float VERSION = 0.5f;
+    final static float VERSION = 0.6f;
     final static int NULL_ID = -1;
     final static int NULL = 0;
     final static int NORMAL = 1;
@@ -214,8 +219,10 @@ public class Serialization {
     final static int LIST = 229;
     final static int SET = 230;
     final static int MAP = 231;
+    final static int COLUMN_STORAGE = 232;
     // Store
     protected final Int2IntMap idMap;
+    protected final Map<ColumnImpl, String[]> dictionaries;
     protected GraphModelImpl model;
     protected float readVersion = VERSION;
     // Deserialized configuration
@@ -228,6 +235,7 @@ public class Serialization {
     public Serialization(GraphModelImpl graphModel) {
         model = graphModel;
         idMap = new Int2IntOpenHashMap();
+        dictionaries = new HashMap<ColumnImpl, String[]>();
         idMap.defaultReturnValue(NULL_ID);
     }
 
@@ -350,7 +358,7 @@ public class Serialization {
     private void serializeNode(DataOutput out, NodeImpl node) throws IOException {
         serialize(out, node.getId());
         serialize(out, node.storeId);
-        serialize(out, node.attributes);
+        serializeAttributes(out, node);
         serialize(out, node.properties);
     }
 
@@ -365,10 +373,61 @@ public class Serialization {
             serialize(out, GraphStoreConfiguration.DEFAULT_EDGE_WEIGHT);
         }
         serialize(out, edge.isDirected());
-        serialize(out, edge.attributes);
+        serializeAttributes(out, edge);
         serialize(out, edge.properties);
     }
 
+    private void serializeAttributes(DataOutput out, ElementImpl element) throws IOException {
+        Object[] attributes = encodeAttributes(element);
+        ColumnStore columnStore = element.getColumnStore();
+        if (columnStore == null) {
+            serialize(out, attributes);
+            return;
+        }
+        // Same format as an object array, values are written by the codec of
+        // their column
+        ColumnImpl[] columns = columnStore.columns;
+        out.write(ARRAY_OBJECT);
+        LongPacker.packInt(out, attributes.length);
+        for (int i = 0; i < attributes.length; i++) {
+            ColumnImpl column = i < columns.length ? columns[i] : null;
+            if (column != null) {
+                column.codec.serialize(this, out, attributes[i]);
+            } else {
+                serialize(out, attributes[i]);
+            }
+        }
+    }
+
+    private Object[] encodeAttributes(ElementImpl element) {
+        Object[] attributes = element.getAttributes();
+        ColumnStore columnStore = element.getColumnStore();
+        if (columnStore != null && element.isValid()) {
+            for (ColumnImpl column : columnStore.valueStoreColumns) {
+                if (column.valueStore instanceof DictionaryValueStore) {
+                    // Write the code, the dictionary is written once with the
+                    // column
+                    attributes[column.getIndex()] = ((DictionaryValueStore) column.valueStore).getCode(element
+                            .getStoreId());
+                } else if (column.valueStore instanceof ComputedValueStore) {
+                    attributes[column.getIndex()] = null;
+                }
+            }
+        }
+        return attributes;
+    }
+
+    private Object[] decodeAttributes(ColumnStore columnStore, Object[] attributes) {
+        for (ColumnImpl column : columnStore.valueStoreColumns) {
+            int index = column.getIndex();
+            if (column.valueStore instanceof DictionaryValueStore && index < attributes.length && attributes[index] instanceof Integer) {
+                String[] dictionary = dictionaries.get(column);
+                attributes[index] = dictionary[(Integer) attributes[index]];
+            }
+        }
+        return attributes;
+    }
+
     private NodeImpl deserializeNode(DataInput is) throws IOException, ClassNotFoundException {
         Object id = deserialize(is);
         int storeId = (Integer) deserialize(is);
@@ -376,7 +435,7 @@ public class Serialization {
         NodePropertiesImpl properties = (NodePropertiesImpl) deserialize(is);
 
         NodeImpl node = (NodeImpl) model.store.factory.newNode(id);
-        node.attributes = attributes;
+        node.attributes = decodeAttributes(model.store.nodeTable.store, attributes);
         if (node.properties != null) {
             node.setNodeProperties(properties);
         }
@@ -408,7 +467,7 @@ public class Serialization {
         NodeImpl target = model.store.nodeStore.get(targetNewId);
 
         EdgeImpl edge = (EdgeImpl) model.store.factory.newEdge(id, source, target, type, weight, directed);
-        edge.attributes = attributes;
+        edge.attributes = decodeAttributes(model.store.edgeTable.store, attributes);
         if (edge.properties != null) {
             edge.setEdgeProperties(properties);
         }
@@ -478,12 +537,20 @@ public class Serialization {
         int length = columnStore.length;
         serialize(out, length);
 
+        ShortSortedSet garbage = new ShortRBTreeSet(columnStore.garbageQueue);
         for (int i = 0; i < length; i++) {
             ColumnImpl col = columnStore.columns[i];
-            serializeColumn(out, col);
+            if (col != null && col.storage.equals(ColumnStorage.COMPUTED)) {
+                // Computed columns aren't written as their function can't be
+                // serialized
+                serializeColumn(out, null);
+                garbage.add(columnStore.intToShort(i));
+            } else {
+                serializeColumn(out, col);
+            }
         }
 
-        serialize(out, columnStore.garbageQueue.toShortArray());
+        serialize(out, garbage.toShortArray());
     }
 
     private ColumnStore deserializeColumnStore(final DataInput is, final TableImpl table) throws IOException, ClassNotFoundException {
@@ -499,6 +566,9 @@ public class Serialization {
                 if (columnStore.indexStore != null) {
                     columnStore.indexStore.addColumn(col);
                 }
+                if (col.valueStore != null) {
+                    columnStore.addValueStoreColumn(col);
+                }
             }
         }
 
@@ -523,6 +593,11 @@ public class Serialization {
         serialize(out, column.indexed);
         serialize(out, column.readOnly);
         serialize(out, column.estimator);
+        serialize(out, column.storage);
+        if (column.valueStore instanceof DictionaryValueStore) {
+            String[] dictionary = ((DictionaryValueStore) column.valueStore).getDictionary();
+            serialize(out, Arrays.copyOf(dictionary, dictionary.length, Object[].class));
+        }
     }
 
     private ColumnImpl deserializeColumn(final DataInput is, TableImpl table) throws IOException, ClassNotFoundException {
@@ -538,9 +613,17 @@ public class Serialization {
         boolean indexed = (Boolean) deserialize(is);
         boolean readOnly = (Boolean) deserialize(is);
         Estimator estimator = (Estimator) deserialize(is);
+        ColumnStorage storage = ColumnStorage.DEFAULT;
+        if (readVersion >= 0.6) {
+            storage = (ColumnStorage) deserialize(is);
+        }
 
         ColumnImpl column = new ColumnImpl(table, (String) id, typeClass, title, defaultValue, origin, indexed,
-                readOnly);
+                readOnly, storage);
+        if (column.valueStore instanceof DictionaryValueStore) {
+            Object[] dictionary = (Object[]) deserialize(is);
+            dictionaries.put(column, Arrays.copyOf(dictionary, dictionary.length, String[].class));
+        }
         column.storeId = storeId;
         if (estimator != null) {
             column.setEstimator(estimator);
@@ -1291,55 +1374,15 @@ public class Serialization {
             out.write(NULL);
 
         } else if (clazz == Boolean.class) {
-            if (((Boolean) obj)) {
-                out.write(BOOLEAN_TRUE);
-            } else {
-                out.write(BOOLEAN_FALSE);
-
-            }
+            serializeBoolean(out, (Boolean) obj);
         } else if (clazz == Integer.class) {
             final int val = (Integer) obj;
             writeInteger(out, val);
 
         } else if (clazz == Double.class) {
-            double v = (Double) obj;
-            if (v == -1d) {
-                out.write(DOUBLE_MINUS_1);
-            } else if (v == 0d) {
-                out.write(DOUBLE_0);
-            } else if (v == 1d) {
-                out.write(DOUBLE_1);
-            } else if (v >= 0 && v <= 255 && (int) v == v) {
-                out.write(DOUBLE_255);
-                out.write((int) v);
-            } else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE && (short) v == v) {
-                out.write(DOUBLE_SHORT);
-                out.writeShort((int) v);
-            } else {
-                out.write(DOUBLE_FULL);
-                out.writeDouble(v);
-
-            }
+            serializeDouble(out, (Double) obj);
         } else if (clazz == Float.class) {
-            float v = (Float) obj;
-            if (v == -1f) {
-                out.write(FLOAT_MINUS_1);
-            } else if (v == 0f) {
-                out.write(FLOAT_0);
-            } else if (v == 1f) {
-                out.write(FLOAT_1);
-            } else if (v >= 0 && v <= 255 && (int) v == v) {
-                out.write(FLOAT_255);
-                out.write((int) v);
-            } else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE && (short) v == v) {
-                out.write(FLOAT_SHORT);
-                out.writeShort((int) v);
-
-            } else {
-                out.write(FLOAT_FULL);
-                out.writeFloat(v);
-
-            }
+            serializeFloat(out, (Float) obj);
         } else if (clazz == Long.class) {
             final long val = (Long) obj;
             writeLong(out, val);
@@ -1356,46 +1399,13 @@ public class Serialization {
             LongPacker.packInt(out, d.scale());
 
         } else if (clazz == Short.class) {
-            short val = (Short) obj;
-            if (val == -1) {
-                out.write(SHORT_MINUS_1);
-            } else if (val == 0) {
-                out.write(SHORT_0);
-            } else if (val == 1) {
-                out.write(SHORT_1);
-            } else if (val > 0 && val < 255) {
-                out.write(SHORT_255);
-                out.write(val);
-            } else {
-                out.write(SHORT_FULL);
-                out.writeShort(val);
-
-            }
+            serializeShort(out, (Short) obj);
         } else if (clazz == Byte.class) {
-            byte val = (Byte) obj;
-            if (val == -1) {
-                out.write(BYTE_MINUS_1);
-            } else if (val == 0) {
-                out.write(BYTE_0);
-            } else if (val == 1) {
-                out.write(BYTE_1);
-            } else {
-                out.write(BYTE_FULL);
-                out.writeByte(val);
-
-            }
+            serializeByte(out, (Byte) obj);
         } else if (clazz == Character.class) {
-            out.write(CHAR);
-            out.writeChar((Character) obj);
-
+            serializeCharacter(out, (Character) obj);
         } else if (clazz == String.class) {
-            String s = (String) obj;
-            if (s.length() == 0) {
-                out.write(STRING_EMPTY);
-            } else {
-                out.write(STRING);
-                serializeString(out, s);
-            }
+            serializeStringValue(out, (String) obj);
         } else if (obj instanceof Class) {
             out.write(CLASS);
             serialize(out, ((Class) obj).getName());
@@ -1491,6 +1501,10 @@ public class Serialization {
             Origin b = (Origin) obj;
             out.write(COLUMN_ORIGIN);
             serialize(out, b.name());
+        } else if (obj instanceof ColumnStorage) {
+            ColumnStorage b = (ColumnStorage) obj;
+            out.write(COLUMN_STORAGE);
+            serialize(out, b.name());
         } else if (obj instanceof TableImpl) {
             TableImpl b = (TableImpl) obj;
             out.write(TABLE);
@@ -1697,7 +1711,92 @@ public class Serialization {
 
     }
 
-    private void writeInteger(DataOutput da, final int val) throws IOException {
+    protected void serializeBoolean(DataOutput out, final boolean val) throws IOException {
+        out.write(val ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+    }
+
+    protected void serializeDouble(DataOutput out, final double v) throws IOException {
+        if (v == -1d) {
+            out.write(DOUBLE_MINUS_1);
+        } else if (v == 0d) {
+            out.write(DOUBLE_0);
+        } else if (v == 1d) {
+            out.write(DOUBLE_1);
+        } else if (v >= 0 && v <= 255 && (int) v == v) {
+            out.write(DOUBLE_255);
+            out.write((int) v);
+        } else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE && (short) v == v) {
+            out.write(DOUBLE_SHORT);
+            out.writeShort((int) v);
+        } else {
+            out.write(DOUBLE_FULL);
+            out.writeDouble(v);
+        }
+    }
+
+    protected void serializeFloat(DataOutput out, final float v) throws IOException {
+        if (v == -1f) {
+            out.write(FLOAT_MINUS_1);
+        } else if (v == 0f) {
+            out.write(FLOAT_0);
+        } else if (v == 1f) {
+            out.write(FLOAT_1);
+        } else if (v >= 0 && v <= 255 && (int) v == v) {
+            out.write(FLOAT_255);
+            out.write((int) v);
+        } else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE && (short) v == v) {
+            out.write(FLOAT_SHORT);
+            out.writeShort((int) v);
+        } else {
+            out.write(FLOAT_FULL);
+            out.writeFloat(v);
+        }
+    }
+
+    protected void serializeShort(DataOutput out, final short val) throws IOException {
+        if (val == -1) {
+            out.write(SHORT_MINUS_1);
+        } else if (val == 0) {
+            out.write(SHORT_0);
+        } else if (val == 1) {
+            out.write(SHORT_1);
+        } else if (val > 0 && val < 255) {
+            out.write(SHORT_255);
+            out.write(val);
+        } else {
+            out.write(SHORT_FULL);
+            out.writeShort(val);
+        }
+    }
+
+    protected void serializeByte(DataOutput out, final byte val) throws IOException {
+        if (val == -1) {
+            out.write(BYTE_MINUS_1);
+        } else if (val == 0) {
+            out.write(BYTE_0);
+        } else if (val == 1) {
+            out.write(BYTE_1);
+        } else {
+            out.write(BYTE_FULL);
+            out.writeByte(val);
+        }
+    }
+
+    protected void serializeCharacter(DataOutput out, final char val) throws IOException {
+        out.write(CHAR);
+        out.writeChar(val);
+    }
+
+    protected void serializeStringValue(DataOutput out, final String s) throws IOException {
+        if (s.length() == 0) {
+            out.write(STRING_EMPTY);
+        } else {
+            out.write(STRING);
+            serializeString(out, s);
+        }
+    }
+
+    protected void writeInteger(DataOutput da, final int val) throws IOException {
         if (val == -1) {
             da.write(INTEGER_MINUS_1);
         } else if (val == 0) {
@@ -1732,7 +1831,7 @@ public class Serialization {
         }
     }
 
-    private void writeLong(DataOutput da, final long val) throws IOException {
+    protected void writeLong(DataOutput da, final long val) throws IOException {
         if (val == -1) {
             da.write(LONG_MINUS_1);
         } else if (val == 0) {
@@ -2055,6 +2154,9 @@ public class Serialization {
             case COLUMN_ORIGIN:
                 ret = Origin.valueOf((String) deserialize(is));
                 break;
+            case COLUMN_STORAGE:
+                ret = ColumnStorage.valueOf((String) deserialize(is));
+                break;
             case TABLE:
                 ret = deserializeTable(is);
                 break;
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+/**
+ * Value store keeping values in a hash map keyed by the element store id.
+ * <p>
+ * Only elements with a value use memory, so this store is best suited to
+ * columns set on a small fraction of the elements. Elements don't have to grow
+ * their attribute array to hold values of sparse columns.
+ */
+public class SparseValueStore extends ColumnValueStore {
+
+    protected final Class typeClass;
+    protected final Int2ObjectOpenHashMap<Object> values;
+
+    public SparseValueStore(Class typeClass) {
+        if (typeClass == null) {
+            throw new NullPointerException("The type class can't be null");
+        }
+        this.typeClass = typeClass;
+        this.values = new Int2ObjectOpenHashMap<Object>();
+    }
+
+    @Override
+    public synchronized Object get(int storeId) {
+        checkStoreId(storeId);
+        return values.get(storeId);
+    }
+
+    @Override
+    public synchronized void set(int storeId, Object value) {
+        checkStoreId(storeId);
+        if (value == null) {
+            values.remove(storeId);
+        } else {
+            if (!typeClass.isInstance(value)) {
+                throw new IllegalArgumentException(
+                        "The value class does not match with the store type (" + typeClass.getName() + ")");
+            }
+            values.put(storeId, value);
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return values.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        values.clear();
+        values.trim();
+    }
+}
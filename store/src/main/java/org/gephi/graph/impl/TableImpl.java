@@ -15,15 +15,23 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import org.gephi.graph.api.ArrayColumnBuffer;
 import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnFunction;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Origin;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.TableObserver;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.types.TimeMap;
 
 public class TableImpl<T extends Element> implements Table {
 
@@ -55,6 +63,11 @@ public class TableImpl<T extends Element> implements Table {
 
     @Override
     public Column addColumn(String id, String title, Class type, Origin origin, Object defaultValue, boolean indexed) {
+        return addColumn(id, title, type, origin, defaultValue, indexed, ColumnStorage.DEFAULT);
+    }
+
+    @Override
+    public Column addColumn(String id, String title, Class type, Origin origin, Object defaultValue, boolean indexed, ColumnStorage storage) {
         checkValidId(id);
         checkSupportedTypes(type);
         checkDefaultValue(defaultValue, type);
@@ -74,12 +87,463 @@ public class TableImpl<T extends Element> implements Table {
             indexed = false;
         }
 
-        ColumnImpl column = new ColumnImpl(this, id, type, title, defaultValue, origin, indexed, false);
+        ColumnImpl column = new ColumnImpl(this, id, type, title, defaultValue, origin, indexed, false, storage);
         store.addColumn(column);
 
         return column;
     }
 
+    @Override
+    public Column addComputedColumn(String id, String title, Class type, ColumnFunction function, boolean indexed, Column... sourceColumns) {
+        checkValidId(id);
+        checkSupportedTypes(type);
+        if (store.graphStore == null) {
+            throw new IllegalStateException("The table doesn't belong to a graph");
+        }
+        ColumnImpl[] sourceColumnImpls = new ColumnImpl[sourceColumns.length];
+        for (int i = 0; i < sourceColumns.length; i++) {
+            Column sourceColumn = sourceColumns[i];
+            if (sourceColumn == null) {
+                throw new NullPointerException("The source columns can't be null");
+            }
+            Table sourceTable = sourceColumn.getTable();
+            if (!(sourceTable instanceof TableImpl) || ((TableImpl) sourceTable).store.graphStore != store.graphStore) {
+                throw new IllegalArgumentException(
+                        "The source column " + sourceColumn.getId() + " doesn't belong to this graph");
+            }
+            sourceColumnImpls[i] = (ColumnImpl) sourceColumn;
+        }
+
+        type = AttributeUtils.getStandardizedType(type);
+
+        if (title == null || title.isEmpty()) {
+            title = id;
+        }
+
+        id = id.toLowerCase();
+
+        if (indexed && store.indexStore == null) {
+            indexed = false;
+        }
+
+        ColumnImpl column = new ColumnImpl(this, id, type, title, indexed, function, sourceColumnImpls);
+        store.addColumn(column);
+
+        return column;
+    }
+
+    @Override
+    public int readDoubles(Column column, GraphView view, double[] out, int[] storeIds) {
+        checkBulkColumn(column, view, out);
+        if (!column.isNumber() || column.isDynamic()) {
+            throw new IllegalArgumentException("The column should be a number column");
+        }
+
+        Object defaultValue = column.getDefaultValue();
+        double missing = defaultValue != null ? ((Number) defaultValue).doubleValue() : Double.NaN;
+        ColumnValueStore valueStore = ((ColumnImpl) column).valueStore;
+        PrimitiveValueStore primitiveStore = valueStore instanceof PrimitiveValueStore
+                ? (PrimitiveValueStore) valueStore : null;
+
+        GraphStore graphStore = store.graphStore;
+        graphStore.autoReadLock();
+        try {
+            Graph graph = graphStore.viewStore.getGraph(view);
+            checkBulkArrayLength(out.length, storeIds, countElements(graph));
+
+            int i = 0;
+            for (Iterator<? extends Element> itr = elementIterator(graph); itr.hasNext();) {
+                ElementImpl element = (ElementImpl) itr.next();
+                int storeId = element.getStoreId();
+                if (primitiveStore != null) {
+                    out[i] = primitiveStore.getDouble(storeId, missing);
+                } else {
+                    Object value = element.readAttribute(column);
+                    out[i] = value != null ? ((Number) value).doubleValue() : missing;
+                }
+                if (storeIds != null) {
+                    storeIds[i] = storeId;
+                }
+                i++;
+            }
+            return i;
+        } finally {
+            graphStore.autoReadUnlock();
+        }
+    }
+
+    @Override
+    public int readInts(Column column, GraphView view, int[] out, int[] storeIds) {
+        checkBulkColumn(column, view, out);
+        Class type = column.getTypeClass();
+        if (!type.equals(Integer.class) && !type.equals(Short.class) && !type.equals(Byte.class)) {
+            throw new IllegalArgumentException("The column should be an integer, short or byte column");
+        }
+
+        Object defaultValue = column.getDefaultValue();
+        int missing = defaultValue != null ? ((Number) defaultValue).intValue() : 0;
+        ColumnValueStore valueStore = ((ColumnImpl) column).valueStore;
+        PrimitiveValueStore primitiveStore = valueStore instanceof PrimitiveValueStore
+                ? (PrimitiveValueStore) valueStore : null;
+
+        GraphStore graphStore = store.graphStore;
+        graphStore.autoReadLock();
+        try {
+            Graph graph = graphStore.viewStore.getGraph(view);
+            checkBulkArrayLength(out.length, storeIds, countElements(graph));
+
+            int i = 0;
+            for (Iterator<? extends Element> itr = elementIterator(graph); itr.hasNext();) {
+                ElementImpl element = (ElementImpl) itr.next();
+                int storeId = element.getStoreId();
+                if (primitiveStore != null) {
+                    out[i] = (int) primitiveStore.getLong(storeId, missing);
+                } else {
+                    Object value = element.readAttribute(column);
+                    out[i] = value != null ? ((Number) value).intValue() : missing;
+                }
+                if (storeIds != null) {
+                    storeIds[i] = storeId;
+                }
+                i++;
+            }
+            return i;
+        } finally {
+            graphStore.autoReadUnlock();
+        }
+    }
+
+    @Override
+    public int readLongs(Column column, GraphView view, long[] out, int[] storeIds) {
+        checkBulkColumn(column, view, out);
+        Class type = column.getTypeClass();
+        if (!type.equals(Long.class) && !type.equals(Integer.class) && !type.equals(Short.class) && !type
+                .equals(Byte.class)) {
+            throw new IllegalArgumentException("The column should be a long, integer, short or byte column");
+        }
+
+        Object defaultValue = column.getDefaultValue();
+        long missing = defaultValue != null ? ((Number) defaultValue).longValue() : 0l;
+        ColumnValueStore valueStore = ((ColumnImpl) column).valueStore;
+        PrimitiveValueStore primitiveStore = valueStore instanceof PrimitiveValueStore
+                ? (PrimitiveValueStore) valueStore : null;
+
+        GraphStore graphStore = store.graphStore;
+        graphStore.autoReadLock();
+        try {
+            Graph graph = graphStore.viewStore.getGraph(view);
+            checkBulkArrayLength(out.length, storeIds, countElements(graph));
+
+            int i = 0;
+            for (Iterator<? extends Element> itr = elementIterator(graph); itr.hasNext();) {
+                ElementImpl element = (ElementImpl) itr.next();
+                int storeId = element.getStoreId();
+                if (primitiveStore != null) {
+                    out[i] = primitiveStore.getLong(storeId, missing);
+                } else {
+                    Object value = element.readAttribute(column);
+                    out[i] = value != null ? ((Number) value).longValue() : missing;
+                }
+                if (storeIds != null) {
+                    storeIds[i] = storeId;
+                }
+                i++;
+            }
+            return i;
+        } finally {
+            graphStore.autoReadUnlock();
+        }
+    }
+
+    @Override
+    public int readStrings(Column column, GraphView view, String[] out, int[] storeIds) {
+        checkBulkColumn(column, view, out);
+        if (!column.getTypeClass().equals(String.class)) {
+            throw new IllegalArgumentException("The column should be a string column");
+        }
+
+        String missing = (String) column.getDefaultValue();
+
+        GraphStore graphStore = store.graphStore;
+        graphStore.autoReadLock();
+        try {
+            Graph graph = graphStore.viewStore.getGraph(view);
+            checkBulkArrayLength(out.length, storeIds, countElements(graph));
+
+            int i = 0;
+            for (Iterator<? extends Element> itr = elementIterator(graph); itr.hasNext();) {
+                ElementImpl element = (ElementImpl) itr.next();
+                String value = (String) element.readAttribute(column);
+                out[i] = value != null ? value : missing;
+                if (storeIds != null) {
+                    storeIds[i] = element.getStoreId();
+                }
+                i++;
+            }
+            return i;
+        } finally {
+            graphStore.autoReadUnlock();
+        }
+    }
+
+    @Override
+    public int writeDoubles(Column column, GraphView view, double[] values, int[] storeIds) {
+        checkBulkColumn(column, view, values);
+        checkBulkWriteColumn(column, Double.class);
+
+        Object[] boxedValues = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (!Double.isNaN(values[i])) {
+                boxedValues[i] = values[i];
+            }
+        }
+        return writeValues((ColumnImpl) column, view, boxedValues, storeIds);
+    }
+
+    @Override
+    public int writeInts(Column column, GraphView view, int[] values, int[] storeIds) {
+        checkBulkColumn(column, view, values);
+        checkBulkWriteColumn(column, Integer.class);
+
+        Object[] boxedValues = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxedValues[i] = values[i];
+        }
+        return writeValues((ColumnImpl) column, view, boxedValues, storeIds);
+    }
+
+    @Override
+    public int writeLongs(Column column, GraphView view, long[] values, int[] storeIds) {
+        checkBulkColumn(column, view, values);
+        checkBulkWriteColumn(column, Long.class);
+
+        Object[] boxedValues = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxedValues[i] = values[i];
+        }
+        return writeValues((ColumnImpl) column, view, boxedValues, storeIds);
+    }
+
+    @Override
+    public int writeStrings(Column column, GraphView view, String[] values, int[] storeIds) {
+        checkBulkColumn(column, view, values);
+        checkBulkWriteColumn(column, String.class);
+
+        return writeValues((ColumnImpl) column, view, Arrays.copyOf(values, values.length, Object[].class), storeIds);
+    }
+
+    @Override
+    public ArrayColumnBuffer getArrayBuffer(Column column) {
+        if (column == null) {
+            throw new NullPointerException();
+        }
+        if (column.getIndex() == ColumnStore.NULL_ID || store.getColumnByIndex(column.getIndex()) != column) {
+            throw new IllegalArgumentException("The column does not belong to this table");
+        }
+        if (!column.getStorage().equals(ColumnStorage.CONTIGUOUS)) {
+            throw new IllegalArgumentException("The column should use the contiguous storage");
+        }
+        return ((ArrayValueStore) ((ColumnImpl) column).valueStore).getBuffer();
+    }
+
+    @Override
+    public void suspendIndexing() {
+        checkIndexedTable();
+        store.indexStore.suspend();
+    }
+
+    @Override
+    public void resumeIndexing() {
+        checkIndexedTable();
+        store.indexStore.resume();
+    }
+
+    @Override
+    public boolean isIndexingSuspended() {
+        return store.indexStore != null && store.indexStore.suspended;
+    }
+
+    @Override
+    public void setLazyIndexing(Column column, boolean lazy) {
+        if (column == null) {
+            throw new NullPointerException();
+        }
+        checkIndexedTable();
+        if (column.getIndex() == ColumnStore.NULL_ID || store.getColumnByIndex(column.getIndex()) != column) {
+            throw new IllegalArgumentException("The column does not belong to this table");
+        }
+        if (!column.isIndexed()) {
+            throw new IllegalArgumentException("The column '" + column.getId() + "' isn't indexed");
+        }
+        store.indexStore.setLazy((ColumnImpl) column, lazy);
+    }
+
+    @Override
+    public boolean isLazyIndexing(Column column) {
+        return ((ColumnImpl) column).lazyIndex;
+    }
+
+    @Override
+    public void setTextIndexing(Column column, boolean enabled) {
+        if (column == null) {
+            throw new NullPointerException();
+        }
+        checkIndexedTable();
+        if (column.getIndex() == ColumnStore.NULL_ID || store.getColumnByIndex(column.getIndex()) != column) {
+            throw new IllegalArgumentException("The column does not belong to this table");
+        }
+        if (!column.getTypeClass().equals(String.class) || column.getStorage().equals(ColumnStorage.COMPUTED)) {
+            throw new IllegalArgumentException("The column '" + column.getId() + "' should be a String column");
+        }
+        store.indexStore.setTextIndexing((ColumnImpl) column, enabled);
+    }
+
+    @Override
+    public boolean isTextIndexing(Column column) {
+        return ((ColumnImpl) column).textIndexed;
+    }
+
+    @Override
+    public void setMemberIndexing(Column column, boolean enabled) {
+        if (column == null) {
+            throw new NullPointerException();
+        }
+        checkIndexedTable();
+        if (column.getIndex() == ColumnStore.NULL_ID || store.getColumnByIndex(column.getIndex()) != column) {
+            throw new IllegalArgumentException("The column does not belong to this table");
+        }
+        if (!(column.isArray() || AttributeUtils.isCollectionType(column.getTypeClass())) || column.getStorage()
+                .equals(ColumnStorage.COMPUTED)) {
+            throw new IllegalArgumentException(
+                    "The column '" + column.getId() + "' should be an array, List or Set column");
+        }
+        store.indexStore.setMemberIndexing((ColumnImpl) column, enabled);
+    }
+
+    @Override
+    public boolean isMemberIndexing(Column column) {
+        return ((ColumnImpl) column).memberIndexed;
+    }
+
+    @Override
+    public void setTemporalIndexing(Column column, boolean enabled) {
+        if (column == null) {
+            throw new NullPointerException();
+        }
+        checkIndexedTable();
+        if (column.getIndex() == ColumnStore.NULL_ID || store.getColumnByIndex(column.getIndex()) != column) {
+            throw new IllegalArgumentException("The column does not belong to this table");
+        }
+        if (!TimeMap.class.isAssignableFrom(column.getTypeClass())) {
+            throw new IllegalArgumentException(
+                    "The column '" + column.getId() + "' should be a dynamic column with a TimeMap type");
+        }
+        store.indexStore.setTemporalIndexing((ColumnImpl) column, enabled);
+    }
+
+    @Override
+    public boolean isTemporalIndexing(Column column) {
+        return ((ColumnImpl) column).temporalIndexed;
+    }
+
+    private int writeValues(ColumnImpl column, GraphView view, Object[] values, int[] storeIds) {
+        GraphStore graphStore = store.graphStore;
+        IndexStore indexStore = (column.isIndexed() || column.hasSecondaryIndex()) ? store.indexStore : null;
+        boolean rebuild = false;
+        int count;
+        graphStore.autoReadLock();
+        try {
+            Graph graph = graphStore.viewStore.getGraph(view);
+            ElementImpl[] elements;
+            if (storeIds == null) {
+                int viewCount = countElements(graph);
+                checkBulkArrayLength(values.length, null, viewCount);
+
+                elements = new ElementImpl[viewCount];
+                int i = 0;
+                for (Iterator<? extends Element> itr = elementIterator(graph); itr.hasNext();) {
+                    elements[i++] = (ElementImpl) itr.next();
+                }
+            } else {
+                if (values.length < storeIds.length) {
+                    throw new IllegalArgumentException(
+                            "The values array should be at least of length " + storeIds.length);
+                }
+                IntOpenHashSet distinctIds = new IntOpenHashSet(storeIds.length);
+                elements = new ElementImpl[storeIds.length];
+                for (int i = 0; i < storeIds.length; i++) {
+                    if (!distinctIds.add(storeIds[i])) {
+                        throw new IllegalArgumentException("The store ids should be distinct");
+                    }
+                    elements[i] = getElement(graph, storeIds[i]);
+                }
+            }
+
+            count = elements.length;
+            if (indexStore != null && isBulkIndexWrite(count)) {
+                // Large write, the indexes are rebuilt once instead of taking
+                // the table lock for each element
+                indexStore.invalidate(column);
+                rebuild = true;
+            }
+            for (int i = 0; i < count; i++) {
+                ElementImpl element = elements[i];
+                // Same sequence as setAttributeValue(), under the element's
+                // monitor so concurrent writes can't interleave
+                synchronized (element) {
+                    Object value = values[i];
+                    if (indexStore != null && !rebuild) {
+                        value = indexStore.set(column, element.readAttribute(column), value, element);
+                    }
+                    element.writeAttribute(column, value);
+                }
+            }
+            column.incrementVersion(elements, count);
+        } finally {
+            graphStore.autoReadUnlock();
+        }
+        if (rebuild) {
+            indexStore.rebuild(column);
+        }
+        return count;
+    }
+
+    private boolean isBulkIndexWrite(int count) {
+        GraphStore graphStore = store.graphStore;
+        int size = Node.class.equals(store.elementType) ? graphStore.nodeStore.size() : graphStore.edgeStore.size();
+        return count >= GraphStoreConfiguration.BULK_WRITE_INDEX_REBUILD_MIN_COUNT && count >= size * GraphStoreConfiguration.BULK_WRITE_INDEX_REBUILD_RATIO;
+    }
+
+    private Iterator<? extends Element> elementIterator(Graph graph) {
+        if (Node.class.equals(store.elementType)) {
+            return graph.getNodes().iterator();
+        }
+        return graph.getEdges().iterator();
+    }
+
+    private int countElements(Graph graph) {
+        if (Node.class.equals(store.elementType)) {
+            return graph.getNodeCount();
+        }
+        return graph.getEdgeCount();
+    }
+
+    private ElementImpl getElement(Graph graph, int storeId) {
+        GraphStore graphStore = store.graphStore;
+        if (Node.class.equals(store.elementType)) {
+            NodeImpl node = graphStore.nodeStore.isValidIndex(storeId) ? graphStore.nodeStore.get(storeId) : null;
+            if (node == null || !graph.contains(node)) {
+                throw new IllegalArgumentException("The node with store id " + storeId + " isn't in the view");
+            }
+            return node;
+        }
+        EdgeImpl edge = graphStore.edgeStore.isValidIndex(storeId) ? graphStore.edgeStore.get(storeId) : null;
+        if (edge == null || !graph.contains(edge)) {
+            throw new IllegalArgumentException("The edge with store id " + storeId + " isn't in the view");
+        }
+        return edge;
+    }
+
     @Override
     public int countColumns() {
         return store.size();
@@ -190,6 +654,45 @@ public class TableImpl<T extends Element> implements Table {
         }
     }
 
+    private void checkBulkColumn(Column column, GraphView view, Object array) {
+        if (column == null || view == null || array == null) {
+            throw new NullPointerException();
+        }
+        if (store.graphStore == null) {
+            throw new IllegalStateException("The table doesn't belong to a graph");
+        }
+        if (column.getIndex() == ColumnStore.NULL_ID || store.getColumnByIndex(column.getIndex()) != column) {
+            throw new IllegalArgumentException("The column does not belong to this table");
+        }
+    }
+
+    private void checkIndexedTable() {
+        if (store.graphStore == null) {
+            throw new IllegalStateException("The table doesn't belong to a graph");
+        }
+        if (store.indexStore == null) {
+            throw new IllegalStateException("The table isn't indexed");
+        }
+    }
+
+    private void checkBulkWriteColumn(Column column, Class type) {
+        if (!column.getTypeClass().equals(type)) {
+            throw new IllegalArgumentException("The column type should be " + type.getName());
+        }
+        if (column.isReadOnly()) {
+            throw new RuntimeException("Can't modify the read-only '" + column.getId() + "' column");
+        }
+    }
+
+    private void checkBulkArrayLength(int length, int[] storeIds, int count) {
+        if (length < count) {
+            throw new IllegalArgumentException("The values array should be at least of length " + count);
+        }
+        if (storeIds != null && storeIds.length < count) {
+            throw new IllegalArgumentException("The storeIds array should be at least of length " + count);
+        }
+    }
+
     private void checkableTableObserver(TableObserver observer) {
         if (observer == null) {
             throw new NullPointerException();
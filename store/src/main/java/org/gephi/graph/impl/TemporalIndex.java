@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectAVLTreeMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gephi.graph.api.AttributeUtils;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Interval;
+import org.gephi.graph.api.types.TimeMap;
+
+/**
+ * Value-at-time index over a dynamic column with a <code>TimestampMap</code> or
+ * <code>IntervalMap</code> type.
+ * <p>
+ * Distinct values are kept sorted, and each value points to an interval tree of
+ * the times it holds, each time pointing to the elements with this value at
+ * this time. Timestamps are stored as single-point intervals. A query at a time
+ * or during an interval first selects the values, then searches their interval
+ * trees for overlapping times.
+ * <p>
+ * Maps mutated outside of the element's setters aren't tracked.
+ * <p>
+ * This class isn't thread-safe, see {@link SecondaryIndex}.
+ *
+ * @param <T> element type
+ */
+public class TemporalIndex<T extends Element> extends SecondaryIndex<T> {
+
+    // Data
+    protected final Class valueType;
+    private final Object2ObjectAVLTreeMap<Object, TimePostings> postings;
+
+    public TemporalIndex(ColumnImpl column, Class<T> elementType) {
+        super(column, elementType);
+        this.valueType = AttributeUtils.getStaticType(column.getTypeClass());
+        this.postings = new Object2ObjectAVLTreeMap<Object, TimePostings>();
+    }
+
+    @Override
+    public void add(T element, Object value) {
+        if (value == null) {
+            return;
+        }
+        TimeMap timeMap = (TimeMap) value;
+        Object[] keys = timeMap.toKeysArray();
+        Object[] values = timeMap.toValuesArray();
+        for (int i = 0; i < keys.length; i++) {
+            add(element, keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public void remove(T element, Object value) {
+        if (value == null) {
+            return;
+        }
+        TimeMap timeMap = (TimeMap) value;
+        Object[] keys = timeMap.toKeysArray();
+        Object[] values = timeMap.toValuesArray();
+        for (int i = 0; i < keys.length; i++) {
+            remove(element, keys[i], values[i]);
+        }
+    }
+
+    public void add(T element, Object time, Object value) {
+        if (value == null) {
+            return;
+        }
+        TimePostings timePostings = postings.get(value);
+        if (timePostings == null) {
+            timePostings = new TimePostings();
+            postings.put(value, timePostings);
+        }
+        timePostings.add(toInterval(time), element);
+    }
+
+    public void remove(T element, Object time, Object value) {
+        if (value == null) {
+            return;
+        }
+        TimePostings timePostings = postings.get(value);
+        if (timePostings != null && timePostings.remove(toInterval(time), element) && timePostings.isEmpty()) {
+            postings.remove(value);
+        }
+    }
+
+    @Override
+    protected void setColumnIndexed(boolean indexed) {
+        column.temporalIndexed = indexed;
+    }
+
+    @Override
+    public void clear() {
+        postings.clear();
+    }
+
+    public List<T> get(Object value, Interval interval) {
+        Set<T> result = new ObjectOpenHashSet<T>();
+        TimePostings timePostings = postings.get(value);
+        if (timePostings != null) {
+            timePostings.collect(interval, result);
+        }
+        return new ArrayList<T>(result);
+    }
+
+    public List<T> getRange(Object low, boolean lowInclusive, Object high, boolean highInclusive, Interval interval) {
+        Map<Object, TimePostings> values = low == null ? postings : postings.tailMap(low);
+        Set<T> result = new ObjectOpenHashSet<T>();
+        for (Map.Entry<Object, TimePostings> entry : values.entrySet()) {
+            Comparable value = (Comparable) entry.getKey();
+            if (low != null && !lowInclusive && value.compareTo(low) == 0) {
+                continue;
+            }
+            if (high != null) {
+                int c = value.compareTo(high);
+                if (c > 0 || (c == 0 && !highInclusive)) {
+                    break;
+                }
+            }
+            entry.getValue().collect(interval, result);
+        }
+        return new ArrayList<T>(result);
+    }
+
+    protected int countValues() {
+        return postings.size();
+    }
+
+    private static Interval toInterval(Object time) {
+        if (time instanceof Interval) {
+            return (Interval) time;
+        }
+        double timestamp = (Double) time;
+        return new Interval(timestamp, timestamp);
+    }
+
+    private final class TimePostings {
+
+        // Times of a value, each pointing to a bucket of elements
+        private final Interval2IntTreeMap times = new Interval2IntTreeMap();
+        private final ObjectArrayList<Set<T>> buckets = new ObjectArrayList<Set<T>>();
+        private final IntArrayList garbage = new IntArrayList();
+
+        public void add(Interval time, T element) {
+            Integer bucket = times.get(time);
+            if (bucket == null) {
+                if (garbage.isEmpty()) {
+                    bucket = buckets.size();
+                    buckets.add(new ObjectOpenHashSet<T>());
+                } else {
+                    bucket = garbage.removeInt(garbage.size() - 1);
+                }
+                times.put(time, bucket);
+            }
+            buckets.get(bucket).add(element);
+        }
+
+        public boolean remove(Interval time, T element) {
+            Integer bucket = times.get(time);
+            if (bucket == null) {
+                return false;
+            }
+            Set<T> elements = buckets.get(bucket);
+            if (!elements.remove(element)) {
+                return false;
+            }
+            if (elements.isEmpty()) {
+                times.remove(time);
+                garbage.add(bucket.intValue());
+            }
+            return true;
+        }
+
+        public boolean isEmpty() {
+            return times.isEmpty();
+        }
+
+        public void collect(Interval interval, Set<T> result) {
+            for (Integer bucket : times.values(interval)) {
+                result.addAll(buckets.get(bucket));
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectAVLTreeMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gephi.graph.api.Element;
+
+/**
+ * Prefix and substring index over the values of a String column.
+ * <p>
+ * Values are case-folded into terms. Terms are kept sorted for prefix queries,
+ * and each of their trigrams points to the terms containing it for substring
+ * queries. A substring query only verifies the terms of its rarest trigram, and
+ * queries shorter than a trigram scan the distinct terms. Elements are resolved
+ * through their exact value, so case-sensitive queries filter the values of the
+ * matching terms.
+ * <p>
+ * This class isn't thread-safe, see {@link SecondaryIndex}.
+ *
+ * @param <T> element type
+ */
+public class TextIndex<T extends Element> extends SecondaryIndex<T> {
+
+    // Const
+    protected static final int GRAM_LENGTH = 3;
+    // Data
+    private final Map<String, Set<T>> postings;
+    private final Object2ObjectAVLTreeMap<String, Set<String>> terms;
+    private final Map<String, Set<String>> grams;
+
+    public TextIndex(ColumnImpl column, Class<T> elementType) {
+        super(column, elementType);
+        this.postings = new Object2ObjectOpenHashMap<String, Set<T>>();
+        this.terms = new Object2ObjectAVLTreeMap<String, Set<String>>();
+        this.grams = new Object2ObjectOpenHashMap<String, Set<String>>();
+    }
+
+    @Override
+    public void add(T element, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = (String) value;
+        Set<T> elements = postings.get(text);
+        if (elements == null) {
+            elements = new ObjectOpenHashSet<T>();
+            postings.put(text, elements);
+            addTerm(text);
+        }
+        elements.add(element);
+    }
+
+    @Override
+    public void remove(T element, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = (String) value;
+        Set<T> elements = postings.get(text);
+        if (elements != null && elements.remove(element) && elements.isEmpty()) {
+            postings.remove(text);
+            removeTerm(text);
+        }
+    }
+
+    @Override
+    protected void setColumnIndexed(boolean indexed) {
+        column.textIndexed = indexed;
+    }
+
+    @Override
+    public void clear() {
+        postings.clear();
+        terms.clear();
+        grams.clear();
+    }
+
+    public List<T> getByPrefix(String prefix, boolean ignoreCase) {
+        String folded = fold(prefix);
+        List<T> result = new ArrayList<T>();
+        for (Map.Entry<String, Set<String>> entry : terms.tailMap(folded).entrySet()) {
+            if (!entry.getKey().startsWith(folded)) {
+                break;
+            }
+            for (String value : entry.getValue()) {
+                if (ignoreCase || value.startsWith(prefix)) {
+                    result.addAll(postings.get(value));
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<T> getBySubstring(String substring, boolean ignoreCase) {
+        String folded = fold(substring);
+        Iterable<String> candidates = terms.keySet();
+        if (folded.length() >= GRAM_LENGTH) {
+            Set<String> rarest = null;
+            for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+                Set<String> gramTerms = grams.get(folded.substring(i, i + GRAM_LENGTH));
+                if (gramTerms == null) {
+                    return new ArrayList<T>();
+                }
+                if (rarest == null || gramTerms.size() < rarest.size()) {
+                    rarest = gramTerms;
+                }
+            }
+            candidates = rarest;
+        }
+        List<T> result = new ArrayList<T>();
+        for (String term : candidates) {
+            if (term.contains(folded)) {
+                for (String value : terms.get(term)) {
+                    if (ignoreCase || value.contains(substring)) {
+                        result.addAll(postings.get(value));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    protected int countTerms() {
+        return terms.size();
+    }
+
+    private void addTerm(String value) {
+        String term = fold(value);
+        Set<String> values = terms.get(term);
+        if (values == null) {
+            values = new ObjectOpenHashSet<String>();
+            terms.put(term, values);
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                String gram = term.substring(i, i + GRAM_LENGTH);
+                Set<String> gramTerms = grams.get(gram);
+                if (gramTerms == null) {
+                    gramTerms = new ObjectOpenHashSet<String>();
+                    grams.put(gram, gramTerms);
+                }
+                gramTerms.add(term);
+            }
+        }
+        values.add(value);
+    }
+
+    private void removeTerm(String value) {
+        String term = fold(value);
+        Set<String> values = terms.get(term);
+        values.remove(value);
+        if (values.isEmpty()) {
+            terms.remove(term);
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+                String gram = term.substring(i, i + GRAM_LENGTH);
+                Set<String> gramTerms = grams.get(gram);
+                if (gramTerms != null) {
+                    gramTerms.remove(term);
+                    if (gramTerms.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    // Folds each char on its own so folding preserves prefixes and substrings
+    protected static String fold(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.ElementIterable;
+import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.TimeIndex;
 import org.gephi.graph.api.types.TimeMap;
 import org.gephi.graph.api.types.TimeSet;
@@ -36,6 +37,9 @@ public abstract class TimeIndexImpl<T extends Element, K, S extends TimeSet<K>,
     protected final boolean mainIndex;
     protected TimeIndexEntry[] timestamps;
     protected int elementCount;
+    // View indexes evicted from the cache, see TimeIndexStore
+    protected Graph viewGraph;
+    protected volatile boolean evicted;
 
     protected TimeIndexImpl(TimeIndexStore<T, K, S, M> store, boolean main) {
         timestampIndexStore = store;
@@ -93,6 +97,12 @@ public abstract class TimeIndexImpl<T extends Element, K, S extends TimeSet<K>,
         timestamps[index] = null;
     }
 
+    protected void checkEvicted() {
+        if (evicted) {
+            timestampIndexStore.restoreViewIndex(this);
+        }
+    }
+
     protected void checkDouble(double timestamp) {
         if (Double.isInfinite(timestamp) || Double.isNaN(timestamp)) {
             throw new IllegalArgumentException("Timestamp can' be NaN or infinity");
@@ -17,7 +17,6 @@ package org.gephi.graph.impl;
 
 import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
 import it.unimi.dsi.fastutil.ints.IntSortedSet;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -43,9 +42,10 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
     protected final IntSortedSet garbageQueue;
     protected int[] countMap;
     protected int length;
-    // Index
+    // Index, maintained under the store monitor, which is acquired after the
+    // graph lock
     protected TimeIndexImpl mainIndex;
-    protected final Map<GraphView, TimeIndexImpl> viewIndexes;
+    protected final ViewIndexCache<TimeIndexImpl> viewIndexes;
 
     protected TimeIndexStore(Class<T> type, GraphLock lock, boolean indexed, Map<K, Integer> sortedMap) {
         elementType = type;
@@ -56,7 +56,19 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         timeSortedMap = sortedMap;
         countMap = new int[0];
 
-        viewIndexes = indexed ? new Object2ObjectOpenHashMap<GraphView, TimeIndexImpl>() : null;
+        viewIndexes = indexed ? new ViewIndexCache<TimeIndexImpl>(GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_VIEWS,
+                GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_POSTINGS) {
+            @Override
+            protected long weigh(TimeIndexImpl index) {
+                return index.elementCount;
+            }
+
+            @Override
+            protected void evict(GraphView view, TimeIndexImpl index) {
+                index.evicted = true;
+                index.clear();
+            }
+        } : null;
     }
 
     protected abstract void checkK(K k);
@@ -65,7 +77,7 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
 
     protected abstract TimeIndexImpl createIndex(boolean main);
 
-    public Integer add(K k) {
+    public synchronized Integer add(K k) {
         checkK(k);
 
         Integer id = timeSortedMap.get(k);
@@ -86,7 +98,7 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         return id;
     }
 
-    public int add(K k, Element element) {
+    public synchronized int add(K k, Element element) {
         int timeIndex = add(k);
 
         if (mainIndex != null) {
@@ -108,19 +120,19 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         return timeIndex;
     }
 
-    public void add(TimeMap<K, ?> timeMap) {
+    public synchronized void add(TimeMap<K, ?> timeMap) {
         for (K timeKey : timeMap.toKeysArray()) {
             add(timeKey);
         }
     }
 
-    public void add(TimeSet<K> timeSet) {
+    public synchronized void add(TimeSet<K> timeSet) {
         for (K timeKey : timeSet.toArray()) {
             add(timeKey);
         }
     }
 
-    public Integer remove(K k) {
+    public synchronized Integer remove(K k) {
         checkK(k);
 
         Integer id = timeSortedMap.get(k);
@@ -133,7 +145,7 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         return id;
     }
 
-    public int remove(K k, Element element) {
+    public synchronized int remove(K k, Element element) {
         Integer timeIndex = remove(k);
         checkTimeIndex(timeIndex);
 
@@ -158,13 +170,13 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         return timeIndex;
     }
 
-    public void remove(M timeMap) {
+    public synchronized void remove(M timeMap) {
         for (K timeKey : timeMap.toKeysArray()) {
             remove(timeKey);
         }
     }
 
-    public void remove(S timeSet) {
+    public synchronized void remove(S timeSet) {
         for (K timeKey : timeSet.toArray()) {
             remove(timeKey);
         }
@@ -176,19 +188,30 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         return timeSortedMap.containsKey(k);
     }
 
-    public void index(Element element) {
+    public synchronized void index(Element element) {
         S timeSet = getTimeSet(element);
 
         if (timeSet != null) {
             add(timeSet);
         }
 
-        for (Object val : element.getAttributes()) {
+        ElementImpl elementImpl = (ElementImpl) element;
+        for (Object val : elementImpl.attributes) {
             if (val != null && val instanceof TimeMap) {
                 TimeMap dynamicValue = (TimeMap) val;
                 add(dynamicValue);
             }
         }
+        ColumnStore columnStore = elementImpl.getColumnStore();
+        if (columnStore != null) {
+            for (ColumnImpl column : columnStore.valueStoreColumns) {
+                Object val = column.isDynamic() ? elementImpl.readAttribute(column) : null;
+                if (val != null && val instanceof TimeMap) {
+                    TimeMap dynamicValue = (TimeMap) val;
+                    add(dynamicValue);
+                }
+            }
+        }
 
         if (timeSet != null && mainIndex != null) {
             K[] ts = timeSet.toArray();
@@ -200,7 +223,7 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         }
     }
 
-    public void clear(Element element) {
+    public synchronized void clear(Element element) {
         S timeSet = getTimeSet(element);
 
         if (timeSet != null && mainIndex != null) {
@@ -230,15 +253,26 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
             remove(timeSet);
         }
 
-        for (Object val : element.getAttributes()) {
+        ElementImpl elementImpl = (ElementImpl) element;
+        for (Object val : elementImpl.attributes) {
             if (val != null && val instanceof TimeMap) {
                 TimeMap dynamicValue = (TimeMap) val;
                 remove((M) dynamicValue);
             }
         }
+        ColumnStore columnStore = elementImpl.getColumnStore();
+        if (columnStore != null) {
+            for (ColumnImpl column : columnStore.valueStoreColumns) {
+                Object val = column.isDynamic() ? elementImpl.readAttribute(column) : null;
+                if (val != null && val instanceof TimeMap) {
+                    TimeMap dynamicValue = (TimeMap) val;
+                    remove((M) dynamicValue);
+                }
+            }
+        }
     }
 
-    public void clear() {
+    public synchronized void clear() {
         timeSortedMap.clear();
         garbageQueue.clear();
         countMap = new int[0];
@@ -264,11 +298,14 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         if (view.isMainView()) {
             return mainIndex;
         }
-        TimeIndexImpl viewIndex = viewIndexes.get(graph.getView());
+        TimeIndexImpl viewIndex;
+        synchronized (this) {
+            // Accessing reorders the cache
+            viewIndex = viewIndexes.access(view);
+        }
         if (viewIndex == null) {
             // TODO Make the auto-creation optional?
             viewIndex = createViewIndex(graph);
-            viewIndexes.put(graph.getView(), viewIndex);
         }
         return viewIndex;
     }
@@ -278,16 +315,40 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
             throw new IllegalArgumentException("Can't create a view index for the main view");
         }
 
-        TimeIndexImpl viewIndex = createIndex(false);
-        // TODO: Check view doesn't exist already
-        viewIndexes.put(graph.getView(), viewIndex);
-
-        indexView(graph);
+        graph.readLock();
+        try {
+            synchronized (this) {
+                TimeIndexImpl viewIndex = viewIndexes.get(graph.getView());
+                if (viewIndex == null) {
+                    viewIndex = createIndex(false);
+                    viewIndex.viewGraph = graph;
+                    viewIndexes.put(graph.getView(), viewIndex);
+                    indexView(graph, viewIndex);
+                }
+                return viewIndex;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
 
-        return viewIndex;
+    protected void restoreViewIndex(TimeIndexImpl viewIndex) {
+        Graph graph = viewIndex.viewGraph;
+        graph.readLock();
+        try {
+            synchronized (this) {
+                if (viewIndex.evicted) {
+                    viewIndex.evicted = false;
+                    viewIndexes.put(graph.getView(), viewIndex);
+                    indexView(graph, viewIndex);
+                }
+            }
+        } finally {
+            graph.readUnlock();
+        }
     }
 
-    public void deleteViewIndex(Graph graph) {
+    public synchronized void deleteViewIndex(Graph graph) {
         if (graph.getView().isMainView()) {
             throw new IllegalArgumentException("Can't delete a view index for the main view");
         }
@@ -298,39 +359,45 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
     }
 
     public void indexView(Graph graph) {
-        TimeIndexImpl viewIndex = viewIndexes.get(graph.getView());
-        if (viewIndex != null) {
-            graph.readLock();
-            try {
-                Iterator<T> iterator = null;
-
-                if (elementType.equals(Node.class)) {
-                    iterator = (Iterator<T>) graph.getNodes().iterator();
-                } else if (elementType.equals(Edge.class)) {
-                    iterator = (Iterator<T>) graph.getEdges().iterator();
+        graph.readLock();
+        try {
+            synchronized (this) {
+                TimeIndexImpl viewIndex = viewIndexes.get(graph.getView());
+                if (viewIndex != null) {
+                    indexView(graph, viewIndex);
                 }
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
 
-                if (iterator != null) {
-                    while (iterator.hasNext()) {
-                        Element element = iterator.next();
-                        S set = getTimeSet(element);
-                        if (set != null) {
-                            K[] ts = set.toArray();
-                            int tsLength = ts.length;
-                            for (int i = 0; i < tsLength; i++) {
-                                int timestamp = timeSortedMap.get(ts[i]);
-                                viewIndex.add(timestamp, element);
-                            }
-                        }
+    private void indexView(Graph graph, TimeIndexImpl viewIndex) {
+        Iterator<T> iterator = null;
+
+        if (elementType.equals(Node.class)) {
+            iterator = (Iterator<T>) graph.getNodes().iterator();
+        } else if (elementType.equals(Edge.class)) {
+            iterator = (Iterator<T>) graph.getEdges().iterator();
+        }
+
+        if (iterator != null) {
+            while (iterator.hasNext()) {
+                Element element = iterator.next();
+                S set = getTimeSet(element);
+                if (set != null) {
+                    K[] ts = set.toArray();
+                    int tsLength = ts.length;
+                    for (int i = 0; i < tsLength; i++) {
+                        int timestamp = timeSortedMap.get(ts[i]);
+                        viewIndex.add(timestamp, element);
                     }
                 }
-            } finally {
-                graph.readUnlock();
             }
         }
     }
 
-    public void indexInView(T element, GraphView view) {
+    public synchronized void indexInView(T element, GraphView view) {
         TimeIndexImpl viewIndex = viewIndexes.get(view);
         if (viewIndex != null) {
             S set = getTimeSet(element);
@@ -345,7 +412,7 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         }
     }
 
-    public void clearInView(T element, GraphView view) {
+    public synchronized void clearInView(T element, GraphView view) {
         ElementImpl elementImpl = (ElementImpl) element;
         TimeIndexImpl viewIndex = viewIndexes.get(view);
         if (viewIndex != null) {
@@ -361,7 +428,7 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         }
     }
 
-    public void clear(GraphView view) {
+    public synchronized void clear(GraphView view) {
         TimeIndexImpl viewIndex = viewIndexes.get(view);
         if (viewIndex != null) {
             viewIndex.clear();
@@ -373,7 +440,8 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
     }
 
     private S getTimeSet(Element element) {
-        Object[] attributes = element.getAttributes();
+        // The time set is a property column, always in the attribute array
+        Object[] attributes = ((ElementImpl) element).attributes;
         if (GraphStoreConfiguration.ENABLE_ELEMENT_TIME_SET && GraphStoreConfiguration.ELEMENT_TIMESET_INDEX < attributes.length) {
             return (S) attributes[GraphStoreConfiguration.ELEMENT_TIMESET_INDEX];
         }
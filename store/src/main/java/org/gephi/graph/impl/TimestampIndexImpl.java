@@ -34,6 +34,7 @@ public class TimestampIndexImpl<T extends Element> extends TimeIndexImpl<T, Doub
 
     @Override
     public double getMinTimestamp() {
+        checkEvicted();
         if (mainIndex) {
             Double2IntSortedMap sortedMap = (Double2IntSortedMap) timestampIndexStore.timeSortedMap;
             if (!sortedMap.isEmpty()) {
@@ -61,6 +62,7 @@ public class TimestampIndexImpl<T extends Element> extends TimeIndexImpl<T, Doub
 
     @Override
     public double getMaxTimestamp() {
+        checkEvicted();
         if (mainIndex) {
             Double2IntSortedMap sortedMap = (Double2IntSortedMap) timestampIndexStore.timeSortedMap;
             if (!sortedMap.isEmpty()) {
@@ -89,6 +91,7 @@ public class TimestampIndexImpl<T extends Element> extends TimeIndexImpl<T, Doub
 
     @Override
     public ElementIterable get(double timestamp) {
+        checkEvicted();
         checkDouble(timestamp);
 
         readLock();
@@ -105,6 +108,7 @@ public class TimestampIndexImpl<T extends Element> extends TimeIndexImpl<T, Doub
 
     @Override
     public ElementIterable get(Interval interval) {
+        checkEvicted();
         checkDouble(interval.getLow());
         checkDouble(interval.getHigh());
 
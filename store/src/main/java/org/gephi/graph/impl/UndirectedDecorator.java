@@ -152,7 +152,8 @@ public class UndirectedDecorator implements UndirectedGraph, UndirectedSubgraph
 
     @Override
     public EdgeIterable getEdges() {
-        return store.getEdgeIterableWrapper(store.edgeStore.iteratorUndirected());
+        return store.getEdgeIterableWrapper(store.edgeStore.iteratorUndirected(), store.edgeStore
+                .newUndirectedSpliterator());
     }
 
     @Override
@@ -233,6 +234,16 @@ public class UndirectedDecorator implements UndirectedGraph, UndirectedSubgraph
         return store.isAdjacent(node1, node2, type);
     }
 
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2) {
+        return store.countCommonNeighbors(node1, node2);
+    }
+
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2, int type) {
+        return store.countCommonNeighbors(node1, node2, type);
+    }
+
     @Override
     public boolean isIncident(Edge edge1, Edge edge2) {
         return store.isIncident(edge1, edge2);
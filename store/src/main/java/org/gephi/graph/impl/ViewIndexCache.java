@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gephi.graph.api.GraphView;
+
+/**
+ * Bounded cache of view indexes with least-recently-used eviction.
+ * <p>
+ * The cache is bounded both by its number of views and by the total weight of
+ * its indexes, as measured by {@link #weigh(java.lang.Object)}. Weights are
+ * measured when the cache is trimmed, so indexes that grow after being cached
+ * are accounted for at the next access. The view being accessed is never
+ * evicted.
+ * <p>
+ * Lookups with {@link #get(org.gephi.graph.api.GraphView)} don't count as a
+ * use, so index maintenance doesn't keep views alive. Only
+ * {@link #access(org.gephi.graph.api.GraphView)} and
+ * {@link #put(org.gephi.graph.api.GraphView, java.lang.Object)} do.
+ *
+ * @param <I> index type
+ */
+public abstract class ViewIndexCache<I> {
+
+    // Config
+    protected final int maxViews;
+    protected final long maxWeight;
+    // Data, from least to most recently used
+    private final LinkedHashMap<GraphView, I> indexes;
+
+    public ViewIndexCache(int maxViews, long maxWeight) {
+        if (maxViews < 1) {
+            throw new IllegalArgumentException("The cache should hold at least one view");
+        }
+        this.maxViews = maxViews;
+        this.maxWeight = maxWeight;
+        this.indexes = new LinkedHashMap<GraphView, I>();
+    }
+
+    public I get(GraphView view) {
+        return indexes.get(view);
+    }
+
+    public I access(GraphView view) {
+        I index = indexes.remove(view);
+        if (index != null) {
+            indexes.put(view, index);
+            trim(view);
+        }
+        return index;
+    }
+
+    public void put(GraphView view, I index) {
+        I previous = indexes.remove(view);
+        indexes.put(view, index);
+        if (previous != null && previous != index) {
+            evict(view, previous);
+        }
+        trim(view);
+    }
+
+    public I remove(GraphView view) {
+        return indexes.remove(view);
+    }
+
+    public boolean containsKey(GraphView view) {
+        return indexes.containsKey(view);
+    }
+
+    public boolean isEmpty() {
+        return indexes.isEmpty();
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+
+    public Collection<I> values() {
+        return indexes.values();
+    }
+
+    public Set<Map.Entry<GraphView, I>> entrySet() {
+        return indexes.entrySet();
+    }
+
+    public long getWeight() {
+        long weight = 0;
+        for (I index : indexes.values()) {
+            weight += weigh(index);
+        }
+        return weight;
+    }
+
+    protected void trim(GraphView keep) {
+        long weight = getWeight();
+        if (indexes.size() <= maxViews && weight <= maxWeight) {
+            return;
+        }
+        List<Map.Entry<GraphView, I>> evicted = new ArrayList<Map.Entry<GraphView, I>>();
+        Iterator<Map.Entry<GraphView, I>> itr = indexes.entrySet().iterator();
+        while (itr.hasNext() && (indexes.size() > maxViews || weight > maxWeight)) {
+            Map.Entry<GraphView, I> entry = itr.next();
+            if (entry.getKey() != keep) {
+                weight -= weigh(entry.getValue());
+                evicted.add(entry);
+                itr.remove();
+            }
+        }
+        for (Map.Entry<GraphView, I> entry : evicted) {
+            evict(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the weight of the given index, such as its number of postings.
+     *
+     * @param index index
+     * @return index weight
+     */
+    protected abstract long weigh(I index);
+
+    /**
+     * Called after the given index has been evicted, to release its data.
+     *
+     * @param view view
+     * @param index evicted index
+     */
+    protected abstract void evict(GraphView view, I index);
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.algorithms;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Subgraph;
+import org.gephi.graph.impl.GraphGenerator;
+import org.gephi.graph.impl.GraphStore;
+import org.gephi.graph.impl.GraphStoreConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BreadthFirstSearchTest {
+
+    @Test
+    public void testPath() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node[] nodes = addNodes(graphModel, 4);
+        graph.addEdge(graphModel.factory().newEdge(nodes[0], nodes[1]));
+        graph.addEdge(graphModel.factory().newEdge(nodes[1], nodes[2]));
+
+        int[] distances = BreadthFirstSearch.distances(graph, nodes[0]);
+        Assert.assertEquals(distances[nodes[0].getStoreId()], 0);
+        Assert.assertEquals(distances[nodes[1].getStoreId()], 1);
+        Assert.assertEquals(distances[nodes[2].getStoreId()], 2);
+        Assert.assertEquals(distances[nodes[3].getStoreId()], -1);
+
+        distances = BreadthFirstSearch.distances(graph, nodes[2]);
+        Assert.assertEquals(distances[nodes[0].getStoreId()], -1);
+    }
+
+    @Test
+    public void testUndirectedGraph() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node[] nodes = addNodes(graphModel, 3);
+        graph.addEdge(graphModel.factory().newEdge(nodes[0], nodes[1]));
+        graph.addEdge(graphModel.factory().newEdge(nodes[1], nodes[2]));
+
+        int[] distances = BreadthFirstSearch.distances(graphModel.getUndirectedGraph(), nodes[2]);
+        Assert.assertEquals(distances[nodes[0].getStoreId()], 2);
+        Assert.assertEquals(distances[nodes[1].getStoreId()], 1);
+    }
+
+    @Test
+    public void testUndirectedEdge() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node[] nodes = addNodes(graphModel, 2);
+        graph.addEdge(graphModel.factory().newEdge(nodes[0], nodes[1], false));
+
+        int[] distances = BreadthFirstSearch.distances(graph, nodes[1]);
+        Assert.assertEquals(distances[nodes[0].getStoreId()], 1);
+    }
+
+    @Test
+    public void testLargeGraph() {
+        GraphStore graphStore = GraphGenerator
+                .generateGraphStore(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE * 3, true);
+        for (Node source : Arrays.asList(graphStore.getNodes().toArray()).subList(0, 5)) {
+            Assert.assertEquals(BreadthFirstSearch.distances(graphStore, source), getExpectedDistances(graphStore, source, graphStore
+                    .getModel().getMaxNodeStoreId()));
+        }
+    }
+
+    @Test
+    public void testView() {
+        GraphStore graphStore = GraphGenerator
+                .generateGraphStore(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE * 3, true);
+        GraphModel graphModel = graphStore.getModel();
+        GraphView view = graphModel.createView();
+        Subgraph subgraph = graphModel.getGraph(view);
+        int i = 0;
+        for (Node node : graphStore.getNodes().toArray()) {
+            if (i++ % 3 != 0) {
+                subgraph.addNode(node);
+            }
+        }
+        for (Edge edge : graphStore.getEdges().toArray()) {
+            if (subgraph.contains(edge.getSource()) && subgraph.contains(edge.getTarget())) {
+                subgraph.addEdge(edge);
+            }
+        }
+
+        Node source = subgraph.getNodes().toArray()[0];
+        Assert.assertEquals(BreadthFirstSearch.distances(subgraph, source), getExpectedDistances(subgraph, source, graphModel
+                .getMaxNodeStoreId()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSourceNotInGraph() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        Node node = graphModel.factory().newNode();
+        BreadthFirstSearch.distances(graphModel.getGraph(), node);
+    }
+
+    private Node[] addNodes(GraphModel graphModel, int count) {
+        Node[] nodes = new Node[count];
+        for (int i = 0; i < count; i++) {
+            nodes[i] = graphModel.factory().newNode(String.valueOf(i));
+            graphModel.getGraph().addNode(nodes[i]);
+        }
+        return nodes;
+    }
+
+    private int[] getExpectedDistances(Graph graph, Node source, int capacity) {
+        int[] distances = new int[capacity];
+        Arrays.fill(distances, -1);
+        distances[source.getStoreId()] = 0;
+        LinkedList<Node> queue = new LinkedList<Node>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            Node node = queue.removeFirst();
+            for (Edge edge : graph.getEdges(node).toArray()) {
+                if (edge.getSource() != node) {
+                    continue;
+                }
+                Node neighbor = edge.getTarget();
+                if (distances[neighbor.getStoreId()] == -1) {
+                    distances[neighbor.getStoreId()] = distances[node.getStoreId()] + 1;
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.algorithms;
+
+import java.util.Arrays;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Subgraph;
+import org.gephi.graph.impl.GraphGenerator;
+import org.gephi.graph.impl.GraphStore;
+import org.gephi.graph.impl.GraphStoreConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ConnectedComponentsTest {
+
+    @Test
+    public void testEmpty() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        int[] labels = ConnectedComponents.labels(graphModel.getGraph());
+        Assert.assertEquals(labels.length, 0);
+        Assert.assertEquals(ConnectedComponents.count(labels), 0);
+    }
+
+    @Test
+    public void testComponents() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node[] nodes = new Node[5];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graphModel.factory().newNode(String.valueOf(i));
+            graph.addNode(nodes[i]);
+        }
+        graph.addEdge(graphModel.factory().newEdge(nodes[1], nodes[0]));
+        graph.addEdge(graphModel.factory().newEdge(nodes[2], nodes[3]));
+        graph.addEdge(graphModel.factory().newEdge(nodes[4], nodes[3], false));
+
+        int[] labels = ConnectedComponents.labels(graph);
+        Assert.assertEquals(ConnectedComponents.count(labels), 2);
+        Assert.assertEquals(labels[nodes[0].getStoreId()], nodes[0].getStoreId());
+        Assert.assertEquals(labels[nodes[1].getStoreId()], nodes[0].getStoreId());
+        Assert.assertEquals(labels[nodes[3].getStoreId()], nodes[2].getStoreId());
+        Assert.assertEquals(labels[nodes[4].getStoreId()], nodes[2].getStoreId());
+    }
+
+    @Test
+    public void testRemovedNode() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node n1 = graphModel.factory().newNode("1");
+        Node n2 = graphModel.factory().newNode("2");
+        graph.addNode(n1);
+        graph.addNode(n2);
+        int storeId = n1.getStoreId();
+        graph.removeNode(n1);
+
+        int[] labels = ConnectedComponents.labels(graph);
+        Assert.assertEquals(labels[storeId], -1);
+        Assert.assertEquals(ConnectedComponents.count(labels), 1);
+    }
+
+    @Test
+    public void testLargeGraph() {
+        GraphStore graphStore = GraphGenerator
+                .generateGraphStore(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE / 4, true);
+        Assert.assertEquals(ConnectedComponents.labels(graphStore), getExpectedLabels(graphStore, graphStore.getModel()
+                .getMaxNodeStoreId()));
+    }
+
+    @Test
+    public void testView() {
+        GraphStore graphStore = GraphGenerator.generateGraphStore(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE, true);
+        GraphModel graphModel = graphStore.getModel();
+        GraphView view = graphModel.createView();
+        Subgraph subgraph = graphModel.getGraph(view);
+        subgraph.fill();
+        int i = 0;
+        for (Edge edge : graphStore.getEdges().toArray()) {
+            if (i++ % 2 == 0) {
+                subgraph.removeEdge(edge);
+            }
+        }
+
+        Assert.assertEquals(ConnectedComponents.labels(subgraph), getExpectedLabels(subgraph, graphModel
+                .getMaxNodeStoreId()));
+    }
+
+    private int[] getExpectedLabels(Graph graph, int capacity) {
+        int[] parents = new int[capacity];
+        Arrays.fill(parents, -1);
+        for (Node node : graph.getNodes().toArray()) {
+            parents[node.getStoreId()] = node.getStoreId();
+        }
+        for (Edge edge : graph.getEdges().toArray()) {
+            int a = find(parents, edge.getSource().getStoreId());
+            int b = find(parents, edge.getTarget().getStoreId());
+            parents[Math.max(a, b)] = Math.min(a, b);
+        }
+        for (int i = 0; i < capacity; i++) {
+            if (parents[i] != -1) {
+                parents[i] = find(parents, i);
+            }
+        }
+        return parents;
+    }
+
+    private int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            i = parents[i];
+        }
+        return i;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.impl.GraphGenerator;
+import org.gephi.graph.impl.GraphStore;
+import org.gephi.graph.impl.GraphStoreConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ShortestPathsTest {
+
+    @Test
+    public void testPath() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node[] nodes = new Node[4];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graphModel.factory().newNode(String.valueOf(i));
+            graph.addNode(nodes[i]);
+        }
+        graph.addEdge(graphModel.factory().newEdge(nodes[0], nodes[1], 0, 1.0, true));
+        graph.addEdge(graphModel.factory().newEdge(nodes[1], nodes[2], 0, 1.0, true));
+        graph.addEdge(graphModel.factory().newEdge(nodes[0], nodes[2], 0, 5.0, true));
+
+        double[] distances = ShortestPaths.distances(graph, nodes[0]);
+        Assert.assertEquals(distances[nodes[0].getStoreId()], 0.0);
+        Assert.assertEquals(distances[nodes[1].getStoreId()], 1.0);
+        Assert.assertEquals(distances[nodes[2].getStoreId()], 2.0);
+        Assert.assertEquals(distances[nodes[3].getStoreId()], Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void testLargeGraph() {
+        GraphStore graphStore = GraphGenerator
+                .generateGraphStore(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE * 3, true);
+        Random random = new Random(42);
+        for (Edge edge : graphStore.getEdges().toArray()) {
+            edge.setWeight(random.nextDouble() * 10);
+        }
+        Node source = graphStore.getNodes().toArray()[0];
+        double[] expected = getExpectedDistances(graphStore, source, graphStore.getModel().getMaxNodeStoreId());
+        assertDistancesEquals(ShortestPaths.distances(graphStore, source), expected);
+        assertDistancesEquals(ShortestPaths.distances(graphStore, source, 0.1), expected);
+        assertDistancesEquals(ShortestPaths.distances(graphStore, source, 1000.0), expected);
+    }
+
+    @Test
+    public void testUndirectedGraph() {
+        GraphStore graphStore = GraphGenerator.generateGraphStore(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE, false);
+        Random random = new Random(42);
+        for (Edge edge : graphStore.getEdges().toArray()) {
+            edge.setWeight(random.nextInt(4));
+        }
+        Node source = graphStore.getNodes().toArray()[0];
+        assertDistancesEquals(ShortestPaths.distances(graphStore, source), getExpectedDistances(graphStore, source, graphStore
+                .getModel().getMaxNodeStoreId()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        DirectedGraph graph = graphModel.getDirectedGraph();
+        Node n1 = graphModel.factory().newNode("1");
+        Node n2 = graphModel.factory().newNode("2");
+        graph.addNode(n1);
+        graph.addNode(n2);
+        graph.addEdge(graphModel.factory().newEdge(n1, n2, 0, -1.0, true));
+        ShortestPaths.distances(graph, n1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidDelta() {
+        GraphModel graphModel = GraphModel.Factory.newInstance();
+        Node n1 = graphModel.factory().newNode("1");
+        graphModel.getGraph().addNode(n1);
+        ShortestPaths.distances(graphModel.getGraph(), n1, 0.0);
+    }
+
+    private void assertDistancesEquals(double[] distances, double[] expected) {
+        Assert.assertEquals(distances.length, expected.length);
+        for (int i = 0; i < distances.length; i++) {
+            Assert.assertEquals(distances[i], expected[i], 1e-9);
+        }
+    }
+
+    private double[] getExpectedDistances(Graph graph, Node source, int capacity) {
+        Node[] nodes = new Node[capacity];
+        for (Node node : graph.getNodes().toArray()) {
+            nodes[node.getStoreId()] = node;
+        }
+        double[] distances = new double[capacity];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source.getStoreId()] = 0.0;
+        PriorityQueue<double[]> queue = new PriorityQueue<double[]>(16, new Comparator<double[]>() {
+            @Override
+            public int compare(double[] o1, double[] o2) {
+                return Double.compare(o1[0], o2[0]);
+            }
+        });
+        queue.add(new double[] { 0.0, source.getStoreId() });
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int storeId = (int) entry[1];
+            if (entry[0] > distances[storeId]) {
+                continue;
+            }
+            for (Edge edge : graph.getEdges(nodes[storeId]).toArray()) {
+                if (edge.isDirected() && edge.getSource() != nodes[storeId]) {
+                    continue;
+                }
+                Node neighbor = edge.getSource() == nodes[storeId] ? edge.getTarget() : edge.getSource();
+                double candidate = distances[storeId] + edge.getWeight();
+                if (candidate < distances[neighbor.getStoreId()]) {
+                    distances[neighbor.getStoreId()] = candidate;
+                    queue.add(new double[] { candidate, neighbor.getStoreId() });
+                }
+            }
+        }
+        return distances;
+    }
+}
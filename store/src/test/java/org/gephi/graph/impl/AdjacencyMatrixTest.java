@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class AdjacencyMatrixTest {
+
+    @Test
+    public void testDimension() {
+        Assert.assertEquals(new AdjacencyMatrix(1).getDimension(), 64);
+        Assert.assertEquals(new AdjacencyMatrix(64).getDimension(), 64);
+        Assert.assertEquals(new AdjacencyMatrix(65).getDimension(), 128);
+    }
+
+    @Test
+    public void testSet() {
+        AdjacencyMatrix matrix = new AdjacencyMatrix(100);
+        matrix.set(3, 70, 0, true);
+
+        Assert.assertTrue(matrix.isAdjacent(3, 70, 0));
+        Assert.assertFalse(matrix.isAdjacent(70, 3, 0));
+        Assert.assertFalse(matrix.isAdjacent(3, 70, 1));
+
+        matrix.set(3, 70, 0, false);
+        Assert.assertFalse(matrix.isAdjacent(3, 70, 0));
+    }
+
+    @Test
+    public void testOutOfBounds() {
+        AdjacencyMatrix matrix = new AdjacencyMatrix(64);
+        Assert.assertFalse(matrix.isAdjacent(-1, 0, 0));
+        Assert.assertFalse(matrix.isAdjacent(0, 64, 0));
+        Assert.assertFalse(matrix.isAdjacent(0, 0, 5));
+        Assert.assertEquals(matrix.countCommonNeighbors(0, 64, 0), 0);
+    }
+
+    @Test
+    public void testAddEdge() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(3);
+        NodeImpl n0 = nodeStore.get(0);
+        NodeImpl n1 = nodeStore.get(1);
+        NodeImpl n2 = nodeStore.get(2);
+
+        AdjacencyMatrix matrix = new AdjacencyMatrix(3);
+        matrix.add(new EdgeImpl("0", n0, n1, 0, 1.0, true));
+        matrix.add(new EdgeImpl("1", n1, n2, 2, 1.0, false));
+
+        Assert.assertTrue(matrix.isAdjacent(0, 1, 0));
+        Assert.assertFalse(matrix.isAdjacent(1, 0, 0));
+        Assert.assertTrue(matrix.isAdjacent(1, 2, 2));
+        Assert.assertTrue(matrix.isAdjacent(2, 1, 2));
+        Assert.assertTrue(matrix.fits(n2));
+    }
+
+    @Test
+    public void testCountCommonNeighbors() {
+        AdjacencyMatrix matrix = new AdjacencyMatrix(200);
+        for (int i = 0; i < 200; i += 2) {
+            matrix.set(0, i, 0, true);
+        }
+        for (int i = 0; i < 200; i += 3) {
+            matrix.set(1, i, 0, true);
+        }
+        Assert.assertEquals(matrix.countCommonNeighbors(0, 1, 0), 34);
+        Assert.assertEquals(matrix.countCommonNeighbors(0, 0, 0), 100);
+        Assert.assertEquals(matrix.countCommonNeighbors(0, 2, 0), 0);
+    }
+}
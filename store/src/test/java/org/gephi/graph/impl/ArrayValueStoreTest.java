@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.ArrayColumnBuffer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ArrayValueStoreTest {
+
+    @Test
+    public void testEmpty() {
+        ArrayValueStore store = new ArrayValueStore(float[].class);
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(store.getWidth(), -1);
+        Assert.assertNull(store.get(0));
+    }
+
+    @Test
+    public void testSetGet() {
+        ArrayValueStore store = new ArrayValueStore(float[].class);
+        store.set(0, new float[] { 1f, 2f, 3f });
+        store.set(1000, new float[] { 4f, 5f, 6f });
+
+        Assert.assertEquals(store.get(0), new float[] { 1f, 2f, 3f });
+        Assert.assertEquals(store.get(1000), new float[] { 4f, 5f, 6f });
+        Assert.assertNull(store.get(1));
+        Assert.assertEquals(store.size(), 2);
+        Assert.assertEquals(store.getWidth(), 3);
+    }
+
+    @Test
+    public void testGetCopy() {
+        ArrayValueStore store = new ArrayValueStore(int[].class);
+        int[] value = new int[] { 1, 2 };
+        store.set(0, value);
+        value[0] = 5;
+        ((int[]) store.get(0))[1] = 5;
+
+        Assert.assertEquals(store.get(0), new int[] { 1, 2 });
+    }
+
+    @Test
+    public void testRemove() {
+        ArrayValueStore store = new ArrayValueStore(double[].class);
+        store.set(5, new double[] { 1.0 });
+        store.set(6, new double[] { 2.0 });
+        store.set(5, null);
+
+        Assert.assertNull(store.get(5));
+        Assert.assertEquals(store.get(6), new double[] { 2.0 });
+        Assert.assertEquals(store.size(), 1);
+    }
+
+    @Test
+    public void testRemoveLastResetsWidth() {
+        ArrayValueStore store = new ArrayValueStore(double[].class);
+        store.set(0, new double[] { 1.0 });
+        store.set(0, null);
+        store.set(0, new double[] { 1.0, 2.0 });
+
+        Assert.assertEquals(store.getWidth(), 2);
+        Assert.assertEquals(store.get(0), new double[] { 1.0, 2.0 });
+    }
+
+    @Test
+    public void testClear() {
+        ArrayValueStore store = new ArrayValueStore(long[].class);
+        store.set(0, new long[] { 1l });
+        store.clear();
+
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(store.getWidth(), -1);
+        Assert.assertNull(store.get(0));
+    }
+
+    @Test
+    public void testBuffer() {
+        ArrayValueStore store = new ArrayValueStore(float[].class);
+        store.set(0, new float[] { 1f, 2f });
+        store.set(2, new float[] { 3f, 4f });
+
+        ArrayColumnBuffer buffer = store.getBuffer();
+        float[] array = (float[]) buffer.getArray();
+        Assert.assertEquals(buffer.getWidth(), 2);
+        Assert.assertEquals(buffer.getOffset(0), 0);
+        Assert.assertEquals(buffer.getOffset(1), -1);
+        Assert.assertEquals(buffer.getOffset(2), 4);
+        Assert.assertEquals(buffer.getOffset(100), -1);
+        Assert.assertEquals(array[buffer.getOffset(2)], 3f);
+        Assert.assertEquals(array[buffer.getOffset(2) + 1], 4f);
+    }
+
+    @Test
+    public void testBufferEmpty() {
+        ArrayColumnBuffer buffer = new ArrayValueStore(float[].class).getBuffer();
+        Assert.assertEquals(buffer.getWidth(), 0);
+        Assert.assertEquals(((float[]) buffer.getArray()).length, 0);
+        Assert.assertEquals(buffer.getOffset(0), -1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSetWrongLength() {
+        ArrayValueStore store = new ArrayValueStore(float[].class);
+        store.set(0, new float[] { 1f, 2f });
+        store.set(1, new float[] { 1f });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSetWrongType() {
+        ArrayValueStore store = new ArrayValueStore(float[].class);
+        store.set(0, new double[] { 1.0 });
+    }
+
+    @Test
+    public void testSetBufferTooLarge() {
+        ArrayValueStore store = new ArrayValueStore(byte[].class);
+        boolean thrown = false;
+        try {
+            store.set(1 << 20, new byte[4096]);
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        Assert.assertTrue(thrown);
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(store.getWidth(), -1);
+
+        store.set(0, new byte[8]);
+        Assert.assertEquals(store.get(0), new byte[8]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        new ArrayValueStore(String[].class);
+    }
+}
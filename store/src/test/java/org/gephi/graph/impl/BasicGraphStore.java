@@ -118,6 +118,16 @@ public class BasicGraphStore implements DirectedGraph {
         return edgeStore.getEdge(source, target, type) != null;
     }
 
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public int countCommonNeighbors(Node node1, Node node2, int type) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
     @Override
     public boolean addEdge(Edge edge) {
         return edgeStore.add(edge);
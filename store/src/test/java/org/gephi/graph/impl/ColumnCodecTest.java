@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.types.IntervalDoubleMap;
+import org.gephi.graph.impl.utils.DataInputOutput;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ColumnCodecTest {
+
+    @Test
+    public void testNewCodec() {
+        Assert.assertTrue(ColumnCodec.newCodec(Double.class) instanceof ColumnCodec.SimpleCodec);
+        Assert.assertTrue(ColumnCodec.newCodec(String.class) instanceof ColumnCodec.SimpleCodec);
+        Assert.assertTrue(ColumnCodec.newCodec(int[].class) instanceof ColumnCodec.DefaultCodec);
+        Assert.assertTrue(ColumnCodec.newCodec(IntervalDoubleMap.class) instanceof ColumnCodec.DefaultCodec);
+    }
+
+    @Test
+    public void testStandardize() {
+        ColumnCodec codec = ColumnCodec.newCodec(Integer.class);
+        Integer value = 42;
+        Assert.assertSame(codec.standardize(value), value);
+        Assert.assertNull(codec.standardize(null));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testStandardizeWrongType() {
+        ColumnCodec.newCodec(Integer.class).standardize(42.0);
+    }
+
+    @Test
+    public void testSerializeSameBytes() throws Exception {
+        Object[][] values = { { "", "foo" }, { -1.0, 0.0, 1.0, 42.0, -300.0, 1.5, Double.NaN }, { -1f, 0f, 1f, 42f, -300f, 1.5f }, { 0l, 7l, Long.MAX_VALUE }, { -1, 0, 8, 200, 100000, -5 }, { (short) -1, (short) 0, (short) 1, (short) 100, (short) 1000 }, { (byte) -1, (byte) 0, (byte) 1, (byte) 42 }, { true, false }, { 'a' } };
+        Serialization serialization = new Serialization();
+        for (Object[] typeValues : values) {
+            ColumnCodec codec = ColumnCodec.newCodec(typeValues[0].getClass());
+            for (Object value : typeValues) {
+                DataInputOutput out = new DataInputOutput();
+                codec.serialize(serialization, out, value);
+                Assert.assertEquals(out.toByteArray(), serialization.serialize(value));
+            }
+            // Values of another type, like dictionary codes
+            DataInputOutput out = new DataInputOutput();
+            codec.serialize(serialization, out, null);
+            codec.serialize(serialization, out, new int[] { 1 });
+            DataInputOutput expected = new DataInputOutput();
+            serialization.serialize(expected, null);
+            serialization.serialize(expected, new int[] { 1 });
+            Assert.assertEquals(out.toByteArray(), expected.toByteArray());
+        }
+    }
+
+    @Test
+    public void testStandardizeArray() {
+        ColumnCodec codec = ColumnCodec.newCodec(int[].class);
+        Assert.assertEquals(codec.standardize(new Integer[] { 1, 2 }), new int[] { 1, 2 });
+    }
+}
@@ -281,4 +281,48 @@ public class ColumnObserverTest {
         Assert.assertNotNull(diff);
         Assert.assertTrue(diff.getTouchedElements().toCollection().isEmpty());
     }
+
+    @Test
+    public void testDiffDuplicateChanges() {
+        GraphStore store = new GraphStore();
+        TableImpl table = store.nodeTable;
+        Column column = table.addColumn("0", Integer.class);
+
+        Node node1 = store.factory.newNode();
+        Node node2 = store.factory.newNode();
+        store.addNode(node1);
+        store.addNode(node2);
+
+        ColumnObserver observer = column.createColumnObserver(true);
+        node2.setAttribute(column, 1);
+        node1.setAttribute(column, 1);
+        node2.setAttribute(column, 2);
+
+        Assert.assertTrue(observer.hasColumnChanged());
+        Assert.assertEquals(observer.getDiff().getTouchedElements().toArray(), new Element[] { node1, node2 });
+    }
+
+    @Test
+    public void testDiffLogOverflow() {
+        GraphStore store = new GraphStore();
+        TableImpl table = store.nodeTable;
+        Column column = table.addColumn("0", Integer.class);
+
+        int count = GraphStoreConfiguration.COLUMNDIFF_MAX_LOG_SIZE + 10;
+        for (int i = 0; i < count; i++) {
+            store.addNode(store.factory.newNode());
+        }
+
+        ColumnObserver observer = column.createColumnObserver(true);
+        for (Node node : store.getNodes()) {
+            node.setAttribute(column, 1);
+        }
+        Assert.assertTrue(observer.hasColumnChanged());
+        Assert.assertEquals(observer.getDiff().getTouchedElements().toCollection().size(), count);
+
+        Node node = store.getNodes().toArray()[5];
+        node.setAttribute(column, 2);
+        Assert.assertTrue(observer.hasColumnChanged());
+        Assert.assertEquals(observer.getDiff().getTouchedElements().toArray(), new Element[] { node });
+    }
 }
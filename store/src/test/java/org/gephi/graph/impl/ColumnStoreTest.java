@@ -21,11 +21,14 @@ import java.util.Iterator;
 import java.util.List;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.ColumnObserver;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Origin;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Estimator;
 import org.gephi.graph.api.Node;
+import org.gephi.graph.api.types.IntervalSet;
+import org.gephi.graph.api.types.TimestampDoubleMap;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -107,6 +110,11 @@ public class ColumnStoreTest {
                 throw new UnsupportedOperationException("Not supported yet.");
             }
 
+            @Override
+            public ColumnStorage getStorage() {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
             @Override
             public boolean isDynamic() {
                 throw new UnsupportedOperationException("Not supported yet.");
@@ -187,6 +195,136 @@ public class ColumnStoreTest {
         Assert.assertEquals(col.getIndex(), ColumnStore.NULL_ID);
     }
 
+    @Test
+    public void testAddColumnPrimitiveStorage() {
+        ColumnStore<Node> store = new ColumnStore(Node.class, false);
+        ColumnImpl col = new ColumnImpl(null, "0", Integer.class, null, null, Origin.DATA, false, false,
+                ColumnStorage.PRIMITIVE);
+
+        store.addColumn(col);
+        Assert.assertEquals(col.getStorage(), ColumnStorage.PRIMITIVE);
+        Assert.assertEquals(store.valueStoreColumns, new ColumnImpl[] { col });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddPropertyColumnPrimitiveStorage() {
+        ColumnStore<Node> store = new ColumnStore(Node.class, false);
+        ColumnImpl col = new ColumnImpl(null, "0", Integer.class, null, null, Origin.PROPERTY, false, false,
+                ColumnStorage.PRIMITIVE);
+
+        store.addColumn(col);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddDynamicColumnSparseStorage() {
+        new ColumnImpl(null, "0", TimestampDoubleMap.class, null, null, Origin.DATA, false, false, ColumnStorage.SPARSE);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddTimeSetColumnSparseStorage() {
+        new ColumnImpl(null, "0", IntervalSet.class, null, null, Origin.DATA, false, false, ColumnStorage.SPARSE);
+    }
+
+    @Test
+    public void testRemoveColumnPrimitiveStorage() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        ColumnStore<Node> store = graphStore.nodeTable.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "score", Double.class, null, null, Origin.DATA, false,
+                false, ColumnStorage.PRIMITIVE);
+        store.addColumn(col);
+        for (Node n : graphStore.getNodes().toArray()) {
+            n.setAttribute(col, 1.0);
+        }
+        Assert.assertEquals(col.valueStore.size(), graphStore.getNodeCount());
+
+        store.removeColumn(col);
+        Assert.assertEquals(col.valueStore.size(), 0);
+        Assert.assertEquals(store.valueStoreColumns.length, 0);
+    }
+
+    @Test
+    public void testRemoveColumnLazy() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        ColumnStore<Node> store = graphStore.nodeTable.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "score", Integer.class, null, null, Origin.DATA, false,
+                false);
+        store.addColumn(col);
+        int index = col.getIndex();
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        node.setAttribute(col, 1);
+
+        int size = store.size();
+        store.removeColumn(col);
+        Assert.assertEquals(store.size(), size - 1);
+        Assert.assertTrue(store.garbageQueue.contains(store.intToShort(index)));
+        Assert.assertEquals(node.attributes[index], 1);
+        Assert.assertNull(node.getAttributes()[index]);
+        Assert.assertNull(node.attributes[index]);
+    }
+
+    @Test
+    public void testRemoveColumnReuseIndex() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        ColumnStore<Node> store = graphStore.nodeTable.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "score", Integer.class, null, null, Origin.DATA, false,
+                false);
+        store.addColumn(col);
+        int index = col.getIndex();
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (Node n : nodes) {
+            n.setAttribute(col, 1);
+        }
+        store.removeColumn(col);
+        Assert.assertEquals(((NodeImpl) nodes[1]).attributes[index], 1);
+
+        ColumnImpl other = new ColumnImpl(graphStore.nodeTable, "other", Integer.class, null, null, Origin.DATA, true,
+                false);
+        store.addColumn(other);
+        Assert.assertEquals(other.getIndex(), index);
+
+        nodes[0].setAttribute(other, 2);
+        Assert.assertEquals(nodes[0].getAttribute(other), 2);
+        for (int i = 1; i < nodes.length; i++) {
+            Assert.assertNull(nodes[i].getAttribute(other));
+        }
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.getIndex(graphStore).count(other, 1), 0);
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.getIndex(graphStore).count(other, 2), 1);
+    }
+
+    @Test
+    public void testRemoveColumnNewElement() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        ColumnStore<Node> store = graphStore.nodeTable.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "score", Integer.class, null, null, Origin.DATA, false,
+                false);
+        store.addColumn(col);
+        store.removeColumn(col);
+        ColumnImpl other = new ColumnImpl(graphStore.nodeTable, "other", Integer.class, null, null, Origin.DATA, false,
+                false);
+        store.addColumn(other);
+
+        NodeImpl node = new NodeImpl("new", graphStore);
+        node.setAttribute(other, 2);
+        graphStore.addNode(node);
+        Assert.assertEquals(node.getAttribute(other), 2);
+    }
+
+    @Test
+    public void testClearAfterRemoveColumn() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        ColumnStore<Node> store = graphStore.nodeTable.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "score", Integer.class, null, null, Origin.DATA, false,
+                false);
+        store.addColumn(col);
+        int index = col.getIndex();
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        node.setAttribute(col, 1);
+        store.removeColumn(col);
+        store.clear();
+
+        Assert.assertNull(node.getAttributes()[index]);
+    }
+
     @Test
     public void testRemoveColumnString() {
         ColumnStore<Node> store = new ColumnStore(Node.class, false);
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.gephi.graph.api.DegreeIndex;
+import org.gephi.graph.api.DegreeType;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.DirectedSubgraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.GraphModel;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DegreeIndexImplTest {
+
+    @Test
+    public void testEmpty() {
+        GraphModel graphModel = new GraphModelImpl();
+        DegreeIndex index = graphModel.getDegreeIndex();
+
+        for (DegreeType type : DegreeType.values()) {
+            Assert.assertEquals(index.getMinDegree(type), 0);
+            Assert.assertEquals(index.getMaxDegree(type), 0);
+            Assert.assertEquals(index.getDegreeHistogram(type).length, 0);
+            Assert.assertEquals(index.getTopKByDegree(10, type).length, 0);
+            Assert.assertEquals(index.countNodes(0, type), 0);
+        }
+    }
+
+    @Test
+    public void testMainIndex() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        assertIndex(graphStore.getModel().getDegreeIndex(), graphStore);
+    }
+
+    @Test
+    public void testMainIndexUndirected() {
+        GraphStore graphStore = GraphGenerator.generateGraphStore(500, false);
+        assertIndex(graphStore.getModel().getDegreeIndex(), graphStore);
+    }
+
+    @Test
+    public void testMainIndexSelfLoop() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        NodeImpl n1 = new NodeImpl("1");
+        graphStore.addNode(n1);
+        graphStore.addEdge(new EdgeImpl("1", n1, n1, 0, 1.0, true));
+
+        DegreeIndex index = graphStore.getModel().getDegreeIndex();
+        Assert.assertEquals(index.getMaxDegree(DegreeType.IN), 1);
+        Assert.assertEquals(index.getMaxDegree(DegreeType.OUT), 1);
+        Assert.assertEquals(index.getMaxDegree(DegreeType.ALL), 2);
+        assertIndex(index, graphStore);
+    }
+
+    @Test
+    public void testMainIndexAfterRemove() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Edge[] edges = graphStore.getEdges().toArray();
+        for (int i = 0; i < edges.length; i += 3) {
+            graphStore.removeEdge(edges[i]);
+        }
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 0; i < nodes.length; i += 4) {
+            graphStore.removeNode(nodes[i]);
+        }
+        assertIndex(graphStore.getModel().getDegreeIndex(), graphStore);
+    }
+
+    @Test
+    public void testMainIndexHubGrowsAndShrinks() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        NodeImpl hub = new NodeImpl("hub");
+        graphStore.addNode(hub);
+        List<Edge> edges = new ArrayList<Edge>();
+        for (int i = 0; i < 100; i++) {
+            NodeImpl node = new NodeImpl(String.valueOf(i));
+            graphStore.addNode(node);
+            EdgeImpl edge = new EdgeImpl(String.valueOf(i), hub, node, 0, 1.0, true);
+            graphStore.addEdge(edge);
+            edges.add(edge);
+        }
+        DegreeIndex index = graphStore.getModel().getDegreeIndex();
+        Assert.assertEquals(index.getMaxDegree(DegreeType.OUT), 100);
+        Assert.assertEquals(index.getMinDegree(DegreeType.OUT), 0);
+        Assert.assertEquals(index.getTopKByDegree(1, DegreeType.OUT), new Node[] { hub });
+
+        for (Edge edge : edges) {
+            graphStore.removeEdge(edge);
+        }
+        for (DegreeType type : DegreeType.values()) {
+            Assert.assertEquals(index.getMaxDegree(type), 0);
+            Assert.assertEquals(index.getDegreeHistogram(type), new int[] { 101 });
+        }
+    }
+
+    @Test
+    public void testMainIndexBuiltOnQuery() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = (DegreeIndexImpl) graphStore.getModel().getDegreeIndex();
+        Assert.assertFalse(index.built);
+        Assert.assertNull(index.buckets[0]);
+
+        assertIndex(index, graphStore);
+        Assert.assertTrue(index.built);
+
+        // Maintained once built
+        Edge[] edges = graphStore.getEdges().toArray();
+        for (int i = 0; i < edges.length / 2; i++) {
+            graphStore.removeEdge(edges[i]);
+        }
+        graphStore.removeNode(graphStore.getNodes().toArray()[0]);
+        assertIndex(index, graphStore);
+
+        graphStore.clearEdges();
+        for (DegreeType type : DegreeType.values()) {
+            Assert.assertEquals(index.getMaxDegree(type), 0);
+            Assert.assertEquals(index.countNodes(0, type), graphStore.getNodeCount());
+        }
+
+        graphStore.clear();
+        Assert.assertEquals(index.size(), 0);
+        NodeImpl n1 = new NodeImpl("1");
+        graphStore.addNode(n1);
+        graphStore.addEdge(new EdgeImpl("1", n1, n1, 0, 1.0, true));
+        assertIndex(index, graphStore);
+    }
+
+    @Test
+    public void testMainIndexClearEdges() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.clearEdges();
+
+        DegreeIndex index = graphStore.getModel().getDegreeIndex();
+        for (DegreeType type : DegreeType.values()) {
+            Assert.assertEquals(index.getMaxDegree(type), 0);
+            Assert.assertEquals(index.countNodes(0, type), graphStore.getNodeCount());
+        }
+    }
+
+    @Test
+    public void testMainIndexClear() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.clear();
+
+        DegreeIndex index = graphStore.getModel().getDegreeIndex();
+        for (DegreeType type : DegreeType.values()) {
+            Assert.assertEquals(index.getDegreeHistogram(type).length, 0);
+            Assert.assertEquals(index.getTopKByDegree(5, type).length, 0);
+        }
+    }
+
+    @Test
+    public void testTopK() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndex index = graphStore.getModel().getDegreeIndex();
+
+        Node[] top = index.getTopKByDegree(5, DegreeType.ALL);
+        Assert.assertEquals(top.length, 5);
+        for (int i = 1; i < top.length; i++) {
+            Assert.assertTrue(graphStore.getDegree(top[i - 1]) >= graphStore.getDegree(top[i]));
+        }
+        Assert.assertEquals(index.getTopKByDegree(0, DegreeType.ALL).length, 0);
+        Assert.assertEquals(index.getTopKByDegree(Integer.MAX_VALUE, DegreeType.ALL).length, graphStore.getNodeCount());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTopKNegative() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.getModel().getDegreeIndex().getTopKByDegree(-1, DegreeType.ALL);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testNullType() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.getModel().getDegreeIndex().getMaxDegree(null);
+    }
+
+    @Test
+    public void testView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModel graphModel = graphStore.getModel();
+        GraphView view = graphModel.createView();
+        DirectedSubgraph graph = graphModel.getDirectedGraph(view);
+
+        DegreeIndex index = graphModel.getDegreeIndex(view);
+        assertIndex(index, graph);
+
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 0; i < nodes.length; i += 2) {
+            graph.addNode(nodes[i]);
+        }
+        for (Edge edge : graphStore.getEdges().toArray()) {
+            if (graph.contains(edge.getSource()) && graph.contains(edge.getTarget()) && edge.getStoreId() % 3 != 0) {
+                graph.addEdge(edge);
+            }
+        }
+        assertIndex(index, graph);
+
+        for (int i = 0; i < nodes.length; i += 4) {
+            graph.removeNode(nodes[i]);
+        }
+        assertIndex(index, graph);
+    }
+
+    @Test
+    public void testViewBulkOperations() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModel graphModel = graphStore.getModel();
+        GraphView view = graphModel.createView();
+        DirectedSubgraph graph = graphModel.getDirectedGraph(view);
+        DegreeIndex index = graphModel.getDegreeIndex(view);
+
+        graph.fill();
+        assertIndex(index, graph);
+
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 0; i < nodes.length; i += 3) {
+            graph.removeNode(nodes[i]);
+        }
+        graph.not();
+        assertIndex(index, graph);
+
+        graph.clear();
+        assertIndex(index, graph);
+    }
+
+    @Test
+    public void testViewMainGraphChanges() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModel graphModel = graphStore.getModel();
+        GraphView view = graphModel.createView();
+        DirectedSubgraph graph = graphModel.getDirectedGraph(view);
+        graph.fill();
+
+        DegreeIndex index = graphModel.getDegreeIndex(view);
+        assertIndex(index, graph);
+
+        Edge[] edges = graphStore.getEdges().toArray();
+        for (int i = 0; i < edges.length; i += 2) {
+            graphStore.removeEdge(edges[i]);
+        }
+        graphStore.removeNode(graphStore.getNodes().toArray()[0]);
+        assertIndex(index, graph);
+    }
+
+    @Test
+    public void testViewCopy() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModel graphModel = graphStore.getModel();
+        GraphView view = graphModel.createView();
+        DirectedSubgraph graph = graphModel.getDirectedGraph(view);
+        graph.fill();
+        graph.removeNode(graphStore.getNodes().toArray()[0]);
+        graphModel.getDegreeIndex(view).getMaxDegree(DegreeType.ALL);
+
+        GraphView copy = graphModel.copyView(view);
+        assertIndex(graphModel.getDegreeIndex(copy), graphModel.getDirectedGraph(copy));
+    }
+
+    @Test
+    public void testViewConcurrentBuild() throws Exception {
+        GraphStore graphStore = GraphGenerator.generateGraphStore(2000, true);
+        GraphModel graphModel = graphStore.getModel();
+        final GraphView view = graphModel.createView();
+        final DirectedSubgraph graph = graphModel.getDirectedGraph(view);
+        graph.fill();
+        final DegreeIndex index = graphModel.getDegreeIndex(view);
+
+        final int[] sizes = new int[4];
+        Thread[] threads = new Thread[sizes.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int t = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    sizes[t] = index.getTopKByDegree(Integer.MAX_VALUE, DegreeType.ALL).length;
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int size : sizes) {
+            Assert.assertEquals(size, graph.getNodeCount());
+        }
+        assertIndex(index, graph);
+    }
+
+    private static void assertIndex(DegreeIndex index, DirectedGraph graph) {
+        for (DegreeType type : DegreeType.values()) {
+            List<Integer> degrees = new ArrayList<Integer>();
+            Set<Node> nodes = new HashSet<Node>();
+            for (Node node : graph.getNodes()) {
+                degrees.add(getDegree(graph, node, type));
+                nodes.add(node);
+            }
+            Collections.sort(degrees);
+
+            if (degrees.isEmpty()) {
+                Assert.assertEquals(index.getMinDegree(type), 0);
+                Assert.assertEquals(index.getMaxDegree(type), 0);
+                Assert.assertEquals(index.getDegreeHistogram(type).length, 0);
+            } else {
+                int max = degrees.get(degrees.size() - 1);
+                Assert.assertEquals(index.getMinDegree(type), (int) degrees.get(0));
+                Assert.assertEquals(index.getMaxDegree(type), max);
+
+                int[] histogram = new int[max + 1];
+                for (Integer degree : degrees) {
+                    histogram[degree]++;
+                }
+                Assert.assertEquals(index.getDegreeHistogram(type), histogram);
+                for (int i = 0; i <= max; i++) {
+                    Assert.assertEquals(index.countNodes(i, type), histogram[i]);
+                }
+            }
+
+            Node[] top = index.getTopKByDegree(degrees.size(), type);
+            Assert.assertEquals(top.length, degrees.size());
+            Assert.assertEquals(new HashSet<Node>(Arrays.asList(top)), nodes);
+            for (int i = 0; i < top.length; i++) {
+                Assert.assertEquals(getDegree(graph, top[i], type), (int) degrees.get(degrees.size() - 1 - i));
+            }
+        }
+    }
+
+    private static int getDegree(DirectedGraph graph, Node node, DegreeType type) {
+        switch (type) {
+            case IN:
+                return graph.getInDegree(node);
+            case OUT:
+                return graph.getOutDegree(node);
+            default:
+                return graph.getInDegree(node) + graph.getOutDegree(node);
+        }
+    }
+}
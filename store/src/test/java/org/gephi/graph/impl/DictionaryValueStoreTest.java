@@ -0,0 +1,174 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DictionaryValueStoreTest {
+
+    @Test
+    public void testEmpty() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(store.countValues(), 0);
+        Assert.assertNull(store.get(0));
+        Assert.assertEquals(store.getCode(0), DictionaryValueStore.NULL_CODE);
+    }
+
+    @Test
+    public void testSetGet() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, "foo");
+        store.set(1, "bar");
+        store.set(2, "foo");
+
+        Assert.assertEquals(store.get(0), "foo");
+        Assert.assertEquals(store.get(1), "bar");
+        Assert.assertEquals(store.get(2), "foo");
+        Assert.assertEquals(store.size(), 3);
+        Assert.assertEquals(store.countValues(), 2);
+        Assert.assertEquals(store.getCode(0), store.getCode(2));
+        Assert.assertEquals(store.getCode("foo"), store.getCode(0));
+        Assert.assertEquals(store.getCode("baz"), DictionaryValueStore.NULL_CODE);
+    }
+
+    @Test
+    public void testSharedInstance() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        String value = "foo";
+        store.set(0, value);
+        store.set(1, new String("foo"));
+
+        Assert.assertSame(store.get(1), value);
+    }
+
+    @Test
+    public void testReplace() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, "foo");
+        store.set(0, "foo");
+        Assert.assertEquals(store.size(), 1);
+        Assert.assertEquals(store.countValues(), 1);
+
+        store.set(0, "bar");
+        Assert.assertEquals(store.get(0), "bar");
+        Assert.assertEquals(store.size(), 1);
+        Assert.assertEquals(store.countValues(), 1);
+        Assert.assertEquals(store.getCode("foo"), DictionaryValueStore.NULL_CODE);
+    }
+
+    @Test
+    public void testRemove() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, "foo");
+        store.set(1, "foo");
+        store.set(0, null);
+
+        Assert.assertNull(store.get(0));
+        Assert.assertEquals(store.size(), 1);
+        Assert.assertEquals(store.countValues(), 1);
+
+        store.set(1, null);
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(store.countValues(), 0);
+        Assert.assertNull(store.blocks[0]);
+    }
+
+    @Test
+    public void testRecycleCode() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, "foo");
+        int code = store.getCode(0);
+        store.set(0, null);
+        store.set(1, "bar");
+
+        Assert.assertEquals(store.getCode(1), code);
+        Assert.assertEquals(store.getValue(code), "bar");
+    }
+
+    @Test
+    public void testManyValues() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        int count = DictionaryValueStore.BLOCK_SIZE + 10;
+        for (int i = 0; i < count; i++) {
+            store.set(i, String.valueOf(i % 100));
+        }
+        Assert.assertEquals(store.size(), count);
+        Assert.assertEquals(store.countValues(), 100);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(store.get(i), String.valueOf(i % 100));
+        }
+    }
+
+    @Test
+    public void testGetDictionary() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, "foo");
+        store.set(1, "bar");
+
+        String[] dictionary = store.getDictionary();
+        Assert.assertNull(dictionary[DictionaryValueStore.NULL_CODE]);
+        Assert.assertEquals(dictionary[store.getCode(0)], "foo");
+        Assert.assertEquals(dictionary[store.getCode(1)], "bar");
+    }
+
+    @Test
+    public void testClear() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, "foo");
+        store.clear();
+
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(store.countValues(), 0);
+        Assert.assertNull(store.get(0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSetWrongType() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetValueUnknownCode() {
+        DictionaryValueStore store = new DictionaryValueStore();
+        store.getValue(5);
+    }
+
+    @Test
+    public void testGetWhileCodesAreReused() throws Exception {
+        final DictionaryValueStore store = new DictionaryValueStore();
+        store.set(0, "a");
+        final int iterations = 100000;
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // Codes released by one element are reused by the other
+                for (int i = 0; i < iterations; i++) {
+                    store.set(0, "a" + i);
+                    store.set(1, "b" + i);
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            Object value = store.get(0);
+            Assert.assertTrue(((String) value).startsWith("a"));
+        }
+        writer.join();
+    }
+}
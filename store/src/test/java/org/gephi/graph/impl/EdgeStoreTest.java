@@ -34,7 +34,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.ElementVisitor;
 import org.gephi.graph.api.Node;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -1854,6 +1856,257 @@ public class EdgeStoreTest {
     /*
      * UTILITY METHODS
      */
+    @Test
+    public void testAdjacencyMatrixUsedWhenDense() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        edgeStore.addAll(Arrays.asList(GraphGenerator.generateSmallEdgeList()));
+
+        Assert.assertNotNull(edgeStore.getAdjacencyMatrix());
+    }
+
+    @Test
+    public void testAdjacencyMatrixDisabledByDefault() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.addAll(Arrays.asList(GraphGenerator.generateSmallEdgeList()));
+        Assert.assertNull(edgeStore.getAdjacencyMatrix());
+
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        Assert.assertNotNull(edgeStore.getAdjacencyMatrix());
+        edgeStore.setAdjacencyMatrixEnabled(false);
+        Assert.assertNull(edgeStore.getAdjacencyMatrix());
+    }
+
+    @Test
+    public void testAdjacencyMatrixNotUsedWhenSparse() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        edgeStore.addAll(Arrays.asList(GraphGenerator.generateLargeEdgeList()));
+
+        Assert.assertNull(edgeStore.getAdjacencyMatrix());
+    }
+
+    @Test
+    public void testAdjacencyMatrixDirected() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        EdgeImpl[] edges = GraphGenerator.generateSmallEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+
+        assertAdjacency(edgeStore, edges);
+        for (int i = 0; i < edges.length; i += 3) {
+            edgeStore.remove(edges[i]);
+        }
+        assertAdjacency(edgeStore, edges);
+    }
+
+    @Test
+    public void testAdjacencyMatrixUndirected() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        EdgeImpl[] edges = GraphGenerator.generateSmallUndirectedEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+
+        assertAdjacency(edgeStore, edges);
+        for (int i = 0; i < edges.length; i += 3) {
+            edgeStore.remove(edges[i]);
+        }
+        assertAdjacency(edgeStore, edges);
+    }
+
+    @Test
+    public void testAdjacencyMatrixMixed() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        EdgeImpl[] edges = GraphGenerator.generateSmallMixedEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+
+        assertAdjacency(edgeStore, edges);
+        for (int i = 0; i < edges.length; i += 3) {
+            edgeStore.remove(edges[i]);
+        }
+        assertAdjacency(edgeStore, edges);
+    }
+
+    @Test
+    public void testAdjacencyMatrixParallelEdges() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        EdgeImpl[] edges = GraphGenerator.generateEdgeListWithParallel(100);
+        edgeStore.addAll(Arrays.asList(edges));
+
+        assertAdjacency(edgeStore, edges);
+        for (int i = 0; i < edges.length; i += 2) {
+            edgeStore.remove(edges[i]);
+        }
+        assertAdjacency(edgeStore, edges);
+    }
+
+    @Test
+    public void testAdjacencyMatrixOutgrown() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(100);
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        List<EdgeImpl> edges = new ArrayList<EdgeImpl>();
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                EdgeImpl edge = new EdgeImpl(String.valueOf(edges.size()), nodeStore.get(i), nodeStore.get(j), 0, 1.0,
+                        true);
+                edgeStore.add(edge);
+                edges.add(edge);
+            }
+        }
+        Assert.assertNotNull(edgeStore.getAdjacencyMatrix());
+
+        EdgeImpl edge = new EdgeImpl("far", nodeStore.get(0), nodeStore.get(99), 0, 1.0, true);
+        edgeStore.add(edge);
+        edges.add(edge);
+        Assert.assertTrue(edgeStore.isAdjacent(nodeStore.get(0), nodeStore.get(99)));
+        Assert.assertNull(edgeStore.getAdjacencyMatrix());
+        assertAdjacency(edgeStore, edges.toArray(new EdgeImpl[0]));
+    }
+
+    @Test
+    public void testCountCommonNeighbors() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        EdgeImpl[] edges = GraphGenerator.generateSmallMixedEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+        Assert.assertNotNull(edgeStore.getAdjacencyMatrix());
+
+        assertCommonNeighbors(edgeStore, edges);
+    }
+
+    @Test
+    public void testCountCommonNeighborsUndirected() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        EdgeImpl[] edges = GraphGenerator.generateSmallUndirectedEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+        Assert.assertNotNull(edgeStore.getAdjacencyMatrix());
+
+        assertCommonNeighbors(edgeStore, edges);
+    }
+
+    @Test
+    public void testCountCommonNeighborsSparse() {
+        EdgeStore edgeStore = new EdgeStore();
+        edgeStore.setAdjacencyMatrixEnabled(true);
+        EdgeImpl[] edges = GraphGenerator.generateLargeEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+        Assert.assertNull(edgeStore.getAdjacencyMatrix());
+
+        assertCommonNeighbors(edgeStore, Arrays.copyOf(edges, 200));
+    }
+
+    private void assertAdjacency(EdgeStore edgeStore, EdgeImpl[] edges) {
+        Set<NodeImpl> nodes = new HashSet<NodeImpl>();
+        Set<Long> expected = new HashSet<Long>();
+        for (EdgeImpl edge : edges) {
+            nodes.add(edge.source);
+            nodes.add(edge.target);
+            if (edgeStore.contains(edge)) {
+                expected.add(EdgeStore.getLongId(edge.source, edge.target, true));
+                if (!edge.isDirected()) {
+                    expected.add(EdgeStore.getLongId(edge.target, edge.source, true));
+                }
+            }
+        }
+        for (NodeImpl n1 : nodes) {
+            for (NodeImpl n2 : nodes) {
+                boolean adjacent = expected.contains(EdgeStore.getLongId(n1, n2, true));
+                Assert.assertEquals(edgeStore.isAdjacent(n1, n2), adjacent);
+                Assert.assertEquals(edgeStore.get(n1, n2, false) != null, adjacent);
+            }
+        }
+    }
+
+    private void assertCommonNeighbors(EdgeStore edgeStore, EdgeImpl[] edges) {
+        Set<NodeImpl> nodes = new HashSet<NodeImpl>();
+        for (EdgeImpl edge : edges) {
+            nodes.add(edge.source);
+            nodes.add(edge.target);
+        }
+        for (NodeImpl n1 : nodes) {
+            for (NodeImpl n2 : nodes) {
+                Set<Node> neighbors1 = getNeighbors(edgeStore, n1);
+                neighbors1.retainAll(getNeighbors(edgeStore, n2));
+                Assert.assertEquals(edgeStore.countCommonNeighbors(n1, n2, 0), neighbors1.size());
+            }
+        }
+    }
+
+    private Set<Node> getNeighbors(EdgeStore edgeStore, NodeImpl node) {
+        Set<Node> res = new HashSet<Node>();
+        for (Iterator<Edge> itr = edgeStore.edgeIterator(node); itr.hasNext();) {
+            EdgeImpl edge = (EdgeImpl) itr.next();
+            res.add(edge.source == node ? edge.target : edge.source);
+        }
+        return res;
+    }
+
+    @Test
+    public void testGetWeights() {
+        EdgeStore edgeStore = new EdgeStore();
+        EdgeImpl[] edges = GraphGenerator.generateLargeEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+        removeSomeEdges(edgeStore);
+
+        double[] weights = new double[edgeStore.maxStoreId() + 10];
+        Arrays.fill(weights, -1.0);
+        edgeStore.getWeights(weights, null, null);
+
+        int count = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!Double.isNaN(weights[i])) {
+                Assert.assertEquals(weights[i], edgeStore.get(i).getWeight());
+                count++;
+            }
+        }
+        Assert.assertEquals(count, edgeStore.size());
+    }
+
+    @Test
+    public void testParallelForEach() {
+        EdgeStore edgeStore = new EdgeStore();
+        EdgeImpl[] edges = GraphGenerator.generateLargeEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+        removeSomeEdges(edgeStore);
+
+        final Set<Edge> visited = Collections.synchronizedSet(new HashSet<Edge>());
+        final AtomicInteger count = new AtomicInteger();
+        edgeStore.parallelForEach(new ElementVisitor<Edge>() {
+            @Override
+            public void visit(Edge edge) {
+                visited.add(edge);
+                count.incrementAndGet();
+            }
+        });
+        Assert.assertEquals(count.get(), edgeStore.size());
+        Assert.assertEquals(visited, new HashSet<Edge>(edgeStore.toCollection()));
+    }
+
+    @Test
+    public void testParallelForEachUndirected() {
+        EdgeStore edgeStore = new EdgeStore();
+        EdgeImpl[] edges = GraphGenerator.generateSmallEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+
+        Set<Edge> expected = new HashSet<Edge>();
+        for (EdgeStore.EdgeStoreIterator itr = edgeStore.iteratorUndirected(); itr.hasNext();) {
+            expected.add(itr.next());
+        }
+
+        final Set<Edge> visited = Collections.synchronizedSet(new HashSet<Edge>());
+        ParallelExecutor.forEach(null, edgeStore.newUndirectedSpliterator(), new ElementVisitor<Edge>() {
+            @Override
+            public void visit(Edge edge) {
+                Assert.assertTrue(visited.add(edge));
+            }
+        });
+        Assert.assertEquals(visited, expected);
+    }
+
     private void testContainsOnly(EdgeStore store, List<EdgeImpl> list) {
         for (EdgeImpl n : list) {
             Assert.assertTrue(store.contains(n));
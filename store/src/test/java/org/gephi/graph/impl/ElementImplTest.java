@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.ColumnIterable;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Origin;
@@ -1074,6 +1075,336 @@ public class ElementImplTest {
         }
     }
 
+    @Test
+    public void testSetAttributePrimitiveStorage() {
+        GraphStore store = new GraphStore();
+        ColumnImpl column = generatePrimitiveColumn(store);
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+        node.setAttribute(column, 1.5);
+
+        Assert.assertTrue(node.attributes.length <= column.getIndex() || node.attributes[column.getIndex()] == null);
+        Assert.assertEquals(node.getAttribute(column), 1.5);
+        Assert.assertEquals(column.valueStore.get(node.getStoreId()), 1.5);
+        Assert.assertEquals(node.getAttributes()[column.getIndex()], 1.5);
+    }
+
+    @Test
+    public void testSetAttributePrimitiveStorageBeforeAdd() {
+        GraphStore store = new GraphStore();
+        ColumnImpl column = generatePrimitiveColumn(store);
+
+        NodeImpl node = new NodeImpl("0", store);
+        node.setAttribute(column, 1.5);
+        Assert.assertEquals(node.attributes[column.getIndex()], 1.5);
+
+        store.addNode(node);
+        Assert.assertEquals(node.attributes.length, column.getIndex());
+        Assert.assertEquals(node.getAttribute(column), 1.5);
+        Assert.assertEquals(column.valueStore.size(), 1);
+    }
+
+    @Test
+    public void testPrimitiveStorageKeepsDefaultSlots() {
+        GraphStore store = new GraphStore();
+        ColumnImpl primitiveColumn = generatePrimitiveColumn(store);
+        Column defaultColumn = store.nodeTable.addColumn("bar", Integer.class);
+
+        NodeImpl node = new NodeImpl("0", store);
+        node.setAttribute(primitiveColumn, 1.5);
+        store.addNode(node);
+        Assert.assertEquals(node.attributes.length, defaultColumn.getIndex() + 1);
+
+        node.setAttribute(defaultColumn, 2);
+        store.clear();
+        Assert.assertEquals(node.attributes[primitiveColumn.getIndex()], 1.5);
+        Assert.assertEquals(node.getAttribute(defaultColumn), 2);
+    }
+
+    @Test
+    public void testPrimitiveStorageDefaultValue() {
+        GraphStore store = new GraphStore();
+        store.nodeTable.store.addColumn(new ColumnImpl(store.nodeTable, "score", Double.class, "Score", 2.0,
+                Origin.DATA, false, false, ColumnStorage.PRIMITIVE));
+        Column column = store.nodeTable.store.getColumn("score");
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+        Assert.assertEquals(node.getAttribute(column), 2.0);
+    }
+
+    @Test
+    public void testRemoveAttributePrimitiveStorage() {
+        GraphStore store = new GraphStore();
+        ColumnImpl column = generatePrimitiveColumn(store);
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+        node.setAttribute(column, 1.5);
+
+        Assert.assertEquals(node.removeAttribute(column), 1.5);
+        Assert.assertNull(node.getAttribute(column));
+        Assert.assertEquals(column.valueStore.size(), 0);
+    }
+
+    @Test
+    public void testRemoveNodePrimitiveStorage() {
+        GraphStore store = new GraphStore();
+        ColumnImpl column = generatePrimitiveColumn(store);
+
+        NodeImpl n1 = new NodeImpl("0", store);
+        NodeImpl n2 = new NodeImpl("1", store);
+        store.addNode(n1);
+        store.addNode(n2);
+        n1.setAttribute(column, 1.0);
+        n2.setAttribute(column, 2.0);
+
+        store.removeNode(n1);
+        Assert.assertEquals(column.valueStore.size(), 1);
+        Assert.assertEquals(n2.getAttribute(column), 2.0);
+
+        NodeImpl n3 = new NodeImpl("2", store);
+        store.addNode(n3);
+        Assert.assertNull(n3.getAttribute(column));
+    }
+
+    @Test
+    public void testClearStorePrimitiveStorage() {
+        GraphStore store = new GraphStore();
+        ColumnImpl column = generatePrimitiveColumn(store);
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+        node.setAttribute(column, 1.5);
+
+        store.clear();
+        Assert.assertEquals(column.valueStore.size(), 0);
+        Assert.assertEquals(node.getAttribute(column), 1.5);
+    }
+
+    @Test
+    public void testClearAttributesPrimitiveStorage() {
+        GraphStore store = new GraphStore();
+        ColumnImpl column = generatePrimitiveColumn(store);
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+        node.setAttribute(column, 1.5);
+
+        node.clearAttributes();
+        Assert.assertNull(node.getAttribute(column));
+        Assert.assertEquals(column.valueStore.size(), 0);
+    }
+
+    @Test
+    public void testIndexedPrimitiveStorage() {
+        GraphStore store = new GraphStore();
+        store.nodeTable.store.addColumn(new ColumnImpl(store.nodeTable, "score", Integer.class, "Score", null,
+                Origin.DATA, true, false, ColumnStorage.PRIMITIVE));
+        Column column = store.nodeTable.store.getColumn("score");
+        IndexImpl index = store.nodeTable.store.indexStore.mainIndex;
+
+        NodeImpl n1 = new NodeImpl("0", store);
+        n1.setAttribute(column, 5);
+        store.addNode(n1);
+        NodeImpl n2 = new NodeImpl("1", store);
+        store.addNode(n2);
+        n2.setAttribute(column, 5);
+        Assert.assertEquals(index.count(column, 5), 2);
+
+        n2.setAttribute(column, 7);
+        Assert.assertEquals(index.count(column, 5), 1);
+        Assert.assertEquals(index.count(column, 7), 1);
+
+        store.removeNode(n1);
+        Assert.assertEquals(index.count(column, 5), 0);
+    }
+
+    @Test
+    public void testSetAttributeDictionaryStorage() {
+        GraphStore store = new GraphStore();
+        store.nodeTable.store.addColumn(new ColumnImpl(store.nodeTable, "country", String.class, "Country", null,
+                Origin.DATA, true, false, ColumnStorage.DICTIONARY));
+        ColumnImpl column = (ColumnImpl) store.nodeTable.store.getColumn("country");
+
+        NodeImpl n1 = new NodeImpl("0", store);
+        NodeImpl n2 = new NodeImpl("1", store);
+        n1.setAttribute(column, "France");
+        store.addNode(n1);
+        store.addNode(n2);
+        n2.setAttribute(column, new String("France"));
+
+        Assert.assertEquals(n1.getAttribute(column), "France");
+        Assert.assertSame(n2.getAttribute(column), n1.getAttribute(column));
+        Assert.assertEquals(((DictionaryValueStore) column.valueStore).countValues(), 1);
+
+        IndexImpl index = store.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.count(column, "France"), 2);
+        for (Object value : index.values(column)) {
+            Assert.assertSame(value, n1.getAttribute(column));
+        }
+
+        store.removeNode(n1);
+        Assert.assertEquals(index.count(column, "France"), 1);
+        Assert.assertEquals(column.valueStore.size(), 1);
+    }
+
+    @Test
+    public void testSetAttributeSparseStorage() {
+        GraphStore store = new GraphStore();
+        for (int i = 0; i < 10; i++) {
+            store.nodeTable.store.addColumn(new ColumnImpl(store.nodeTable, "col" + i, Integer.class, null, 0,
+                    Origin.DATA, false, false, i == 9 ? ColumnStorage.SPARSE : ColumnStorage.DEFAULT));
+        }
+        ColumnImpl column = (ColumnImpl) store.nodeTable.store.getColumn("col9");
+
+        NodeImpl n1 = new NodeImpl("0", store);
+        NodeImpl n2 = new NodeImpl("1", store);
+        store.addNode(n1);
+        store.addNode(n2);
+        int length = n1.attributes.length;
+        n1.setAttribute(column, 5);
+
+        Assert.assertEquals(n1.getAttribute(column), 5);
+        Assert.assertEquals(n2.getAttribute(column), 0);
+        Assert.assertEquals(n1.attributes.length, length);
+        Assert.assertEquals(column.valueStore.size(), 1);
+
+        n1.removeAttribute(column);
+        Assert.assertEquals(n1.getAttribute(column), 0);
+        Assert.assertEquals(column.valueStore.size(), 0);
+    }
+
+    @Test
+    public void testSetAttributeContiguousStorage() {
+        GraphStore store = new GraphStore();
+        Column column = store.nodeTable
+                .addColumn("vector", null, float[].class, Origin.DATA, null, true, ColumnStorage.CONTIGUOUS);
+        IndexImpl index = store.nodeTable.store.indexStore.mainIndex;
+
+        NodeImpl n1 = new NodeImpl("0", store);
+        NodeImpl n2 = new NodeImpl("1", store);
+        store.addNode(n1);
+        store.addNode(n2);
+        n1.setAttribute(column, new float[] { 1f, 2f });
+
+        Assert.assertEquals(n1.getAttribute(column), new float[] { 1f, 2f });
+        Assert.assertNull(n2.getAttribute(column));
+        Assert.assertEquals(index.count(column, new float[] { 1f, 2f }), 1);
+
+        try {
+            n2.setAttribute(column, new float[] { 1f });
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+        Assert.assertNull(n2.getAttribute(column));
+        Assert.assertEquals(index.count(column, new float[] { 1f }), 0);
+
+        n1.removeAttribute(column);
+        Assert.assertNull(n1.getAttribute(column));
+        Assert.assertEquals(((ColumnImpl) column).valueStore.size(), 0);
+    }
+
+    @Test
+    public void testTypedAccessors() {
+        GraphStore store = new GraphStore();
+        Column doubleCol = store.nodeTable.addColumn("double", Double.class);
+        Column floatCol = store.nodeTable.addColumn("float", Float.class);
+        Column longCol = store.nodeTable.addColumn("long", Long.class);
+        Column intCol = store.nodeTable.addColumn("int", Integer.class);
+        Column boolCol = store.nodeTable.addColumn("bool", Boolean.class);
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+        node.setDouble(doubleCol, 1.5);
+        node.setFloat(floatCol, 2f);
+        node.setLong(longCol, 3l);
+        node.setInt(intCol, 4);
+        node.setBoolean(boolCol, true);
+
+        Assert.assertEquals(node.getDouble(doubleCol), 1.5);
+        Assert.assertEquals(node.getFloat(floatCol), 2f);
+        Assert.assertEquals(node.getLong(longCol), 3l);
+        Assert.assertEquals(node.getInt(intCol), 4);
+        Assert.assertTrue(node.getBoolean(boolCol));
+        Assert.assertEquals(node.getAttribute(doubleCol), 1.5);
+        Assert.assertEquals(node.getDouble(intCol), 4.0);
+        Assert.assertEquals(node.getLong(intCol), 4l);
+        Assert.assertEquals(store.nodeTable.store.indexStore.mainIndex.count(intCol, 4), 1);
+    }
+
+    @Test
+    public void testTypedAccessorsMissing() {
+        GraphStore store = new GraphStore();
+        Column doubleCol = store.nodeTable.addColumn("double", Double.class);
+        Column intCol = store.nodeTable.addColumn("int", null, Integer.class, 42);
+        Column boolCol = store.nodeTable.addColumn("bool", Boolean.class);
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+
+        Assert.assertTrue(Double.isNaN(node.getDouble(doubleCol)));
+        Assert.assertEquals(node.getInt(intCol), 42);
+        Assert.assertFalse(node.getBoolean(boolCol));
+    }
+
+    @Test
+    public void testTypedAccessorsPrimitiveStorage() {
+        GraphStore store = new GraphStore();
+        ColumnImpl doubleCol = (ColumnImpl) store.nodeTable
+                .addColumn("double", null, Double.class, Origin.DATA, null, false, ColumnStorage.PRIMITIVE);
+        ColumnImpl boolCol = (ColumnImpl) store.nodeTable
+                .addColumn("bool", null, Boolean.class, Origin.DATA, null, false, ColumnStorage.PRIMITIVE);
+        ColumnImpl intCol = (ColumnImpl) store.nodeTable
+                .addColumn("int", null, Integer.class, Origin.DATA, null, true, ColumnStorage.PRIMITIVE);
+
+        NodeImpl node = new NodeImpl("0", store);
+        store.addNode(node);
+        int version = doubleCol.version.version.get();
+        node.setDouble(doubleCol, 1.5);
+        node.setBoolean(boolCol, true);
+        node.setInt(intCol, 7);
+
+        Assert.assertEquals(doubleCol.version.version.get(), version + 1);
+        Assert.assertEquals(node.getDouble(doubleCol), 1.5);
+        Assert.assertEquals(node.getAttribute(doubleCol), 1.5);
+        Assert.assertTrue(node.getBoolean(boolCol));
+        Assert.assertEquals(node.getInt(intCol), 7);
+        Assert.assertEquals(doubleCol.valueStore.size(), 1);
+        Assert.assertEquals(store.nodeTable.store.indexStore.mainIndex.count(intCol, 7), 1);
+    }
+
+    @Test
+    public void testTypedAccessorsNotInStore() {
+        GraphStore store = new GraphStore();
+        Column doubleCol = store.nodeTable
+                .addColumn("double", null, Double.class, Origin.DATA, null, false, ColumnStorage.PRIMITIVE);
+
+        NodeImpl node = new NodeImpl("0", store);
+        node.setDouble(doubleCol, 1.5);
+        Assert.assertEquals(node.getDouble(doubleCol), 1.5);
+
+        store.addNode(node);
+        Assert.assertEquals(node.getDouble(doubleCol), 1.5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTypedAccessorWrongType() {
+        GraphStore store = new GraphStore();
+        Column col = store.nodeTable.addColumn("long", Long.class);
+        NodeImpl node = new NodeImpl("0", store);
+        node.setInt(col, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTypedAccessorNotNumber() {
+        GraphStore store = new GraphStore();
+        Column col = store.nodeTable.addColumn("string", String.class);
+        NodeImpl node = new NodeImpl("0", store);
+        node.getDouble(col);
+    }
+
     // Utility
     private GraphStore getIntervalGraphStore() {
         Configuration config = new Configuration();
@@ -1095,6 +1426,12 @@ public class ElementImplTest {
         return graphStore.nodeTable.store.getColumn("visible");
     }
 
+    private ColumnImpl generatePrimitiveColumn(GraphStore graphStore) {
+        graphStore.nodeTable.store.addColumn(new ColumnImpl(graphStore.nodeTable, "score", Double.class, "Score", null,
+                Origin.DATA, false, false, ColumnStorage.PRIMITIVE));
+        return (ColumnImpl) graphStore.nodeTable.store.getColumn("score");
+    }
+
     private Column generateBasicListColumn(GraphStore graphStore) {
         graphStore.nodeTable.store
                 .addColumn(new ColumnImpl("list", List.class, "List", null, Origin.DATA, true, false));
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.DirectedSubgraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Node;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class GraphAdjacencyTest {
+
+    @Test
+    public void testEmpty() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        GraphAdjacency adjacency = GraphAdjacency.create(graphStore, false);
+        Assert.assertEquals(adjacency.getNodeCapacity(), 0);
+        Assert.assertFalse(adjacency.containsNode(0));
+        Assert.assertEquals(adjacency.getAverageWeight(), 0.0);
+    }
+
+    @Test
+    public void testDirected() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphAdjacency adjacency = GraphAdjacency.create(graphStore, false);
+
+        for (Node node : graphStore.getNodes()) {
+            Assert.assertTrue(adjacency.containsNode(node));
+            Assert.assertEquals(getDegree(adjacency, node), graphStore.getOutDegree(node));
+        }
+        for (Edge edge : graphStore.getEdges()) {
+            assertContainsNeighbor(adjacency, edge.getSource(), edge.getTarget(), edge.getWeight());
+        }
+    }
+
+    @Test
+    public void testSymmetric() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphAdjacency adjacency = GraphAdjacency.create(graphStore, true);
+        GraphAdjacency undirected = GraphAdjacency.create(graphStore.undirectedDecorator, false);
+
+        for (Edge edge : graphStore.getEdges()) {
+            assertContainsNeighbor(adjacency, edge.getSource(), edge.getTarget(), null);
+            assertContainsNeighbor(adjacency, edge.getTarget(), edge.getSource(), null);
+        }
+        for (Node node : graphStore.getNodes()) {
+            Assert.assertEquals(getDegree(undirected, node), getDegree(adjacency, node));
+        }
+    }
+
+    @Test
+    public void testUndirectedEdges() {
+        GraphStore graphStore = GraphGenerator.generateSmallUndirectedGraphStore();
+        GraphAdjacency adjacency = GraphAdjacency.create(graphStore, false);
+
+        for (Edge edge : graphStore.getEdges()) {
+            assertContainsNeighbor(adjacency, edge.getSource(), edge.getTarget(), null);
+            assertContainsNeighbor(adjacency, edge.getTarget(), edge.getSource(), null);
+        }
+    }
+
+    @Test
+    public void testSelfLoop() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        NodeImpl n1 = new NodeImpl("1");
+        graphStore.addNode(n1);
+        graphStore.addEdge(new EdgeImpl("1", n1, n1, 0, 1.0, false));
+        GraphAdjacency adjacency = GraphAdjacency.create(graphStore, true);
+
+        Assert.assertEquals(getDegree(adjacency, n1), 1);
+    }
+
+    @Test
+    public void testView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+        Edge edge = graphStore.getEdges().toArray()[0];
+        graph.addNode(edge.getSource());
+        graph.addNode(edge.getTarget());
+        graph.addEdge(edge);
+
+        GraphAdjacency adjacency = GraphAdjacency.create(graph, false);
+        int count = 0;
+        int edgeCount = 0;
+        for (Node node : graphStore.getNodes()) {
+            if (adjacency.containsNode(node)) {
+                count++;
+            }
+            edgeCount += getDegree(adjacency, node);
+        }
+        Assert.assertEquals(count, graph.getNodeCount());
+        Assert.assertEquals(edgeCount, 1);
+        assertContainsNeighbor(adjacency, edge.getSource(), edge.getTarget(), null);
+        Assert.assertEquals(adjacency.getAverageWeight(), edge.getWeight());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.getEdges().toArray()[0].setWeight(-1.0);
+        GraphAdjacency.create(graphStore, false).getAverageWeight();
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testNullGraph() {
+        GraphAdjacency.create(null, false);
+    }
+
+    private int getDegree(GraphAdjacency adjacency, Node node) {
+        GraphAdjacency.Cursor cursor = adjacency.newCursor();
+        cursor.reset(node.getStoreId());
+        int degree = 0;
+        while (cursor.next()) {
+            degree++;
+        }
+        return degree;
+    }
+
+    private void assertContainsNeighbor(GraphAdjacency adjacency, Node node, Node neighbor, Double weight) {
+        GraphAdjacency.Cursor cursor = adjacency.newCursor();
+        cursor.reset(node.getStoreId());
+        while (cursor.next()) {
+            if (cursor.neighbor() == neighbor.getStoreId() && (weight == null || cursor.weight() == weight)) {
+                return;
+            }
+        }
+        Assert.fail("Neighbor not found");
+    }
+}
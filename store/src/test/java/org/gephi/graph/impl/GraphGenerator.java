@@ -469,6 +469,15 @@ public class GraphGenerator {
         return graphStore;
     }
 
+    public static GraphStore generateGraphStore(int edgeCount, boolean directed) {
+        GraphStore graphStore = new GraphModelImpl().store;
+        NodeImpl[] nodes = generateNodeList(Math.max((int) Math.ceil(Math.sqrt(edgeCount * 2)), (int) (edgeCount / 10.0)), graphStore);
+        graphStore.addAllNodes(Arrays.asList(nodes));
+        EdgeImpl[] edges = generateEdgeList(graphStore.nodeStore, edgeCount, 0, directed, true, false);
+        graphStore.addAllEdges(Arrays.asList(edges));
+        return graphStore;
+    }
+
     public static GraphStore generateLargeGraphStore() {
         GraphStore graphStore = new GraphModelImpl().store;
 
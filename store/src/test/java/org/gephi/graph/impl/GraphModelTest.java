@@ -18,8 +18,10 @@ package org.gephi.graph.impl;
 import java.io.IOException;
 import java.util.Arrays;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Index;
+import org.gephi.graph.api.IndexPredicate;
 import org.gephi.graph.api.Table;
 import org.gephi.graph.api.TimeFormat;
 import org.gephi.graph.api.Interval;
@@ -30,6 +32,7 @@ import org.gephi.graph.api.GraphObserver;
 import org.gephi.graph.api.GraphView;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Origin;
+import org.gephi.graph.api.PrimitiveAttributes;
 import org.gephi.graph.impl.utils.DataInputOutput;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -176,6 +179,57 @@ public class GraphModelTest {
         Assert.assertFalse(view.isEdgeView());
     }
 
+    @Test
+    public void testCreateNodeView() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        Column col = graphModel.getNodeTable().addColumn("foo", String.class);
+        Node n1 = graphModel.factory().newNode("1");
+        Node n2 = graphModel.factory().newNode("2");
+        Node n3 = graphModel.factory().newNode("3");
+        n1.setAttribute(col, "bar");
+        n2.setAttribute(col, "bar");
+        n3.setAttribute(col, "baz");
+        Edge e1 = graphModel.factory().newEdge(n1, n2);
+        Edge e2 = graphModel.factory().newEdge(n2, n3);
+        Graph graph = graphModel.getGraph();
+        graph.addAllNodes(Arrays.asList(n1, n2, n3));
+        graph.addAllEdges(Arrays.asList(e1, e2));
+
+        GraphView view = graphModel.createNodeView(IndexPredicate.equal(col, "bar"));
+        Assert.assertTrue(view.isNodeView());
+        Assert.assertFalse(view.isEdgeView());
+        Graph subgraph = graphModel.getGraph(view);
+        Assert.assertEquals(subgraph.getNodeCount(), 2);
+        Assert.assertTrue(subgraph.contains(n1));
+        Assert.assertTrue(subgraph.contains(n2));
+        Assert.assertTrue(subgraph.contains(e1));
+        Assert.assertFalse(subgraph.contains(e2));
+    }
+
+    @Test
+    public void testCreateEdgeView() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        Node n1 = graphModel.factory().newNode("1");
+        Node n2 = graphModel.factory().newNode("2");
+        Node n3 = graphModel.factory().newNode("3");
+        Edge e1 = graphModel.factory().newEdge(n1, n2);
+        Edge e2 = graphModel.factory().newEdge(n2, n3);
+        Column col = graphModel.getEdgeTable().addColumn("score", Double.class);
+        e1.setAttribute(col, 1.0);
+        e2.setAttribute(col, 5.0);
+        Graph graph = graphModel.getGraph();
+        graph.addAllNodes(Arrays.asList(n1, n2, n3));
+        graph.addAllEdges(Arrays.asList(e1, e2));
+
+        GraphView view = graphModel.createEdgeView(IndexPredicate.range(col, 2.0, true, null, false));
+        Assert.assertFalse(view.isNodeView());
+        Assert.assertTrue(view.isEdgeView());
+        Graph subgraph = graphModel.getGraph(view);
+        Assert.assertEquals(subgraph.getNodeCount(), 3);
+        Assert.assertEquals(subgraph.getEdgeCount(), 1);
+        Assert.assertTrue(subgraph.contains(e2));
+    }
+
     @Test
     public void testCopyView() {
         GraphModelImpl graphModel = new GraphModelImpl();
@@ -694,4 +748,131 @@ public class GraphModelTest {
 
         Assert.assertNull(n1.getAttribute(col2));
     }
+
+    @Test
+    public void testGetEdgeWeights() {
+        GraphModelImpl graphModel = GraphGenerator.generateSmallGraphStore().graphModel;
+        Graph graph = graphModel.getGraph();
+        int i = 0;
+        for (Edge edge : graph.getEdges()) {
+            edge.setWeight(i++);
+        }
+
+        double[] weights = new double[graphModel.getMaxEdgeStoreId()];
+        graphModel.getEdgeWeights(weights);
+        for (Edge edge : graph.getEdges()) {
+            Assert.assertEquals(weights[edge.getStoreId()], edge.getWeight());
+        }
+    }
+
+    @Test
+    public void testGetEdgeWeightsAfterRemove() {
+        GraphModelImpl graphModel = GraphGenerator.generateSmallGraphStore().graphModel;
+        Graph graph = graphModel.getGraph();
+        Edge edge = graph.getEdges().toArray()[0];
+        int storeId = edge.getStoreId();
+        graph.removeEdge(edge);
+
+        double[] weights = new double[graphModel.getMaxEdgeStoreId()];
+        graphModel.getEdgeWeights(weights);
+        Assert.assertTrue(Double.isNaN(weights[storeId]));
+    }
+
+    @Test
+    public void testGetEdgeWeightsView() {
+        GraphModelImpl graphModel = GraphGenerator.generateSmallGraphStore().graphModel;
+        Graph graph = graphModel.getGraph();
+        Edge[] edges = graph.getEdges().toArray();
+        edges[0].setWeight(42.0);
+        edges[1].setWeight(5.0);
+
+        GraphView view = graphModel.createView();
+        Graph subgraph = graphModel.getGraph(view);
+        subgraph.addNode(edges[0].getSource());
+        subgraph.addNode(edges[0].getTarget());
+        subgraph.addEdge(edges[0]);
+
+        double[] weights = new double[graphModel.getMaxEdgeStoreId()];
+        graphModel.getEdgeWeights(view, weights);
+        Assert.assertEquals(weights[edges[0].getStoreId()], 42.0);
+        Assert.assertTrue(Double.isNaN(weights[edges[1].getStoreId()]));
+    }
+
+    @Test
+    public void testGetEdgeWeightsDynamic() {
+        Configuration config = new Configuration();
+        config.setEdgeWeightType(TimestampDoubleMap.class);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Node n1 = graphModel.factory().newNode("1");
+        Node n2 = graphModel.factory().newNode("2");
+        Edge edge = graphModel.factory().newEdge(n1, n2);
+        edge.setWeight(3.0, 1.0);
+        graphModel.getStore().addAllNodes(Arrays.asList(new Node[] { n1, n2 }));
+        graphModel.getStore().addEdge(edge);
+
+        double[] weights = new double[graphModel.getMaxEdgeStoreId()];
+        graphModel.getEdgeWeights(weights);
+        Assert.assertEquals(weights[edge.getStoreId()], edge.getWeight(graphModel.getGraph().getView()));
+    }
+
+    @Test
+    public void testGetEdgeWeightsAfterSetAttribute() {
+        GraphModelImpl graphModel = GraphGenerator.generateSmallGraphStore().graphModel;
+        Graph graph = graphModel.getGraph();
+        Edge edge = graph.getEdges().toArray()[0];
+        Column weightColumn = graphModel.getEdgeTable().getColumn(GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID);
+
+        edge.setAttribute(weightColumn, 7.0);
+        Assert.assertEquals(edge.getWeight(), 7.0);
+        Assert.assertEquals(getEdgeWeight(graphModel, edge), 7.0);
+
+        edge.removeAttribute(weightColumn);
+        Assert.assertEquals(getEdgeWeight(graphModel, edge), edge.getWeight());
+    }
+
+    @Test
+    public void testEdgeWeightPrimitiveStorage() {
+        GraphModelImpl graphModel = GraphGenerator.generateSmallGraphStore().graphModel;
+        Graph graph = graphModel.getGraph();
+        Column weightColumn = graphModel.getEdgeTable().getColumn(GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID);
+        Assert.assertEquals(weightColumn.getStorage(), ColumnStorage.PRIMITIVE);
+
+        Edge edge = graph.getEdges().toArray()[0];
+        edge.setWeight(3.0);
+        Assert.assertEquals(edge.getAttribute(weightColumn), 3.0);
+        Assert.assertEquals(edge.getWeight(graph.getView()), 3.0);
+
+        edge.setAttribute(weightColumn, 4.0);
+        Assert.assertEquals(edge.getWeight(), 4.0);
+        Assert.assertEquals(getEdgeWeight(graphModel, edge), 4.0);
+    }
+
+    @Test
+    public void testEdgeWeightTypedAccessor() {
+        GraphModelImpl graphModel = GraphGenerator.generateSmallGraphStore().graphModel;
+        Graph graph = graphModel.getGraph();
+        Column weightColumn = graphModel.getEdgeTable().getColumn(GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID);
+
+        Edge edge = graph.getEdges().toArray()[0];
+        Assert.assertTrue(edge instanceof PrimitiveAttributes);
+        ((PrimitiveAttributes) edge).setDouble(weightColumn, 5.0);
+        Assert.assertEquals(edge.getWeight(), 5.0);
+        Assert.assertEquals(edge.getAttribute(weightColumn), 5.0);
+        Assert.assertEquals(getEdgeWeight(graphModel, edge), 5.0);
+
+        edge.setWeight(6.0);
+        Assert.assertEquals(((PrimitiveAttributes) edge).getDouble(weightColumn), 6.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetEdgeWeightsTooSmall() {
+        GraphModelImpl graphModel = GraphGenerator.generateSmallGraphStore().graphModel;
+        graphModel.getEdgeWeights(new double[graphModel.getMaxEdgeStoreId() - 1]);
+    }
+
+    private static double getEdgeWeight(GraphModelImpl graphModel, Edge edge) {
+        double[] weights = new double[graphModel.getMaxEdgeStoreId()];
+        graphModel.getEdgeWeights(weights);
+        return weights[edge.getStoreId()];
+    }
 }
@@ -30,6 +30,7 @@ import org.gephi.graph.api.ColumnIterable;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
+import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphView;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
@@ -716,6 +717,22 @@ public class GraphStoreTest {
         Assert.assertFalse(graphStore.isAdjacent(n1, n2, 0));
     }
 
+    @Test
+    public void testCountCommonNeighbors() {
+        GraphStore graphStore = GraphGenerator.generateSmallUndirectedGraphStore();
+        assertCommonNeighbors(graphStore);
+        graphStore.getModel().setAdjacencyMatrixEnabled(true);
+        Assert.assertNotNull(graphStore.edgeStore.getAdjacencyMatrix());
+        assertCommonNeighbors(graphStore);
+    }
+
+    @Test
+    public void testCountCommonNeighborsDirected() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.getModel().setAdjacencyMatrixEnabled(true);
+        assertCommonNeighbors(graphStore);
+    }
+
     @Test
     public void testClearEdges() {
         GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
@@ -1004,4 +1021,16 @@ public class GraphStoreTest {
         }
         Assert.assertEquals(s2.size(), 0);
     }
+
+    private static void assertCommonNeighbors(Graph graph) {
+        Node[] nodes = graph.getNodes().toArray();
+        for (Node n1 : nodes) {
+            for (Node n2 : nodes) {
+                Set<Node> neighbors = new HashSet<Node>(graph.getNeighbors(n1).toCollection());
+                neighbors.retainAll(graph.getNeighbors(n2).toCollection());
+                Assert.assertEquals(graph.countCommonNeighbors(n1, n2), neighbors.size());
+                Assert.assertEquals(graph.countCommonNeighbors(n1, n2, 0), neighbors.size());
+            }
+        }
+    }
 }
@@ -17,13 +17,17 @@ package org.gephi.graph.impl;
 
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.ElementIterable;
+import org.gephi.graph.api.ElementVisitor;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
+import org.gephi.graph.api.ParallelElementIterable;
 import org.gephi.graph.api.UndirectedSubgraph;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -662,6 +666,24 @@ public class GraphViewDecoratorTest {
         Assert.assertFalse(graph.isAdjacent(nodes[0], nodes[1], 0));
     }
 
+    @Test
+    public void testCountCommonNeighbors() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        addSomeElements(graphStore, view);
+
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        Node[] nodes = graph.getNodes().toArray();
+        for (Node n1 : nodes) {
+            for (Node n2 : nodes) {
+                Set<Node> neighbors = new HashSet<Node>(graph.getNeighbors(n1).toCollection());
+                neighbors.retainAll(graph.getNeighbors(n2).toCollection());
+                Assert.assertEquals(graph.countCommonNeighbors(n1, n2), neighbors.size());
+            }
+        }
+    }
+
     @Test
     public void testGetNodeById() {
         GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
@@ -848,6 +870,58 @@ public class GraphViewDecoratorTest {
     }
 
     // UTILITY
+    @Test
+    public void testParallelForEach() {
+        GraphStore graphStore = GraphGenerator.generateLargeGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        addSomeElements(graphStore, view);
+
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        Assert.assertEquals(parallelCollect(graph.getNodes()), new ObjectOpenHashSet<Element>(graph.getNodes()
+                .toCollection()));
+        Assert.assertEquals(parallelCollect(graph.getEdges()), new ObjectOpenHashSet<Element>(graph.getEdges()
+                .toCollection()));
+    }
+
+    @Test
+    public void testParallelForEachUndirected() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        addSomeElements(graphStore, view);
+
+        UndirectedSubgraph graph = store.getUndirectedGraph(view);
+        Assert.assertEquals(parallelCollect(graph.getEdges()), new ObjectOpenHashSet<Element>(graph.getEdges()
+                .toCollection()));
+    }
+
+    @Test
+    public void testParallelForEachEdgeView() {
+        GraphStore graphStore = GraphGenerator.generateLargeGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView(false, true);
+
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        Assert.assertEquals(parallelCollect(graph.getNodes()), new ObjectOpenHashSet<Element>(graphStore.getNodes()
+                .toCollection()));
+    }
+
+    @Test
+    public void testParallelForEachReleasesLock() {
+        GraphStore graphStore = GraphGenerator.generateLargeGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        addSomeElements(graphStore, view);
+
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        parallelCollect(graph.getNodes());
+        parallelCollect(graph.getEdges());
+
+        graph.writeLock();
+        graph.writeUnlock();
+    }
+
     private boolean isIterablesEqual(ElementIterable n1, ElementIterable n2) {
         ObjectSet s1 = new ObjectOpenHashSet();
         for (Object n : n1) {
@@ -892,4 +966,17 @@ public class GraphViewDecoratorTest {
             }
         }
     }
+
+    private ObjectSet<Element> parallelCollect(ElementIterable<? extends Element> iterable) {
+        final ObjectSet<Element> set = new ObjectOpenHashSet<Element>();
+        ((ParallelElementIterable<Element>) iterable).parallelForEach(new ElementVisitor<Element>() {
+            @Override
+            public void visit(Element element) {
+                synchronized (set) {
+                    Assert.assertTrue(set.add(element));
+                }
+            }
+        });
+        return set;
+    }
 }
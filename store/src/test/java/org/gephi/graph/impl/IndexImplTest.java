@@ -30,6 +30,11 @@ import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnStatistics;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Histogram;
+import org.gephi.graph.api.IndexPredicate;
 import org.gephi.graph.api.Origin;
 import org.gephi.graph.api.Node;
 import org.testng.Assert;
@@ -278,6 +283,157 @@ public class IndexImplTest {
         index.getMaxValue(index.columnStore.getColumn("foo"));
     }
 
+    @Test
+    public void testGetWithStoredElements() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("flag", Boolean.class);
+        Set<Node> expected = new ObjectOpenHashSet<Node>();
+        for (int i = 0; i < 10000; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(col, i % 3 == 0);
+            graphStore.addNode(n);
+            if (i % 3 == 0) {
+                expected.add(n);
+            }
+        }
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.count(col, true), expected.size());
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(getIterable(index.get(col, true))), expected);
+
+        Node n0 = graphStore.getNode("0");
+        graphStore.removeNode(n0);
+        expected.remove(n0);
+        Node n1 = graphStore.getNode("1");
+        n1.setAttribute(col, true);
+        expected.add(n1);
+        Assert.assertEquals(index.count(col, true), expected.size());
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(getIterable(index.get(col, true))), expected);
+    }
+
+    @Test
+    public void testGetRange() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        NodeImpl[] nodes = generateNodesWithUniqueAttributes(index, true);
+        putAll(nodes, index);
+        Column ageCol = index.columnStore.getColumn("age");
+
+        boolean[] flags = { true, false };
+        for (boolean lowInclusive : flags) {
+            for (boolean highInclusive : flags) {
+                Set<Node> expected = new ObjectOpenHashSet<Node>();
+                for (NodeImpl n : nodes) {
+                    Integer v = (Integer) n.getAttribute(ageCol);
+                    if (v != null && (lowInclusive ? v >= 10 : v > 10) && (highInclusive ? v <= 20 : v < 20)) {
+                        expected.add(n);
+                    }
+                }
+                Node[] range = getIterable(index.getRange(ageCol, 10, lowInclusive, 20, highInclusive));
+                Assert.assertEquals(new ObjectOpenHashSet<Node>(range), expected);
+                Assert.assertEquals(range.length, expected.size());
+                Assert.assertEquals(index.countRange(ageCol, 10, lowInclusive, 20, highInclusive), expected.size());
+                for (int i = 1; i < range.length; i++) {
+                    Assert.assertTrue((Integer) range[i - 1].getAttribute(ageCol) <= (Integer) range[i]
+                            .getAttribute(ageCol));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetRangeOpen() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        NodeImpl[] nodes = generateNodesWithUniqueAttributes(index, true);
+        putAll(nodes, index);
+        Column ageCol = index.columnStore.getColumn("age");
+
+        int notNull = index.countElements(ageCol) - index.count(ageCol, null);
+        Assert.assertEquals(getIterable(index.getRange(ageCol, null, true, null, true)).length, notNull);
+        Assert.assertEquals(index.countRange(ageCol, null, true, null, true), notNull);
+        Assert.assertEquals(index.countRange(ageCol, 50, true, null, false), index
+                .countRange(ageCol, 50, true, 99, true));
+        Assert.assertEquals(index.countRange(ageCol, 20, true, 10, true), 0);
+    }
+
+    @Test
+    public void testGetRangeBigInteger() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        NodeImpl[] nodes = generateNodesWithUniqueAttributes(index, false);
+        putAll(nodes, index);
+        Column bigIntCol = index.columnStore.getColumn("big_int");
+
+        Assert.assertEquals(index.countRange(bigIntCol, BigInteger.valueOf(10), true, BigInteger.valueOf(20), false), 10);
+    }
+
+    @Test
+    public void testTopK() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        NodeImpl[] nodes = generateNodesWithUniqueAttributes(index, false);
+        putAll(nodes, index);
+        Column ageCol = index.columnStore.getColumn("age");
+
+        Node[] top = getIterable(index.topK(ageCol, 3, true));
+        Assert.assertEquals(top.length, 3);
+        Assert.assertEquals(top[0].getAttribute(ageCol), 99);
+        Assert.assertEquals(top[1].getAttribute(ageCol), 98);
+        Assert.assertEquals(top[2].getAttribute(ageCol), 97);
+
+        Node[] bottom = getIterable(index.topK(ageCol, 2, false));
+        Assert.assertEquals(bottom.length, 2);
+        Assert.assertEquals(bottom[0].getAttribute(ageCol), 0);
+        Assert.assertEquals(bottom[1].getAttribute(ageCol), 1);
+
+        Assert.assertEquals(getIterable(index.topK(ageCol, 1000, true)).length, nodes.length);
+        Assert.assertEquals(getIterable(index.topK(ageCol, 0, true)).length, 0);
+    }
+
+    @Test
+    public void testTopKEmpty() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        Column ageCol = index.columnStore.getColumn("age");
+
+        Assert.assertEquals(getIterable(index.topK(ageCol, 5, true)).length, 0);
+        Assert.assertEquals(getIterable(index.topK(ageCol, 5, false)).length, 0);
+    }
+
+    @Test
+    public void testGetRangeView() {
+        GraphStore graphStore = new GraphStore();
+        Column ageCol = graphStore.nodeTable.addColumn("age", Integer.class);
+        for (int i = 0; i < 10; i++) {
+            NodeImpl n = new NodeImpl(String.valueOf(i), graphStore);
+            n.setAttribute(ageCol, i);
+            graphStore.addNode(n);
+        }
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        for (int i = 0; i < 10; i += 2) {
+            graph.addNode(graphStore.getNode(String.valueOf(i)));
+        }
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graph);
+
+        Assert.assertEquals(index.countRange(ageCol, 2, true, 6, true), 3);
+        Node[] top = getIterable(index.topK(ageCol, 1, true));
+        Assert.assertEquals(top[0].getAttribute(ageCol), 8);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetRangeNoNumber() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        index.getRange(index.columnStore.getColumn("foo"), null, true, null, true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetRangeWrongBoundType() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        index.countRange(index.columnStore.getColumn("age"), 1.0, true, null, true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTopKNegative() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        index.topK(index.columnStore.getColumn("age"), -1, true);
+    }
+
     @Test
     public void testValues() {
         IndexImpl<Node> index = generateEmptyIndex();
@@ -664,7 +820,434 @@ public class IndexImplTest {
         }
     }
 
+    @Test
+    public void testQueryEqual() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        IndexPredicate predicate = IndexPredicate.equal(category, "A");
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(index.get(predicate)), getMatching(graphStore, "A", null, null));
+        Assert.assertEquals(index.count(predicate), index.count(category, "A"));
+        Assert.assertEquals(index.count(IndexPredicate.equal(category, "D")), 0);
+    }
+
+    @Test
+    public void testQueryIn() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        IndexPredicate predicate = IndexPredicate.in(category, "A", "B", "A", "D");
+        Set<Node> expected = getMatching(graphStore, "A", null, null);
+        expected.addAll(getMatching(graphStore, "B", null, null));
+        Collection<Node> result = index.get(predicate);
+        Assert.assertEquals(result.size(), expected.size());
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(result), expected);
+        Assert.assertEquals(index.count(predicate), expected.size());
+    }
+
+    @Test
+    public void testQueryRange() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        IndexPredicate predicate = IndexPredicate.range(score, 10, true, 20, false);
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(index.get(predicate)), getMatching(graphStore, null, 10, 20));
+        Assert.assertEquals(index.count(predicate), 10);
+    }
+
+    @Test
+    public void testQueryAnd() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        Column score = graphStore.nodeTable.getColumn("score");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        IndexPredicate predicate = IndexPredicate.and(IndexPredicate.equal(category, "B"), IndexPredicate
+                .range(score, 10, true, 20, false));
+        Set<Node> expected = getMatching(graphStore, "B", 10, 20);
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(index.get(predicate)), expected);
+        Assert.assertEquals(index.count(predicate), expected.size());
+    }
+
+    @Test
+    public void testQueryOr() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        Column score = graphStore.nodeTable.getColumn("score");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        IndexPredicate predicate = IndexPredicate.or(IndexPredicate.equal(category, "C"), IndexPredicate
+                .range(score, 10, true, 20, false));
+        Set<Node> expected = getMatching(graphStore, "C", null, null);
+        expected.addAll(getMatching(graphStore, null, 10, 20));
+        Collection<Node> result = index.get(predicate);
+        Assert.assertEquals(result.size(), expected.size());
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(result), expected);
+        Assert.assertEquals(index.count(predicate), expected.size());
+    }
+
+    @Test
+    public void testQueryNot() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        Column score = graphStore.nodeTable.getColumn("score");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        IndexPredicate predicate = IndexPredicate.and(IndexPredicate.range(score, 10, true, 20, false), IndexPredicate
+                .not(IndexPredicate.equal(category, "A")));
+        Set<Node> expected = getMatching(graphStore, null, 10, 20);
+        expected.removeAll(getMatching(graphStore, "A", null, null));
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(index.get(predicate)), expected);
+
+        Set<Node> notA = new ObjectOpenHashSet<Node>(graphStore.getNodes().toCollection());
+        notA.removeAll(getMatching(graphStore, "A", null, null));
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(index.get(IndexPredicate.not(IndexPredicate
+                .equal(category, "A")))), notA);
+    }
+
+    @Test(timeOut = 10000)
+    public void testQueryNotWhileWriting() throws Exception {
+        GraphStore graphStore = generateQueryGraphStore();
+        final Column category = graphStore.nodeTable.getColumn("category");
+        final IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        int notA = graphStore.getNodeCount() - getMatching(graphStore, "A", null, null).size();
+
+        // The query doesn't wait for the writer, which holds the graph
+        final int[] count = new int[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = index.count(IndexPredicate.not(IndexPredicate.equal(category, "A")));
+            }
+        });
+        graphStore.writeLock();
+        try {
+            reader.start();
+            Thread.sleep(100);
+            Node n = graphStore.factory.newNode("new");
+            n.setAttribute(category, "B");
+            graphStore.addNode(n);
+        } finally {
+            graphStore.writeUnlock();
+        }
+        reader.join();
+        Assert.assertTrue(count[0] == notA || count[0] == notA + 1);
+    }
+
+    @Test
+    public void testQueryView() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        for (Node n : graphStore.getNodes().toArray()) {
+            if ((Integer) n.getAttribute("score") < 10) {
+                graph.addNode(n);
+            }
+        }
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graph);
+
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(index.get(IndexPredicate.equal(category, "A"))), getMatching(graphStore, "A", 0, 10));
+        Set<Node> expected = new ObjectOpenHashSet<Node>(graph.getNodes().toCollection());
+        expected.removeAll(getMatching(graphStore, "A", null, null));
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(index.get(IndexPredicate.not(IndexPredicate
+                .equal(category, "A")))), expected);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testQueryRangeNotSortable() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        graphStore.nodeTable.store.indexStore.mainIndex.get(IndexPredicate.range(category, null, false, null, false));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testQueryRangeWrongBound() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        graphStore.nodeTable.store.indexStore.mainIndex.get(IndexPredicate.range(score, 1.0, false, null, false));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testQueryColumnOtherTable() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column edgeCol = graphStore.edgeTable.addColumn("category", String.class);
+        graphStore.nodeTable.store.indexStore.mainIndex.get(IndexPredicate.equal(edgeCol, "A"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testQueryEmptyAnd() {
+        IndexPredicate.and();
+    }
+
+    @Test
+    public void testStatistics() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(score);
+
+        Assert.assertSame(stats.getColumn(), score);
+        Assert.assertTrue(stats.isNumeric());
+        Assert.assertEquals(stats.getElementCount(), 100);
+        Assert.assertEquals(stats.getNullCount(), 0);
+        Assert.assertEquals(stats.getDistinctCount(), 100);
+        Assert.assertEquals(stats.getMin(), 0);
+        Assert.assertEquals(stats.getMax(), 99);
+        Assert.assertEquals(stats.getSum(), 4950.0);
+        Assert.assertEquals(stats.getMean(), 49.5, 1e-9);
+        Assert.assertEquals(stats.getVariance(), 833.25, 1e-9);
+    }
+
+    @Test
+    public void testStatisticsMaintained() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(score);
+
+        graphStore.getNode("0").setAttribute(score, null);
+        graphStore.getNode("1").setAttribute(score, 50);
+        graphStore.removeNode(graphStore.getNode("99"));
+
+        double sum = 0.0;
+        int count = 0;
+        for (Node n : graphStore.getNodes()) {
+            Integer value = (Integer) n.getAttribute(score);
+            if (value != null) {
+                sum += value;
+                count++;
+            }
+        }
+        double mean = sum / count;
+        double variance = 0.0;
+        for (Node n : graphStore.getNodes()) {
+            Integer value = (Integer) n.getAttribute(score);
+            if (value != null) {
+                variance += (value - mean) * (value - mean);
+            }
+        }
+        variance /= count;
+
+        Assert.assertEquals(stats.getElementCount(), 99);
+        Assert.assertEquals(stats.getNullCount(), 1);
+        Assert.assertEquals(stats.getDistinctCount(), 97);
+        Assert.assertEquals(stats.getSum(), sum, 1e-9);
+        Assert.assertEquals(stats.getMean(), mean, 1e-9);
+        Assert.assertEquals(stats.getVariance(), variance, 1e-9);
+
+        graphStore.clear();
+        Assert.assertEquals(stats.getElementCount(), 0);
+        Assert.assertEquals(stats.getSum(), 0.0);
+        Assert.assertTrue(Double.isNaN(stats.getMean()));
+        Assert.assertTrue(Double.isNaN(stats.getVariance()));
+        Assert.assertNull(stats.getMin());
+    }
+
+    @Test
+    public void testStatisticsNonFinite() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("value", Double.class);
+        double[] values = { 1.0, 3.0, Double.NaN, Double.POSITIVE_INFINITY };
+        for (int i = 0; i < values.length; i++) {
+            NodeImpl n = new NodeImpl(String.valueOf(i), graphStore);
+            n.setAttribute(col, values[i]);
+            graphStore.addNode(n);
+        }
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(col);
+
+        Assert.assertEquals(stats.getElementCount(), 4);
+        Assert.assertEquals(stats.getNonFiniteCount(), 2);
+        Assert.assertEquals(stats.getSum(), 4.0);
+        Assert.assertEquals(stats.getMean(), 2.0, 1e-9);
+        Assert.assertEquals(stats.getVariance(), 1.0, 1e-9);
+
+        // Replacing the non-finite values restores the exact moments
+        graphStore.getNode("2").setAttribute(col, 5.0);
+        graphStore.getNode("3").setAttribute(col, Double.NEGATIVE_INFINITY);
+        graphStore.removeNode(graphStore.getNode("3"));
+        Assert.assertEquals(stats.getNonFiniteCount(), 0);
+        Assert.assertEquals(stats.getSum(), 9.0);
+        Assert.assertEquals(stats.getMean(), 3.0, 1e-9);
+        Assert.assertEquals(stats.getVariance(), 8.0 / 3.0, 1e-9);
+
+        graphStore.getNode("0").setAttribute(col, Double.NaN);
+        graphStore.getNode("1").setAttribute(col, Double.NaN);
+        graphStore.getNode("2").setAttribute(col, Double.NaN);
+        Assert.assertEquals(stats.getNonFiniteCount(), 3);
+        Assert.assertEquals(stats.getSum(), 0.0);
+        Assert.assertTrue(Double.isNaN(stats.getMean()));
+    }
+
+    @Test
+    public void testStatisticsHistogramsNonFinite() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("value", Double.class);
+        double[] values = { 1.0, 2.0, 3.0, 4.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (int i = 0; i < values.length; i++) {
+            NodeImpl n = new NodeImpl(String.valueOf(i), graphStore);
+            n.setAttribute(col, values[i]);
+            graphStore.addNode(n);
+        }
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(col);
+
+        Assert.assertEquals(stats.getMin(), 1.0);
+        Assert.assertEquals(stats.getMax(), 4.0);
+
+        Histogram equiWidth = stats.getEquiWidthHistogram(2);
+        Assert.assertEquals(equiWidth.getBinCount(), 2);
+        Assert.assertEquals(equiWidth.getLow(0), 1.0);
+        Assert.assertEquals(equiWidth.getHigh(0), 2.5);
+        Assert.assertEquals(equiWidth.getHigh(1), 4.0);
+        Assert.assertEquals(equiWidth.getCount(0), 2);
+        Assert.assertEquals(equiWidth.getCount(1), 2);
+
+        Histogram equiDepth = stats.getEquiDepthHistogram(2);
+        Assert.assertEquals(equiDepth.getBinCount(), 2);
+        Assert.assertEquals(equiDepth.getLow(0), 1.0);
+        Assert.assertEquals(equiDepth.getHigh(0), 2.0);
+        Assert.assertEquals(equiDepth.getLow(1), 3.0);
+        Assert.assertEquals(equiDepth.getHigh(1), 4.0);
+        Assert.assertEquals(equiDepth.getTotalCount(), 4);
+
+        // Only non-finite values
+        for (int i = 0; i < 4; i++) {
+            graphStore.getNode(String.valueOf(i)).setAttribute(col, Double.NaN);
+        }
+        Assert.assertNull(stats.getMin());
+        Assert.assertNull(stats.getMax());
+        Assert.assertEquals(stats.getEquiWidthHistogram(2).getBinCount(), 0);
+        Assert.assertEquals(stats.getEquiDepthHistogram(2).getBinCount(), 0);
+    }
+
+    @Test
+    public void testStatisticsEquiWidthHistogram() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(score);
+
+        Histogram histogram = stats.getEquiWidthHistogram(10);
+        Assert.assertEquals(histogram.getBinCount(), 10);
+        Assert.assertEquals(histogram.getTotalCount(), 100);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(histogram.getCount(i), 10);
+        }
+        Assert.assertEquals(histogram.getLow(0), 0.0);
+        Assert.assertEquals(histogram.getHigh(9), 99.0);
+        Assert.assertSame(stats.getEquiWidthHistogram(10), histogram);
+
+        graphStore.getNode("0").setAttribute(score, 99);
+        histogram = stats.getEquiWidthHistogram(10);
+        Assert.assertEquals(histogram.getLow(0), 1.0);
+        Assert.assertEquals(histogram.getCount(9), 11);
+    }
+
+    @Test
+    public void testStatisticsEquiDepthHistogram() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(score);
+
+        Histogram histogram = stats.getEquiDepthHistogram(4);
+        Assert.assertEquals(histogram.getBinCount(), 4);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(histogram.getCount(i), 25);
+            Assert.assertEquals(histogram.getLow(i), i * 25.0);
+            Assert.assertEquals(histogram.getHigh(i), i * 25.0 + 24.0);
+        }
+
+        for (Node n : graphStore.getNodes()) {
+            n.setAttribute(score, 7);
+        }
+        histogram = stats.getEquiDepthHistogram(4);
+        Assert.assertEquals(histogram.getBinCount(), 1);
+        Assert.assertEquals(histogram.getCount(0), 100);
+    }
+
+    @Test
+    public void testStatisticsEmptyHistogram() {
+        GraphStore graphStore = new GraphStore();
+        Column score = graphStore.nodeTable.addColumn("score", Double.class);
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(score);
+
+        Assert.assertEquals(stats.getEquiWidthHistogram(5).getBinCount(), 0);
+        Assert.assertEquals(stats.getEquiDepthHistogram(5).getBinCount(), 0);
+    }
+
+    @Test
+    public void testStatisticsView() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        graph.addNode(graphStore.getNode("10"));
+        graph.addNode(graphStore.getNode("20"));
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.getIndex(graph).getStatistics(score);
+
+        Assert.assertEquals(stats.getElementCount(), 2);
+        Assert.assertEquals(stats.getMean(), 15.0, 1e-9);
+        Assert.assertEquals(stats.getVariance(), 25.0, 1e-9);
+
+        graph.addNode(graphStore.getNode("30"));
+        Assert.assertEquals(stats.getSum(), 60.0, 1e-9);
+    }
+
+    @Test
+    public void testStatisticsNotNumeric() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        ColumnStatistics stats = graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(category);
+
+        Assert.assertFalse(stats.isNumeric());
+        Assert.assertEquals(stats.getDistinctCount(), 3);
+        Assert.assertEquals(stats.getElementCount(), 100);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testStatisticsNotNumericSum() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column category = graphStore.nodeTable.getColumn("category");
+        graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(category).getSum();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testStatisticsInvalidBins() {
+        GraphStore graphStore = generateQueryGraphStore();
+        Column score = graphStore.nodeTable.getColumn("score");
+        graphStore.nodeTable.store.indexStore.mainIndex.getStatistics(score).getEquiWidthHistogram(0);
+    }
+
     // UTILITIES
+    private GraphStore generateQueryGraphStore() {
+        GraphStore graphStore = new GraphStore();
+        Column category = graphStore.nodeTable.addColumn("category", String.class);
+        Column score = graphStore.nodeTable.addColumn("score", Integer.class);
+        String[] categories = { "A", "B", "C" };
+        for (int i = 0; i < 100; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(category, categories[i % 3]);
+            n.setAttribute(score, i);
+            graphStore.addNode(n);
+        }
+        return graphStore;
+    }
+
+    private Set<Node> getMatching(GraphStore graphStore, String category, Integer low, Integer high) {
+        Set<Node> set = new ObjectOpenHashSet<Node>();
+        for (Node n : graphStore.getNodes()) {
+            Integer score = (Integer) n.getAttribute("score");
+            if (category != null && !category.equals(n.getAttribute("category"))) {
+                continue;
+            }
+            if (low != null && (score < low || score >= high)) {
+                continue;
+            }
+            set.add(n);
+        }
+        return set;
+    }
+
     private NodeImpl[] generateNodesWithUniqueAttributes(IndexImpl<Node> index, boolean withNulls) {
         int count = 100;
         Random random = new Random(342);
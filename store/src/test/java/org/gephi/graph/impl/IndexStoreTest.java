@@ -319,6 +319,47 @@ public class IndexStoreTest {
         Assert.assertFalse(index.hasColumn(column));
     }
 
+    @Test
+    public void testEvictViewIndex() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        ColumnImpl column = new ColumnImpl("foo", String.class, "Foo", null, Origin.DATA, true, false);
+        graphStore.nodeTable.store.addColumn(column);
+        graphStore.getNode("1").setAttribute(column, "bar");
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        IndexImpl<Node> index = indexStore.getIndex(graphStore.viewStore.getGraph(view));
+        Assert.assertEquals(index.count(column, "bar"), 1);
+        evictViewIndexes(graphStore);
+
+        Assert.assertTrue(index.evicted);
+        Assert.assertFalse(indexStore.viewIndexes.containsKey(view));
+        Assert.assertEquals(indexStore.viewIndexes.size(), GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_VIEWS);
+        Assert.assertEquals(index.count(column, "bar"), 1);
+        Assert.assertFalse(index.evicted);
+        Assert.assertTrue(indexStore.viewIndexes.containsKey(view));
+        Assert.assertSame(indexStore.getIndex(graphStore.viewStore.getGraph(view)), index);
+    }
+
+    @Test
+    public void testAddColumnWhileEvicted() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        IndexImpl<Node> index = indexStore.getIndex(graphStore.viewStore.getGraph(view));
+        evictViewIndexes(graphStore);
+        Assert.assertTrue(index.evicted);
+
+        ColumnImpl column = new ColumnImpl("foo", String.class, "Foo", null, Origin.DATA, true, false);
+        graphStore.nodeTable.store.addColumn(column);
+        graphStore.getNode("1").setAttribute(column, "bar");
+        Assert.assertEquals(index.count(column, "bar"), 1);
+        Assert.assertTrue(index.hasColumn(column));
+    }
+
     @Test
     public void testAddColumnWithView() {
         GraphStore graphStore = new GraphStore();
@@ -397,6 +438,73 @@ public class IndexStoreTest {
         Assert.assertEquals(index.count(column, null), 1);
     }
 
+    @Test
+    public void testViewIndexDerivedFromMainIndex() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        ColumnImpl column = new ColumnImpl("foo", String.class, "Foo", null, Origin.DATA, true, false);
+        graphStore.nodeTable.store.addColumn(column);
+
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(n1);
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+        IndexImpl index = indexStore.createViewIndex(graphStore.viewStore.getGraph(view));
+
+        n1.setAttribute(column, "bar");
+        n2.setAttribute(column, "bar");
+        Assert.assertEquals(index.count(column, "bar"), 1);
+
+        // Writes outside of the view don't touch the view index
+        long version = index.getIndex(column).version;
+        n2.setAttribute(column, "foo");
+        Assert.assertEquals(index.columns[column.getIndex()].version, version);
+        Assert.assertEquals(index.count(column, "bar"), 1);
+        Assert.assertEquals(index.count(column, "foo"), 0);
+
+        view.addNode(n2);
+        Assert.assertEquals(index.count(column, "foo"), 1);
+        view.removeNode(n1);
+        Assert.assertEquals(index.count(column, "bar"), 0);
+    }
+
+    @Test
+    public void testViewIndexReplaysMainIndexWrites() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        ColumnImpl column = new ColumnImpl("foo", String.class, "Foo", null, Origin.DATA, true, false);
+        graphStore.nodeTable.store.addColumn(column);
+
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(n1);
+        view.addNode(n2);
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+        IndexImpl index = indexStore.createViewIndex(graphStore.viewStore.getGraph(view));
+
+        n1.setAttribute(column, "bar");
+        n2.setAttribute(column, "bar");
+        Assert.assertEquals(index.count(column, "bar"), 2);
+
+        // Only the write to n1 is applied, the view index isn't rebuilt
+        long version = index.columns[column.getIndex()].version;
+        n1.setAttribute(column, "foo");
+        Assert.assertEquals(index.count(column, "foo"), 1);
+        Assert.assertEquals(index.count(column, "bar"), 1);
+        Assert.assertEquals(index.columns[column.getIndex()].version, version + 2);
+
+        n1.removeAttribute(column);
+        Assert.assertEquals(index.count(column, "foo"), 0);
+        Assert.assertEquals(index.count(column, null), 1);
+
+        // Changing the view rebuilds the view index
+        view.removeNode(n2);
+        n1.setAttribute(column, "foo");
+        Assert.assertEquals(index.count(column, "foo"), 1);
+        Assert.assertEquals(index.count(column, "bar"), 0);
+        Assert.assertEquals(index.countElements(column), 1);
+    }
+
     @Test
     public void testIndexWithView() {
         GraphStore graphStore = generateBasicGraphStoreWithColumns();
@@ -462,6 +570,13 @@ public class IndexStoreTest {
     }
 
     // UTILITY
+    private void evictViewIndexes(GraphStore graphStore) {
+        for (int i = 0; i < GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_VIEWS; i++) {
+            graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(graphStore.viewStore
+                    .createView()));
+        }
+    }
+
     private NodeImpl[] generateNodesWithUniqueAttributes(ColumnStore<Node> columnStore) {
         int count = 100;
         NodeImpl[] nodes = new NodeImpl[count];
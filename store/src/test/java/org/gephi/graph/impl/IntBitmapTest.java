@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.NoSuchElementException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IntBitmapTest {
+
+    @Test
+    public void testEmpty() {
+        IntBitmap bitmap = new IntBitmap();
+        Assert.assertEquals(bitmap.size(), 0);
+        Assert.assertTrue(bitmap.isEmpty());
+        Assert.assertFalse(bitmap.contains(0));
+        Assert.assertFalse(bitmap.iterator().hasNext());
+    }
+
+    @Test
+    public void testAdd() {
+        IntBitmap bitmap = new IntBitmap();
+        Assert.assertTrue(bitmap.add(5));
+        Assert.assertFalse(bitmap.add(5));
+        Assert.assertTrue(bitmap.add(70000));
+        Assert.assertEquals(bitmap.size(), 2);
+        Assert.assertTrue(bitmap.contains(5));
+        Assert.assertTrue(bitmap.contains(70000));
+        Assert.assertFalse(bitmap.contains(6));
+        Assert.assertFalse(bitmap.contains(-1));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddNegative() {
+        new IntBitmap().add(-1);
+    }
+
+    @Test
+    public void testRemove() {
+        IntBitmap bitmap = new IntBitmap();
+        bitmap.add(1);
+        bitmap.add(100000);
+        Assert.assertTrue(bitmap.remove(1));
+        Assert.assertFalse(bitmap.remove(1));
+        Assert.assertFalse(bitmap.remove(2));
+        Assert.assertFalse(bitmap.contains(1));
+        Assert.assertEquals(bitmap.size(), 1);
+        Assert.assertTrue(bitmap.remove(100000));
+        Assert.assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void testIteratorSorted() {
+        IntBitmap bitmap = new IntBitmap();
+        int[] values = new int[] { 300000, 3, 65536, 65535, 0 };
+        for (int v : values) {
+            bitmap.add(v);
+        }
+        IntBitmap.BitmapIterator itr = bitmap.iterator();
+        int[] expected = new int[] { 0, 3, 65535, 65536, 300000 };
+        for (int v : expected) {
+            Assert.assertTrue(itr.hasNext());
+            Assert.assertEquals(itr.nextInt(), v);
+        }
+        Assert.assertFalse(itr.hasNext());
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void testIteratorNoNext() {
+        new IntBitmap().iterator().nextInt();
+    }
+
+    @Test
+    public void testDenseContainer() {
+        IntBitmap bitmap = new IntBitmap();
+        int count = IntBitmap.ARRAY_MAX_SIZE * 3;
+        for (int i = 0; i < count; i++) {
+            Assert.assertTrue(bitmap.add(i * 2));
+        }
+        Assert.assertEquals(bitmap.size(), count);
+        for (int i = 0; i < count; i++) {
+            Assert.assertTrue(bitmap.contains(i * 2));
+            Assert.assertFalse(bitmap.contains(i * 2 + 1));
+        }
+
+        IntBitmap.BitmapIterator itr = bitmap.iterator();
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(itr.nextInt(), i * 2);
+        }
+        Assert.assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testDenseToSparse() {
+        IntBitmap bitmap = new IntBitmap();
+        int count = IntBitmap.ARRAY_MAX_SIZE + 10;
+        for (int i = 0; i < count; i++) {
+            bitmap.add(i);
+        }
+        for (int i = 0; i < count - 1; i++) {
+            Assert.assertTrue(bitmap.remove(i));
+        }
+        Assert.assertEquals(bitmap.size(), 1);
+        Assert.assertTrue(bitmap.contains(count - 1));
+        Assert.assertFalse(bitmap.contains(0));
+        IntBitmap.BitmapIterator itr = bitmap.iterator();
+        Assert.assertEquals(itr.nextInt(), count - 1);
+        Assert.assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testClear() {
+        IntBitmap bitmap = new IntBitmap();
+        bitmap.add(1);
+        bitmap.add(200000);
+        bitmap.clear();
+        Assert.assertTrue(bitmap.isEmpty());
+        Assert.assertFalse(bitmap.contains(1));
+        Assert.assertTrue(bitmap.add(1));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.gephi.graph.api.Node;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MemberIndexTest {
+
+    @Test
+    public void testContainingAny() {
+        MemberIndex<Node> index = new MemberIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        NodeImpl n3 = new NodeImpl("3");
+        index.add(n1, new String[] { "a", "b" });
+        index.add(n2, new String[] { "b", "c" });
+        index.add(n3, new String[] { "d" });
+
+        assertElements(index.getContainingAny(new Object[] { "a" }), n1);
+        assertElements(index.getContainingAny(new Object[] { "b" }), n1, n2);
+        assertElements(index.getContainingAny(new Object[] { "a", "c" }), n1, n2);
+        assertElements(index.getContainingAny(new Object[] { "b", "d" }), n1, n2, n3);
+        assertElements(index.getContainingAny(new Object[] { "z" }));
+    }
+
+    @Test
+    public void testContainingAll() {
+        MemberIndex<Node> index = new MemberIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        NodeImpl n3 = new NodeImpl("3");
+        index.add(n1, new String[] { "a", "b" });
+        index.add(n2, new String[] { "a", "b", "c" });
+        index.add(n3, new String[] { "a" });
+
+        assertElements(index.getContainingAll(new Object[] { "a" }), n1, n2, n3);
+        assertElements(index.getContainingAll(new Object[] { "a", "b" }), n1, n2);
+        assertElements(index.getContainingAll(new Object[] { "c", "a", "b" }), n2);
+        assertElements(index.getContainingAll(new Object[] { "a", "z" }));
+    }
+
+    @Test
+    public void testPrimitiveArray() {
+        MemberIndex<Node> index = new MemberIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        index.add(n1, new int[] { 1, 2, 2 });
+        index.add(n2, new int[] { 2, 3 });
+
+        Assert.assertEquals(index.countMembers(), 3);
+        assertElements(index.getContainingAny(new Object[] { 2 }), n1, n2);
+        assertElements(index.getContainingAll(new Object[] { 1, 2 }), n1);
+        assertElements(index.getContainingAny(new Object[] { 2l }));
+    }
+
+    @Test
+    public void testCollections() {
+        MemberIndex<Node> index = new MemberIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        List<String> list = new ArrayList<String>();
+        list.add("a");
+        list.add(null);
+        index.add(n1, list);
+        index.add(n2, new IntOpenHashSet(new int[] { 5, 6 }));
+
+        assertElements(index.getContainingAny(new Object[] { "a" }), n1);
+        assertElements(index.getContainingAll(new Object[] { 5, 6 }), n2);
+        Assert.assertEquals(index.countMembers(), 3);
+    }
+
+    @Test
+    public void testRemove() {
+        MemberIndex<Node> index = new MemberIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        index.add(n1, new String[] { "a", "b" });
+        index.add(n2, new String[] { "b" });
+
+        index.remove(n1, new String[] { "a", "b" });
+        assertElements(index.getContainingAny(new Object[] { "a", "b" }), n2);
+        Assert.assertEquals(index.countMembers(), 1);
+
+        index.remove(n2, new String[] { "b" });
+        Assert.assertEquals(index.countMembers(), 0);
+        index.add(n1, null);
+        index.remove(n1, null);
+        Assert.assertEquals(index.countMembers(), 0);
+    }
+
+    @Test
+    public void testClear() {
+        MemberIndex<Node> index = new MemberIndex<Node>(null, Node.class);
+        index.add(new NodeImpl("1"), new String[] { "a" });
+        index.clear();
+        Assert.assertEquals(index.countMembers(), 0);
+        assertElements(index.getContainingAny(new Object[] { "a" }));
+    }
+
+    private void assertElements(Collection<Node> actual, Node... expected) {
+        Assert.assertEquals(actual.size(), expected.length);
+        Set<Node> expectedSet = new ObjectOpenHashSet<Node>(Arrays.asList(expected));
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(actual), expectedSet);
+    }
+}
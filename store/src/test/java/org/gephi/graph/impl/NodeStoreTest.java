@@ -24,6 +24,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gephi.graph.api.ElementVisitor;
 import org.gephi.graph.api.Node;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -502,6 +504,54 @@ public class NodeStoreTest {
         nodeStore.add(node2);
     }
 
+    @Test
+    public void testParallelForEach() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(GraphStoreConfiguration.NODESTORE_BLOCK_SIZE * 3 + 10);
+        removeSomeNodes(nodeStore);
+
+        final Set<Node> visited = Collections.synchronizedSet(new HashSet<Node>());
+        final AtomicInteger count = new AtomicInteger();
+        nodeStore.parallelForEach(new ElementVisitor<Node>() {
+            @Override
+            public void visit(Node node) {
+                visited.add(node);
+                count.incrementAndGet();
+            }
+        });
+        Assert.assertEquals(count.get(), nodeStore.size());
+        Assert.assertEquals(visited, new HashSet<Node>(nodeStore.toCollection()));
+    }
+
+    @Test
+    public void testParallelForEachEmpty() {
+        NodeStore nodeStore = new NodeStore();
+        final AtomicInteger count = new AtomicInteger();
+        nodeStore.parallelForEach(new ElementVisitor<Node>() {
+            @Override
+            public void visit(Node node) {
+                count.incrementAndGet();
+            }
+        });
+        Assert.assertEquals(count.get(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testParallelForEachException() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(GraphStoreConfiguration.NODESTORE_BLOCK_SIZE * 3);
+        nodeStore.parallelForEach(new ElementVisitor<Node>() {
+            @Override
+            public void visit(Node node) {
+                throw new IllegalStateException();
+            }
+        });
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testParallelForEachNull() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(10);
+        nodeStore.parallelForEach(null);
+    }
+
     private void testContainsOnly(NodeStore store, List<NodeImpl> list) {
         for (NodeImpl n : list) {
             Assert.assertTrue(store.contains(n));
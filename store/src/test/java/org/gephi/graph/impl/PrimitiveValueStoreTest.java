@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PrimitiveValueStoreTest {
+
+    @Test
+    public void testEmpty() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Double.class);
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertNull(store.get(0));
+        Assert.assertNull(store.get(PrimitiveValueStore.BLOCK_SIZE * 3));
+    }
+
+    @Test
+    public void testSetGet() {
+        Object[] values = new Object[] { 1.5, 2f, 3l, 4, (short) 5, (byte) 6, 'a', true };
+        for (Object value : values) {
+            PrimitiveValueStore store = new PrimitiveValueStore(value.getClass());
+            store.set(7, value);
+            Assert.assertEquals(store.get(7), value);
+            Assert.assertNull(store.get(6));
+            Assert.assertEquals(store.size(), 1);
+        }
+    }
+
+    @Test
+    public void testSetBooleanFalse() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Boolean.class);
+        store.set(0, true);
+        store.set(1, false);
+        Assert.assertEquals(store.get(0), Boolean.TRUE);
+        Assert.assertEquals(store.get(1), Boolean.FALSE);
+        store.set(0, false);
+        Assert.assertEquals(store.get(0), Boolean.FALSE);
+    }
+
+    @Test
+    public void testReplace() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Integer.class);
+        store.set(0, 1);
+        store.set(0, 2);
+        Assert.assertEquals(store.get(0), 2);
+        Assert.assertEquals(store.size(), 1);
+    }
+
+    @Test
+    public void testRemove() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Integer.class);
+        store.set(0, 1);
+        store.set(1, 2);
+        store.set(1, null);
+        Assert.assertEquals(store.get(0), 1);
+        Assert.assertNull(store.get(1));
+        Assert.assertEquals(store.size(), 1);
+
+        store.set(1, null);
+        Assert.assertEquals(store.size(), 1);
+    }
+
+    @Test
+    public void testRemoveReleasesBlock() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Long.class);
+        int storeId = PrimitiveValueStore.BLOCK_SIZE + 3;
+        store.set(storeId, 42l);
+        Assert.assertEquals(store.blocks.length, 2);
+        Assert.assertNull(store.blocks[0]);
+        Assert.assertNotNull(store.blocks[1]);
+
+        store.set(storeId, null);
+        Assert.assertNull(store.blocks[1]);
+        Assert.assertNull(store.get(storeId));
+    }
+
+    @Test
+    public void testMultipleBlocks() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Double.class);
+        int count = PrimitiveValueStore.BLOCK_SIZE * 2 + 10;
+        for (int i = 0; i < count; i++) {
+            store.set(i, (double) i);
+        }
+        Assert.assertEquals(store.size(), count);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(store.get(i), (double) i);
+        }
+    }
+
+    @Test
+    public void testCopyDoubles() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Integer.class);
+        int count = PrimitiveValueStore.BLOCK_SIZE * 2 + 10;
+        for (int i = 0; i < count; i += 2) {
+            store.set(i, i);
+        }
+
+        double[] out = new double[count + 5];
+        store.copyDoubles(out, -1.0);
+        for (int i = 0; i < out.length; i++) {
+            Assert.assertEquals(out[i], i < count && i % 2 == 0 ? i : -1.0);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testCopyDoublesNotNumber() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Boolean.class);
+        store.copyDoubles(new double[1], 0.0);
+    }
+
+    @Test
+    public void testClear() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Float.class);
+        store.set(0, 1f);
+        store.clear();
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertNull(store.get(0));
+    }
+
+    @Test
+    public void testIsSupported() {
+        Assert.assertTrue(PrimitiveValueStore.isSupported(Double.class));
+        Assert.assertTrue(PrimitiveValueStore.isSupported(Boolean.class));
+        Assert.assertTrue(PrimitiveValueStore.isSupported(Character.class));
+        Assert.assertFalse(PrimitiveValueStore.isSupported(String.class));
+        Assert.assertFalse(PrimitiveValueStore.isSupported(int[].class));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSetWrongType() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Double.class);
+        store.set(0, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeStoreId() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Double.class);
+        store.get(-1);
+    }
+
+    @Test
+    public void testTypedSetters() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Boolean.class);
+        store.setBoolean(0, true);
+        store.setBoolean(1, false);
+        store.setBoolean(1, true);
+
+        Assert.assertEquals(store.size(), 2);
+        Assert.assertTrue(store.getBoolean(1, false));
+        Assert.assertFalse(store.getBoolean(2, false));
+
+        PrimitiveValueStore doubleStore = new PrimitiveValueStore(Double.class);
+        doubleStore.setDouble(10000, 1.5);
+        Assert.assertEquals(doubleStore.get(10000), 1.5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTypedSetterWrongType() {
+        PrimitiveValueStore store = new PrimitiveValueStore(Integer.class);
+        store.setLong(0, 1l);
+    }
+}
@@ -54,7 +54,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnFunction;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.Configuration;
+import org.gephi.graph.api.ColumnStorage;
 import org.gephi.graph.api.Origin;
 import org.gephi.graph.api.Estimator;
 import org.gephi.graph.api.TimeFormat;
@@ -201,6 +206,167 @@ public class SerializationTest {
         Assert.assertTrue(Arrays.deepEquals(l.attributes, node.attributes));
     }
 
+    @Test
+    public void testNodePrimitiveStorage() throws IOException, ClassNotFoundException {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphStore graphStore = graphModel.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "0", Integer.class, "title", null, Origin.DATA, false,
+                false, ColumnStorage.PRIMITIVE);
+        graphStore.nodeTable.store.addColumn(col);
+
+        NodeImpl node = new NodeImpl("Foo", graphStore);
+        graphStore.addNode(node);
+        node.setAttribute(col, 1);
+
+        Serialization ser = new Serialization(graphModel);
+        DataInputOutput dio = new DataInputOutput();
+        ser.serializeGraphModel(dio, graphModel);
+        byte[] bytes = dio.toByteArray();
+
+        GraphModelImpl read = new Serialization().deserializeGraphModel(dio.reset(bytes));
+        Assert.assertTrue(read.deepEquals(graphModel));
+        Column readColumn = read.getNodeTable().getColumn("0");
+        Assert.assertEquals(readColumn.getStorage(), ColumnStorage.PRIMITIVE);
+        Assert.assertEquals(read.getGraph().getNode("Foo").getAttribute(readColumn), 1);
+    }
+
+    @Test
+    public void testNodeDictionaryStorage() throws IOException, ClassNotFoundException {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphStore graphStore = graphModel.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "0", String.class, "title", null, Origin.DATA, true,
+                false, ColumnStorage.DICTIONARY);
+        graphStore.nodeTable.store.addColumn(col);
+
+        for (int i = 0; i < 10; i++) {
+            NodeImpl node = new NodeImpl(String.valueOf(i), graphStore);
+            graphStore.addNode(node);
+            node.setAttribute(col, i % 2 == 0 ? "even" : "odd");
+        }
+        graphStore.getNode("9").removeAttribute(col);
+
+        Serialization ser = new Serialization(graphModel);
+        DataInputOutput dio = new DataInputOutput();
+        ser.serializeGraphModel(dio, graphModel);
+        byte[] bytes = dio.toByteArray();
+
+        GraphModelImpl read = new Serialization().deserializeGraphModel(dio.reset(bytes));
+        Assert.assertTrue(read.deepEquals(graphModel));
+        Column readColumn = read.getNodeTable().getColumn("0");
+        Assert.assertEquals(readColumn.getStorage(), ColumnStorage.DICTIONARY);
+        for (int i = 0; i < 9; i++) {
+            Assert.assertEquals(read.getGraph().getNode(String.valueOf(i)).getAttribute(readColumn), i % 2 == 0
+                    ? "even" : "odd");
+        }
+        Assert.assertNull(read.getGraph().getNode("9").getAttribute(readColumn));
+        Assert.assertEquals(read.getNodeIndex().count(readColumn, "even"), 5);
+    }
+
+    @Test
+    public void testNodeRemovedColumn() throws IOException, ClassNotFoundException {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphStore graphStore = graphModel.store;
+        Column col = graphStore.nodeTable.addColumn("foo", String.class);
+        int index = col.getIndex();
+        NodeImpl node = new NodeImpl("0", graphStore);
+        graphStore.addNode(node);
+        node.setAttribute(col, "bar");
+        graphStore.nodeTable.removeColumn(col);
+
+        Serialization ser = new Serialization(graphModel);
+        DataInputOutput dio = new DataInputOutput();
+        ser.serializeGraphModel(dio, graphModel);
+        byte[] bytes = dio.toByteArray();
+
+        GraphModelImpl read = new Serialization().deserializeGraphModel(dio.reset(bytes));
+        ColumnStore readStore = read.store.nodeTable.store;
+        Assert.assertTrue(readStore.garbageQueue.contains(readStore.intToShort(index)));
+        Assert.assertEquals(readStore.size(), graphStore.nodeTable.store.size());
+        NodeImpl readNode = (NodeImpl) read.getGraph().getNode("0");
+        Assert.assertTrue(readNode.attributes.length <= index || readNode.attributes[index] == null);
+    }
+
+    @Test
+    public void testNodeSparseStorage() throws IOException, ClassNotFoundException {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphStore graphStore = graphModel.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "0", String.class, "title", null, Origin.DATA, true,
+                false, ColumnStorage.SPARSE);
+        graphStore.nodeTable.store.addColumn(col);
+
+        for (int i = 0; i < 10; i++) {
+            graphStore.addNode(new NodeImpl(String.valueOf(i), graphStore));
+        }
+        graphStore.getNode("5").setAttribute(col, "foo");
+
+        Serialization ser = new Serialization(graphModel);
+        DataInputOutput dio = new DataInputOutput();
+        ser.serializeGraphModel(dio, graphModel);
+        byte[] bytes = dio.toByteArray();
+
+        GraphModelImpl read = new Serialization().deserializeGraphModel(dio.reset(bytes));
+        Assert.assertTrue(read.deepEquals(graphModel));
+        Column readColumn = read.getNodeTable().getColumn("0");
+        Assert.assertEquals(readColumn.getStorage(), ColumnStorage.SPARSE);
+        Assert.assertEquals(read.getGraph().getNode("5").getAttribute(readColumn), "foo");
+        Assert.assertNull(read.getGraph().getNode("4").getAttribute(readColumn));
+        Assert.assertEquals(((ColumnImpl) readColumn).valueStore.size(), 1);
+    }
+
+    @Test
+    public void testNodeContiguousStorage() throws IOException, ClassNotFoundException {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphStore graphStore = graphModel.store;
+        ColumnImpl col = new ColumnImpl(graphStore.nodeTable, "0", double[].class, "title", null, Origin.DATA, false,
+                false, ColumnStorage.CONTIGUOUS);
+        graphStore.nodeTable.store.addColumn(col);
+
+        for (int i = 0; i < 10; i++) {
+            graphStore.addNode(new NodeImpl(String.valueOf(i), graphStore));
+        }
+        graphStore.getNode("5").setAttribute(col, new double[] { 1.0, 2.0 });
+
+        Serialization ser = new Serialization(graphModel);
+        DataInputOutput dio = new DataInputOutput();
+        ser.serializeGraphModel(dio, graphModel);
+        byte[] bytes = dio.toByteArray();
+
+        GraphModelImpl read = new Serialization().deserializeGraphModel(dio.reset(bytes));
+        Column readColumn = read.getNodeTable().getColumn("0");
+        Assert.assertEquals(readColumn.getStorage(), ColumnStorage.CONTIGUOUS);
+        Assert.assertEquals(read.getGraph().getNode("5").getAttribute(readColumn), new double[] { 1.0, 2.0 });
+        Assert.assertNull(read.getGraph().getNode("4").getAttribute(readColumn));
+        Assert.assertEquals(((ColumnImpl) readColumn).valueStore.size(), 1);
+    }
+
+    @Test
+    public void testNodeComputedColumn() throws IOException, ClassNotFoundException {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphStore graphStore = graphModel.store;
+        final Column score = graphStore.nodeTable.addColumn("score", Integer.class);
+        graphStore.nodeTable.addComputedColumn("computed", null, Integer.class, new ColumnFunction() {
+            @Override
+            public Object compute(Element element, Graph graph) {
+                return element.getAttribute(score);
+            }
+        }, true, score);
+
+        NodeImpl node = new NodeImpl("Foo", graphStore);
+        graphStore.addNode(node);
+        node.setAttribute(score, 1);
+
+        Serialization ser = new Serialization(graphModel);
+        DataInputOutput dio = new DataInputOutput();
+        ser.serializeGraphModel(dio, graphModel);
+        byte[] bytes = dio.toByteArray();
+
+        GraphModelImpl read = new Serialization().deserializeGraphModel(dio.reset(bytes));
+        Assert.assertFalse(read.getNodeTable().hasColumn("computed"));
+        Column readColumn = read.getNodeTable().addColumn("other", Integer.class);
+        Assert.assertNull(read.getGraph().getNode("Foo").getAttribute(readColumn));
+        Assert.assertEquals(read.getGraph().getNode("Foo").getAttribute("score"), 1);
+    }
+
     @Test
     public void testGraphFactory() throws IOException, ClassNotFoundException {
         GraphModelImpl graphModel = new GraphModelImpl();
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SparseValueStoreTest {
+
+    @Test
+    public void testEmpty() {
+        SparseValueStore store = new SparseValueStore(String.class);
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertNull(store.get(0));
+    }
+
+    @Test
+    public void testSetGet() {
+        SparseValueStore store = new SparseValueStore(String.class);
+        store.set(0, "foo");
+        store.set(100000, "bar");
+
+        Assert.assertEquals(store.get(0), "foo");
+        Assert.assertEquals(store.get(100000), "bar");
+        Assert.assertNull(store.get(1));
+        Assert.assertEquals(store.size(), 2);
+    }
+
+    @Test
+    public void testRemove() {
+        SparseValueStore store = new SparseValueStore(Integer.class);
+        store.set(5, 1);
+        store.set(5, null);
+
+        Assert.assertNull(store.get(5));
+        Assert.assertEquals(store.size(), 0);
+    }
+
+    @Test
+    public void testClear() {
+        SparseValueStore store = new SparseValueStore(Integer.class);
+        store.set(0, 1);
+        store.set(1, 2);
+        store.clear();
+
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertNull(store.get(0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSetWrongType() {
+        SparseValueStore store = new SparseValueStore(Integer.class);
+        store.set(0, "foo");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeStoreId() {
+        SparseValueStore store = new SparseValueStore(Integer.class);
+        store.get(-1);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testNullType() {
+        new SparseValueStore(null);
+    }
+}
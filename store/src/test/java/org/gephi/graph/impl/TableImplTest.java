@@ -17,9 +17,24 @@ package org.gephi.graph.impl;
 
 import java.awt.Color;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.gephi.graph.api.ArrayColumnBuffer;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.ColumnFunction;
+import org.gephi.graph.api.ColumnStorage;
+import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Origin;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
+import org.gephi.graph.api.TimeRepresentation;
+import org.gephi.graph.api.types.IntervalStringMap;
+import org.gephi.graph.api.types.TimestampDoubleMap;
+import org.gephi.graph.api.types.TimestampStringMap;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -57,6 +72,32 @@ public class TableImplTest {
         Assert.assertEquals(col.getDefaultValue(), 42);
     }
 
+    @Test
+    public void testAddColumnWithStorage() {
+        TableImpl<Node> table = new TableImpl<Node>(Node.class, false);
+        Column col = table.addColumn("Id", null, Integer.class, Origin.DATA, null, false, ColumnStorage.PRIMITIVE);
+        Assert.assertEquals(col.getStorage(), ColumnStorage.PRIMITIVE);
+        Assert.assertEquals(table.addColumn("Foo", Integer.class).getStorage(), ColumnStorage.DEFAULT);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddColumnUnsupportedStorage() {
+        TableImpl<Node> table = new TableImpl<Node>(Node.class, false);
+        table.addColumn("Id", null, String.class, Origin.DATA, null, false, ColumnStorage.PRIMITIVE);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddColumnUnsupportedDictionaryStorage() {
+        TableImpl<Node> table = new TableImpl<Node>(Node.class, false);
+        table.addColumn("Id", null, Integer.class, Origin.DATA, null, false, ColumnStorage.DICTIONARY);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testStorageCantBeNull() {
+        TableImpl<Node> table = new TableImpl<Node>(Node.class, false);
+        table.addColumn("Id", null, Integer.class, Origin.DATA, null, false, null);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testUnknownType() {
         TableImpl<Node> table = new TableImpl<Node>(Node.class, false);
@@ -278,4 +319,1067 @@ public class TableImplTest {
 
         Assert.assertEquals(table1.deepHashCode(), table2.deepHashCode());
     }
+
+    @Test
+    public void testReadDoubles() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("score", null, Double.class, Origin.DATA, null, false);
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 1; i < nodes.length; i++) {
+            nodes[i].setAttribute(col, (double) i);
+        }
+
+        double[] values = new double[nodes.length];
+        int[] storeIds = new int[nodes.length];
+        int count = graphStore.nodeTable.readDoubles(col, graphStore.getView(), values, storeIds);
+
+        Assert.assertEquals(count, nodes.length);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(storeIds[i], nodes[i].getStoreId());
+            if (i == 0) {
+                Assert.assertTrue(Double.isNaN(values[i]));
+            } else {
+                Assert.assertEquals(values[i], (double) i);
+            }
+        }
+    }
+
+    @Test
+    public void testReadDoublesPrimitiveStorage() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable
+                .addColumn("score", null, Integer.class, Origin.DATA, 42, false, ColumnStorage.PRIMITIVE);
+        Node[] nodes = graphStore.getNodes().toArray();
+        nodes[0].setAttribute(col, 5);
+
+        double[] values = new double[nodes.length];
+        graphStore.nodeTable.readDoubles(col, graphStore.getView(), values, null);
+        Assert.assertEquals(values[0], 5.0);
+        Assert.assertEquals(values[1], 42.0);
+    }
+
+    @Test
+    public void testReadDoublesView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("score", null, Double.class, Origin.DATA, null, false);
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (Node n : nodes) {
+            n.setAttribute(col, (double) n.getStoreId());
+        }
+
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(nodes[1]);
+
+        double[] values = new double[1];
+        int[] storeIds = new int[1];
+        Assert.assertEquals(graphStore.nodeTable.readDoubles(col, view, values, storeIds), 1);
+        Assert.assertEquals(storeIds[0], nodes[1].getStoreId());
+        Assert.assertEquals(values[0], (double) nodes[1].getStoreId());
+    }
+
+    @Test
+    public void testReadIntsLongsStrings() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column intCol = graphStore.nodeTable.addColumn("int", null, Integer.class, Origin.DATA, null, true);
+        Column shortCol = graphStore.nodeTable.addColumn("short", null, Short.class, Origin.DATA, (short) 3, false);
+        Column stringCol = graphStore.nodeTable
+                .addColumn("string", null, String.class, Origin.DATA, "foo", false, ColumnStorage.DICTIONARY);
+        Node node = graphStore.getNodes().toArray()[0];
+        node.setAttribute(intCol, 7);
+        node.setAttribute(stringCol, "bar");
+
+        int count = graphStore.getNodeCount();
+        int[] ints = new int[count];
+        long[] longs = new long[count];
+        String[] strings = new String[count];
+        graphStore.nodeTable.readInts(intCol, graphStore.getView(), ints, null);
+        graphStore.nodeTable.readLongs(shortCol, graphStore.getView(), longs, null);
+        graphStore.nodeTable.readStrings(stringCol, graphStore.getView(), strings, null);
+
+        Assert.assertEquals(ints[0], 7);
+        Assert.assertEquals(ints[1], 0);
+        Assert.assertEquals(longs[0], 3l);
+        Assert.assertEquals(strings[0], "bar");
+        Assert.assertEquals(strings[1], "foo");
+    }
+
+    @Test
+    public void testReadEdges() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        double[] weights = new double[graphStore.getEdgeCount()];
+        Column weightCol = graphStore.edgeTable.getColumn(GraphStoreConfiguration.EDGE_WEIGHT_INDEX);
+        Assert.assertEquals(graphStore.edgeTable.readDoubles(weightCol, graphStore.getView(), weights, null), weights.length);
+        int i = 0;
+        for (Edge e : graphStore.getEdges()) {
+            Assert.assertEquals(weights[i++], e.getWeight());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testReadDoublesNotNumber() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("string", String.class);
+        graphStore.nodeTable.readDoubles(col, graphStore.getView(), new double[graphStore.getNodeCount()], null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testReadIntsWrongType() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("long", Long.class);
+        graphStore.nodeTable.readInts(col, graphStore.getView(), new int[graphStore.getNodeCount()], null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testReadDoublesArrayTooSmall() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("score", Double.class);
+        graphStore.nodeTable.readDoubles(col, graphStore.getView(), new double[1], null);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testReadDoublesNoGraph() {
+        TableImpl<Node> table = new TableImpl<Node>(Node.class, false);
+        Column col = table.addColumn("score", Double.class);
+        table.readDoubles(col, new GraphStore().getView(), new double[0], null);
+    }
+
+    @Test
+    public void testWriteDoubles() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("score", null, Double.class, Origin.DATA, null, true);
+        int count = graphStore.getNodeCount();
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        values[1] = Double.NaN;
+
+        Assert.assertEquals(graphStore.nodeTable.writeDoubles(col, graphStore.getView(), values, null), count);
+
+        Node[] nodes = graphStore.getNodes().toArray();
+        Assert.assertEquals(nodes[0].getAttribute(col), 0.0);
+        Assert.assertNull(nodes[1].getAttribute(col));
+        Assert.assertEquals(nodes[2].getAttribute(col), 2.0);
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.mainIndex.count(col, 2.0), 1);
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.mainIndex.count(col, null), 1);
+    }
+
+    @Test
+    public void testWriteDoublesWeight() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column weightCol = graphStore.edgeTable.getColumn(GraphStoreConfiguration.EDGE_WEIGHT_INDEX);
+        Edge edge = graphStore.getEdges().toArray()[0];
+
+        graphStore.edgeTable.writeDoubles(weightCol, graphStore.getView(), new double[] { 7.0 }, new int[] { edge
+                .getStoreId() });
+        Assert.assertEquals(edge.getWeight(), 7.0);
+        double[] weights = new double[graphStore.getModel().getMaxEdgeStoreId()];
+        graphStore.getModel().getEdgeWeights(weights);
+        Assert.assertEquals(weights[edge.getStoreId()], 7.0);
+    }
+
+    @Test
+    public void testWriteDoublesConcurrentSetAttribute() throws Exception {
+        final GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        final Column col = graphStore.nodeTable.addColumn("score", null, Double.class, Origin.DATA, null, true);
+        final Node node = graphStore.getNodes().toArray()[0];
+        final int[] storeIds = new int[] { node.getStoreId() };
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 10000; i++) {
+                    graphStore.nodeTable.writeDoubles(col, graphStore.getView(), new double[] { i }, storeIds);
+                }
+            }
+        });
+        writer.start();
+        for (int i = 0; i < 10000; i++) {
+            node.setAttribute(col, -1.0 - i);
+        }
+        writer.join();
+
+        // The index holds exactly the element's current value
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.count(col, node.getAttribute(col)), 1);
+        int total = 0;
+        for (Object value : index.values(col)) {
+            if (value != null) {
+                total += index.count(col, value);
+            }
+        }
+        Assert.assertEquals(total, 1);
+    }
+
+    @Test
+    public void testWriteDoublesBulk() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        graphStore.addAllNodes(Arrays.asList(GraphGenerator.generateNodeList(2000, graphStore)));
+        Column col = graphStore.nodeTable.addColumn("score", null, Double.class, Origin.DATA, null, true);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Node node = graphStore.getNodes().toArray()[0];
+        node.setAttribute(col, -1.0);
+
+        double[] values = new double[graphStore.getNodeCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 10;
+        }
+        graphStore.nodeTable.writeDoubles(col, graphStore.getView(), values, null);
+
+        // Rebuilt once after the write
+        Assert.assertFalse(index.isStale((ColumnImpl) col));
+        Assert.assertEquals(index.count(col, -1.0), 0);
+        Assert.assertEquals(index.count(col, 3.0), 200);
+        Assert.assertEquals(index.countElements(col), 2000);
+
+        node.setAttribute(col, 3.0);
+        Assert.assertEquals(index.count(col, 3.0), 201);
+    }
+
+    @Test
+    public void testWriteDoublesBulkSuspendedIndexing() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        graphStore.addAllNodes(Arrays.asList(GraphGenerator.generateNodeList(2000, graphStore)));
+        Column col = graphStore.nodeTable.addColumn("score", null, Double.class, Origin.DATA, null, true);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        graphStore.nodeTable.suspendIndexing();
+        graphStore.nodeTable.writeDoubles(col, graphStore.getView(), new double[graphStore.getNodeCount()], null);
+        Assert.assertTrue(index.isStale((ColumnImpl) col));
+
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertFalse(index.isStale((ColumnImpl) col));
+        Assert.assertEquals(index.count(col, 0.0), 2000);
+    }
+
+    @Test
+    public void testWriteDoublesBulkConcurrentSetAttribute() throws Exception {
+        final GraphStore graphStore = new GraphModelImpl().store;
+        graphStore.addAllNodes(Arrays.asList(GraphGenerator.generateNodeList(2000, graphStore)));
+        final Column col = graphStore.nodeTable.addColumn("score", null, Double.class, Origin.DATA, null, true);
+        final Node[] nodes = graphStore.getNodes().toArray();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                double[] values = new double[nodes.length];
+                for (int i = 0; i < 50; i++) {
+                    Arrays.fill(values, i);
+                    graphStore.nodeTable.writeDoubles(col, graphStore.getView(), values, null);
+                }
+            }
+        });
+        writer.start();
+        for (int i = 0; i < 10000; i++) {
+            nodes[i % 10].setAttribute(col, -1.0 - i);
+        }
+        writer.join();
+
+        // The index holds exactly the elements' current values
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Map<Object, Integer> counts = new HashMap<Object, Integer>();
+        for (Node node : nodes) {
+            Integer count = counts.get(node.getAttribute(col));
+            counts.put(node.getAttribute(col), count == null ? 1 : count + 1);
+        }
+        for (Map.Entry<Object, Integer> entry : counts.entrySet()) {
+            Assert.assertEquals(index.count(col, entry.getKey()), (int) entry.getValue());
+        }
+        Assert.assertEquals(index.countElements(col), nodes.length);
+    }
+
+    @Test
+    public void testWriteDoublesStoreIds() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable
+                .addColumn("score", null, Double.class, Origin.DATA, null, true, ColumnStorage.PRIMITIVE);
+        Node[] nodes = graphStore.getNodes().toArray();
+        nodes[1].setAttribute(col, 1.0);
+
+        graphStore.nodeTable.writeDoubles(col, graphStore.getView(), new double[] { 5.0 }, new int[] { nodes[1]
+                .getStoreId() });
+        Assert.assertEquals(nodes[1].getAttribute(col), 5.0);
+        Assert.assertNull(nodes[0].getAttribute(col));
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.mainIndex.count(col, 1.0), 0);
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.mainIndex.count(col, 5.0), 1);
+    }
+
+    @Test
+    public void testWriteIntsLongsStrings() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column intCol = graphStore.nodeTable.addColumn("int", Integer.class);
+        Column longCol = graphStore.nodeTable.addColumn("long", Long.class);
+        Column stringCol = graphStore.nodeTable.addColumn("string", String.class);
+        Node node = graphStore.getNodes().toArray()[0];
+        int[] storeIds = new int[] { node.getStoreId() };
+
+        graphStore.nodeTable.writeInts(intCol, graphStore.getView(), new int[] { 1 }, storeIds);
+        graphStore.nodeTable.writeLongs(longCol, graphStore.getView(), new long[] { 2l }, storeIds);
+        graphStore.nodeTable.writeStrings(stringCol, graphStore.getView(), new String[] { "foo" }, storeIds);
+
+        Assert.assertEquals(node.getAttribute(intCol), 1);
+        Assert.assertEquals(node.getAttribute(longCol), 2l);
+        Assert.assertEquals(node.getAttribute(stringCol), "foo");
+    }
+
+    @Test
+    public void testWriteDoublesVersion() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        ColumnImpl col = (ColumnImpl) graphStore.nodeTable.addColumn("score", Double.class);
+        ColumnObserverImpl observer = col.createColumnObserver(true);
+        int version = col.version.version.get();
+
+        graphStore.nodeTable.writeDoubles(col, graphStore.getView(), new double[graphStore.getNodeCount()], null);
+        Assert.assertEquals(col.version.version.get(), version + 1);
+        Assert.assertTrue(observer.hasColumnChanged());
+        Assert.assertEquals(observer.getDiff().getTouchedElements().toArray().length, graphStore.getNodeCount());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWriteDoublesWrongType() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("score", Float.class);
+        graphStore.nodeTable.writeDoubles(col, graphStore.getView(), new double[graphStore.getNodeCount()], null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWriteDoublesDuplicateStoreIds() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("score", Double.class);
+        graphStore.nodeTable.writeDoubles(col, graphStore.getView(), new double[2], new int[] { 0, 0 });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWriteDoublesNotInView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable.addColumn("score", Double.class);
+        GraphViewImpl view = graphStore.viewStore.createView();
+        graphStore.nodeTable.writeDoubles(col, view, new double[1], new int[] { 0 });
+    }
+
+    @Test
+    public void testGetArrayBuffer() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Column col = graphStore.nodeTable
+                .addColumn("vector", null, float[].class, Origin.DATA, null, false, ColumnStorage.CONTIGUOUS);
+        for (Node n : graphStore.getNodes()) {
+            n.setAttribute(col, new float[] { n.getStoreId(), -n.getStoreId() });
+        }
+
+        ArrayColumnBuffer buffer = graphStore.nodeTable.getArrayBuffer(col);
+        float[] array = (float[]) buffer.getArray();
+        Assert.assertEquals(buffer.getWidth(), 2);
+        for (Node n : graphStore.getNodes()) {
+            int offset = buffer.getOffset(n.getStoreId());
+            Assert.assertEquals(array[offset], (float) n.getStoreId());
+            Assert.assertEquals(array[offset + 1], (float) -n.getStoreId());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetArrayBufferWrongStorage() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("vector", float[].class);
+        graphStore.nodeTable.getArrayBuffer(col);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddContiguousColumnUnsupportedType() {
+        GraphStore graphStore = new GraphStore();
+        graphStore.nodeTable
+                .addColumn("vector", null, String[].class, Origin.DATA, null, false, ColumnStorage.CONTIGUOUS);
+    }
+
+    @Test
+    public void testSuspendIndexing() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("age", Integer.class);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        graphStore.nodeTable.suspendIndexing();
+        Assert.assertTrue(graphStore.nodeTable.isIndexingSuspended());
+        for (int i = 0; i < 10; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(col, i % 2);
+            graphStore.addNode(n);
+        }
+        graphStore.getNode("0").setAttribute(col, 1);
+        graphStore.removeNode(graphStore.getNode("9"));
+        Assert.assertTrue(index.isStale((ColumnImpl) col));
+
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertFalse(graphStore.nodeTable.isIndexingSuspended());
+        Assert.assertFalse(index.isStale((ColumnImpl) col));
+        Assert.assertEquals(index.count(col, 0), 4);
+        Assert.assertEquals(index.count(col, 1), 5);
+        Assert.assertEquals(index.countElements(col), 9);
+
+        graphStore.getNode("1").setAttribute(col, 0);
+        Assert.assertFalse(index.isStale((ColumnImpl) col));
+        Assert.assertEquals(index.count(col, 0), 5);
+    }
+
+    @Test
+    public void testSuspendIndexingQuery() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("age", Integer.class);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Node n = graphStore.factory.newNode("0");
+        graphStore.addNode(n);
+
+        graphStore.nodeTable.suspendIndexing();
+        n.setAttribute(col, 5);
+        Assert.assertEquals(index.count(col, 5), 1);
+        Assert.assertFalse(index.isStale((ColumnImpl) col));
+
+        n.setAttribute(col, 6);
+        Assert.assertTrue(index.isStale((ColumnImpl) col));
+        Assert.assertEquals(index.count(col, 5), 0);
+        Assert.assertEquals(index.count(col, 6), 1);
+        graphStore.nodeTable.resumeIndexing();
+    }
+
+    @Test
+    public void testSuspendIndexingView() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("age", Integer.class);
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        IndexImpl<Node> viewIndex = graphStore.nodeTable.store.indexStore.getIndex(graph);
+
+        graphStore.nodeTable.suspendIndexing();
+        for (int i = 0; i < 10; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(col, i);
+            graphStore.addNode(n);
+            if (i < 5) {
+                graph.addNode(n);
+            }
+        }
+        Assert.assertTrue(viewIndex.isStale((ColumnImpl) col));
+
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertFalse(viewIndex.isStale((ColumnImpl) col));
+        Assert.assertEquals(viewIndex.countElements(col), 5);
+        Assert.assertEquals(viewIndex.count(col, 4), 1);
+        Assert.assertEquals(viewIndex.count(col, 5), 0);
+    }
+
+    @Test
+    public void testTextIndexingLabel() {
+        GraphStore graphStore = new GraphStore();
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        n1.setLabel("Paris");
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+
+        Column label = graphStore.nodeTable.getColumn("label");
+        graphStore.nodeTable.setTextIndexing(label, true);
+        Assert.assertTrue(graphStore.nodeTable.isTextIndexing(label));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.getByPrefix(label, "Par", false), Arrays.asList(n1));
+
+        n2.setLabel("Parma");
+        Assert.assertEquals(index.getByPrefix(label, "Parm", false), Arrays.asList(n2));
+        n1.setLabel("Lyon");
+        Assert.assertTrue(index.getBySubstring(label, "ris", false).isEmpty());
+        Assert.assertEquals(index.getBySubstring(label, "YO", true), Arrays.asList(n1));
+
+        graphStore.removeNode(n2);
+        Assert.assertTrue(index.getByPrefix(label, "Par", false).isEmpty());
+
+        graphStore.nodeTable.setTextIndexing(label, false);
+        Assert.assertFalse(graphStore.nodeTable.isTextIndexing(label));
+    }
+
+    @Test
+    public void testTextIndexingColumn() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("city", String.class);
+        graphStore.nodeTable.setTextIndexing(col, true);
+
+        Node n1 = graphStore.factory.newNode("1");
+        n1.setAttribute(col, "Paris");
+        graphStore.addNode(n1);
+        Node n2 = graphStore.factory.newNode("2");
+        graphStore.addNode(n2);
+        n2.setAttribute(col, "Lyon");
+
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.getByPrefix(col, "P", false), Arrays.asList(n1));
+        Assert.assertEquals(index.getBySubstring(col, "yo", false), Arrays.asList(n2));
+
+        graphStore.nodeTable.writeStrings(col, graphStore.getView(), new String[] { "Lille" }, new int[] { n1
+                .getStoreId() });
+        Assert.assertEquals(index.getByPrefix(col, "Lil", false), Arrays.asList(n1));
+        Assert.assertTrue(index.getByPrefix(col, "P", false).isEmpty());
+
+        n1.removeAttribute(col);
+        Assert.assertTrue(index.getByPrefix(col, "Lil", false).isEmpty());
+    }
+
+    @Test
+    public void testTextIndexingSuspended() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("city", String.class);
+        graphStore.nodeTable.setTextIndexing(col, true);
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+
+        graphStore.nodeTable.suspendIndexing();
+        Node n1 = graphStore.factory.newNode("1");
+        n1.setAttribute(col, "Paris");
+        graphStore.addNode(n1);
+        Assert.assertTrue(indexStore.textIndexes.get((ColumnImpl) col).stale);
+
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertFalse(indexStore.textIndexes.get((ColumnImpl) col).stale);
+        Assert.assertEquals(indexStore.mainIndex.getByPrefix(col, "Pa", false), Arrays.asList(n1));
+    }
+
+    @Test(timeOut = 10000)
+    public void testTextIndexingQueryWhileWriting() throws Exception {
+        GraphStore graphStore = new GraphStore();
+        final Column col = graphStore.nodeTable.addColumn("city", String.class);
+        graphStore.nodeTable.setTextIndexing(col, true);
+        final IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Node n1 = graphStore.factory.newNode("1");
+        n1.setAttribute(col, "Paris");
+        graphStore.addNode(n1);
+        graphStore.nodeTable.suspendIndexing();
+        n1.setAttribute(col, "Lyon");
+
+        // The rebuild waits for the writer, which holds the element
+        final int[] count = new int[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = index.getByPrefix(col, "Lil", false).size();
+            }
+        });
+        synchronized (n1) {
+            reader.start();
+            Thread.sleep(100);
+            n1.setAttribute(col, "Lille");
+        }
+        reader.join();
+        Assert.assertEquals(count[0], 1);
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertTrue(index.getByPrefix(col, "Pa", false).isEmpty());
+    }
+
+    @Test
+    public void testTextIndexingView() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("city", String.class);
+        graphStore.nodeTable.setTextIndexing(col, true);
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        n1.setAttribute(col, "Paris");
+        n2.setAttribute(col, "Parma");
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        graph.addNode(n2);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graph);
+        Assert.assertEquals(index.getByPrefix(col, "Par", false), Arrays.asList(n2));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTextIndexingNotString() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("age", Integer.class);
+        graphStore.nodeTable.setTextIndexing(col, true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetByPrefixNoTextIndex() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("city", String.class);
+        graphStore.nodeTable.store.indexStore.mainIndex.getByPrefix(col, "P", false);
+    }
+
+    @Test
+    public void testMemberIndexing() {
+        GraphStore graphStore = new GraphStore();
+        Column tags = graphStore.nodeTable.addColumn("tags", String[].class);
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        n1.setAttribute(tags, new String[] { "red", "blue" });
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+
+        graphStore.nodeTable.setMemberIndexing(tags, true);
+        Assert.assertTrue(graphStore.nodeTable.isMemberIndexing(tags));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.getContainingAny(tags, "blue"), Arrays.asList(n1));
+
+        n2.setAttribute(tags, new String[] { "blue", "green" });
+        Assert.assertEquals(index.getContainingAny(tags, "blue").size(), 2);
+        Assert.assertEquals(index.getContainingAll(tags, "blue", "green"), Arrays.asList(n2));
+
+        n1.setAttribute(tags, new String[] { "green" });
+        Assert.assertTrue(index.getContainingAny(tags, "red").isEmpty());
+        Assert.assertEquals(index.getContainingAll(tags, "green").size(), 2);
+
+        graphStore.removeNode(n2);
+        Assert.assertTrue(index.getContainingAny(tags, "blue").isEmpty());
+
+        n1.removeAttribute(tags);
+        Assert.assertTrue(index.getContainingAny(tags, "green").isEmpty());
+
+        graphStore.nodeTable.setMemberIndexing(tags, false);
+        Assert.assertFalse(graphStore.nodeTable.isMemberIndexing(tags));
+    }
+
+    @Test
+    public void testMemberIndexingSuspended() {
+        GraphStore graphStore = new GraphStore();
+        Column communities = graphStore.nodeTable.addColumn("communities", int[].class);
+        graphStore.nodeTable.setMemberIndexing(communities, true);
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+
+        graphStore.nodeTable.suspendIndexing();
+        Node n1 = graphStore.factory.newNode("1");
+        n1.setAttribute(communities, new int[] { 1, 2 });
+        graphStore.addNode(n1);
+        Assert.assertTrue(indexStore.memberIndexes.get((ColumnImpl) communities).stale);
+
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertFalse(indexStore.memberIndexes.get((ColumnImpl) communities).stale);
+        Assert.assertEquals(indexStore.mainIndex.getContainingAll(communities, 1, 2), Arrays.asList(n1));
+    }
+
+    @Test(timeOut = 10000)
+    public void testMemberIndexingQueryWhileWriting() throws Exception {
+        GraphStore graphStore = new GraphStore();
+        final Column tags = graphStore.nodeTable.addColumn("tags", String[].class);
+        graphStore.nodeTable.setMemberIndexing(tags, true);
+        final IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Node n1 = graphStore.factory.newNode("1");
+        n1.setAttribute(tags, new String[] { "red" });
+        graphStore.addNode(n1);
+        graphStore.nodeTable.suspendIndexing();
+        n1.setAttribute(tags, new String[] { "blue" });
+
+        // The rebuild waits for the writer, which holds the element
+        final int[] count = new int[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = index.getContainingAny(tags, "green").size();
+            }
+        });
+        synchronized (n1) {
+            reader.start();
+            Thread.sleep(100);
+            n1.setAttribute(tags, new String[] { "green" });
+        }
+        reader.join();
+        Assert.assertEquals(count[0], 1);
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertTrue(index.getContainingAny(tags, "red", "blue").isEmpty());
+    }
+
+    @Test
+    public void testMemberIndexingView() {
+        GraphStore graphStore = new GraphStore();
+        Column tags = graphStore.nodeTable.addColumn("tags", String[].class);
+        graphStore.nodeTable.setMemberIndexing(tags, true);
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        n1.setAttribute(tags, new String[] { "red" });
+        n2.setAttribute(tags, new String[] { "red" });
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        graph.addNode(n2);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graph);
+        Assert.assertEquals(index.getContainingAny(tags, "red"), Arrays.asList(n2));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMemberIndexingNotArray() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("city", String.class);
+        graphStore.nodeTable.setMemberIndexing(col, true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetContainingNoMemberIndex() {
+        GraphStore graphStore = new GraphStore();
+        Column tags = graphStore.nodeTable.addColumn("tags", String[].class);
+        graphStore.nodeTable.store.indexStore.mainIndex.getContainingAny(tags, "red");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetContainingNoValues() {
+        GraphStore graphStore = new GraphStore();
+        Column tags = graphStore.nodeTable.addColumn("tags", String[].class);
+        graphStore.nodeTable.setMemberIndexing(tags, true);
+        graphStore.nodeTable.store.indexStore.mainIndex.getContainingAll(tags);
+    }
+
+    @Test
+    public void testTemporalIndexing() {
+        GraphStore graphStore = new GraphStore();
+        Column status = graphStore.nodeTable.addColumn("status", TimestampStringMap.class);
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        n1.setAttribute(status, "active", 1.0);
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+
+        graphStore.nodeTable.setTemporalIndexing(status, true);
+        Assert.assertTrue(graphStore.nodeTable.isTemporalIndexing(status));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.getAt(status, "active", 1.0), Arrays.asList(n1));
+
+        n2.setAttribute(status, "active", 2.0);
+        n1.setAttribute(status, "idle", 2.0);
+        Assert.assertEquals(index.getAt(status, "active", 2.0), Arrays.asList(n2));
+        Assert.assertEquals(index.getAt(status, "idle", 2.0), Arrays.asList(n1));
+        Assert.assertEquals(index.getDuring(status, "active", new Interval(0.0, 5.0)).size(), 2);
+
+        // Overwrite the value at an existing time
+        n1.setAttribute(status, "active", 2.0);
+        Assert.assertTrue(index.getAt(status, "idle", 2.0).isEmpty());
+        Assert.assertEquals(index.getAt(status, "active", 2.0).size(), 2);
+
+        n1.removeAttribute(status, 2.0);
+        Assert.assertEquals(index.getAt(status, "active", 2.0), Arrays.asList(n2));
+
+        graphStore.removeNode(n2);
+        Assert.assertTrue(index.getAt(status, "active", 2.0).isEmpty());
+
+        n1.removeAttribute(status);
+        Assert.assertTrue(index.getAt(status, "active", 1.0).isEmpty());
+
+        graphStore.nodeTable.setTemporalIndexing(status, false);
+        Assert.assertFalse(graphStore.nodeTable.isTemporalIndexing(status));
+    }
+
+    @Test
+    public void testTemporalIndexingRange() {
+        GraphStore graphStore = new GraphStore();
+        Column score = graphStore.nodeTable.addColumn("score", TimestampDoubleMap.class);
+        graphStore.nodeTable.setTemporalIndexing(score, true);
+        for (int i = 0; i < 10; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(score, (double) i, 1.0);
+            n.setAttribute(score, (double) i * 10, 2.0);
+            graphStore.addNode(n);
+        }
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        Assert.assertEquals(index.getRangeDuring(score, 2.0, true, 4.0, true, new Interval(1.0, 1.0)).size(), 3);
+        Assert.assertEquals(index.getRangeDuring(score, 20.0, true, 40.0, false, new Interval(2.0, 2.0)).size(), 2);
+        Assert.assertEquals(index.getRangeDuring(score, 5.0, false, 30.0, true, new Interval(1.0, 2.0)).size(), 7);
+
+        TimestampDoubleMap map = new TimestampDoubleMap();
+        map.put(3.0, 100.0);
+        graphStore.getNode("0").setAttribute(score, map);
+        Assert.assertEquals(index.getAt(score, 100.0, 3.0), Arrays.asList(graphStore.getNode("0")));
+        Assert.assertTrue(index.getAt(score, 0.0, 1.0).isEmpty());
+    }
+
+    @Test
+    public void testTemporalIndexingIntervals() {
+        Configuration config = new Configuration();
+        config.setTimeRepresentation(TimeRepresentation.INTERVAL);
+        GraphStore graphStore = new GraphModelImpl(config).store;
+        Column status = graphStore.nodeTable.addColumn("status", IntervalStringMap.class);
+        graphStore.nodeTable.setTemporalIndexing(status, true);
+        Node n1 = graphStore.factory.newNode("1");
+        graphStore.addNode(n1);
+        n1.setAttribute(status, "active", new Interval(1.0, 5.0));
+
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.getAt(status, "active", 3.0), Arrays.asList(n1));
+        Assert.assertTrue(index.getAt(status, "active", 6.0).isEmpty());
+
+        n1.removeAttribute(status, new Interval(1.0, 5.0));
+        Assert.assertTrue(index.getAt(status, "active", 3.0).isEmpty());
+    }
+
+    @Test
+    public void testTemporalIndexingSuspended() {
+        GraphStore graphStore = new GraphStore();
+        Column status = graphStore.nodeTable.addColumn("status", TimestampStringMap.class);
+        graphStore.nodeTable.setTemporalIndexing(status, true);
+        Node n1 = graphStore.factory.newNode("1");
+        graphStore.addNode(n1);
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+
+        graphStore.nodeTable.suspendIndexing();
+        n1.setAttribute(status, "active", 1.0);
+        Assert.assertTrue(indexStore.temporalIndexes.get((ColumnImpl) status).stale);
+
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertFalse(indexStore.temporalIndexes.get((ColumnImpl) status).stale);
+        Assert.assertEquals(indexStore.mainIndex.getAt(status, "active", 1.0), Arrays.asList(n1));
+    }
+
+    @Test(timeOut = 10000)
+    public void testTemporalIndexingQueryWhileWriting() throws Exception {
+        GraphStore graphStore = new GraphStore();
+        final Column status = graphStore.nodeTable.addColumn("status", TimestampStringMap.class);
+        graphStore.nodeTable.setTemporalIndexing(status, true);
+        final IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Node n1 = graphStore.factory.newNode("1");
+        graphStore.addNode(n1);
+        graphStore.nodeTable.suspendIndexing();
+        n1.setAttribute(status, "active", 1.0);
+
+        // The rebuild waits for the writer, which holds the element
+        final int[] count = new int[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = index.getAt(status, "idle", 2.0).size();
+            }
+        });
+        synchronized (n1) {
+            reader.start();
+            Thread.sleep(100);
+            n1.setAttribute(status, "idle", 2.0);
+        }
+        reader.join();
+        Assert.assertEquals(count[0], 1);
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertEquals(index.getAt(status, "active", 1.0), Arrays.asList(n1));
+    }
+
+    @Test
+    public void testTemporalIndexingView() {
+        GraphStore graphStore = new GraphStore();
+        Column status = graphStore.nodeTable.addColumn("status", TimestampStringMap.class);
+        graphStore.nodeTable.setTemporalIndexing(status, true);
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+        n1.setAttribute(status, "active", 1.0);
+        n2.setAttribute(status, "active", 1.0);
+
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        graph.addNode(n2);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graph);
+        Assert.assertEquals(index.getAt(status, "active", 1.0), Arrays.asList(n2));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTemporalIndexingNotDynamic() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("status", String.class);
+        graphStore.nodeTable.setTemporalIndexing(col, true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTemporalIndexingWrongValueType() {
+        GraphStore graphStore = new GraphStore();
+        Column score = graphStore.nodeTable.addColumn("score", TimestampDoubleMap.class);
+        graphStore.nodeTable.setTemporalIndexing(score, true);
+        graphStore.nodeTable.store.indexStore.mainIndex.getAt(score, 1, 1.0);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testTemporalIndexingRangeNotNumber() {
+        GraphStore graphStore = new GraphStore();
+        Column status = graphStore.nodeTable.addColumn("status", TimestampStringMap.class);
+        graphStore.nodeTable.setTemporalIndexing(status, true);
+        graphStore.nodeTable.store.indexStore.mainIndex.getRangeDuring(status, null, true, null, true, new Interval(
+                1.0, 2.0));
+    }
+
+    @Test
+    public void testLazyIndexing() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("age", Integer.class);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Node n = graphStore.factory.newNode("0");
+        graphStore.addNode(n);
+
+        graphStore.nodeTable.setLazyIndexing(col, true);
+        Assert.assertTrue(graphStore.nodeTable.isLazyIndexing(col));
+        n.setAttribute(col, 5);
+        Assert.assertTrue(index.isStale((ColumnImpl) col));
+
+        graphStore.nodeTable.suspendIndexing();
+        graphStore.nodeTable.resumeIndexing();
+        Assert.assertTrue(index.isStale((ColumnImpl) col));
+        Assert.assertEquals(index.count(col, 5), 1);
+        Assert.assertFalse(index.isStale((ColumnImpl) col));
+
+        n.setAttribute(col, 6);
+        graphStore.nodeTable.setLazyIndexing(col, false);
+        Assert.assertFalse(graphStore.nodeTable.isLazyIndexing(col));
+        Assert.assertFalse(index.isStale((ColumnImpl) col));
+        Assert.assertEquals(index.count(col, 6), 1);
+    }
+
+    @Test(timeOut = 10000)
+    public void testLazyIndexingQueryWhileWriting() throws Exception {
+        GraphStore graphStore = new GraphStore();
+        final Column col = graphStore.nodeTable.addColumn("age", Integer.class);
+        final IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Node n = graphStore.factory.newNode("0");
+        graphStore.addNode(n);
+        graphStore.nodeTable.setLazyIndexing(col, true);
+        n.setAttribute(col, 5);
+
+        // The rebuild waits for the writer, which holds the element
+        final int[] count = new int[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = index.count(col, 6);
+            }
+        });
+        synchronized (n) {
+            reader.start();
+            Thread.sleep(100);
+            n.setAttribute(col, 6);
+        }
+        reader.join();
+        Assert.assertEquals(count[0], 1);
+        Assert.assertEquals(index.count(col, 5), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testLazyIndexingNotIndexed() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addColumn("age", null, Integer.class, Origin.DATA, null, false);
+        graphStore.nodeTable.setLazyIndexing(col, true);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testSuspendIndexingNoGraph() {
+        TableImpl<Node> table = new TableImpl<Node>(Node.class, true);
+        table.suspendIndexing();
+    }
+
+    @Test
+    public void testAddComputedColumn() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addComputedColumn("degree", null, Integer.class, new DegreeFunction(), false);
+        Assert.assertEquals(col.getStorage(), ColumnStorage.COMPUTED);
+        Assert.assertTrue(col.isReadOnly());
+
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+        Assert.assertEquals(n1.getAttribute(col), 0);
+        Assert.assertEquals(((ColumnImpl) col).valueStore.size(), 1);
+
+        graphStore.addEdge(graphStore.factory.newEdge(n1, n2));
+        Assert.assertEquals(n1.getAttribute(col), 1);
+        Assert.assertEquals(n2.getAttribute(col), 1);
+    }
+
+    @Test
+    public void testComputedColumnSourceColumn() {
+        GraphStore graphStore = new GraphStore();
+        final Column score = graphStore.nodeTable.addColumn("score", Double.class);
+        Column col = graphStore.nodeTable.addComputedColumn("double", null, Double.class, new ColumnFunction() {
+            @Override
+            public Object compute(Element element, Graph graph) {
+                Double value = (Double) element.getAttribute(score);
+                return value != null ? value * 2 : null;
+            }
+        }, false, score);
+
+        Node n1 = graphStore.factory.newNode("1");
+        graphStore.addNode(n1);
+        Assert.assertNull(n1.getAttribute(col));
+
+        n1.setAttribute(score, 2.0);
+        Assert.assertEquals(n1.getAttribute(col), 4.0);
+        Assert.assertEquals(n1.getAttribute(col), 4.0);
+
+        n1.setAttribute(score, 3.0);
+        Assert.assertEquals(n1.getAttribute(col), 6.0);
+    }
+
+    @Test
+    public void testComputedColumnIndexed() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addComputedColumn("degree", null, Integer.class, new DegreeFunction(), true);
+        IndexImpl index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        Node n3 = graphStore.factory.newNode("3");
+        graphStore.addAllNodes(Arrays.asList(new Node[] { n1, n2, n3 }));
+        Assert.assertEquals(index.count(col, 0), 3);
+
+        graphStore.addEdge(graphStore.factory.newEdge(n1, n2));
+        Assert.assertEquals(index.count(col, 0), 1);
+        Assert.assertEquals(index.count(col, 1), 2);
+
+        graphStore.removeNode(n3);
+        Assert.assertEquals(index.count(col, 0), 0);
+        Assert.assertEquals(index.countElements(col), 2);
+    }
+
+    @Test
+    public void testComputedColumnIndexedView() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addComputedColumn("degree", null, Integer.class, new DegreeFunction(), true);
+
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+        graphStore.addEdge(graphStore.factory.newEdge(n1, n2));
+
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(n1);
+        IndexImpl index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+        Assert.assertEquals(index.count(col, 1), 1);
+
+        view.addNode(n2);
+        Assert.assertEquals(index.count(col, 1), 2);
+    }
+
+    @Test(expectedExceptions = RuntimeException.class)
+    public void testComputedColumnReadOnly() {
+        GraphStore graphStore = new GraphStore();
+        Column col = graphStore.nodeTable.addComputedColumn("degree", null, Integer.class, new DegreeFunction(), false);
+        Node n1 = graphStore.factory.newNode("1");
+        graphStore.addNode(n1);
+        n1.setAttribute(col, 1);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testAddComputedColumnNoGraph() {
+        TableImpl<Node> table = new TableImpl<Node>(Node.class, false);
+        table.addComputedColumn("degree", null, Integer.class, new DegreeFunction(), false);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddColumnComputedStorage() {
+        GraphStore graphStore = new GraphStore();
+        graphStore.nodeTable.addColumn("degree", null, Integer.class, Origin.DATA, null, false, ColumnStorage.COMPUTED);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddComputedColumnSourceOtherGraph() {
+        GraphStore graphStore = new GraphStore();
+        Column score = new GraphStore().nodeTable.addColumn("score", Double.class);
+        graphStore.nodeTable.addComputedColumn("degree", null, Integer.class, new DegreeFunction(), false, score);
+    }
+
+    // Utility
+    private static class DegreeFunction implements ColumnFunction {
+
+        @Override
+        public Object compute(Element element, Graph graph) {
+            return graph.getDegree((Node) element);
+        }
+    }
 }
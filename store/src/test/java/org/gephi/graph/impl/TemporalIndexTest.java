@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import org.gephi.graph.api.Interval;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Origin;
+import org.gephi.graph.api.types.IntervalDoubleMap;
+import org.gephi.graph.api.types.TimestampDoubleMap;
+import org.gephi.graph.api.types.TimestampStringMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TemporalIndexTest {
+
+    @Test
+    public void testGetAtTimestamp() {
+        TemporalIndex<Node> index = new TemporalIndex<Node>(newColumn(TimestampStringMap.class), Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        index.add(n1, 1.0, "active");
+        index.add(n1, 2.0, "idle");
+        index.add(n2, 2.0, "active");
+
+        assertElements(index.get("active", new Interval(1.0, 1.0)), n1);
+        assertElements(index.get("active", new Interval(2.0, 2.0)), n2);
+        assertElements(index.get("active", new Interval(1.0, 2.0)), n1, n2);
+        assertElements(index.get("idle", new Interval(3.0, 4.0)));
+        assertElements(index.get("unknown", new Interval(1.0, 2.0)));
+        Assert.assertEquals(index.countValues(), 2);
+    }
+
+    @Test
+    public void testTimeMap() {
+        TemporalIndex<Node> index = new TemporalIndex<Node>(newColumn(TimestampDoubleMap.class), Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        TimestampDoubleMap map = new TimestampDoubleMap();
+        map.put(1.0, 5.0);
+        map.put(2.0, 6.0);
+        index.add(n1, map);
+
+        assertElements(index.get(5.0, new Interval(1.0, 1.0)), n1);
+        assertElements(index.get(6.0, new Interval(1.0, 1.0)));
+
+        index.remove(n1, map);
+        Assert.assertEquals(index.countValues(), 0);
+        index.add(n1, null);
+        index.remove(n1, null);
+        Assert.assertEquals(index.countValues(), 0);
+    }
+
+    @Test
+    public void testIntervals() {
+        TemporalIndex<Node> index = new TemporalIndex<Node>(newColumn(IntervalDoubleMap.class), Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        index.add(n1, new Interval(1.0, 5.0), 1.0);
+        index.add(n2, new Interval(4.0, 8.0), 1.0);
+
+        assertElements(index.get(1.0, new Interval(2.0, 2.0)), n1);
+        assertElements(index.get(1.0, new Interval(4.5, 4.5)), n1, n2);
+        assertElements(index.get(1.0, new Interval(8.0, 10.0)), n2);
+        assertElements(index.get(1.0, new Interval(9.0, 10.0)));
+    }
+
+    @Test
+    public void testGetRange() {
+        TemporalIndex<Node> index = new TemporalIndex<Node>(newColumn(TimestampDoubleMap.class), Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        NodeImpl n3 = new NodeImpl("3");
+        index.add(n1, 1.0, 10.0);
+        index.add(n2, 1.0, 20.0);
+        index.add(n3, 1.0, 30.0);
+        index.add(n3, 2.0, 15.0);
+
+        Interval at1 = new Interval(1.0, 1.0);
+        assertElements(index.getRange(10.0, true, 20.0, true, at1), n1, n2);
+        assertElements(index.getRange(10.0, false, 20.0, false, at1));
+        assertElements(index.getRange(null, false, 25.0, true, at1), n1, n2);
+        assertElements(index.getRange(25.0, true, null, false, at1), n3);
+        assertElements(index.getRange(12.0, true, 18.0, true, new Interval(0.0, 5.0)), n3);
+    }
+
+    @Test
+    public void testRemove() {
+        TemporalIndex<Node> index = new TemporalIndex<Node>(newColumn(TimestampStringMap.class), Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        index.add(n1, 1.0, "active");
+        index.add(n2, 1.0, "active");
+        index.add(n1, 2.0, "active");
+
+        index.remove(n1, 1.0, "active");
+        assertElements(index.get("active", new Interval(1.0, 1.0)), n2);
+        assertElements(index.get("active", new Interval(2.0, 2.0)), n1);
+
+        index.remove(n1, 2.0, "active");
+        index.remove(n2, 1.0, "active");
+        Assert.assertEquals(index.countValues(), 0);
+
+        // Times are reused after removal
+        index.add(n1, 3.0, "active");
+        assertElements(index.get("active", new Interval(0.0, 5.0)), n1);
+    }
+
+    @Test
+    public void testClear() {
+        TemporalIndex<Node> index = new TemporalIndex<Node>(newColumn(TimestampStringMap.class), Node.class);
+        index.add(new NodeImpl("1"), 1.0, "active");
+        index.clear();
+        Assert.assertEquals(index.countValues(), 0);
+        assertElements(index.get("active", new Interval(1.0, 1.0)));
+    }
+
+    private ColumnImpl newColumn(Class type) {
+        return new ColumnImpl("col", type, null, null, Origin.DATA, false, false);
+    }
+
+    private void assertElements(Collection<Node> actual, Node... expected) {
+        Assert.assertEquals(actual.size(), expected.length);
+        Set<Node> expectedSet = new ObjectOpenHashSet<Node>(Arrays.asList(expected));
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(actual), expectedSet);
+    }
+}
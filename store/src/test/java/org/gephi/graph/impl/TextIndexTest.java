@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import org.gephi.graph.api.Node;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TextIndexTest {
+
+    @Test
+    public void testPrefix() {
+        TextIndex<Node> index = new TextIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        NodeImpl n3 = new NodeImpl("3");
+        index.add(n1, "Paris");
+        index.add(n2, "Parma");
+        index.add(n3, "Lyon");
+
+        assertElements(index.getByPrefix("Par", false), n1, n2);
+        assertElements(index.getByPrefix("Pari", false), n1);
+        assertElements(index.getByPrefix("par", false));
+        assertElements(index.getByPrefix("par", true), n1, n2);
+        assertElements(index.getByPrefix("", false), n1, n2, n3);
+        assertElements(index.getByPrefix("Z", false));
+    }
+
+    @Test
+    public void testSubstring() {
+        TextIndex<Node> index = new TextIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        NodeImpl n3 = new NodeImpl("3");
+        index.add(n1, "Gephi Toolkit");
+        index.add(n2, "graph store");
+        index.add(n3, "GraphStore");
+
+        assertElements(index.getBySubstring("Store", false), n3);
+        assertElements(index.getBySubstring("store", true), n2, n3);
+        assertElements(index.getBySubstring("ph", false), n1, n2, n3);
+        assertElements(index.getBySubstring("phi", false), n1);
+        assertElements(index.getBySubstring("xyz", true));
+    }
+
+    @Test
+    public void testSameValue() {
+        TextIndex<Node> index = new TextIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        NodeImpl n2 = new NodeImpl("2");
+        NodeImpl n3 = new NodeImpl("3");
+        index.add(n1, "foo");
+        index.add(n2, "foo");
+        index.add(n3, "Foo");
+        Assert.assertEquals(index.countTerms(), 1);
+        assertElements(index.getBySubstring("oo", true), n1, n2, n3);
+
+        index.remove(n3, "Foo");
+        assertElements(index.getBySubstring("Foo", false));
+        index.remove(n1, "foo");
+        assertElements(index.getBySubstring("foo", false), n2);
+    }
+
+    @Test
+    public void testRemove() {
+        TextIndex<Node> index = new TextIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        index.add(n1, "foobar");
+        index.remove(n1, "foobar");
+        Assert.assertEquals(index.countTerms(), 0);
+        assertElements(index.getByPrefix("foo", false));
+        assertElements(index.getBySubstring("oba", false));
+    }
+
+    @Test
+    public void testNullValue() {
+        TextIndex<Node> index = new TextIndex<Node>(null, Node.class);
+        NodeImpl n1 = new NodeImpl("1");
+        index.add(n1, null);
+        index.remove(n1, null);
+        Assert.assertEquals(index.countTerms(), 0);
+    }
+
+    @Test
+    public void testClear() {
+        TextIndex<Node> index = new TextIndex<Node>(null, Node.class);
+        index.add(new NodeImpl("1"), "foo");
+        index.clear();
+        Assert.assertEquals(index.countTerms(), 0);
+        assertElements(index.getByPrefix("", false));
+    }
+
+    private void assertElements(Collection<Node> actual, Node... expected) {
+        Assert.assertEquals(actual.size(), expected.length);
+        Set<Node> expectedSet = new ObjectOpenHashSet<Node>(Arrays.asList(expected));
+        Assert.assertEquals(new ObjectOpenHashSet<Node>(actual), expectedSet);
+    }
+}
@@ -556,6 +556,73 @@ public class TimestampIndexStoreTest {
         Assert.assertFalse(store.viewIndexes.containsKey(view));
     }
 
+    @Test
+    public void testEvictViewIndex() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        n1.addTimestamp(1.0);
+
+        TimeStore timestampStore = graphStore.timeStore;
+        TimestampIndexStore store = (TimestampIndexStore) timestampStore.nodeIndexStore;
+
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        TimeIndexImpl index = (TimeIndexImpl) store.getIndex(graphStore.viewStore.getGraph(view));
+        for (int i = 0; i < GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_VIEWS; i++) {
+            store.getIndex(graphStore.viewStore.getGraph(graphStore.viewStore.createView()));
+        }
+        Assert.assertTrue(index.evicted);
+        Assert.assertFalse(store.viewIndexes.containsKey(view));
+        Assert.assertEquals(store.viewIndexes.size(), GraphStoreConfiguration.VIEW_INDEX_CACHE_MAX_VIEWS);
+
+        Assert.assertSame(getArrayFromIterable(index.get(1.0))[0], n1);
+        Assert.assertFalse(index.evicted);
+        Assert.assertTrue(store.viewIndexes.containsKey(view));
+    }
+
+    @Test(timeOut = 10000)
+    public void testGetIndexWhileWriting() throws Exception {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        final NodeImpl n1 = graphStore.getNode("1");
+
+        TimeStore timestampStore = graphStore.timeStore;
+        final TimestampIndexStore store = (TimestampIndexStore) timestampStore.nodeIndexStore;
+
+        final Graph[] graphs = new Graph[16];
+        for (int i = 0; i < graphs.length; i++) {
+            GraphViewImpl view = graphStore.viewStore.createView();
+            view.fill();
+            graphs[i] = graphStore.viewStore.getGraph(view);
+            store.getIndex(graphs[i]);
+        }
+
+        // Accessing the cache reorders it while the writer updates the indexes
+        final Throwable[] error = new Throwable[1];
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < 10000; i++) {
+                        store.getIndex(graphs[i % graphs.length]);
+                    }
+                } catch (Throwable t) {
+                    error[0] = t;
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 10000; i++) {
+            n1.addTimestamp(i);
+        }
+        reader.join();
+        Assert.assertNull(error[0]);
+
+        for (Graph graph : graphs) {
+            TimeIndexImpl index = (TimeIndexImpl) store.getIndex(graph);
+            Assert.assertEquals(index.elementCount, 10000);
+        }
+    }
+
     @Test
     public void testIndexWithView() {
         GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
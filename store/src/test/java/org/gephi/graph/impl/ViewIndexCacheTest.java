@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.gephi.graph.api.GraphView;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ViewIndexCacheTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testZeroViews() {
+        new TestCache(0, 10);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        GraphStore graphStore = new GraphStore();
+        GraphView v1 = graphStore.viewStore.createView();
+        GraphView v2 = graphStore.viewStore.createView();
+        GraphView v3 = graphStore.viewStore.createView();
+
+        TestCache cache = new TestCache(2, Long.MAX_VALUE);
+        cache.put(v1, 1);
+        cache.put(v2, 1);
+        cache.access(v1);
+        cache.put(v3, 1);
+
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertTrue(cache.containsKey(v1));
+        Assert.assertFalse(cache.containsKey(v2));
+        Assert.assertTrue(cache.containsKey(v3));
+        Assert.assertEquals(cache.evicted, listOf(v2));
+    }
+
+    @Test
+    public void testGetDoesntTouch() {
+        GraphStore graphStore = new GraphStore();
+        GraphView v1 = graphStore.viewStore.createView();
+        GraphView v2 = graphStore.viewStore.createView();
+        GraphView v3 = graphStore.viewStore.createView();
+
+        TestCache cache = new TestCache(2, Long.MAX_VALUE);
+        cache.put(v1, 1);
+        cache.put(v2, 1);
+        Assert.assertEquals(cache.get(v1), Integer.valueOf(1));
+        cache.put(v3, 1);
+
+        Assert.assertFalse(cache.containsKey(v1));
+        Assert.assertEquals(cache.evicted, listOf(v1));
+    }
+
+    @Test
+    public void testEvictByWeight() {
+        GraphStore graphStore = new GraphStore();
+        GraphView v1 = graphStore.viewStore.createView();
+        GraphView v2 = graphStore.viewStore.createView();
+        GraphView v3 = graphStore.viewStore.createView();
+
+        TestCache cache = new TestCache(10, 10);
+        cache.put(v1, 4);
+        cache.put(v2, 4);
+        Assert.assertEquals(cache.getWeight(), 8);
+        cache.put(v3, 5);
+
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getWeight(), 9);
+        Assert.assertEquals(cache.evicted, listOf(v1));
+    }
+
+    @Test
+    public void testKeepAccessedView() {
+        GraphStore graphStore = new GraphStore();
+        GraphView v1 = graphStore.viewStore.createView();
+        GraphView v2 = graphStore.viewStore.createView();
+
+        TestCache cache = new TestCache(10, 10);
+        cache.put(v1, 4);
+        cache.put(v2, 20);
+
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertTrue(cache.containsKey(v2));
+        Assert.assertEquals(cache.evicted, listOf(v1));
+    }
+
+    @Test
+    public void testPutReplaces() {
+        GraphStore graphStore = new GraphStore();
+        GraphView v1 = graphStore.viewStore.createView();
+
+        TestCache cache = new TestCache(10, 10);
+        cache.put(v1, 1);
+        cache.put(v1, 2);
+
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(cache.get(v1), Integer.valueOf(2));
+        Assert.assertEquals(cache.evicted, listOf(v1));
+    }
+
+    @Test
+    public void testRemove() {
+        GraphStore graphStore = new GraphStore();
+        GraphView v1 = graphStore.viewStore.createView();
+
+        TestCache cache = new TestCache(10, 10);
+        cache.put(v1, 1);
+        Assert.assertEquals(cache.remove(v1), Integer.valueOf(1));
+        Assert.assertTrue(cache.isEmpty());
+        Assert.assertTrue(cache.evicted.isEmpty());
+        Assert.assertNull(cache.access(v1));
+    }
+
+    // UTILITY
+    private static List<GraphView> listOf(GraphView... views) {
+        List<GraphView> list = new ArrayList<GraphView>();
+        for (GraphView view : views) {
+            list.add(view);
+        }
+        return list;
+    }
+
+    private static class TestCache extends ViewIndexCache<Integer> {
+
+        private final List<GraphView> evicted = new ArrayList<GraphView>();
+
+        public TestCache(int maxViews, long maxWeight) {
+            super(maxViews, maxWeight);
+        }
+
+        @Override
+        protected long weigh(Integer index) {
+            return index;
+        }
+
+        @Override
+        protected void evict(GraphView view, Integer index) {
+            evicted.add(view);
+        }
+    }
+}